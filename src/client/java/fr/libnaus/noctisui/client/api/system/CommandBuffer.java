@@ -0,0 +1,261 @@
+package fr.libnaus.noctisui.client.api.system;
+
+import fr.libnaus.noctisui.client.api.system.render.VertexSink;
+import lombok.Getter;
+import org.joml.Matrix4f;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A list of draw commands recorded on any thread and submitted later on the render thread.
+ *
+ * <p>While a buffer is {@link #begin() recording} on a thread, {@link Render2DEngine} and
+ * {@link fr.libnaus.noctisui.client.api.system.render.font.FontAtlas FontAtlas} calls made on that thread are
+ * captured instead of touching GL: positions are transformed on the recording thread and text is expanded into
+ * glyph quads, so {@link #submit()} only uploads vertices and issues draw calls. Commands are stored in compact
+ * primitive arrays that are reused from one recording to the next.</p>
+ *
+ * <p>Recorded geometry assumes the matrix only translates and scales, like the rest of the 2D engine.</p>
+ *
+ * <pre>
+ * {@code
+ * // On a worker thread
+ * buffer.begin();
+ * try {
+ *     component.render(workerContext, mouseX, mouseY, delta);
+ * } finally {
+ *     buffer.end();
+ * }
+ *
+ * // Later, on the render thread
+ * buffer.submit();
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public class CommandBuffer implements VertexSink
+{
+
+    private static final int LINE = 0;
+    private static final int RECT = 1;
+    private static final int ROUNDED_RECT = 2;
+    private static final int ROUNDED_OUTLINE = 3;
+    private static final int GLYPHS = 4;
+    private static final int PUSH_CLIP = 5;
+    private static final int POP_CLIP = 6;
+
+    /** Floats per recorded glyph vertex: x, y, z, u and v. Colors are kept in a parallel array. */
+    static final int VERTEX_STRIDE = 5;
+
+    private static final ThreadLocal<CommandBuffer> CURRENT = new ThreadLocal<>();
+    private static final AtomicInteger RECORDING = new AtomicInteger();
+
+    private int[] ints = new int[ 256 ];
+    private int intCount = 0;
+    private float[] floats = new float[ 512 ];
+    private int floatCount = 0;
+    private float[] vertices = new float[ VERTEX_STRIDE * 256 ];
+    private int[] vertexColors = new int[ 256 ];
+    private int vertexCount = 0;
+
+    @Getter
+    private int commandCount = 0;
+    private int glyphStart = -1;
+
+    /**
+     * @return The buffer recording on the current thread, or {@code null} if draw calls should go to GL.
+     */
+    public static CommandBuffer current()
+    {
+        return RECORDING.get() == 0 ? null : CURRENT.get();
+    }
+
+    /**
+     * @return Whether draw calls made on the current thread are being recorded.
+     */
+    public static boolean isRecording()
+    {
+        return current() != null;
+    }
+
+    /**
+     * Clears this buffer and starts capturing the draw calls made on the current thread.
+     */
+    public void begin()
+    {
+        if (CURRENT.get() != null) throw new IllegalStateException("A command buffer is already recording on this thread");
+
+        clear(); CURRENT.set(this); RECORDING.incrementAndGet();
+    }
+
+    /**
+     * Stops capturing draw calls on the current thread.
+     */
+    public void end()
+    {
+        if (CURRENT.get() != this) throw new IllegalStateException("This command buffer is not recording on this thread");
+
+        CURRENT.remove(); RECORDING.decrementAndGet();
+    }
+
+    /**
+     * Forgets every recorded command, keeping the storage.
+     */
+    public void clear()
+    {
+        intCount = 0; floatCount = 0; vertexCount = 0; commandCount = 0; glyphStart = -1;
+    }
+
+    /**
+     * @return The number of recorded glyph vertices.
+     */
+    public int getVertexCount()
+    {
+        return vertexCount;
+    }
+
+    /**
+     * Replays the recorded commands. Must be called on the render thread, once recording has ended.
+     */
+    public void submit()
+    {
+        Matrix4f identity = Render2DEngine.IDENTITY; int i = 0; int f = 0;
+
+        for (int command = 0; command < commandCount; command++) {
+            switch (ints[ i++ ]) {
+                case LINE -> {
+                    Render2DEngine.line(identity, floats[ f ], floats[ f + 1 ], floats[ f + 2 ], floats[ f + 3 ], floats[ f + 4 ], ints[ i ]);
+                    i += 1; f += 5;
+                }
+                case RECT -> {
+                    Render2DEngine.rect(identity, floats[ f ], floats[ f + 1 ], floats[ f + 2 ], floats[ f + 3 ], ints[ i ]);
+                    i += 1; f += 4;
+                }
+                case ROUNDED_RECT -> {
+                    Render2DEngine.roundedRect(identity, floats[ f ], floats[ f + 1 ], floats[ f + 2 ], floats[ f + 3 ],
+                            floats[ f + 4 ], floats[ f + 5 ], floats[ f + 6 ], floats[ f + 7 ],
+                            ints[ i ], ints[ i + 1 ], ints[ i + 2 ], ints[ i + 3 ]);
+                    i += 4; f += 8;
+                }
+                case ROUNDED_OUTLINE -> {
+                    Render2DEngine.roundedOutline(identity, floats[ f ], floats[ f + 1 ], floats[ f + 2 ], floats[ f + 3 ],
+                            floats[ f + 4 ], floats[ f + 5 ], ints[ i ], ints[ i + 1 ], ints[ i + 2 ], ints[ i + 3 ]);
+                    i += 4; f += 6;
+                }
+                case GLYPHS -> {
+                    Render2DEngine.glyphs(ints[ i ], vertices, vertexColors, ints[ i + 1 ], ints[ i + 2 ]); i += 3;
+                }
+                case PUSH_CLIP -> {
+                    Render2DEngine.pushClip(identity, floats[ f ], floats[ f + 1 ], floats[ f + 2 ], floats[ f + 3 ], floats[ f + 4 ]);
+                    f += 5;
+                }
+                case POP_CLIP -> Render2DEngine.popClip();
+                default -> throw new IllegalStateException("Corrupted command buffer");
+            }
+        }
+    }
+
+    void line(Matrix4f matrix, float x, float y, float x1, float y1, float width, int color)
+    {
+        command(LINE, 1, 5); ints[ intCount++ ] = color;
+        point(matrix, x, y); point(matrix, x1, y1); floats[ floatCount++ ] = width;
+    }
+
+    void rect(Matrix4f matrix, float x1, float y1, float x2, float y2, int color)
+    {
+        command(RECT, 1, 4); ints[ intCount++ ] = color; point(matrix, x1, y1); point(matrix, x2, y2);
+    }
+
+    void roundedRect(Matrix4f matrix, float x1, float y1, float x2, float y2, float topLeft, float topRight,
+                     float bottomLeft, float bottomRight, int color1, int color2, int color3, int color4)
+    {
+        command(ROUNDED_RECT, 4, 8); colors(color1, color2, color3, color4);
+        point(matrix, x1, y1); point(matrix, x2, y2);
+        floats[ floatCount++ ] = topLeft; floats[ floatCount++ ] = topRight;
+        floats[ floatCount++ ] = bottomLeft; floats[ floatCount++ ] = bottomRight;
+    }
+
+    void roundedOutline(Matrix4f matrix, float x1, float y1, float x2, float y2, float radius, float width,
+                        int color1, int color2, int color3, int color4)
+    {
+        command(ROUNDED_OUTLINE, 4, 6); colors(color1, color2, color3, color4);
+        point(matrix, x1, y1); point(matrix, x2, y2);
+        floats[ floatCount++ ] = radius; floats[ floatCount++ ] = width;
+    }
+
+    void pushClip(Matrix4f matrix, float x1, float y1, float x2, float y2, float radius)
+    {
+        command(PUSH_CLIP, 0, 5); point(matrix, x1, y1); point(matrix, x2, y2); floats[ floatCount++ ] = radius;
+    }
+
+    void popClip()
+    {
+        command(POP_CLIP, 0, 0);
+    }
+
+    /**
+     * Starts a run of glyph quads sampling the given atlas. Vertices are then written through the
+     * {@link VertexSink} methods until {@link #endGlyphs()}.
+     *
+     * @param texture The GL id of the atlas texture.
+     */
+    public void beginGlyphs(int texture)
+    {
+        command(GLYPHS, 3, 0); ints[ intCount++ ] = texture; glyphStart = vertexCount;
+    }
+
+    /**
+     * Ends the current run of glyph quads.
+     */
+    public void endGlyphs()
+    {
+        ints[ intCount++ ] = glyphStart; ints[ intCount++ ] = vertexCount - glyphStart; glyphStart = -1;
+    }
+
+    @Override
+    public void vertex(float x, float y, float z, int color)
+    {
+        vertex(x, y, z, 0f, 0f, color);
+    }
+
+    @Override
+    public void vertex(float x, float y, float z, float u, float v, int color)
+    {
+        if (glyphStart < 0) throw new IllegalStateException("Vertices can only be recorded between beginGlyphs and endGlyphs");
+
+        if (vertexCount == vertexColors.length) {
+            vertices = Arrays.copyOf(vertices, vertices.length * 2); vertexColors = Arrays.copyOf(vertexColors, vertexColors.length * 2);
+        }
+
+        int offset = vertexCount * VERTEX_STRIDE;
+        vertices[ offset ] = x; vertices[ offset + 1 ] = y; vertices[ offset + 2 ] = z; vertices[ offset + 3 ] = u;
+        vertices[ offset + 4 ] = v; vertexColors[ vertexCount++ ] = color;
+    }
+
+    private void command(int op, int intArgs, int floatArgs)
+    {
+        if (glyphStart >= 0) throw new IllegalStateException("Unfinished glyph run");
+
+        if (intCount + 1 + intArgs > ints.length) ints = Arrays.copyOf(ints, Math.max(ints.length * 2, intCount + 1 + intArgs));
+        if (floatCount + floatArgs > floats.length) floats = Arrays.copyOf(floats, Math.max(floats.length * 2, floatCount + floatArgs));
+
+        ints[ intCount++ ] = op; commandCount++;
+    }
+
+    private void colors(int color1, int color2, int color3, int color4)
+    {
+        ints[ intCount++ ] = color1; ints[ intCount++ ] = color2; ints[ intCount++ ] = color3; ints[ intCount++ ] = color4;
+    }
+
+    /**
+     * Records a transformed point. Radii and widths are recorded as is: like the immediate path, they are only
+     * scaled by the window scale factor, never by the matrix.
+     */
+    private void point(Matrix4f matrix, float x, float y)
+    {
+        floats[ floatCount++ ] = matrix.m00() * x + matrix.m10() * y + matrix.m30();
+        floats[ floatCount++ ] = matrix.m01() * x + matrix.m11() * y + matrix.m31();
+    }
+}
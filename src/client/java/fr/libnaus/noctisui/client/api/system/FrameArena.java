@@ -0,0 +1,187 @@
+package fr.libnaus.noctisui.client.api.system;
+
+import lombok.Getter;
+import net.minecraft.client.gl.ShaderProgram;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Scratch objects for the render thread, handed out during a frame and all reclaimed at once when the next frame
+ * starts.
+ *
+ * <p>Drawing code borrows vectors, matrices and float arrays from here instead of allocating them, so drawing a
+ * primitive creates no garbage. Pools only grow when a frame borrows more than any frame before it; once the
+ * working set is reached, a frame allocates nothing. Borrowed objects must not be kept across frames, and the
+ * arena must only be used from the render thread.</p>
+ *
+ * <p>Each pool stops growing at a fixed cap and then hands out its objects again from the start. A frame never
+ * gets near it; the cap only keeps the pools bounded when nothing resets the arena, for instance when drawing
+ * outside the game loop.</p>
+ *
+ * <p>The arena also keeps allocation counters: how many objects the pools had to create, and, where the JVM
+ * supports it, how many bytes the whole render thread allocated during the previous game frame.</p>
+ *
+ * <pre>
+ * {@code
+ * Vector3f corner = FrameArena.vec3();
+ * matrices.peek().getPositionMatrix().transformPosition(x, y, 0f, corner);
+ *
+ * // Debug overlay
+ * String stats = FrameArena.getLastFrameThreadAllocatedBytes() + " B/frame, " + FrameArena.getPoolAllocations() + " pooled";
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public final class FrameArena
+{
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_CAPACITY = 4096;
+
+    private static Vector3f[] vectors = new Vector3f[ 0 ];
+    private static int vectorCursor = 0;
+    private static Matrix4f[] matrices = new Matrix4f[ 0 ];
+    private static int matrixCursor = 0;
+    private static float[][] quads = new float[ 0 ][];
+    private static int quadCursor = 0;
+
+    private static final ShaderRef[] shaderRefs = { new ShaderRef(), new ShaderRef(), new ShaderRef(), new ShaderRef() };
+    private static int shaderCursor = 0;
+
+    private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+    private static final boolean BYTES_SUPPORTED = THREAD_BEAN instanceof com.sun.management.ThreadMXBean bean
+            && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled();
+    private static long frameStartBytes = -1;
+
+    /**
+     * The number of objects the pools had to create since startup. Stops increasing once the working set of a
+     * frame is reached.
+     */
+    @Getter
+    private static long poolAllocations = 0;
+    /**
+     * The number of objects borrowed during the previous frame.
+     */
+    @Getter
+    private static int lastFrameBorrowed = 0;
+    /**
+     * The number of bytes the render thread allocated between the last two resets, or -1 if the JVM cannot tell.
+     * This covers the whole game frame, world rendering, vanilla screens and other mods included, so it is an upper
+     * bound of what NoctisUI allocated, not its share.
+     */
+    @Getter
+    private static long lastFrameThreadAllocatedBytes = -1;
+
+    static {
+        growVectors(INITIAL_CAPACITY); growMatrices(INITIAL_CAPACITY / 4); growQuads(INITIAL_CAPACITY);
+    }
+
+    private FrameArena()
+    {
+    }
+
+    /**
+     * Reclaims everything borrowed during the previous frame and samples the allocation counters. Called once per
+     * frame, before anything is rendered.
+     */
+    public static void reset()
+    {
+        lastFrameBorrowed = vectorCursor + matrixCursor + quadCursor;
+        vectorCursor = 0; matrixCursor = 0; quadCursor = 0;
+
+        if (BYTES_SUPPORTED) {
+            long now = ((com.sun.management.ThreadMXBean) THREAD_BEAN).getCurrentThreadAllocatedBytes();
+            if (frameStartBytes >= 0) lastFrameThreadAllocatedBytes = now - frameStartBytes;
+            frameStartBytes = now;
+        }
+    }
+
+    /**
+     * @return A vector valid until the end of the frame. Its content is undefined.
+     */
+    public static Vector3f vec3()
+    {
+        if (vectorCursor == vectors.length) {
+            if (vectors.length < MAX_CAPACITY) growVectors(vectors.length * 2);
+            else vectorCursor = 0;
+        }
+        return vectors[ vectorCursor++ ];
+    }
+
+    /**
+     * @return A matrix valid until the end of the frame. Its content is undefined.
+     */
+    public static Matrix4f mat4()
+    {
+        if (matrixCursor == matrices.length) {
+            if (matrices.length < MAX_CAPACITY / 4) growMatrices(matrices.length * 2);
+            else matrixCursor = 0;
+        }
+        return matrices[ matrixCursor++ ];
+    }
+
+    /**
+     * @return An array of four floats valid until the end of the frame, typically a rectangle. Its content is
+     * undefined.
+     */
+    public static float[] floats4()
+    {
+        if (quadCursor == quads.length) {
+            if (quads.length < MAX_CAPACITY) growQuads(quads.length * 2);
+            else quadCursor = 0;
+        }
+        return quads[ quadCursor++ ];
+    }
+
+    /**
+     * Wraps a shader program in a reusable supplier, for {@code RenderSystem.setShader}, which reads the supplier
+     * immediately on the render thread. Avoids allocating a capturing lambda per draw call.
+     *
+     * @param program The shader program.
+     *
+     * @return A supplier of {@code program}, valid until a few more suppliers are requested.
+     */
+    public static Supplier<ShaderProgram> shader(ShaderProgram program)
+    {
+        ShaderRef ref = shaderRefs[ shaderCursor ]; shaderCursor = (shaderCursor + 1) & (shaderRefs.length - 1);
+        ref.program = program; return ref;
+    }
+
+    private static void growVectors(int capacity)
+    {
+        int previous = vectors.length; vectors = Arrays.copyOf(vectors, capacity);
+        for (int i = previous; i < capacity; i++) vectors[ i ] = new Vector3f();
+        poolAllocations += capacity - previous;
+    }
+
+    private static void growMatrices(int capacity)
+    {
+        int previous = matrices.length; matrices = Arrays.copyOf(matrices, capacity);
+        for (int i = previous; i < capacity; i++) matrices[ i ] = new Matrix4f();
+        poolAllocations += capacity - previous;
+    }
+
+    private static void growQuads(int capacity)
+    {
+        int previous = quads.length; quads = Arrays.copyOf(quads, capacity);
+        for (int i = previous; i < capacity; i++) quads[ i ] = new float[ 4 ];
+        poolAllocations += capacity - previous;
+    }
+
+    private static final class ShaderRef implements Supplier<ShaderProgram>
+    {
+        private ShaderProgram program;
+
+        @Override
+        public ShaderProgram get()
+        {
+            return program;
+        }
+    }
+}
@@ -1,37 +1,84 @@
 package fr.libnaus.noctisui.client.api.system;
 
-import com.mojang.blaze3d.systems.RenderSystem;
+import fr.libnaus.noctisui.client.api.system.render.GlRenderBackend;
+import fr.libnaus.noctisui.client.api.system.render.RenderBackend;
+import fr.libnaus.noctisui.client.api.system.render.VertexSink;
 import fr.libnaus.noctisui.client.common.QuickImports;
 import fr.libnaus.noctisui.client.utils.Color;
 import net.minecraft.client.gl.ShaderProgram;
+import net.minecraft.client.gl.Uniform;
 import net.minecraft.client.render.*;
 import net.minecraft.client.util.math.MatrixStack;
-import net.minecraft.resource.ResourceManager;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
-import org.lwjgl.opengl.GL11;
+
+import java.util.Arrays;
 
 public class Render2DEngine implements QuickImports
 {
 
+    /** Framebuffer-space clip rectangles as (x0, y0, x1, y1) quadruples, innermost last. */
+    private static int[] clipStack = new int[ 4 * 16 ];
+    /** Rounded clip of each level as (x0, y0, x1, y1, radius), a radius of 0 meaning no rounded clip. */
+    private static float[] roundStack = new float[ 5 * 16 ];
+    private static int clipDepth = 0;
+
+    private static final int[] appliedScissor = new int[ 4 ];
+    private static boolean scissorApplied = false;
+
+    /** Replays recorded commands, whose positions are already transformed. Never modified. */
+    static final Matrix4f IDENTITY = new Matrix4f();
+
+    private static RenderBackend backend = new GlRenderBackend();
+
+    /**
+     * @return The backend receiving the draw calls, state changes and clips of the engine.
+     */
+    public static RenderBackend getBackend()
+    {
+        return backend;
+    }
+
+    /**
+     * Sends the draw calls, state changes and clips of the engine and of the fonts to another backend, such as a
+     * {@link fr.libnaus.noctisui.client.api.system.render.RecordingRenderBackend RecordingRenderBackend} to render
+     * headless. Must be called on the render thread, with no clip pushed.
+     *
+     * @param backend The new backend.
+     *
+     * @return The previous backend, to restore once done.
+     */
+    public static RenderBackend setBackend(RenderBackend backend)
+    {
+        if (clipDepth != 0) throw new IllegalStateException("Cannot change the render backend while a clip is pushed");
+
+        RenderBackend previous = Render2DEngine.backend; Render2DEngine.backend = backend; return previous;
+    }
+
     public static void drawLine(MatrixStack matrices, float x, float y, float x1, float y1, float width, Color color)
     {
-        float r = color.getRed() / 255f; float g = color.getGreen() / 255f; float b = color.getBlue() / 255f;
-        float a = color.getAlpha() / 255f;
+        drawLine(matrices, x, y, x1, y1, width, color.getRGB());
+    }
+
+    public static void drawLine(MatrixStack matrices, float x, float y, float x1, float y1, float width, int color)
+    {
+        Matrix4f matrix = matrices.peek().getPositionMatrix(); CommandBuffer recorder = CommandBuffer.current();
 
-        BufferBuilder bufferBuilder = Tessellator.getInstance().getBuffer();
-        bufferBuilder.begin(VertexFormat.DrawMode.DEBUG_LINES, VertexFormats.POSITION_COLOR);
-        bufferBuilder.vertex(matrices.peek().getPositionMatrix(), x, y, 0f).color(r, g, b, a).next();
-        bufferBuilder.vertex(matrices.peek().getPositionMatrix(), x1, y1, 0f).color(r, g, b, a).next();
+        if (recorder != null) recorder.line(matrix, x, y, x1, y1, width, color);
+        else line(matrix, x, y, x1, y1, width, color);
+    }
 
-        RenderSystem.lineWidth(width); RenderSystem.disableCull(); RenderSystem.enableBlend();
-        RenderSystem.defaultBlendFunc(); RenderSystem.setShaderColor(1f, 1f, 1f, 1f);
-        RenderSystem.setShader(GameRenderer::getPositionColorProgram);
-        BufferRenderer.drawWithGlobalProgram(bufferBuilder.end()); RenderSystem.enableCull();
-        RenderSystem.depthFunc(GL11.GL_LEQUAL);
+    static void line(Matrix4f matrix, float x, float y, float x1, float y1, float width, int color)
+    {
+        backend.line(matrix, x, y, x1, y1, width, color);
     }
 
     public static void drawOutline(MatrixStack matrices, float x, float y, float width, float height, Color color)
+    {
+        drawOutline(matrices, x, y, width, height, color.getRGB());
+    }
+
+    public static void drawOutline(MatrixStack matrices, float x, float y, float width, float height, int color)
     {
         drawLine(matrices, x, y, x + width, y, 1, color);
         drawLine(matrices, x + width, y, x + width, y + height, 1, color);
@@ -41,24 +88,48 @@ public class Render2DEngine implements QuickImports
 
     public static void drawRoundedOutline(MatrixStack matrices, float x1, float y1, float x2, float y2, float radius,
                                           float width, Color color)
+    {
+        drawRoundedOutline(matrices, x1, y1, x2, y2, radius, width, color.getRGB());
+    }
+
+    public static void drawRoundedOutline(MatrixStack matrices, float x1, float y1, float x2, float y2, float radius,
+                                          float width, int color)
     {
         drawRoundedOutline(matrices, x1, y1, x2, y2, radius, width, color, color, color, color);
     }
 
     public static void drawOutlinedGradient(MatrixStack matrices, float x1, float y1, float x2, float y2, float radius,
                                             float width, Color color1, Color color2)
+    {
+        drawOutlinedGradient(matrices, x1, y1, x2, y2, radius, width, color1.getRGB(), color2.getRGB());
+    }
+
+    public static void drawOutlinedGradient(MatrixStack matrices, float x1, float y1, float x2, float y2, float radius,
+                                            float width, int color1, int color2)
     {
         drawRoundedOutline(matrices, x1, y1, x2, y2, radius, width, color1, color1, color2, color2);
     }
 
     public static void drawOutlinedVerticalGradient(MatrixStack matrices, float x1, float y1, float x2, float y2,
                                                     float radius, float width, Color color1, Color color2)
+    {
+        drawOutlinedVerticalGradient(matrices, x1, y1, x2, y2, radius, width, color1.getRGB(), color2.getRGB());
+    }
+
+    public static void drawOutlinedVerticalGradient(MatrixStack matrices, float x1, float y1, float x2, float y2,
+                                                    float radius, float width, int color1, int color2)
     {
         drawRoundedOutline(matrices, x1, y1, x2, y2, radius, width, color2, color1, color2, color1);
     }
 
     public static void drawOutline(MatrixStack matrices, float x1, float y1, float x2, float y2, float width,
                                    Color color)
+    {
+        drawOutline(matrices, x1, y1, x2, y2, width, color.getRGB());
+    }
+
+    public static void drawOutline(MatrixStack matrices, float x1, float y1, float x2, float y2, float width,
+                                   int color)
     {
         drawLine(matrices, x1, y1, x1 + x2, y1, width, color);
         drawLine(matrices, x1 + x2, y1, x1 + x2, y1 + y2, width, color);
@@ -69,64 +140,72 @@ public class Render2DEngine implements QuickImports
     public static void drawRoundedOutline(MatrixStack matrices, float x1, float y1, float x2, float y2, float radius,
                                           float width, Color color1, Color color2, Color color3, Color color4)
     {
-        if (Shaders.ROUNDED_OUTLINE == null) {
-            ResourceManager manager = mc.getResourceManager(); Shaders.load();
-        }
-
-        x2 = x1 + x2; y2 = y1 + y2;
-
-        ShaderProgram shaderProg = Shaders.ROUNDED_OUTLINE;
-        if (shaderProg == null) throw new IllegalStateException("Shader program is not available.");
-
-        float scaleFactor = (float) mc.getWindow().getScaleFactor(); int windowHeight = mc.getWindow().getHeight();
+        drawRoundedOutline(matrices, x1, y1, x2, y2, radius, width, color1.getRGB(), color2.getRGB(), color3.getRGB(), color4.getRGB());
+    }
 
-        Vector3f start = transformPosition(matrices, x1, y1, 0f);
-        Vector3f end = transformPosition(matrices, x2, y2, 0f);
+    public static void drawRoundedOutline(MatrixStack matrices, float x1, float y1, float x2, float y2, float radius,
+                                          float width, int color1, int color2, int color3, int color4)
+    {
+        Matrix4f matrix = matrices.peek().getPositionMatrix(); CommandBuffer recorder = CommandBuffer.current();
 
-        float[] actualCoords = getActualCoordinates(start, end, scaleFactor, windowHeight);
+        if (recorder != null) recorder.roundedOutline(matrix, x1, y1, x1 + x2, y1 + y2, radius, width, color1, color2, color3, color4);
+        else roundedOutline(matrix, x1, y1, x1 + x2, y1 + y2, radius, width, color1, color2, color3, color4);
+    }
 
-        Tessellator tessellator = Tessellator.getInstance(); BufferBuilder buffer = tessellator.getBuffer();
-        buffer.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_COLOR);
+    /**
+     * Draws a rounded outline between two corners, expressed in the space of {@code matrix}.
+     */
+    static void roundedOutline(Matrix4f matrix, float x1, float y1, float x2, float y2, float radius, float width,
+                               int color1, int color2, int color3, int color4)
+    {
+        backend.roundedOutline(matrix, x1, y1, x2, y2, radius, width, color1, color2, color3, color4);
+    }
 
-        prepareBuffer(buffer, matrices.peek().getPositionMatrix(), x1, y1, x2, y2, 0f, color1);
+    public static void drawRect(MatrixStack matrices, float x, float y, float width, float height, Color color)
+    {
+        drawRect(matrices, x, y, width, height, color.getRGB());
+    }
 
-        shaderProg.getUniform("Radius").set(radius * scaleFactor);
-        shaderProg.getUniform("Bounds").set(actualCoords[ 0 ] + 1, actualCoords[ 3 ] + 1, actualCoords[ 2 ] - 1, actualCoords[ 1 ] - 1);
-        shaderProg.getUniform("Smoothness").set(2f); shaderProg.getUniform("StrokeWidth").set(width);
-        shaderProg.getUniform("color1").set(color1.getRed() / 255f, color1.getGreen() / 255f, color1.getBlue() / 255f, color1.getAlpha() / 255f);
-        shaderProg.getUniform("color2").set(color2.getRed() / 255f, color2.getGreen() / 255f, color2.getBlue() / 255f, color2.getAlpha() / 255f);
-        shaderProg.getUniform("color3").set(color3.getRed() / 255f, color3.getGreen() / 255f, color3.getBlue() / 255f, color3.getAlpha() / 255f);
-        shaderProg.getUniform("color4").set(color4.getRed() / 255f, color4.getGreen() / 255f, color4.getBlue() / 255f, color4.getAlpha() / 255f);
+    public static void drawRect(MatrixStack matrices, float x, float y, float width, float height, int color)
+    {
+        Matrix4f matrix = matrices.peek().getPositionMatrix(); CommandBuffer recorder = CommandBuffer.current();
 
-        renderShape(buffer, Shaders.ROUNDED_OUTLINE);
+        if (recorder != null) recorder.rect(matrix, x, y, x + width, y + height, color);
+        else rect(matrix, x, y, x + width, y + height, color);
     }
 
-    public static void drawRect(MatrixStack matrices, float x, float y, float width, float height, Color color)
+    /**
+     * Fills the rectangle between two corners, expressed in the space of {@code matrix}.
+     */
+    static void rect(Matrix4f matrix, float x1, float y1, float x2, float y2, int color)
     {
-        float r = color.getRed() / 255f; float g = color.getGreen() / 255f; float b = color.getBlue() / 255f;
-        float a = color.getAlpha() / 255f;
-
-        BufferBuilder bufferBuilder = Tessellator.getInstance().getBuffer();
-        bufferBuilder.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_COLOR);
-        bufferBuilder.vertex(matrices.peek().getPositionMatrix(), x, y + height, 0f).color(r, g, b, a).next();
-        bufferBuilder.vertex(matrices.peek().getPositionMatrix(), x + width, y + height, 0f).color(r, g, b, a).next();
-        bufferBuilder.vertex(matrices.peek().getPositionMatrix(), x + width, y, 0f).color(r, g, b, a).next();
-        bufferBuilder.vertex(matrices.peek().getPositionMatrix(), x, y, 0f).color(r, g, b, a).next();
+        if (hasRoundedClip()) {
+            roundedRect(matrix, x1, y1, x2, y2, 0f, 0f, 0f, 0f, color, color, color, color); return;
+        }
 
-        RenderSystem.disableCull(); RenderSystem.enableBlend(); RenderSystem.defaultBlendFunc();
-        RenderSystem.setShaderColor(1f, 1f, 1f, 1f); RenderSystem.setShader(GameRenderer::getPositionColorProgram);
-        BufferRenderer.drawWithGlobalProgram(bufferBuilder.end()); RenderSystem.disableBlend();
-        RenderSystem.enableCull(); RenderSystem.depthFunc(GL11.GL_LEQUAL);
+        backend.rect(matrix, x1, y1, x2, y2, color);
     }
 
     public static void drawRoundedRect(MatrixStack matrices, float x1, float y1, float x2, float y2, float radius,
                                        Color color)
     {
-        drawRoundedRect(matrices, x1, y1, x2, y2, radius, color, color, color, color);
+        drawRoundedRect(matrices, x1, y1, x2, y2, radius, color.getRGB());
+    }
+
+    public static void drawRoundedRect(MatrixStack matrices, float x1, float y1, float x2, float y2, float radius,
+                                       int color)
+    {
+        drawRoundedRect(matrices, x1, y1, x2, y2, radius, radius, radius, radius, color, color, color, color);
     }
 
     public static void drawRoundedRect(MatrixStack matrices, float x1, float y1, float x2, float y2, float topLeft,
                                        float topRight, float bottomLeft, float bottomRight, Color color)
+    {
+        drawRoundedRect(matrices, x1, y1, x2, y2, topLeft, topRight, bottomLeft, bottomRight, color.getRGB());
+    }
+
+    public static void drawRoundedRect(MatrixStack matrices, float x1, float y1, float x2, float y2, float topLeft,
+                                       float topRight, float bottomLeft, float bottomRight, int color)
     {
         drawRoundedRect(matrices, x1, y1, x2, y2, topLeft, topRight, bottomLeft, bottomRight, color, color, color, color);
     }
@@ -134,83 +213,245 @@ public class Render2DEngine implements QuickImports
     public static void drawRoundedRect(MatrixStack matrices, float x1, float y1, float x2, float y2, float radius,
                                        Color color1, Color color2, Color color3, Color color4)
     {
-        drawRoundedRect(matrices, x1, y1, x2, y2, radius, radius, radius, radius, color1, color2, color3, color4);
+        drawRoundedRect(matrices, x1, y1, x2, y2, radius, radius, radius, radius, color1.getRGB(), color2.getRGB(), color3.getRGB(), color4.getRGB());
     }
 
     public static void drawRoundedRect(MatrixStack matrices, float x1, float y1, float x2, float y2, float topLeft,
                                        float topRight, float bottomLeft, float bottomRight, Color color1, Color color2,
                                        Color color3, Color color4)
     {
-        if (Shaders.ROUNDED_RECT == null) {
-            Shaders.load();
-        }
+        drawRoundedRect(matrices, x1, y1, x2, y2, topLeft, topRight, bottomLeft, bottomRight, color1.getRGB(), color2.getRGB(), color3.getRGB(), color4.getRGB());
+    }
+
+    public static void drawRoundedRect(MatrixStack matrices, float x1, float y1, float x2, float y2, float topLeft,
+                                       float topRight, float bottomLeft, float bottomRight, int color1, int color2,
+                                       int color3, int color4)
+    {
+        Matrix4f matrix = matrices.peek().getPositionMatrix(); CommandBuffer recorder = CommandBuffer.current();
+
+        if (recorder != null)
+            recorder.roundedRect(matrix, x1, y1, x1 + x2, y1 + y2, topLeft, topRight, bottomLeft, bottomRight, color1, color2, color3, color4);
+        else roundedRect(matrix, x1, y1, x1 + x2, y1 + y2, topLeft, topRight, bottomLeft, bottomRight, color1, color2, color3, color4);
+    }
+
+    /**
+     * Fills a rounded rectangle between two corners, expressed in the space of {@code matrix}.
+     */
+    static void roundedRect(Matrix4f matrix, float x1, float y1, float x2, float y2, float topLeft, float topRight,
+                            float bottomLeft, float bottomRight, int color1, int color2, int color3, int color4)
+    {
+        backend.roundedRect(matrix, x1, y1, x2, y2, topLeft, topRight, bottomLeft, bottomRight, color1, color2, color3, color4);
+    }
 
-        x2 = x1 + x2; y2 = y1 + y2;
+    /**
+     * Restricts rendering to the given rectangle, expressed in the current matrix space.
+     * Clips nest: the effective clip is the intersection with the enclosing clips, and each call must be
+     * matched by a {@link #popClip()}.
+     *
+     * <pre>
+     * {@code
+     * Render2DEngine.pushClip(matrices, 0, 0, width, height);
+     * renderContent(matrices);
+     * Render2DEngine.popClip();
+     * }
+     * </pre>
+     *
+     * @param matrices The current {@link MatrixStack}.
+     * @param x        The X coordinate of the clip rectangle.
+     * @param y        The Y coordinate of the clip rectangle.
+     * @param width    The width of the clip rectangle.
+     * @param height   The height of the clip rectangle.
+     */
+    public static void pushClip(MatrixStack matrices, float x, float y, float width, float height)
+    {
+        pushClip(matrices, x, y, width, height, 0f);
+    }
 
-        float scaleFactor = (float) mc.getWindow().getScaleFactor(); int windowHeight = mc.getWindow().getHeight();
+    /**
+     * Restricts rendering to a rounded rectangle, expressed in the current matrix space.
+     * The bounding rectangle is clipped with the scissor test and the corners are cut by the NoctisUI shaders
+     * (rounded shapes, outlines and text), so rounded cards can clip their content without a stencil pass.
+     * Nested rounded clips only keep the corners of the innermost one.
+     *
+     * @param matrices The current {@link MatrixStack}.
+     * @param x        The X coordinate of the clip rectangle.
+     * @param y        The Y coordinate of the clip rectangle.
+     * @param width    The width of the clip rectangle.
+     * @param height   The height of the clip rectangle.
+     * @param radius   The corner radius.
+     */
+    public static void pushRoundedClip(MatrixStack matrices, float x, float y, float width, float height, float radius)
+    {
+        pushClip(matrices, x, y, width, height, Math.max(0f, radius));
+    }
 
-        ShaderProgram shaderProg = Shaders.ROUNDED_RECT;
-        if (shaderProg == null) throw new IllegalStateException("Shader program is not available.");
+    /**
+     * Removes the innermost clip and restores the enclosing one, if any.
+     */
+    public static void popClip()
+    {
+        CommandBuffer recorder = CommandBuffer.current();
+        if (recorder != null) {
+            recorder.popClip(); return;
+        }
 
-        Vector3f start = transformPosition(matrices, x1, y1, 0f);
-        Vector3f end = transformPosition(matrices, x2, y2, 0f);
+        if (clipDepth > 0) {
+            clipDepth--; backend.popClip();
+        } applyClip();
+    }
 
-        float[] actualCoords = getActualCoordinates(start, end, scaleFactor, windowHeight);
+    /**
+     * @return The number of clips currently pushed.
+     */
+    public static int getClipDepth()
+    {
+        return clipDepth;
+    }
 
-        Tessellator tessellator = Tessellator.getInstance(); BufferBuilder buffer = tessellator.getBuffer();
-        buffer.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_COLOR);
-        prepareBuffer(buffer, matrices.peek().getPositionMatrix(), x1, y1, x2, y2, 0f, color1);
+    /**
+     * Uploads the rounded clip of the innermost clip to a shader declaring the {@code ClipRect} and
+     * {@code ClipRadius} uniforms. Must be called before drawing with one of the NoctisUI shaders.
+     *
+     * @param program The shader about to be used.
+     */
+    public static void applyClipUniforms(ShaderProgram program)
+    {
+        Uniform rect = program.getUniform("ClipRect"); Uniform radius = program.getUniform("ClipRadius");
+        if (rect == null || radius == null) return;
 
-        shaderProg.getUniform("RadiusTopLeft").set(topLeft * scaleFactor);
-        shaderProg.getUniform("RadiusTopRight").set(topRight * scaleFactor);
-        shaderProg.getUniform("RadiusBottomLeft").set(bottomLeft * scaleFactor);
-        shaderProg.getUniform("RadiusBottomRight").set(bottomRight * scaleFactor);
-        shaderProg.getUniform("Bounds").set(actualCoords[ 0 ], actualCoords[ 3 ], actualCoords[ 2 ], actualCoords[ 1 ]);
-        shaderProg.getUniform("Smoothness").set(2f);
-        shaderProg.getUniform("color1").set(color1.getRed() / 255f, color1.getGreen() / 255f, color1.getBlue() / 255f, color1.getAlpha() / 255f);
-        shaderProg.getUniform("color2").set(color2.getRed() / 255f, color2.getGreen() / 255f, color2.getBlue() / 255f, color2.getAlpha() / 255f);
-        shaderProg.getUniform("color3").set(color3.getRed() / 255f, color3.getGreen() / 255f, color3.getBlue() / 255f, color3.getAlpha() / 255f);
-        shaderProg.getUniform("color4").set(color4.getRed() / 255f, color4.getGreen() / 255f, color4.getBlue() / 255f, color4.getAlpha() / 255f);
+        int top = (clipDepth - 1) * 5;
+        if (clipDepth == 0 || roundStack[ top + 4 ] <= 0f) {
+            radius.set(0f); return;
+        }
 
-        renderShape(buffer, shaderProg);
+        rect.set(roundStack[ top ], roundStack[ top + 1 ], roundStack[ top + 2 ], roundStack[ top + 3 ]);
+        radius.set(roundStack[ top + 4 ]);
     }
 
-    private static Vector3f transformPosition(MatrixStack matrices, float x, float y, float z)
+    private static boolean hasRoundedClip()
     {
-        Matrix4f positionMatrix = matrices.peek().getPositionMatrix();
-        return positionMatrix.transformPosition(x, y, z, new Vector3f());
+        return clipDepth > 0 && roundStack[ (clipDepth - 1) * 5 + 4 ] > 0f;
     }
 
-    public static void prepareBuffer(BufferBuilder buffer, Matrix4f positionMatrix, float x1, float y1, float x2,
-                                     float y2, float z, Color color)
+    private static void pushClip(MatrixStack matrices, float x, float y, float width, float height, float radius)
     {
-        buffer.vertex(positionMatrix, x1, y1, z).color(color.getRed() / 255f, color.getGreen() / 255f, color.getBlue() / 255f, color.getAlpha() / 255f).next();
-        buffer.vertex(positionMatrix, x1, y2, z).color(color.getRed() / 255f, color.getGreen() / 255f, color.getBlue() / 255f, color.getAlpha() / 255f).next();
-        buffer.vertex(positionMatrix, x2, y2, z).color(color.getRed() / 255f, color.getGreen() / 255f, color.getBlue() / 255f, color.getAlpha() / 255f).next();
-        buffer.vertex(positionMatrix, x2, y1, z).color(color.getRed() / 255f, color.getGreen() / 255f, color.getBlue() / 255f, color.getAlpha() / 255f).next();
+        Matrix4f matrix = matrices.peek().getPositionMatrix(); CommandBuffer recorder = CommandBuffer.current();
+
+        if (recorder != null) recorder.pushClip(matrix, x, y, x + width, y + height, radius);
+        else pushClip(matrix, x, y, x + width, y + height, radius);
+    }
+
+    /**
+     * Pushes the clip between two corners, expressed in the space of {@code matrix}.
+     */
+    static void pushClip(Matrix4f matrix, float minX, float minY, float maxX, float maxY, float radius)
+    {
+        Vector3f start = matrix.transformPosition(minX, minY, 0f, FrameArena.vec3());
+        Vector3f end = matrix.transformPosition(maxX, maxY, 0f, FrameArena.vec3());
+
+        float scale = backend.getScaleFactor(); int framebufferHeight = backend.getFramebufferHeight();
+
+        float left = start.x * scale; float right = end.x * scale;
+        float bottom = framebufferHeight - end.y * scale; float top = framebufferHeight - start.y * scale;
+
+        int x0 = (int) Math.floor(left); int y0 = (int) Math.floor(bottom);
+        int x1 = (int) Math.ceil(right); int y1 = (int) Math.ceil(top);
+
+        if (clipDepth > 0) {
+            int parent = (clipDepth - 1) * 4;
+            x0 = Math.max(x0, clipStack[ parent ]); y0 = Math.max(y0, clipStack[ parent + 1 ]);
+            x1 = Math.min(x1, clipStack[ parent + 2 ]); y1 = Math.min(y1, clipStack[ parent + 3 ]);
+        }
+
+        if (clipStack.length < (clipDepth + 1) * 4) {
+            clipStack = Arrays.copyOf(clipStack, clipStack.length * 2); roundStack = Arrays.copyOf(roundStack, roundStack.length * 2);
+        }
+
+        int slot = clipDepth * 4;
+        clipStack[ slot ] = x0; clipStack[ slot + 1 ] = y0;
+        clipStack[ slot + 2 ] = Math.max(x0, x1); clipStack[ slot + 3 ] = Math.max(y0, y1);
+
+        int round = clipDepth * 5;
+        if (radius > 0f) {
+            roundStack[ round ] = left; roundStack[ round + 1 ] = bottom; roundStack[ round + 2 ] = right;
+            roundStack[ round + 3 ] = top; roundStack[ round + 4 ] = radius * scale;
+        }
+        else if (clipDepth > 0) System.arraycopy(roundStack, round - 5, roundStack, round, 5);
+        else roundStack[ round + 4 ] = 0f;
+
+        backend.pushClip(clipStack[ slot ], clipStack[ slot + 1 ], clipStack[ slot + 2 ], clipStack[ slot + 3 ], roundStack[ round + 4 ]);
+        clipDepth++; applyClip();
     }
 
-    private static void renderShape(BufferBuilder buffer, ShaderProgram shaderProgram)
+    /**
+     * Applies the innermost clip rectangle to the scissor state. The GL state is only touched when the
+     * rectangle actually differs from the one already applied, so pushing a clip identical to its parent or
+     * popping back to the same rectangle does not split draw calls.
+     */
+    private static void applyClip()
     {
-        RenderSystem.disableDepthTest();
+        if (clipDepth == 0) {
+            if (scissorApplied) {
+                backend.disableScissor(); scissorApplied = false;
+            } return;
+        }
 
-        ShaderProgram last = RenderSystem.getShader(); RenderSystem.setShader(() -> shaderProgram);
+        int top = (clipDepth - 1) * 4;
+        int x = clipStack[ top ], y = clipStack[ top + 1 ];
+        int width = clipStack[ top + 2 ] - x, height = clipStack[ top + 3 ] - y;
 
-        RenderSystem.enableBlend(); RenderSystem.defaultBlendFunc();
+        if (scissorApplied && x == appliedScissor[ 0 ] && y == appliedScissor[ 1 ] && width == appliedScissor[ 2 ] && height == appliedScissor[ 3 ])
+            return;
+
+        backend.scissor(x, y, width, height); scissorApplied = true;
+        appliedScissor[ 0 ] = x; appliedScissor[ 1 ] = y; appliedScissor[ 2 ] = width; appliedScissor[ 3 ] = height;
+    }
 
-        RenderSystem.setShaderColor(1f, 1f, 1f, 1f); BufferRenderer.drawWithGlobalProgram(buffer.end());
+    public static void prepareBuffer(BufferBuilder buffer, Matrix4f positionMatrix, float x1, float y1, float x2,
+                                     float y2, float z, Color color)
+    {
+        prepareBuffer(buffer, positionMatrix, x1, y1, x2, y2, z, color.getRGB());
+    }
 
-        RenderSystem.disableBlend();
+    public static void prepareBuffer(BufferBuilder buffer, Matrix4f positionMatrix, float x1, float y1, float x2,
+                                     float y2, float z, int color)
+    {
+        int r = Color.red(color); int g = Color.green(color); int b = Color.blue(color); int a = Color.alpha(color);
 
-        RenderSystem.setShader(() -> last);
+        buffer.vertex(positionMatrix, x1, y1, z).color(r, g, b, a).next();
+        buffer.vertex(positionMatrix, x1, y2, z).color(r, g, b, a).next();
+        buffer.vertex(positionMatrix, x2, y2, z).color(r, g, b, a).next();
+        buffer.vertex(positionMatrix, x2, y1, z).color(r, g, b, a).next();
+    }
 
-        RenderSystem.enableDepthTest();
+    /**
+     * Writes the four position-color vertices of a rectangle to a sink, transformed by the matrix on the CPU.
+     */
+    public static void prepareBuffer(VertexSink sink, Matrix4f positionMatrix, float x1, float y1, float x2, float y2,
+                                     float z, int color)
+    {
+        sink.vertex(positionMatrix, x1, y1, z, color); sink.vertex(positionMatrix, x1, y2, z, color);
+        sink.vertex(positionMatrix, x2, y2, z, color); sink.vertex(positionMatrix, x2, y1, z, color);
     }
 
-    private static float[] getActualCoordinates(Vector3f start, Vector3f end, float scaleFactor, int windowHeight)
+    /**
+     * Draws recorded glyph quads with the MSDF shader.
+     *
+     * @param texture The GL id of the font atlas.
+     * @param vertices The vertex positions and texture coordinates, {@link CommandBuffer#VERTEX_STRIDE} floats each.
+     * @param colors   The packed ARGB color of each vertex.
+     * @param start    The first vertex.
+     * @param count    The number of vertices.
+     */
+    static void glyphs(int texture, float[] vertices, int[] colors, int start, int count)
     {
-        float actualX1 = start.x * scaleFactor; float actualX2 = end.x * scaleFactor;
-        float actualY1 = windowHeight - start.y * scaleFactor; float actualY2 = windowHeight - end.y * scaleFactor;
-        return new float[]{ actualX1, actualY1, actualX2, actualY2 };
+        if (count == 0) return;
+
+        VertexSink sink = backend.beginGlyphs(texture); if (sink == null) return;
+
+        for (int vertex = start, end = start + count; vertex < end; vertex++) {
+            int offset = vertex * CommandBuffer.VERTEX_STRIDE;
+            sink.vertex(vertices[ offset ], vertices[ offset + 1 ], vertices[ offset + 2 ], vertices[ offset + 3 ], vertices[ offset + 4 ], colors[ vertex ]);
+        } backend.endGlyphs();
     }
 }
@@ -0,0 +1,339 @@
+package fr.libnaus.noctisui.client.api.system.animation;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * A pool of float animations stored in parallel primitive arrays.
+ *
+ * <p>Two kinds of animations are supported: tweens, going from one value to another over a duration with an
+ * {@link Easing} curve, and critically damped springs, following a target as fast as possible without
+ * overshooting. Animations are referred to by an {@code int} handle; handles of released animations become
+ * stale and are ignored, so a handle cannot accidentally drive an animation that reused its slot.</p>
+ *
+ * <p>Only running animations are visited by {@link #tick(float)}: an animation that reached its target leaves
+ * the active list and costs nothing until it is given a new target. Ticking never allocates.</p>
+ *
+ * <pre>
+ * {@code
+ * Animator animator = Animator.getGlobal();
+ * int fade = animator.tween(0f, 1f, 0.3f, Easing.CUBIC_OUT);
+ * int offset = animator.spring(0f, 120f, 18f);
+ *
+ * // In render()
+ * float alpha = animator.get(fade);
+ * animator.setTarget(offset, newOffset);
+ *
+ * // When the owner goes away
+ * animator.release(fade); animator.release(offset);
+ * }
+ * </pre>
+ *
+ * @author axeno
+ * @see FrameClock
+ * @see Timeline
+ */
+public class Animator
+{
+
+    private static final byte FREE = -1;
+    private static final byte TWEEN = 0;
+    private static final byte SPRING = 1;
+
+    private static final int SLOT_BITS = 20;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int GENERATION_MASK = (1 << (32 - SLOT_BITS)) - 1;
+
+    /** Springs closer than this to their target, and slower than this, are considered settled. */
+    private static final float SPRING_EPSILON = 0.001f;
+
+    @Getter
+    private static final Animator global = new Animator(256);
+
+    private float[] value;
+    private float[] velocity;
+    private float[] from;
+    private float[] to;
+    /** Elapsed time of tweens, in seconds. Negative while a delay is pending. */
+    private float[] elapsed;
+    /** Duration of tweens, or angular frequency of springs. */
+    private float[] duration;
+    private byte[] kind;
+    private byte[] easing;
+    private int[] generation;
+    /** Position of each slot in {@link #active}, or -1 if the slot is settled or free. */
+    private int[] activeIndex;
+
+    private int[] active;
+    @Getter
+    private int activeCount = 0;
+
+    private int[] free;
+    private int freeCount = 0;
+    private int capacity = 0;
+    @Getter
+    private int size = 0;
+
+    /**
+     * Creates a new animator. A component can own a small one for its own animations and tick it while rendering,
+     * so they are thread-confined to whichever thread renders the component and go away with it.
+     *
+     * @param initialCapacity The number of animations allocated up front, the pool grows when needed.
+     */
+    public Animator(int initialCapacity)
+    {
+        grow(Math.max(1, initialCapacity));
+    }
+
+    /**
+     * Starts a tween.
+     *
+     * @param from     The start value.
+     * @param to       The end value.
+     * @param duration The duration, in seconds.
+     * @param easing   The easing curve.
+     *
+     * @return The handle of the animation.
+     */
+    public int tween(float from, float to, float duration, Easing easing)
+    {
+        return tween(from, to, duration, easing, 0f);
+    }
+
+    /**
+     * Starts a tween after a delay. The value stays at {@code from} during the delay.
+     *
+     * @param from     The start value.
+     * @param to       The end value.
+     * @param duration The duration, in seconds.
+     * @param easing   The easing curve.
+     * @param delay    The delay before the tween starts, in seconds.
+     *
+     * @return The handle of the animation.
+     */
+    public int tween(float from, float to, float duration, Easing easing, float delay)
+    {
+        int slot = allocate(TWEEN);
+        this.easing[ slot ] = (byte) easing.ordinal(); this.duration[ slot ] = Math.max(0.0001f, duration);
+        restartSlot(slot, from, to, delay); return handle(slot);
+    }
+
+    /**
+     * Starts a critically damped spring.
+     *
+     * @param value     The current value.
+     * @param target    The value to reach.
+     * @param frequency The stiffness of the spring, in radians per second. 10 is soft, 25 is snappy.
+     *
+     * @return The handle of the animation.
+     */
+    public int spring(float value, float target, float frequency)
+    {
+        int slot = allocate(SPRING);
+        this.value[ slot ] = value; this.to[ slot ] = target; this.duration[ slot ] = Math.max(0.01f, frequency);
+        activate(slot); return handle(slot);
+    }
+
+    /**
+     * Gives a new target to an animation. A tween restarts from its current value with its original duration,
+     * a spring keeps its velocity.
+     *
+     * @param handle The animation.
+     * @param target The new end value.
+     */
+    public void setTarget(int handle, float target)
+    {
+        int slot = slot(handle); if (slot < 0 || to[ slot ] == target) return;
+
+        if (kind[ slot ] == TWEEN) restartSlot(slot, value[ slot ], target, 0f);
+        else {
+            to[ slot ] = target; activate(slot);
+        }
+    }
+
+    /**
+     * Restarts a tween from the given values.
+     *
+     * @param handle The animation.
+     * @param from   The start value.
+     * @param to     The end value.
+     * @param delay  The delay before the tween starts, in seconds.
+     */
+    public void restart(int handle, float from, float to, float delay)
+    {
+        int slot = slot(handle); if (slot >= 0) restartSlot(slot, from, to, delay);
+    }
+
+    /**
+     * Snaps an animation to a value and stops it.
+     *
+     * @param handle The animation.
+     * @param value  The new value, which also becomes the target.
+     */
+    public void snap(int handle, float value)
+    {
+        int slot = slot(handle); if (slot < 0) return;
+        this.value[ slot ] = this.to[ slot ] = value; velocity[ slot ] = 0f; deactivate(slot);
+    }
+
+    /**
+     * @param handle The animation.
+     *
+     * @return The current value, or 0 if the handle is stale.
+     */
+    public float get(int handle)
+    {
+        int slot = slot(handle); return slot < 0 ? 0f : value[ slot ];
+    }
+
+    /**
+     * @param handle The animation.
+     *
+     * @return The current target, or 0 if the handle is stale.
+     */
+    public float getTarget(int handle)
+    {
+        int slot = slot(handle); return slot < 0 ? 0f : to[ slot ];
+    }
+
+    /**
+     * @param handle The animation.
+     *
+     * @return Whether the animation reached its target, or was released.
+     */
+    public boolean isSettled(int handle)
+    {
+        int slot = slot(handle); return slot < 0 || activeIndex[ slot ] < 0;
+    }
+
+    /**
+     * Releases an animation. Its handle becomes stale and its slot is reused by later animations.
+     *
+     * @param handle The animation.
+     */
+    public void release(int handle)
+    {
+        int slot = slot(handle); if (slot < 0) return;
+
+        deactivate(slot); generation[ slot ] = (generation[ slot ] + 1) & GENERATION_MASK; kind[ slot ] = FREE;
+        free[ freeCount++ ] = slot; size--;
+    }
+
+    /**
+     * Advances every running animation.
+     *
+     * @param dt The frame delta, in seconds.
+     */
+    public void tick(float dt)
+    {
+        if (dt <= 0f) return;
+
+        for (int i = 0; i < activeCount; ) {
+            int slot = active[ i ];
+            boolean settled = kind[ slot ] == TWEEN ? tickTween(slot, dt) : tickSpring(slot, dt);
+
+            if (settled) deactivate(slot);
+            else i++;
+        }
+    }
+
+    private boolean tickTween(int slot, float dt)
+    {
+        float time = elapsed[ slot ] += dt; if (time <= 0f) return false;
+
+        float progress = Math.min(1f, time / duration[ slot ]);
+        value[ slot ] = from[ slot ] + (to[ slot ] - from[ slot ]) * Easing.byOrdinal(easing[ slot ]).apply(progress);
+
+        if (progress < 1f) return false;
+        value[ slot ] = to[ slot ]; return true;
+    }
+
+    /**
+     * Exact integration of a critically damped spring over {@code dt}, stable for any frame delta.
+     */
+    private boolean tickSpring(int slot, float dt)
+    {
+        float omega = duration[ slot ]; float offset = value[ slot ] - to[ slot ]; float speed = velocity[ slot ];
+
+        float decay = (float) Math.exp(-omega * dt); float temp = (speed + omega * offset) * dt;
+        offset = (offset + temp) * decay; speed = (speed - omega * temp) * decay;
+
+        if (Math.abs(offset) < SPRING_EPSILON && Math.abs(speed) < SPRING_EPSILON) {
+            value[ slot ] = to[ slot ]; velocity[ slot ] = 0f; return true;
+        }
+
+        value[ slot ] = to[ slot ] + offset; velocity[ slot ] = speed; return false;
+    }
+
+    private void restartSlot(int slot, float from, float to, float delay)
+    {
+        this.from[ slot ] = from; this.to[ slot ] = to; this.value[ slot ] = from; this.elapsed[ slot ] = -Math.max(0f, delay);
+        activate(slot);
+    }
+
+    private int allocate(byte type)
+    {
+        if (freeCount == 0) grow(capacity * 2);
+
+        int slot = free[ --freeCount ]; size++;
+        kind[ slot ] = type; velocity[ slot ] = 0f; elapsed[ slot ] = 0f; from[ slot ] = 0f; easing[ slot ] = 0;
+        return slot;
+    }
+
+    private void activate(int slot)
+    {
+        if (activeIndex[ slot ] >= 0) return;
+        activeIndex[ slot ] = activeCount; active[ activeCount++ ] = slot;
+    }
+
+    private void deactivate(int slot)
+    {
+        int index = activeIndex[ slot ]; if (index < 0) return;
+
+        int last = active[ --activeCount ]; active[ index ] = last; activeIndex[ last ] = index;
+        activeIndex[ slot ] = -1;
+    }
+
+    private int handle(int slot)
+    {
+        return (generation[ slot ] << SLOT_BITS) | slot;
+    }
+
+    /**
+     * @return The slot of a live handle, or -1 if the handle is stale.
+     */
+    private int slot(int handle)
+    {
+        int slot = handle & SLOT_MASK;
+        if (slot >= capacity || kind[ slot ] == FREE || generation[ slot ] != (handle >>> SLOT_BITS)) return -1;
+        return slot;
+    }
+
+    private void grow(int newCapacity)
+    {
+        if (newCapacity > SLOT_MASK + 1) throw new IllegalStateException("Too many animations: " + newCapacity);
+
+        value = Arrays.copyOf(value == null ? new float[ 0 ] : value, newCapacity);
+        velocity = Arrays.copyOf(velocity == null ? new float[ 0 ] : velocity, newCapacity);
+        from = Arrays.copyOf(from == null ? new float[ 0 ] : from, newCapacity);
+        to = Arrays.copyOf(to == null ? new float[ 0 ] : to, newCapacity);
+        elapsed = Arrays.copyOf(elapsed == null ? new float[ 0 ] : elapsed, newCapacity);
+        duration = Arrays.copyOf(duration == null ? new float[ 0 ] : duration, newCapacity);
+        kind = Arrays.copyOf(kind == null ? new byte[ 0 ] : kind, newCapacity);
+        Arrays.fill(kind, capacity, newCapacity, FREE);
+        easing = Arrays.copyOf(easing == null ? new byte[ 0 ] : easing, newCapacity);
+        generation = Arrays.copyOf(generation == null ? new int[ 0 ] : generation, newCapacity);
+        active = Arrays.copyOf(active == null ? new int[ 0 ] : active, newCapacity);
+
+        int[] previousIndex = activeIndex == null ? new int[ 0 ] : activeIndex;
+        activeIndex = Arrays.copyOf(previousIndex, newCapacity);
+        Arrays.fill(activeIndex, capacity, newCapacity, -1);
+
+        free = Arrays.copyOf(free == null ? new int[ 0 ] : free, newCapacity);
+        for (int slot = newCapacity - 1; slot >= capacity; slot--)
+            free[ freeCount++ ] = slot;
+
+        capacity = newCapacity;
+    }
+}
@@ -0,0 +1,65 @@
+package fr.libnaus.noctisui.client.api.system.animation;
+
+/**
+ * Easing curves mapping a linear progress in [0, 1] to an eased progress.
+ *
+ * <pre>
+ * {@code
+ * float eased = Easing.CUBIC_OUT.apply(0.5f);
+ * }
+ * </pre>
+ *
+ * @author axeno
+ * @see Animator
+ */
+public enum Easing
+{
+    LINEAR,
+    QUAD_IN,
+    QUAD_OUT,
+    QUAD_IN_OUT,
+    CUBIC_IN,
+    CUBIC_OUT,
+    CUBIC_IN_OUT,
+    EXPO_OUT,
+    BACK_OUT,
+    ELASTIC_OUT;
+
+    private static final Easing[] VALUES = values();
+
+    /**
+     * Applies this curve.
+     *
+     * @param t The linear progress, clamped to [0, 1].
+     *
+     * @return The eased progress. {@link #BACK_OUT} and {@link #ELASTIC_OUT} briefly overshoot 1.
+     */
+    public float apply(float t)
+    {
+        t = Math.max(0f, Math.min(1f, t));
+
+        return switch (this) {
+            case LINEAR -> t;
+            case QUAD_IN -> t * t;
+            case QUAD_OUT -> 1f - (1f - t) * (1f - t);
+            case QUAD_IN_OUT -> t < 0.5f ? 2f * t * t : 1f - (-2f * t + 2f) * (-2f * t + 2f) / 2f;
+            case CUBIC_IN -> t * t * t;
+            case CUBIC_OUT -> 1f - (1f - t) * (1f - t) * (1f - t);
+            case CUBIC_IN_OUT -> t < 0.5f ? 4f * t * t * t : 1f - (float) Math.pow(-2f * t + 2f, 3) / 2f;
+            case EXPO_OUT -> t >= 1f ? 1f : 1f - (float) Math.pow(2, -10 * t);
+            case BACK_OUT -> {
+                float c1 = 1.70158f, c3 = c1 + 1f, u = t - 1f; yield 1f + c3 * u * u * u + c1 * u * u;
+            }
+            case ELASTIC_OUT -> t == 0f || t == 1f ? t
+                    : (float) (Math.pow(2, -10 * t) * Math.sin((t * 10 - 0.75) * (2 * Math.PI / 3)) + 1);
+        };
+    }
+
+    /**
+     * Resolves a curve from its ordinal, as stored by the {@link Animator}.
+     */
+    static Easing byOrdinal(int ordinal)
+    {
+        return VALUES[ ordinal ];
+    }
+}
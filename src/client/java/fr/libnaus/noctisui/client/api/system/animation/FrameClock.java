@@ -0,0 +1,67 @@
+package fr.libnaus.noctisui.client.api.system.animation;
+
+import fr.libnaus.noctisui.client.api.system.FrameArena;
+import fr.libnaus.noctisui.client.utils.UiScheduler;
+import lombok.Getter;
+
+/**
+ * The single time source of the UI, sampled once at the start of every rendered frame.
+ *
+ * <p>Components read the frame delta and the frame timestamp from here instead of calling
+ * {@link System#currentTimeMillis()} on their own, so everything animated during a frame agrees on the same
+ * time and animation speed does not depend on the frame rate. The {@link Animator#getGlobal() global animator}
+ * is ticked right after the clock advances.</p>
+ *
+ * <pre>
+ * {@code
+ * progress = MathUtils.damp(progress, target, 8f, FrameClock.getDelta());
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public final class FrameClock
+{
+
+    /** Upper bound of a frame delta, so a hitch or a paused game does not make animations jump. */
+    private static final float MAX_DELTA = 0.1f;
+
+    /**
+     * The duration of the previous frame, in seconds.
+     */
+    @Getter
+    private static float delta = 0f;
+    /**
+     * The wall-clock time at the start of the current frame, in milliseconds.
+     */
+    @Getter
+    private static long timeMillis = System.currentTimeMillis();
+    /**
+     * The monotonic time at the start of the current frame, in nanoseconds.
+     */
+    @Getter
+    private static long timeNanos = System.nanoTime();
+    /**
+     * The number of frames started so far.
+     */
+    @Getter
+    private static long frame = 0;
+
+    private FrameClock()
+    {
+    }
+
+    /**
+     * Advances the clock, reclaims the {@link FrameArena}, runs the mutations queued on the {@link UiScheduler} and
+     * ticks the global animator. Called once per frame, before anything is rendered.
+     */
+    public static void beginFrame()
+    {
+        long now = System.nanoTime();
+        delta = frame == 0 ? 0f : Math.min(MAX_DELTA, (now - timeNanos) / 1_000_000_000f);
+        timeNanos = now; timeMillis = System.currentTimeMillis(); frame++;
+
+        FrameArena.reset(); UiScheduler.drain();
+        Animator.getGlobal().tick(delta);
+    }
+}
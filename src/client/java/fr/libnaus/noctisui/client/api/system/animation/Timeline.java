@@ -0,0 +1,117 @@
+package fr.libnaus.noctisui.client.api.system.animation;
+
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * A group of tweens started together, each with its own offset from the start of the timeline.
+ *
+ * <p>Tracks are plain {@link Animator} tweens delayed by their offset, so a timeline adds no per-frame cost of
+ * its own and settles like any other animation.</p>
+ *
+ * <pre>
+ * {@code
+ * Timeline intro = new Timeline(Animator.getGlobal());
+ * int fade = intro.add(0f, 0f, 1f, 0.25f, Easing.QUAD_OUT);
+ * int slide = intro.add(0.1f, 40f, 0f, 0.4f, Easing.BACK_OUT);
+ * intro.play();
+ *
+ * // In render()
+ * float alpha = intro.get(fade); float offsetY = intro.get(slide);
+ * }
+ * </pre>
+ *
+ * @author axeno
+ * @see Animator
+ */
+public class Timeline
+{
+
+    private final Animator animator;
+    private final IntArrayList handles = new IntArrayList();
+    private final FloatArrayList offsets = new FloatArrayList();
+    private final FloatArrayList starts = new FloatArrayList();
+    private final FloatArrayList ends = new FloatArrayList();
+
+    /**
+     * Creates an empty timeline.
+     *
+     * @param animator The animator driving the tracks.
+     */
+    public Timeline(Animator animator)
+    {
+        this.animator = animator;
+    }
+
+    /**
+     * Adds a track. Tracks stay at their start value until {@link #play()} is called.
+     *
+     * @param offset   The time between the start of the timeline and the start of the track, in seconds.
+     * @param from     The start value.
+     * @param to       The end value.
+     * @param duration The duration of the track, in seconds.
+     * @param easing   The easing curve.
+     *
+     * @return The index of the track.
+     */
+    public int add(float offset, float from, float to, float duration, Easing easing)
+    {
+        int handle = animator.tween(from, to, duration, easing); animator.snap(handle, from);
+        handles.add(handle); offsets.add(offset); starts.add(from); ends.add(to);
+        return handles.size() - 1;
+    }
+
+    /**
+     * Plays the timeline from the beginning.
+     */
+    public void play()
+    {
+        for (int i = 0, n = handles.size(); i < n; i++)
+            animator.restart(handles.getInt(i), starts.getFloat(i), ends.getFloat(i), offsets.getFloat(i));
+    }
+
+    /**
+     * Plays the timeline backwards: tracks go back to their start value, the last track starting first.
+     */
+    public void reverse()
+    {
+        float end = 0f;
+        for (int i = 0, n = handles.size(); i < n; i++)
+            end = Math.max(end, offsets.getFloat(i));
+
+        for (int i = 0, n = handles.size(); i < n; i++) {
+            int handle = handles.getInt(i);
+            animator.restart(handle, animator.get(handle), starts.getFloat(i), end - offsets.getFloat(i));
+        }
+    }
+
+    /**
+     * @param track The index of a track.
+     *
+     * @return The current value of the track.
+     */
+    public float get(int track)
+    {
+        return animator.get(handles.getInt(track));
+    }
+
+    /**
+     * @return Whether every track reached its end value.
+     */
+    public boolean isFinished()
+    {
+        for (int i = 0, n = handles.size(); i < n; i++)
+            if (!animator.isSettled(handles.getInt(i))) return false;
+        return true;
+    }
+
+    /**
+     * Releases every track. The timeline must not be used afterwards.
+     */
+    public void release()
+    {
+        for (int i = 0, n = handles.size(); i < n; i++)
+            animator.release(handles.getInt(i));
+        handles.clear(); offsets.clear(); starts.clear(); ends.clear();
+    }
+}
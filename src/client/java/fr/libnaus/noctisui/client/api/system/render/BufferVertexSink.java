@@ -0,0 +1,47 @@
+package fr.libnaus.noctisui.client.api.system.render;
+
+import fr.libnaus.noctisui.client.utils.Color;
+import net.minecraft.client.render.BufferBuilder;
+
+/**
+ * A {@link VertexSink} writing into a {@link BufferBuilder} that is already building. Instances are reusable:
+ * point them at a buffer with {@link #target(BufferBuilder)} before each batch.
+ *
+ * <pre>
+ * {@code
+ * buffer.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_TEXTURE_COLOR);
+ * VertexSink sink = bufferSink.target(buffer);
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public class BufferVertexSink implements VertexSink
+{
+
+    private BufferBuilder buffer;
+
+    /**
+     * Points this sink at a buffer.
+     *
+     * @param buffer The buffer, whose vertex format must match the vertices written to it.
+     *
+     * @return This sink.
+     */
+    public BufferVertexSink target(BufferBuilder buffer)
+    {
+        this.buffer = buffer; return this;
+    }
+
+    @Override
+    public void vertex(float x, float y, float z, int color)
+    {
+        buffer.vertex(x, y, z).color(Color.red(color), Color.green(color), Color.blue(color), Color.alpha(color)).next();
+    }
+
+    @Override
+    public void vertex(float x, float y, float z, float u, float v, int color)
+    {
+        buffer.vertex(x, y, z).texture(u, v).color(Color.red(color), Color.green(color), Color.blue(color), Color.alpha(color)).next();
+    }
+}
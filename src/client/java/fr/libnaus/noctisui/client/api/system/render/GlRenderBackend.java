@@ -0,0 +1,256 @@
+package fr.libnaus.noctisui.client.api.system.render;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import fr.libnaus.noctisui.client.api.system.FrameArena;
+import fr.libnaus.noctisui.client.api.system.Render2DEngine;
+import fr.libnaus.noctisui.client.api.system.Shaders;
+import fr.libnaus.noctisui.client.common.QuickImports;
+import fr.libnaus.noctisui.client.utils.Color;
+import net.minecraft.client.gl.ShaderProgram;
+import net.minecraft.client.gl.Uniform;
+import net.minecraft.client.render.*;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.lwjgl.opengl.GL11;
+
+/**
+ * The {@link RenderBackend} drawing to the game window with {@code RenderSystem}, the {@link Tessellator} and the
+ * NoctisUI shaders. Must only be used on the render thread.
+ *
+ * @author axeno
+ */
+public class GlRenderBackend implements RenderBackend, QuickImports
+{
+
+    private final BufferVertexSink glyphSink = new BufferVertexSink();
+    private BufferBuilder glyphBuffer;
+    private ShaderProgram glyphLastShader;
+
+    @Override
+    public float getScaleFactor()
+    {
+        return (float) mc.getWindow().getScaleFactor();
+    }
+
+    @Override
+    public int getScaledWidth()
+    {
+        return mc.getWindow().getScaledWidth();
+    }
+
+    @Override
+    public int getScaledHeight()
+    {
+        return mc.getWindow().getScaledHeight();
+    }
+
+    @Override
+    public int getWindowHeight()
+    {
+        return mc.getWindow().getHeight();
+    }
+
+    @Override
+    public int getFramebufferHeight()
+    {
+        return mc.getWindow().getFramebufferHeight();
+    }
+
+    @Override
+    public void setBlend(boolean enabled)
+    {
+        if (enabled) {
+            RenderSystem.enableBlend(); RenderSystem.defaultBlendFunc();
+        }
+        else RenderSystem.disableBlend();
+    }
+
+    @Override
+    public void setShaderColor(float red, float green, float blue, float alpha)
+    {
+        RenderSystem.setShaderColor(red, green, blue, alpha);
+    }
+
+    @Override
+    public void scissor(int x, int y, int width, int height)
+    {
+        RenderSystem.enableScissor(x, y, width, height);
+    }
+
+    @Override
+    public void disableScissor()
+    {
+        RenderSystem.disableScissor();
+    }
+
+    @Override
+    public void pushClip(int x0, int y0, int x1, int y1, float radius)
+    {
+        // The scissor state and the clip uniforms already carry the clip.
+    }
+
+    @Override
+    public void popClip()
+    {
+    }
+
+    @Override
+    public void line(Matrix4f matrix, float x, float y, float x1, float y1, float width, int color)
+    {
+        int r = Color.red(color); int g = Color.green(color); int b = Color.blue(color); int a = Color.alpha(color);
+
+        BufferBuilder bufferBuilder = Tessellator.getInstance().getBuffer();
+        bufferBuilder.begin(VertexFormat.DrawMode.DEBUG_LINES, VertexFormats.POSITION_COLOR);
+        bufferBuilder.vertex(matrix, x, y, 0f).color(r, g, b, a).next();
+        bufferBuilder.vertex(matrix, x1, y1, 0f).color(r, g, b, a).next();
+
+        RenderSystem.lineWidth(width); RenderSystem.disableCull(); RenderSystem.enableBlend();
+        RenderSystem.defaultBlendFunc(); RenderSystem.setShaderColor(1f, 1f, 1f, 1f);
+        RenderSystem.setShader(GameRenderer::getPositionColorProgram);
+        BufferRenderer.drawWithGlobalProgram(bufferBuilder.end()); RenderSystem.enableCull();
+        RenderSystem.depthFunc(GL11.GL_LEQUAL);
+    }
+
+    @Override
+    public void rect(Matrix4f matrix, float x1, float y1, float x2, float y2, int color)
+    {
+        int r = Color.red(color); int g = Color.green(color); int b = Color.blue(color); int a = Color.alpha(color);
+
+        BufferBuilder bufferBuilder = Tessellator.getInstance().getBuffer();
+        bufferBuilder.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_COLOR);
+        bufferBuilder.vertex(matrix, x1, y2, 0f).color(r, g, b, a).next();
+        bufferBuilder.vertex(matrix, x2, y2, 0f).color(r, g, b, a).next();
+        bufferBuilder.vertex(matrix, x2, y1, 0f).color(r, g, b, a).next();
+        bufferBuilder.vertex(matrix, x1, y1, 0f).color(r, g, b, a).next();
+
+        RenderSystem.disableCull(); RenderSystem.enableBlend(); RenderSystem.defaultBlendFunc();
+        RenderSystem.setShaderColor(1f, 1f, 1f, 1f); RenderSystem.setShader(GameRenderer::getPositionColorProgram);
+        BufferRenderer.drawWithGlobalProgram(bufferBuilder.end()); RenderSystem.disableBlend();
+        RenderSystem.enableCull(); RenderSystem.depthFunc(GL11.GL_LEQUAL);
+    }
+
+    @Override
+    public void roundedRect(Matrix4f matrix, float x1, float y1, float x2, float y2, float topLeft, float topRight,
+                            float bottomLeft, float bottomRight, int color1, int color2, int color3, int color4)
+    {
+        if (Shaders.ROUNDED_RECT == null) {
+            Shaders.load();
+        }
+
+        float scaleFactor = getScaleFactor(); int windowHeight = getWindowHeight();
+
+        ShaderProgram shaderProg = Shaders.ROUNDED_RECT;
+        if (shaderProg == null) throw new IllegalStateException("Shader program is not available.");
+
+        float[] actualCoords = getActualCoordinates(matrix, x1, y1, x2, y2, scaleFactor, windowHeight);
+
+        Tessellator tessellator = Tessellator.getInstance(); BufferBuilder buffer = tessellator.getBuffer();
+        buffer.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_COLOR);
+        Render2DEngine.prepareBuffer(buffer, matrix, x1, y1, x2, y2, 0f, color1);
+
+        shaderProg.getUniform("RadiusTopLeft").set(topLeft * scaleFactor);
+        shaderProg.getUniform("RadiusTopRight").set(topRight * scaleFactor);
+        shaderProg.getUniform("RadiusBottomLeft").set(bottomLeft * scaleFactor);
+        shaderProg.getUniform("RadiusBottomRight").set(bottomRight * scaleFactor);
+        shaderProg.getUniform("Bounds").set(actualCoords[ 0 ], actualCoords[ 3 ], actualCoords[ 2 ], actualCoords[ 1 ]);
+        shaderProg.getUniform("Smoothness").set(2f);
+        setColorUniforms(shaderProg, color1, color2, color3, color4);
+
+        renderShape(buffer, shaderProg);
+    }
+
+    @Override
+    public void roundedOutline(Matrix4f matrix, float x1, float y1, float x2, float y2, float radius, float width,
+                               int color1, int color2, int color3, int color4)
+    {
+        if (Shaders.ROUNDED_OUTLINE == null) {
+            Shaders.load();
+        }
+
+        ShaderProgram shaderProg = Shaders.ROUNDED_OUTLINE;
+        if (shaderProg == null) throw new IllegalStateException("Shader program is not available.");
+
+        float scaleFactor = getScaleFactor(); int windowHeight = getWindowHeight();
+
+        float[] actualCoords = getActualCoordinates(matrix, x1, y1, x2, y2, scaleFactor, windowHeight);
+
+        Tessellator tessellator = Tessellator.getInstance(); BufferBuilder buffer = tessellator.getBuffer();
+        buffer.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_COLOR);
+
+        Render2DEngine.prepareBuffer(buffer, matrix, x1, y1, x2, y2, 0f, color1);
+
+        shaderProg.getUniform("Radius").set(radius * scaleFactor);
+        shaderProg.getUniform("Bounds").set(actualCoords[ 0 ] + 1, actualCoords[ 3 ] + 1, actualCoords[ 2 ] - 1, actualCoords[ 1 ] - 1);
+        shaderProg.getUniform("Smoothness").set(2f); shaderProg.getUniform("StrokeWidth").set(width);
+        setColorUniforms(shaderProg, color1, color2, color3, color4);
+
+        renderShape(buffer, shaderProg);
+    }
+
+    @Override
+    public VertexSink beginGlyphs(int texture)
+    {
+        if (Shaders.MSDF == null) Shaders.load();
+
+        BufferBuilder buffer = Tessellator.getInstance().getBuffer(); if (buffer.isBuilding()) return null;
+
+        RenderSystem.enableBlend(); RenderSystem.defaultBlendFunc();
+        glyphLastShader = RenderSystem.getShader(); RenderSystem.setShaderTexture(0, texture);
+        RenderSystem.setShader(FrameArena.shader(Shaders.MSDF)); Render2DEngine.applyClipUniforms(Shaders.MSDF);
+
+        buffer.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_TEXTURE_COLOR); glyphBuffer = buffer;
+        return glyphSink.target(buffer);
+    }
+
+    @Override
+    public void endGlyphs()
+    {
+        BufferRenderer.drawWithGlobalProgram(glyphBuffer.end()); glyphBuffer = null;
+        RenderSystem.setShader(FrameArena.shader(glyphLastShader)); RenderSystem.disableBlend(); glyphLastShader = null;
+    }
+
+    private static void renderShape(BufferBuilder buffer, ShaderProgram shaderProgram)
+    {
+        RenderSystem.disableDepthTest();
+
+        ShaderProgram last = RenderSystem.getShader(); RenderSystem.setShader(FrameArena.shader(shaderProgram));
+        Render2DEngine.applyClipUniforms(shaderProgram);
+
+        RenderSystem.enableBlend(); RenderSystem.defaultBlendFunc();
+
+        RenderSystem.setShaderColor(1f, 1f, 1f, 1f); BufferRenderer.drawWithGlobalProgram(buffer.end());
+
+        RenderSystem.disableBlend();
+
+        RenderSystem.setShader(FrameArena.shader(last));
+
+        RenderSystem.enableDepthTest();
+    }
+
+    private static void setColorUniforms(ShaderProgram shaderProg, int color1, int color2, int color3, int color4)
+    {
+        setColorUniform(shaderProg.getUniform("color1"), color1); setColorUniform(shaderProg.getUniform("color2"), color2);
+        setColorUniform(shaderProg.getUniform("color3"), color3); setColorUniform(shaderProg.getUniform("color4"), color4);
+    }
+
+    private static void setColorUniform(Uniform uniform, int color)
+    {
+        uniform.set(Color.red(color) / 255f, Color.green(color) / 255f, Color.blue(color) / 255f, Color.alpha(color) / 255f);
+    }
+
+    /**
+     * Converts a rectangle from the current matrix space to window pixels with a bottom-left origin, as expected by
+     * the shaders. The result is borrowed from the {@link FrameArena}.
+     */
+    private static float[] getActualCoordinates(Matrix4f matrix, float x1, float y1, float x2, float y2,
+                                                float scaleFactor, int windowHeight)
+    {
+        Vector3f start = matrix.transformPosition(x1, y1, 0f, FrameArena.vec3());
+        Vector3f end = matrix.transformPosition(x2, y2, 0f, FrameArena.vec3());
+
+        float[] coords = FrameArena.floats4();
+        coords[ 0 ] = start.x * scaleFactor; coords[ 2 ] = end.x * scaleFactor;
+        coords[ 1 ] = windowHeight - start.y * scaleFactor; coords[ 3 ] = windowHeight - end.y * scaleFactor;
+        return coords;
+    }
+}
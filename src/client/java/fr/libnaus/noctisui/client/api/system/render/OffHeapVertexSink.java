@@ -0,0 +1,98 @@
+package fr.libnaus.noctisui.client.api.system.render;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A {@link VertexSink} packing vertices into a direct, native-order buffer outside the Java heap, the way a vertex
+ * buffer is laid out for upload, without any GL call. Vertex generation can be measured or checked headless.
+ *
+ * <p>Position-color vertices take 16 bytes (three floats and the ARGB color), position-texture-color vertices 24
+ * bytes (five floats and the color). The buffer grows as needed and is reused after {@link #reset()}.</p>
+ *
+ * <pre>
+ * {@code
+ * OffHeapVertexSink sink = new OffHeapVertexSink(64 * 1024);
+ * Render2DEngine.prepareBuffer(sink, matrix, 0, 0, 100, 20, 0, color);
+ * int vertices = sink.getVertexCount();
+ * sink.reset();
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public class OffHeapVertexSink implements VertexSink
+{
+
+    /** The bytes of a position-color vertex. */
+    public static final int POSITION_COLOR_BYTES = 16;
+    /** The bytes of a position-texture-color vertex. */
+    public static final int POSITION_TEXTURE_COLOR_BYTES = 24;
+
+    private ByteBuffer buffer;
+    /**
+     * The number of bytes written since the last reset.
+     */
+    @Getter
+    private int byteCount = 0;
+    /**
+     * The number of vertices written since the last reset.
+     */
+    @Getter
+    private int vertexCount = 0;
+
+    /**
+     * @param initialBytes The initial capacity, in bytes.
+     */
+    public OffHeapVertexSink(int initialBytes)
+    {
+        buffer = ByteBuffer.allocateDirect(Math.max(POSITION_TEXTURE_COLOR_BYTES, initialBytes)).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Forgets the written vertices, keeping the memory.
+     */
+    public void reset()
+    {
+        byteCount = 0; vertexCount = 0;
+    }
+
+    /**
+     * @return A read-only view of the written bytes.
+     */
+    public ByteBuffer getBuffer()
+    {
+        return buffer.asReadOnlyBuffer().order(ByteOrder.nativeOrder()).limit(byteCount);
+    }
+
+    @Override
+    public void vertex(float x, float y, float z, int color)
+    {
+        int offset = reserve(POSITION_COLOR_BYTES);
+        buffer.putFloat(offset, x).putFloat(offset + 4, y).putFloat(offset + 8, z).putInt(offset + 12, color);
+    }
+
+    @Override
+    public void vertex(float x, float y, float z, float u, float v, int color)
+    {
+        int offset = reserve(POSITION_TEXTURE_COLOR_BYTES);
+        buffer.putFloat(offset, x).putFloat(offset + 4, y).putFloat(offset + 8, z).putFloat(offset + 12, u)
+                .putFloat(offset + 16, v).putInt(offset + 20, color);
+    }
+
+    /**
+     * @return The offset of the next vertex, after growing the buffer if it does not fit.
+     */
+    private int reserve(int bytes)
+    {
+        int offset = byteCount;
+        if (offset + bytes > buffer.capacity()) {
+            ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, offset + bytes)).order(ByteOrder.nativeOrder());
+            grown.put(buffer.duplicate().position(0).limit(offset)); buffer = grown;
+        }
+
+        byteCount = offset + bytes; vertexCount++; return offset;
+    }
+}
@@ -0,0 +1,344 @@
+package fr.libnaus.noctisui.client.api.system.render;
+
+import fr.libnaus.noctisui.client.utils.Color;
+import lombok.Getter;
+import org.joml.Matrix4f;
+
+import java.util.Arrays;
+
+/**
+ * A {@link RenderBackend} that draws nothing and records what would have been drawn: draw calls with their vertex
+ * count and bounds, state changes and clip operations. It needs neither a window nor a GL context, so component
+ * trees can be rendered headless to check their output or to hold a screen to an exact draw-call budget.
+ *
+ * <p>Each command takes one slot in a few parallel primitive arrays: its {@code op}, its vertex count, one integer
+ * argument (the color of a shape, the atlas of a glyph batch, the blend flag or the packed shader color) and four
+ * floats (the bounds of a draw in GUI units, or the rectangle of a scissor or clip in framebuffer pixels). The
+ * arrays are reused after {@link #reset()}, so recording a frame allocates nothing once they are large enough.</p>
+ *
+ * <pre>
+ * {@code
+ * RecordingRenderBackend recording = new RecordingRenderBackend(854, 480, 2);
+ * RenderBackend previous = Render2DEngine.setBackend(recording);
+ * try {
+ *     div.render(context, 0, 0, 0f);
+ * } finally {
+ *     Render2DEngine.setBackend(previous);
+ * }
+ *
+ * assert recording.getDrawCallCount() <= 12;
+ * assert recording.count(RecordingRenderBackend.ROUNDED_RECT) == 1;
+ * assert recording.getClipDepth() == 0;
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public class RecordingRenderBackend implements RenderBackend
+{
+
+    public static final int LINE = 0;
+    public static final int RECT = 1;
+    public static final int ROUNDED_RECT = 2;
+    public static final int ROUNDED_OUTLINE = 3;
+    public static final int GLYPHS = 4;
+    public static final int BLEND = 5;
+    public static final int SHADER_COLOR = 6;
+    public static final int SCISSOR = 7;
+    public static final int DISABLE_SCISSOR = 8;
+    public static final int PUSH_CLIP = 9;
+    public static final int POP_CLIP = 10;
+
+    private static final int OP_COUNT = 11;
+
+    private final int scaledWidth;
+    private final int scaledHeight;
+    private final float scaleFactor;
+    private final int framebufferHeight;
+
+    private int[] ops = new int[ 256 ];
+    private int[] vertexCounts = new int[ 256 ];
+    private int[] arguments = new int[ 256 ];
+    private float[] bounds = new float[ 4 * 256 ];
+    private final int[] opCounts = new int[ OP_COUNT ];
+
+    /**
+     * The number of recorded commands, draws, state changes and clip operations alike.
+     */
+    @Getter
+    private int commandCount = 0;
+    /**
+     * The number of draw calls the GL backend would have issued: every shape, and every glyph batch with vertices.
+     */
+    @Getter
+    private int drawCallCount = 0;
+    /**
+     * The total number of vertices drawn.
+     */
+    @Getter
+    private int vertexCount = 0;
+    /**
+     * The number of blend, shader color and scissor changes.
+     */
+    @Getter
+    private int stateChangeCount = 0;
+    /**
+     * The number of clips currently pushed. Back to {@code 0} at the end of a frame whose clips are balanced.
+     */
+    @Getter
+    private int clipDepth = 0;
+    /**
+     * The deepest clip nesting reached.
+     */
+    @Getter
+    private int maxClipDepth = 0;
+
+    private final GlyphCounter glyphCounter = new GlyphCounter();
+    private int glyphCommand = -1;
+
+    /**
+     * @param scaledWidth  The simulated window width, in GUI units.
+     * @param scaledHeight The simulated window height, in GUI units.
+     * @param scaleFactor  The simulated GUI scale.
+     */
+    public RecordingRenderBackend(int scaledWidth, int scaledHeight, float scaleFactor)
+    {
+        this.scaledWidth = scaledWidth; this.scaledHeight = scaledHeight; this.scaleFactor = scaleFactor;
+        this.framebufferHeight = Math.round(scaledHeight * scaleFactor);
+    }
+
+    /**
+     * Forgets every recorded command and counter, keeping the storage.
+     */
+    public void reset()
+    {
+        commandCount = 0; drawCallCount = 0; vertexCount = 0; stateChangeCount = 0; clipDepth = 0; maxClipDepth = 0;
+        glyphCommand = -1; Arrays.fill(opCounts, 0);
+    }
+
+    /**
+     * @return The number of recorded commands with the given op.
+     */
+    public int count(int op)
+    {
+        return opCounts[ op ];
+    }
+
+    /**
+     * @return The op of a recorded command, such as {@link #ROUNDED_RECT}.
+     */
+    public int getOp(int command)
+    {
+        return ops[ command ];
+    }
+
+    /**
+     * @return The number of vertices drawn by a recorded command, {@code 0} for state changes and clips.
+     */
+    public int getVertexCount(int command)
+    {
+        return vertexCounts[ command ];
+    }
+
+    /**
+     * @return The integer argument of a recorded command: the packed ARGB color of a shape (its first corner for
+     *         gradients), the atlas texture of a glyph batch, {@code 1} or {@code 0} for a blend change, or the
+     *         packed ARGB shader color.
+     */
+    public int getArgument(int command)
+    {
+        return arguments[ command ];
+    }
+
+    /**
+     * @return The left edge of a recorded draw in GUI units, or of a scissor or clip in framebuffer pixels.
+     */
+    public float getMinX(int command)
+    {
+        return bounds[ command * 4 ];
+    }
+
+    /**
+     * @return The top edge of a recorded draw in GUI units, or the bottom edge of a scissor or clip in
+     *         framebuffer pixels.
+     */
+    public float getMinY(int command)
+    {
+        return bounds[ command * 4 + 1 ];
+    }
+
+    /**
+     * @return The right edge of a recorded draw in GUI units, or of a scissor or clip in framebuffer pixels.
+     */
+    public float getMaxX(int command)
+    {
+        return bounds[ command * 4 + 2 ];
+    }
+
+    /**
+     * @return The bottom edge of a recorded draw in GUI units, or the top edge of a scissor or clip in
+     *         framebuffer pixels.
+     */
+    public float getMaxY(int command)
+    {
+        return bounds[ command * 4 + 3 ];
+    }
+
+    @Override
+    public float getScaleFactor()
+    {
+        return scaleFactor;
+    }
+
+    @Override
+    public int getScaledWidth()
+    {
+        return scaledWidth;
+    }
+
+    @Override
+    public int getScaledHeight()
+    {
+        return scaledHeight;
+    }
+
+    @Override
+    public int getWindowHeight()
+    {
+        return framebufferHeight;
+    }
+
+    @Override
+    public int getFramebufferHeight()
+    {
+        return framebufferHeight;
+    }
+
+    @Override
+    public void setBlend(boolean enabled)
+    {
+        record(BLEND, 0, enabled ? 1 : 0, 0, 0, 0, 0); stateChangeCount++;
+    }
+
+    @Override
+    public void setShaderColor(float red, float green, float blue, float alpha)
+    {
+        int color = Color.argb((int) (red * 255), (int) (green * 255), (int) (blue * 255), (int) (alpha * 255));
+        record(SHADER_COLOR, 0, color, 0, 0, 0, 0); stateChangeCount++;
+    }
+
+    @Override
+    public void scissor(int x, int y, int width, int height)
+    {
+        record(SCISSOR, 0, 0, x, y, x + width, y + height); stateChangeCount++;
+    }
+
+    @Override
+    public void disableScissor()
+    {
+        record(DISABLE_SCISSOR, 0, 0, 0, 0, 0, 0); stateChangeCount++;
+    }
+
+    @Override
+    public void pushClip(int x0, int y0, int x1, int y1, float radius)
+    {
+        record(PUSH_CLIP, 0, Float.floatToIntBits(radius), x0, y0, x1, y1);
+        clipDepth++; maxClipDepth = Math.max(maxClipDepth, clipDepth);
+    }
+
+    @Override
+    public void popClip()
+    {
+        record(POP_CLIP, 0, 0, 0, 0, 0, 0); if (clipDepth > 0) clipDepth--;
+    }
+
+    @Override
+    public void line(Matrix4f matrix, float x, float y, float x1, float y1, float width, int color)
+    {
+        draw(LINE, 2, color, matrix, Math.min(x, x1), Math.min(y, y1), Math.max(x, x1), Math.max(y, y1));
+    }
+
+    @Override
+    public void rect(Matrix4f matrix, float x1, float y1, float x2, float y2, int color)
+    {
+        draw(RECT, 4, color, matrix, x1, y1, x2, y2);
+    }
+
+    @Override
+    public void roundedRect(Matrix4f matrix, float x1, float y1, float x2, float y2, float topLeft, float topRight,
+                            float bottomLeft, float bottomRight, int color1, int color2, int color3, int color4)
+    {
+        draw(ROUNDED_RECT, 4, color1, matrix, x1, y1, x2, y2);
+    }
+
+    @Override
+    public void roundedOutline(Matrix4f matrix, float x1, float y1, float x2, float y2, float radius, float width,
+                               int color1, int color2, int color3, int color4)
+    {
+        draw(ROUNDED_OUTLINE, 4, color1, matrix, x1, y1, x2, y2);
+    }
+
+    @Override
+    public VertexSink beginGlyphs(int texture)
+    {
+        if (glyphCommand >= 0) return null;
+
+        glyphCommand = commandCount; record(GLYPHS, 0, texture, Float.MAX_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE);
+        return glyphCounter;
+    }
+
+    @Override
+    public void endGlyphs()
+    {
+        int vertices = vertexCounts[ glyphCommand ];
+        if (vertices > 0) {
+            drawCallCount++; vertexCount += vertices;
+        }
+        else Arrays.fill(bounds, glyphCommand * 4, glyphCommand * 4 + 4, 0f);
+
+        glyphCommand = -1;
+    }
+
+    private void draw(int op, int vertices, int color, Matrix4f matrix, float x1, float y1, float x2, float y2)
+    {
+        float minX = matrix.m00() * x1 + matrix.m10() * y1 + matrix.m30(); float minY = matrix.m01() * x1 + matrix.m11() * y1 + matrix.m31();
+        float maxX = matrix.m00() * x2 + matrix.m10() * y2 + matrix.m30(); float maxY = matrix.m01() * x2 + matrix.m11() * y2 + matrix.m31();
+
+        record(op, vertices, color, minX, minY, maxX, maxY); drawCallCount++; vertexCount += vertices;
+    }
+
+    private void record(int op, int vertices, int argument, float minX, float minY, float maxX, float maxY)
+    {
+        if (commandCount == ops.length) {
+            int capacity = ops.length * 2;
+            ops = Arrays.copyOf(ops, capacity); vertexCounts = Arrays.copyOf(vertexCounts, capacity);
+            arguments = Arrays.copyOf(arguments, capacity); bounds = Arrays.copyOf(bounds, capacity * 4);
+        }
+
+        int command = commandCount++; int offset = command * 4;
+        ops[ command ] = op; vertexCounts[ command ] = vertices; arguments[ command ] = argument;
+        bounds[ offset ] = minX; bounds[ offset + 1 ] = minY; bounds[ offset + 2 ] = maxX; bounds[ offset + 3 ] = maxY;
+        opCounts[ op ]++;
+    }
+
+    /**
+     * Counts the glyph vertices of the open batch and grows its bounds, without keeping the vertices.
+     */
+    private final class GlyphCounter implements VertexSink
+    {
+
+        @Override
+        public void vertex(float x, float y, float z, int color)
+        {
+            int offset = glyphCommand * 4; vertexCounts[ glyphCommand ]++;
+            bounds[ offset ] = Math.min(bounds[ offset ], x); bounds[ offset + 1 ] = Math.min(bounds[ offset + 1 ], y);
+            bounds[ offset + 2 ] = Math.max(bounds[ offset + 2 ], x); bounds[ offset + 3 ] = Math.max(bounds[ offset + 3 ], y);
+        }
+
+        @Override
+        public void vertex(float x, float y, float z, float u, float v, int color)
+        {
+            vertex(x, y, z, color);
+        }
+    }
+}
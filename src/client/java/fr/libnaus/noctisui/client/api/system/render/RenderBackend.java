@@ -0,0 +1,135 @@
+package fr.libnaus.noctisui.client.api.system.render;
+
+import org.joml.Matrix4f;
+
+/**
+ * The destination of every draw made by {@link fr.libnaus.noctisui.client.api.system.Render2DEngine Render2DEngine}
+ * and {@link fr.libnaus.noctisui.client.api.system.render.font.FontAtlas FontAtlas}: the engine keeps the public
+ * drawing API, the clip stack and the geometry, and only the final draw calls, state changes and window metrics go
+ * through the backend.
+ *
+ * <p>{@link GlRenderBackend} draws with {@code RenderSystem} and is the default. {@link RecordingRenderBackend}
+ * only records what would have been drawn, so a component tree can be rendered, measured and checked without a
+ * window or a GL context.</p>
+ *
+ * <p>Positions are given in the space of {@code matrix}, like the engine's own primitives. Radii and widths are
+ * never transformed by the matrix, only scaled by the window scale factor.</p>
+ *
+ * <pre>
+ * {@code
+ * RecordingRenderBackend recording = new RecordingRenderBackend(854, 480, 2);
+ * RenderBackend previous = Render2DEngine.setBackend(recording);
+ * try {
+ *     screen.render(context, mouseX, mouseY, delta);
+ * } finally {
+ *     Render2DEngine.setBackend(previous);
+ * }
+ * int drawCalls = recording.getDrawCallCount();
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public interface RenderBackend
+{
+
+    /**
+     * @return The ratio between window pixels and GUI units.
+     */
+    float getScaleFactor();
+
+    /**
+     * @return The window width, in GUI units.
+     */
+    int getScaledWidth();
+
+    /**
+     * @return The window height, in GUI units.
+     */
+    int getScaledHeight();
+
+    /**
+     * @return The window height, in pixels. Rounded shapes compute their bounds from it.
+     */
+    int getWindowHeight();
+
+    /**
+     * @return The framebuffer height, in pixels. Clip rectangles are expressed from it.
+     */
+    int getFramebufferHeight();
+
+    /**
+     * Enables or disables blending with the default blend function.
+     */
+    void setBlend(boolean enabled);
+
+    /**
+     * Sets the color every following draw is multiplied by.
+     */
+    void setShaderColor(float red, float green, float blue, float alpha);
+
+    /**
+     * Restricts drawing to a framebuffer rectangle, with a bottom-left origin.
+     */
+    void scissor(int x, int y, int width, int height);
+
+    /**
+     * Stops restricting drawing to a rectangle.
+     */
+    void disableScissor();
+
+    /**
+     * Notifies that a clip was pushed. The resulting scissor, if it changed, is applied separately through
+     * {@link #scissor(int, int, int, int)}.
+     *
+     * @param x0     The left edge of the effective clip, in framebuffer pixels.
+     * @param y0     The bottom edge of the effective clip, in framebuffer pixels.
+     * @param x1     The right edge of the effective clip, in framebuffer pixels.
+     * @param y1     The top edge of the effective clip, in framebuffer pixels.
+     * @param radius The corner radius of the clip in pixels, {@code 0} for a rectangular clip.
+     */
+    void pushClip(int x0, int y0, int x1, int y1, float radius);
+
+    /**
+     * Notifies that the innermost clip was popped.
+     */
+    void popClip();
+
+    /**
+     * Draws a line.
+     */
+    void line(Matrix4f matrix, float x, float y, float x1, float y1, float width, int color);
+
+    /**
+     * Fills the rectangle between two corners.
+     */
+    void rect(Matrix4f matrix, float x1, float y1, float x2, float y2, int color);
+
+    /**
+     * Fills a rounded rectangle between two corners, with a color per corner.
+     */
+    void roundedRect(Matrix4f matrix, float x1, float y1, float x2, float y2, float topLeft, float topRight,
+                     float bottomLeft, float bottomRight, int color1, int color2, int color3, int color4);
+
+    /**
+     * Draws a rounded outline between two corners, with a color per corner.
+     */
+    void roundedOutline(Matrix4f matrix, float x1, float y1, float x2, float y2, float radius, float width,
+                        int color1, int color2, int color3, int color4);
+
+    /**
+     * Starts a batch of glyph quads sampling a font atlas. Position-texture-color vertices are then written to the
+     * returned sink and drawn by {@link #endGlyphs()}.
+     *
+     * @param texture The GL id of the atlas texture.
+     *
+     * @return The sink receiving the vertices, or {@code null} if nothing can be drawn right now, in which case
+     *         {@link #endGlyphs()} must not be called.
+     */
+    VertexSink beginGlyphs(int texture);
+
+    /**
+     * Draws the glyph quads written since {@link #beginGlyphs(int)}.
+     */
+    void endGlyphs();
+}
@@ -0,0 +1,66 @@
+package fr.libnaus.noctisui.client.api.system.render;
+
+import org.joml.Matrix4f;
+
+/**
+ * A destination for vertices, decoupling geometry generation from where the vertices end up: a
+ * {@link net.minecraft.client.render.BufferBuilder} on the render thread, or a recorded command list built on a
+ * worker thread.
+ *
+ * <p>Colors are packed ARGB integers. The matrix overloads transform the position on the CPU without allocating,
+ * so implementations only ever receive final positions.</p>
+ *
+ * <pre>
+ * {@code
+ * sink.vertex(matrix, x0, y0, 0f, u0, v0, color);
+ * }
+ * </pre>
+ *
+ * @author axeno
+ * @see BufferVertexSink
+ */
+public interface VertexSink
+{
+
+    /**
+     * Writes a position-color vertex.
+     *
+     * @param x     The X coordinate.
+     * @param y     The Y coordinate.
+     * @param z     The Z coordinate.
+     * @param color The packed ARGB color.
+     */
+    void vertex(float x, float y, float z, int color);
+
+    /**
+     * Writes a position-texture-color vertex.
+     *
+     * @param x     The X coordinate.
+     * @param y     The Y coordinate.
+     * @param z     The Z coordinate.
+     * @param u     The U texture coordinate.
+     * @param v     The V texture coordinate.
+     * @param color The packed ARGB color.
+     */
+    void vertex(float x, float y, float z, float u, float v, int color);
+
+    /**
+     * Transforms a position by {@code matrix} and writes it as a position-color vertex.
+     */
+    default void vertex(Matrix4f matrix, float x, float y, float z, int color)
+    {
+        vertex(matrix.m00() * x + matrix.m10() * y + matrix.m20() * z + matrix.m30(),
+                matrix.m01() * x + matrix.m11() * y + matrix.m21() * z + matrix.m31(),
+                matrix.m02() * x + matrix.m12() * y + matrix.m22() * z + matrix.m32(), color);
+    }
+
+    /**
+     * Transforms a position by {@code matrix} and writes it as a position-texture-color vertex.
+     */
+    default void vertex(Matrix4f matrix, float x, float y, float z, float u, float v, int color)
+    {
+        vertex(matrix.m00() * x + matrix.m10() * y + matrix.m20() * z + matrix.m30(),
+                matrix.m01() * x + matrix.m11() * y + matrix.m21() * z + matrix.m31(),
+                matrix.m02() * x + matrix.m12() * y + matrix.m22() * z + matrix.m32(), u, v, color);
+    }
+}
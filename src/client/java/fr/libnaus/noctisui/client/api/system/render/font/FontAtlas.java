@@ -3,13 +3,14 @@ package fr.libnaus.noctisui.client.api.system.render.font;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import com.mojang.blaze3d.systems.RenderSystem;
 import fr.libnaus.noctisui.NoctisUI;
-import fr.libnaus.noctisui.client.api.system.Shaders;
+import fr.libnaus.noctisui.client.api.system.CommandBuffer;
+import fr.libnaus.noctisui.client.api.system.Render2DEngine;
+import fr.libnaus.noctisui.client.api.system.animation.FrameClock;
+import fr.libnaus.noctisui.client.api.system.render.RenderBackend;
+import fr.libnaus.noctisui.client.api.system.render.VertexSink;
 import fr.libnaus.noctisui.client.common.QuickImports;
 import fr.libnaus.noctisui.client.utils.Color;
-import net.minecraft.client.gl.ShaderProgram;
-import net.minecraft.client.render.*;
 import net.minecraft.client.texture.NativeImage;
 import net.minecraft.client.texture.NativeImageBackedTexture;
 import net.minecraft.client.util.math.MatrixStack;
@@ -18,7 +19,6 @@ import net.minecraft.resource.ResourceManager;
 import net.minecraft.text.OrderedText;
 import net.minecraft.text.Text;
 import net.minecraft.util.Identifier;
-import net.minecraft.util.math.ColorHelper;
 import org.joml.Matrix4f;
 
 import java.io.IOException;
@@ -31,8 +31,8 @@ public class FontAtlas implements QuickImports
     private final static String FORMATTING_PALETTE = "0123456789abcdefklmnor";
     private final static int[][] FORMATTING_COLOR_PALETTE = new int[ 32 ][ 3 ];
 
-    private final int[] textColor = new int[ 3 ];
-    private volatile float textX;
+    /** Color multiplier of text shadows, matching the shader color used outside of recordings. */
+    private static final int SHADOW_TINT = 0xFF404040;
 
     private final int distanceRange;
     private final int width;
@@ -43,7 +43,10 @@ public class FontAtlas implements QuickImports
     private final Glyph[] glyphs = new Glyph[ 2048 * 2048 ];
     private final FontMetrics fontMetrics;
 
+    /** The atlas texture, owned by the atlas for its whole life, or {@code null} for an atlas loaded without it. */
     private final NativeImageBackedTexture tex;
+    /** Cached so that worker threads recording text never query the texture. */
+    private final int textureId;
 
     public FontAtlas(final ResourceManager manager, final String name, String modid) throws IOException
     {
@@ -57,7 +60,23 @@ public class FontAtlas implements QuickImports
 
     public FontAtlas(final Reader meta, final InputStream texture) throws IOException
     {
-        this.tex = new NativeImageBackedTexture(NativeImage.read(texture));
+        this(meta, new NativeImageBackedTexture(NativeImage.read(texture)));
+    }
+
+    /**
+     * Loads the glyph metrics of a font without its texture, so no GL context is needed. The atlas measures text and
+     * writes glyph quads to a {@link VertexSink}, but cannot draw; used to lay out or benchmark text headless.
+     *
+     * @param meta The JSON metadata of the atlas.
+     */
+    public FontAtlas(final Reader meta)
+    {
+        this(meta, (NativeImageBackedTexture) null);
+    }
+
+    private FontAtlas(final Reader meta, final NativeImageBackedTexture tex)
+    {
+        this.tex = tex; this.textureId = tex == null ? -1 : tex.getGlId();
 
         final JsonObject atlasJson = JsonParser.parseReader(meta).getAsJsonObject();
 
@@ -125,83 +144,51 @@ public class FontAtlas implements QuickImports
     public void renderHorizontalGradient(MatrixStack matrices, String text, float x, float y, float size,
                                          Color primaryColor, Color secondaryColor, int speed)
     {
-        if (Shaders.MSDF == null) {
-            Shaders.load();
-        }
-
-        RenderSystem.enableBlend(); RenderSystem.defaultBlendFunc();
-        ShaderProgram lastShader = RenderSystem.getShader(); RenderSystem.setShaderTexture(0, tex.getGlId());
-        RenderSystem.setShader(() -> Shaders.MSDF);
-
-        final Matrix4f model = matrices.peek().getPositionMatrix();
-
-        int alpha = primaryColor.getAlpha();
-
-        final BufferBuilder bufferBuilder = Tessellator.getInstance().getBuffer();
-        bufferBuilder.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_TEXTURE_COLOR);
-        boolean hasContent = false;
-
-        float currentX = x;
-
-        for (int i = 0; i < text.length(); i++) {
-            int unicode = text.codePointAt(i);
-
-            if (unicode == '§' && i + 1 < text.length()) {
-                i++;
-            }
-            else {
-                final Glyph glyph = this.glyphs[ unicode ];
-
-                if (glyph == null) continue;
-
-                if (glyph.getPlaneRight() - glyph.getPlaneLeft() != 0) {
-                    int index = (int) (currentX - x);
-
-                    Color charColor = interpolateColor(primaryColor, secondaryColor, speed, index);
-
-                    float x0 = currentX + glyph.getPlaneLeft() * size;
-                    float x1 = currentX + glyph.getPlaneRight() * size;
-                    float y0 = y + fontMetrics.getAscender() * size - glyph.getPlaneTop() * size;
-                    float y1 = y + fontMetrics.getAscender() * size - glyph.getPlaneBottom() * size;
-                    float u0 = glyph.getAtlasLeft() / width; float u1 = glyph.getAtlasRight() / width;
-                    float v0 = glyph.getAtlasTop() / height; float v1 = glyph.getAtlasBottom() / height;
-
-                    bufferBuilder.vertex(model, x0, y0, 0).texture(u0, 1 - v0).color(charColor.getRed(), charColor.getGreen(), charColor.getBlue(), alpha).next();
-                    bufferBuilder.vertex(model, x0, y1, 0).texture(u0, 1 - v1).color(charColor.getRed(), charColor.getGreen(), charColor.getBlue(), alpha).next();
-                    bufferBuilder.vertex(model, x1, y1, 0).texture(u1, 1 - v1).color(charColor.getRed(), charColor.getGreen(), charColor.getBlue(), alpha).next();
-                    bufferBuilder.vertex(model, x1, y0, 0).texture(u1, 1 - v0).color(charColor.getRed(), charColor.getGreen(), charColor.getBlue(), alpha).next();
-                    hasContent = true;
-                } currentX += size * glyph.getAdvance();
-            }
-        }
-
-        if (hasContent) {
-            BufferRenderer.drawWithGlobalProgram(bufferBuilder.end());
-        }
+        renderHorizontalGradient(matrices, text, x, y, size, primaryColor.getRGB(), secondaryColor.getRGB(), speed);
+    }
 
-        RenderSystem.setShader(() -> lastShader); RenderSystem.disableBlend();
+    public void renderHorizontalGradient(MatrixStack matrices, String text, float x, float y, float size,
+                                         int primaryColor, int secondaryColor, int speed)
+    {
+        renderGradient(matrices, text, x, y, size, primaryColor, secondaryColor, speed, 0f, false);
     }
 
     public void renderDiagonalGradient(MatrixStack matrices, String text, float x, float y, float size,
                                        Color primaryColor, Color secondaryColor, int speed, float verticalStrength)
     {
-        if (Shaders.MSDF == null) {
-            Shaders.load();
-        }
+        renderDiagonalGradient(matrices, text, x, y, size, primaryColor.getRGB(), secondaryColor.getRGB(), speed, verticalStrength);
+    }
 
-        RenderSystem.enableBlend(); RenderSystem.defaultBlendFunc();
-        ShaderProgram lastShader = RenderSystem.getShader(); RenderSystem.setShaderTexture(0, tex.getGlId());
-        RenderSystem.setShader(() -> Shaders.MSDF);
+    public void renderDiagonalGradient(MatrixStack matrices, String text, float x, float y, float size,
+                                       int primaryColor, int secondaryColor, int speed, float verticalStrength)
+    {
+        renderGradient(matrices, text, x, y, size, primaryColor, secondaryColor, speed, verticalStrength, true);
+    }
+
+    private void renderGradient(MatrixStack matrices, String text, float x, float y, float size, int primaryColor,
+                                int secondaryColor, int speed, float verticalStrength, boolean diagonal)
+    {
+        final Matrix4f model = matrices.peek().getPositionMatrix(); CommandBuffer recorder = CommandBuffer.current();
 
-        final Matrix4f model = matrices.peek().getPositionMatrix(); int alpha = primaryColor.getAlpha();
+        if (recorder != null) {
+            recorder.beginGlyphs(textureId);
+            emitGradient(recorder, model, text, x, y, size, primaryColor, secondaryColor, speed, verticalStrength, diagonal);
+            recorder.endGlyphs(); return;
+        }
 
-        final BufferBuilder bufferBuilder = Tessellator.getInstance().getBuffer();
-        bufferBuilder.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_TEXTURE_COLOR);
-        boolean hasContent = false;
+        final RenderBackend backend = Render2DEngine.getBackend(); final VertexSink sink = backend.beginGlyphs(textureId);
+        if (sink == null) return;
 
-        float currentX = x;
+        emitGradient(sink, model, text, x, y, size, primaryColor, secondaryColor, speed, verticalStrength, diagonal);
+        backend.endGlyphs();
+    }
 
-        int yOffset = (int) (y * verticalStrength * 5);
+    private boolean emitGradient(VertexSink sink, Matrix4f model, String text, float x, float y, float size,
+                                 int primaryColor, int secondaryColor, int speed, float verticalStrength,
+                                 boolean diagonal)
+    {
+        int alpha = Color.alpha(primaryColor); int yOffset = (int) (y * verticalStrength * 5);
+        boolean hasContent = false; float currentX = x;
 
         for (int i = 0; i < text.length(); i++) {
             int unicode = text.codePointAt(i);
@@ -216,10 +203,9 @@ public class FontAtlas implements QuickImports
 
                 if (glyph.getPlaneRight() - glyph.getPlaneLeft() != 0) {
                     int xIndex = (int) (currentX - x);
+                    int index = diagonal ? -(xIndex + yOffset) : xIndex;
 
-                    int combinedIndex = xIndex + yOffset;
-
-                    Color charColor = interpolateColor(primaryColor, secondaryColor, speed, -combinedIndex);
+                    int charColor = Color.withAlpha(interpolateColor(primaryColor, secondaryColor, speed, index), alpha);
 
                     float x0 = currentX + glyph.getPlaneLeft() * size;
                     float x1 = currentX + glyph.getPlaneRight() * size;
@@ -228,20 +214,12 @@ public class FontAtlas implements QuickImports
                     float u0 = glyph.getAtlasLeft() / width; float u1 = glyph.getAtlasRight() / width;
                     float v0 = glyph.getAtlasTop() / height; float v1 = glyph.getAtlasBottom() / height;
 
-                    bufferBuilder.vertex(model, x0, y0, 0).texture(u0, 1 - v0).color(charColor.getRed(), charColor.getGreen(), charColor.getBlue(), alpha).next();
-                    bufferBuilder.vertex(model, x0, y1, 0).texture(u0, 1 - v1).color(charColor.getRed(), charColor.getGreen(), charColor.getBlue(), alpha).next();
-                    bufferBuilder.vertex(model, x1, y1, 0).texture(u1, 1 - v1).color(charColor.getRed(), charColor.getGreen(), charColor.getBlue(), alpha).next();
-                    bufferBuilder.vertex(model, x1, y0, 0).texture(u1, 1 - v0).color(charColor.getRed(), charColor.getGreen(), charColor.getBlue(), alpha).next();
+                    sink.vertex(model, x0, y0, 0, u0, 1 - v0, charColor); sink.vertex(model, x0, y1, 0, u0, 1 - v1, charColor);
+                    sink.vertex(model, x1, y1, 0, u1, 1 - v1, charColor); sink.vertex(model, x1, y0, 0, u1, 1 - v0, charColor);
                     hasContent = true;
                 } currentX += size * glyph.getAdvance();
             }
-        }
-
-        if (hasContent) {
-            BufferRenderer.drawWithGlobalProgram(bufferBuilder.end());
-        }
-
-        RenderSystem.setShader(() -> lastShader); RenderSystem.disableBlend();
+        } return hasContent;
     }
 
     /**
@@ -256,7 +234,22 @@ public class FontAtlas implements QuickImports
      */
     public static Color interpolateColor(Color color1, Color color2, int speed, int index)
     {
-        int angle = (int) (((System.currentTimeMillis()) / speed + index) % 360);
+        return new Color(interpolateColor(color1.getRGB(), color2.getRGB(), speed, index), true);
+    }
+
+    /**
+     * Interpolates between two packed ARGB colors based on time and a speed factor, without allocating.
+     *
+     * @param color1 The first color to interpolate from.
+     * @param color2 The second color to interpolate to.
+     * @param speed  The speed at which the interpolation occurs in seconds.
+     * @param index  An index value to offset the interpolation.
+     *
+     * @return The interpolated opaque color.
+     */
+    public static int interpolateColor(int color1, int color2, int speed, int index)
+    {
+        int angle = (int) ((FrameClock.getTimeMillis() / speed + index) % 360);
         angle = (angle >= 180 ? 360 - angle : angle) * 2; return interpolateColorSimple(color1, color2, angle / 360f);
     }
 
@@ -271,70 +264,78 @@ public class FontAtlas implements QuickImports
      */
     public static Color interpolateColorSimple(Color color1, Color color2, float ratio)
     {
-        int red = (int) (color1.getRed() + (color2.getRed() - color1.getRed()) * ratio);
-        int green = (int) (color1.getGreen() + (color2.getGreen() - color1.getGreen()) * ratio);
-        int blue = (int) (color1.getBlue() + (color2.getBlue() - color1.getBlue()) * ratio);
-        return new Color(red, green, blue);
+        return new Color(interpolateColorSimple(color1.getRGB(), color2.getRGB(), ratio), true);
+    }
+
+    /**
+     * Simple linear interpolation between two packed ARGB colors, without allocating.
+     *
+     * @param color1 The first color.
+     * @param color2 The second color.
+     * @param ratio  The interpolation ratio (0.0 to 1.0).
+     *
+     * @return The interpolated opaque color.
+     */
+    public static int interpolateColorSimple(int color1, int color2, float ratio)
+    {
+        return Color.withAlpha(Color.lerp(color1, color2, ratio), 255);
     }
 
     public void render(final MatrixStack matrices, final OrderedText text, final float x, final float y,
                        final float size, final int color)
     {
-        if (Shaders.MSDF == null) {
-            ResourceManager manager = mc.getResourceManager(); Shaders.load();
-        }
-
-        RenderSystem.enableBlend(); RenderSystem.defaultBlendFunc();
-        ShaderProgram lastShader = RenderSystem.getShader(); RenderSystem.setShaderTexture(0, tex.getGlId());
-        RenderSystem.setShader(() -> Shaders.MSDF);
+        final Matrix4f model = matrices.peek().getPositionMatrix(); CommandBuffer recorder = CommandBuffer.current();
 
-        this.textX = x;
+        if (recorder != null) {
+            recorder.beginGlyphs(textureId); emitOrderedText(recorder, model, text, x, y, size, color);
+            recorder.endGlyphs(); return;
+        }
 
-        final Matrix4f model = matrices.peek().getPositionMatrix(); final int alpha = ColorHelper.Argb.getAlpha(color);
-        final int red = ColorHelper.Argb.getRed(color); final int green = ColorHelper.Argb.getGreen(color);
-        final int blue = ColorHelper.Argb.getBlue(color);
+        final RenderBackend backend = Render2DEngine.getBackend(); final VertexSink sink = backend.beginGlyphs(textureId);
+        if (sink == null) return;
 
-        this.textColor[ 0 ] = red; this.textColor[ 1 ] = green; this.textColor[ 2 ] = blue;
+        emitOrderedText(sink, model, text, x, y, size, color); backend.endGlyphs();
+    }
 
-        final BufferBuilder bufferBuilder = Tessellator.getInstance().getBuffer();
-        bufferBuilder.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_TEXTURE_COLOR);
+    private void emitOrderedText(VertexSink sink, Matrix4f model, OrderedText text, float x, float y, float size,
+                                 int color)
+    {
+        final float[] cursor = { x }; final int alpha = Color.alpha(color);
 
         text.accept((index, style, codePoint) ->
         {
             final Glyph glyph = this.glyphs[ codePoint ];
 
-            if (glyph == null) return true; if (style.getColor() == null) {
-            this.textColor[ 0 ] = red; this.textColor[ 1 ] = green; this.textColor[ 2 ] = blue;
-        }
-        else {
-            final int rgb = style.getColor().getRgb(); this.textColor[ 0 ] = ColorHelper.Argb.getRed(rgb);
-            this.textColor[ 1 ] = ColorHelper.Argb.getGreen(rgb); this.textColor[ 2 ] = ColorHelper.Argb.getBlue(rgb);
-        } this.textX += this.visit(model, bufferBuilder, glyph, textX, y, size, alpha); return true;
+            if (glyph == null) return true;
+            int glyphColor = style.getColor() == null ? color : Color.withAlpha(style.getColor().getRgb(), alpha);
+            cursor[ 0 ] += this.visit(sink, model, glyph, cursor[ 0 ], y, size, glyphColor); return true;
         });
-
-        BufferRenderer.drawWithGlobalProgram(bufferBuilder.end());
-
-        RenderSystem.setShader(() -> lastShader); RenderSystem.disableBlend();
     }
 
     public void render(MatrixStack matrices, String text, float x, float y, float size, int color)
     {
-        if (Shaders.MSDF == null) Shaders.load();
+        final Matrix4f model = matrices.peek().getPositionMatrix(); CommandBuffer recorder = CommandBuffer.current();
 
-        RenderSystem.enableBlend(); RenderSystem.defaultBlendFunc();
-        ShaderProgram lastShader = RenderSystem.getShader(); RenderSystem.setShaderTexture(0, tex.getGlId());
-        RenderSystem.setShader(() -> Shaders.MSDF);
+        if (recorder != null) {
+            recorder.beginGlyphs(textureId); emitString(recorder, model, text, x, y, size, color);
+            recorder.endGlyphs(); return;
+        }
 
-        final Matrix4f model = matrices.peek().getPositionMatrix(); int alpha = ColorHelper.Argb.getAlpha(color);
-        int red = ColorHelper.Argb.getRed(color); int green = ColorHelper.Argb.getGreen(color);
-        int blue = ColorHelper.Argb.getBlue(color);
+        final RenderBackend backend = Render2DEngine.getBackend(); final VertexSink sink = backend.beginGlyphs(textureId);
+        if (sink == null) return;
 
-        this.textColor[ 0 ] = red; this.textColor[ 1 ] = green; this.textColor[ 2 ] = blue;
+        emitString(sink, model, text, x, y, size, color); backend.endGlyphs();
+    }
 
-        final BufferBuilder bufferBuilder = Tessellator.getInstance().getBuffer(); if (bufferBuilder.isBuilding()) {
-        return;
-    } bufferBuilder.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_TEXTURE_COLOR);
-        boolean hasContent = false;
+    /**
+     * Writes the glyph quads of a string as position-texture-color vertices, applying {@code §} color codes, without
+     * drawing them.
+     *
+     * @return Whether at least one visible glyph was written.
+     */
+    public boolean emitString(VertexSink sink, Matrix4f model, String text, float x, float y, float size, int color)
+    {
+        int alpha = Color.alpha(color); int current = color; boolean hasContent = false;
 
         for (int i = 0; i < text.length(); i++) {
             int unicode = text.codePointAt(i);
@@ -342,53 +343,90 @@ public class FontAtlas implements QuickImports
             if (unicode == '§' && i + 1 < text.length()) {
                 final int colorIndex = FORMATTING_PALETTE.indexOf(Character.toLowerCase(text.charAt(i + 1)));
                 if (colorIndex >= 0 && colorIndex < 16) {
-                    System.arraycopy(FORMATTING_COLOR_PALETTE[ colorIndex ], 0, textColor, 0, 3);
+                    final int[] rgb = FORMATTING_COLOR_PALETTE[ colorIndex ]; current = Color.argb(rgb[ 0 ], rgb[ 1 ], rgb[ 2 ], alpha);
                 }
                 else if (colorIndex == 21) {
-                    textColor[ 0 ] = red; textColor[ 1 ] = green; textColor[ 2 ] = blue;
+                    current = color;
                 } i++;
             }
             else {
                 final Glyph glyph = this.glyphs[ unicode ];
 
-                if (glyph == null) continue; if (glyph.getPlaneRight() - glyph.getPlaneLeft() != 0) {
-                    float x0 = x + glyph.getPlaneLeft() * size; float x1 = x + glyph.getPlaneRight() * size;
-                    float y0 = y + fontMetrics.getAscender() * size - glyph.getPlaneTop() * size;
-                    float y1 = y + fontMetrics.getAscender() * size - glyph.getPlaneBottom() * size;
-                    float u0 = glyph.getAtlasLeft() / width; float u1 = glyph.getAtlasRight() / width;
-                    float v0 = glyph.getAtlasTop() / height; float v1 = glyph.getAtlasBottom() / height;
-
-                    bufferBuilder.vertex(model, x0, y0, 0).texture(u0, 1 - v0).color(textColor[ 0 ], textColor[ 1 ], textColor[ 2 ], alpha).next();
-                    bufferBuilder.vertex(model, x0, y1, 0).texture(u0, 1 - v1).color(textColor[ 0 ], textColor[ 1 ], textColor[ 2 ], alpha).next();
-                    bufferBuilder.vertex(model, x1, y1, 0).texture(u1, 1 - v1).color(textColor[ 0 ], textColor[ 1 ], textColor[ 2 ], alpha).next();
-                    bufferBuilder.vertex(model, x1, y0, 0).texture(u1, 1 - v0).color(textColor[ 0 ], textColor[ 1 ], textColor[ 2 ], alpha).next();
-                    hasContent = true;
-                } x += size * glyph.getAdvance();
+                if (glyph == null) continue; if (glyph.getPlaneRight() - glyph.getPlaneLeft() != 0) hasContent = true;
+                x += visit(sink, model, glyph, x, y, size, current);
             }
+        } return hasContent;
+    }
+
+    /**
+     * Renders many runs of characters from the same text in a single draw call, such as the visible lines of a
+     * document. Characters are drawn as is, {@code §} codes included.
+     *
+     * @param matrices  The matrix stack.
+     * @param text      The text the runs are taken from.
+     * @param runs      The start (inclusive), end (exclusive) and packed ARGB color of each run.
+     * @param positions The X and Y position of each run.
+     * @param count     The number of runs.
+     * @param size      The font size.
+     */
+    public void renderRuns(MatrixStack matrices, CharSequence text, int[] runs, float[] positions, int count, float size)
+    {
+        if (count == 0) return;
+
+        final Matrix4f model = matrices.peek().getPositionMatrix(); CommandBuffer recorder = CommandBuffer.current();
+
+        if (recorder != null) {
+            recorder.beginGlyphs(textureId); emitRuns(recorder, model, text, runs, positions, count, size);
+            recorder.endGlyphs(); return;
         }
 
-        BufferRenderer.drawWithGlobalProgram(bufferBuilder.end()); RenderSystem.setShader(() -> lastShader);
-        RenderSystem.disableBlend();
+        final RenderBackend backend = Render2DEngine.getBackend(); final VertexSink sink = backend.beginGlyphs(textureId);
+        if (sink == null) return;
+
+        emitRuns(sink, model, text, runs, positions, count, size); backend.endGlyphs();
+    }
+
+    private void emitRuns(VertexSink sink, Matrix4f model, CharSequence text, int[] runs, float[] positions, int count,
+                          float size)
+    {
+        for (int run = 0; run < count; run++) {
+            int end = runs[ run * 3 + 1 ]; int color = runs[ run * 3 + 2 ];
+            float x = positions[ run * 2 ]; float y = positions[ run * 2 + 1 ];
+
+            for (int i = runs[ run * 3 ]; i < end; i++) {
+                final Glyph glyph = this.glyphs[ text.charAt(i) ]; if (glyph != null) x += visit(sink, model, glyph, x, y, size, color);
+            }
+        }
     }
 
     public void renderWithShadow(final MatrixStack matrices, final String text, final float x, final float y,
                                  final float size, final int color)
     {
-        RenderSystem.setShaderColor(0.25F, 0.25F, 0.25F, 1.0F);
-        this.render(matrices, text, x + 0.75F, y + 0.75F, size, color); RenderSystem.setShaderColor(1f, 1f, 1f, 1f);
+        if (CommandBuffer.isRecording()) {
+            this.render(matrices, text, x + 0.75F, y + 0.75F, size, Color.multiply(color, SHADOW_TINT));
+            this.render(matrices, text, x, y, size, color); return;
+        }
+
+        final RenderBackend backend = Render2DEngine.getBackend(); backend.setShaderColor(0.25F, 0.25F, 0.25F, 1.0F);
+        this.render(matrices, text, x + 0.75F, y + 0.75F, size, color); backend.setShaderColor(1f, 1f, 1f, 1f);
         this.render(matrices, text, x, y, size, color);
     }
 
     public void renderWithShadow(final MatrixStack matrices, final String text, final float x, final float y,
                                  final int color)
     {
-        RenderSystem.setShaderColor(0.25F, 0.25F, 0.25F, 1.0F);
-        this.render(matrices, text, x + 0.75F, y + 0.75F, size, color); RenderSystem.setShaderColor(1f, 1f, 1f, 1f);
+        if (CommandBuffer.isRecording()) {
+            this.render(matrices, text, x + 0.75F, y + 0.75F, size, Color.multiply(color, SHADOW_TINT));
+            this.render(matrices, text, x, y, size, color); return;
+        }
+
+        final RenderBackend backend = Render2DEngine.getBackend(); backend.setShaderColor(0.25F, 0.25F, 0.25F, 1.0F);
+        this.render(matrices, text, x + 0.75F, y + 0.75F, size, color); backend.setShaderColor(1f, 1f, 1f, 1f);
         this.render(matrices, text, x, y, size, color);
     }
 
-    private float visit(final Matrix4f model, final BufferBuilder bufferBuilder, final Glyph glyph, final float x,
-                        final float y, final float size, final int alpha)
+    private float visit(final VertexSink sink, final Matrix4f model, final Glyph glyph, final float x, final float y,
+                        final float size, final int color)
     {
         if (glyph.getPlaneRight() - glyph.getPlaneLeft() != 0) {
             float x0 = x + glyph.getPlaneLeft() * size; float x1 = x + glyph.getPlaneRight() * size;
@@ -397,10 +435,8 @@ public class FontAtlas implements QuickImports
             float u0 = glyph.getAtlasLeft() / width; float u1 = glyph.getAtlasRight() / width;
             float v0 = glyph.getAtlasTop() / height; float v1 = glyph.getAtlasBottom() / height;
 
-            bufferBuilder.vertex(model, x0, y0, 0).texture(u0, 1 - v0).color(textColor[ 0 ], textColor[ 1 ], textColor[ 2 ], alpha).next();
-            bufferBuilder.vertex(model, x0, y1, 0).texture(u0, 1 - v1).color(textColor[ 0 ], textColor[ 1 ], textColor[ 2 ], alpha).next();
-            bufferBuilder.vertex(model, x1, y1, 0).texture(u1, 1 - v1).color(textColor[ 0 ], textColor[ 1 ], textColor[ 2 ], alpha).next();
-            bufferBuilder.vertex(model, x1, y0, 0).texture(u1, 1 - v0).color(textColor[ 0 ], textColor[ 1 ], textColor[ 2 ], alpha).next();
+            sink.vertex(model, x0, y0, 0, u0, 1 - v0, color); sink.vertex(model, x0, y1, 0, u0, 1 - v1, color);
+            sink.vertex(model, x1, y1, 0, u1, 1 - v1, color); sink.vertex(model, x1, y0, 0, u1, 1 - v0, color);
         } return size * glyph.getAdvance();
     }
 
@@ -454,6 +490,14 @@ public class FontAtlas implements QuickImports
     } return sum;
     }
 
+    /**
+     * @return The advance of a single code point at the given size, or 0 if the font has no glyph for it.
+     */
+    public float getAdvance(int codePoint, float size)
+    {
+        final Glyph glyph = codePoint < glyphs.length ? glyphs[ codePoint ] : null; return glyph == null ? 0 : size * glyph.getAdvance();
+    }
+
     public final float getLineHeight()
     {
         return this.getLineHeight(size);
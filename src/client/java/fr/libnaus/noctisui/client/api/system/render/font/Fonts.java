@@ -1,6 +1,7 @@
 package fr.libnaus.noctisui.client.api.system.render.font;
 
 import fr.libnaus.noctisui.NoctisUI;
+import fr.libnaus.noctisui.client.NoctisUIClient;
 import fr.libnaus.noctisui.client.component.system.NotificationManager;
 import lombok.Getter;
 import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
@@ -10,6 +11,7 @@ import net.minecraft.resource.ResourceType;
 import net.minecraft.util.Identifier;
 
 import java.io.IOException;
+import java.util.function.Function;
 
 @Getter
 public class Fonts implements SimpleSynchronousResourceReloadListener
@@ -22,6 +24,25 @@ public class Fonts implements SimpleSynchronousResourceReloadListener
         ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(this);
     }
 
+    /**
+     * Returns one of the fonts loaded by the client, read at call time so that a resource reload is picked up.
+     *
+     * <pre>
+     * {@code
+     * FontAtlas font = Fonts.client(Fonts::getInterMedium);
+     * }
+     * </pre>
+     *
+     * @param font Selects the font, such as {@code Fonts::getInterMedium}.
+     *
+     * @return The font, or {@code null} outside the game (headless tests and benchmarks) or before the fonts are loaded.
+     */
+    public static FontAtlas client(Function<Fonts, FontAtlas> font)
+    {
+        NoctisUIClient client = NoctisUIClient.getInstance();
+        return client == null || client.getFonts() == null ? null : font.apply(client.getFonts());
+    }
+
     @Override
     public Identifier getFabricId()
     {
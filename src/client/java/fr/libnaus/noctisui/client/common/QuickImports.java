@@ -8,5 +8,5 @@ public interface QuickImports
 {
     MinecraftClient mc = MinecraftClient.getInstance();
     NoctisUIClient noctisui = NoctisUIClient.getInstance();
-    Fonts fonts = noctisui.getFonts();
+    Fonts fonts = noctisui == null ? null : noctisui.getFonts();
 }
@@ -1,10 +1,14 @@
 package fr.libnaus.noctisui.client.component;
 
-import fr.libnaus.noctisui.client.NoctisUIClient;
 import fr.libnaus.noctisui.client.api.system.Render2DEngine;
+import fr.libnaus.noctisui.client.api.system.animation.Animator;
+import fr.libnaus.noctisui.client.api.system.animation.Easing;
+import fr.libnaus.noctisui.client.api.system.animation.FrameClock;
 import fr.libnaus.noctisui.client.api.system.render.font.FontAtlas;
+import fr.libnaus.noctisui.client.api.system.render.font.Fonts;
 import fr.libnaus.noctisui.client.common.QuickImports;
 import fr.libnaus.noctisui.client.utils.Color;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import net.minecraft.client.gui.DrawContext;
@@ -62,8 +66,10 @@ public class Button extends UIBaseComponent implements QuickImports
     private Color outlineColor = null;
     private float outlineWidth = 0;
 
+    /** The font of the label, or {@code null} for the client's Inter Medium. */
     @Setter
-    private FontAtlas font = NoctisUIClient.getInstance().getFonts().getInterMedium();
+    @Getter(AccessLevel.NONE)
+    private FontAtlas font;
 
     @Setter
     private int fontSize = 9;
@@ -76,8 +82,15 @@ public class Button extends UIBaseComponent implements QuickImports
     private Color hoverBackgroundColor;
     private Color hoverLabelColor;
 
-    private long hoverStartTime = -1;
-    private boolean isHovered = false;
+    /**
+     * The animations of this button. It is ticked while rendering rather than by the global animator, since a
+     * recordable button may render on a worker thread.
+     */
+    @Getter(AccessLevel.NONE)
+    private final Animator animator = new Animator(1);
+    /** Blend between the normal and hover colors, or -1 until {@link #hover} is called. */
+    @Getter(AccessLevel.NONE)
+    private int hoverAnimation = -1;
 
     @Setter
     private int radius = 5;
@@ -116,6 +129,25 @@ public class Button extends UIBaseComponent implements QuickImports
     {
         this.hasHover = true; this.hoverAnimationDuration = animationDuration;
         this.hoverBackgroundColor = hoverBackgroundColor; this.hoverLabelColor = hoverLabelColor;
+
+        float progress = animator.get(hoverAnimation); animator.release(hoverAnimation);
+        hoverAnimation = animator.tween(progress, progress, animationDuration / 1000f, Easing.LINEAR);
+    }
+
+    /**
+     * @return The font of the label, or {@code null} when none was set and the client fonts are not loaded.
+     */
+    public FontAtlas getFont()
+    {
+        return font != null ? font : Fonts.client(Fonts::getInterMedium);
+    }
+
+    /**
+     * @return The blend between the normal and hover colors, from 0 to 1.
+     */
+    public float getHoverProgress()
+    {
+        return animator.get(hoverAnimation);
     }
 
     /**
@@ -126,35 +158,27 @@ public class Button extends UIBaseComponent implements QuickImports
         this.onClickAction = action;
     }
 
+    @Override
+    public boolean isRecordable()
+    {
+        return true;
+    }
+
     @Override
     public void render(DrawContext context, double mouseX, double mouseY, float delta)
     {
-        MatrixStack matrices = context.getMatrices(); Color currentBackgroundColor = backgroundColor;
-        Color currentLabelColor = labelColor;
+        MatrixStack matrices = context.getMatrices(); int currentBackgroundColor = backgroundColor.getRGB();
+        int currentLabelColor = labelColor.getRGB();
 
-        boolean isMouseOver = mouseX >= x && mouseX <= x + width && mouseY >= y && mouseY <= y + height;
+        boolean isMouseOver = isPointerOver(mouseX, mouseY);
 
         if (hasHover) {
-            if (isMouseOver && !isHovered) {
-                isHovered = true; hoverStartTime = System.currentTimeMillis();
-            }
-            else if (!isMouseOver && isHovered) {
-                isHovered = false; hoverStartTime = System.currentTimeMillis();
-            }
+            animator.setTarget(hoverAnimation, isMouseOver ? 1f : 0f); animator.tick(FrameClock.getDelta());
 
-            if (hoverStartTime != -1) {
-                long elapsed = System.currentTimeMillis() - hoverStartTime;
-                float progress = Math.min(1f, (float) elapsed / hoverAnimationDuration);
-
-                if (isHovered) {
-                    currentBackgroundColor = Color.interpolateColor(backgroundColor, hoverBackgroundColor, progress);
-                    currentLabelColor = Color.interpolateColor(labelColor, hoverLabelColor, progress);
-                }
-                else {
-                    currentBackgroundColor = Color.interpolateColor(hoverBackgroundColor, backgroundColor, progress);
-                    currentLabelColor = Color.interpolateColor(hoverLabelColor, labelColor, progress);
-                    if (progress == 1f) hoverStartTime = -1;
-                }
+            float hoverProgress = animator.get(hoverAnimation);
+            if (hoverProgress > 0f) {
+                currentBackgroundColor = Color.lerp(currentBackgroundColor, hoverBackgroundColor.getRGB(), hoverProgress);
+                currentLabelColor = Color.lerp(currentLabelColor, hoverLabelColor.getRGB(), hoverProgress);
             }
         }
 
@@ -163,14 +187,16 @@ public class Button extends UIBaseComponent implements QuickImports
         if (outlineWidth > 0 && outlineColor != null)
             Render2DEngine.drawRoundedOutline(matrices, x, y, width, height, radius, outlineWidth, outlineColor);
 
+        FontAtlas font = getFont(); if (font == null) return;
+
         float textWidth = font.getWidth(label, fontSize); float textHeight = font.getLineHeight(fontSize);
         float textX = x + (width - textWidth) / 2; float textY = y + (height - textHeight) / 2;
 
         if (!shadow) {
-            font.render(matrices, label, textX, textY, fontSize, currentLabelColor.getRGB());
+            font.render(matrices, label, textX, textY, fontSize, currentLabelColor);
         }
         else {
-            font.renderWithShadow(matrices, label, textX, textY, fontSize, currentLabelColor.getRGB());
+            font.renderWithShadow(matrices, label, textX, textY, fontSize, currentLabelColor);
         }
     }
 
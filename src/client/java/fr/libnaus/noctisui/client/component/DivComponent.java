@@ -1,15 +1,20 @@
 package fr.libnaus.noctisui.client.component;
 
-import com.mojang.blaze3d.systems.RenderSystem;
+import fr.libnaus.noctisui.client.api.system.CommandBuffer;
 import fr.libnaus.noctisui.client.api.system.Render2DEngine;
 import fr.libnaus.noctisui.client.common.QuickImports;
+import fr.libnaus.noctisui.client.component.event.UIEvent;
+import fr.libnaus.noctisui.client.component.event.UIEventType;
 import fr.libnaus.noctisui.client.utils.Color;
+import fr.libnaus.noctisui.client.utils.SpatialGrid;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.util.math.MatrixStack;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -41,6 +46,8 @@ import java.util.function.Predicate;
 public class DivComponent extends UIBaseComponent implements QuickImports
 {
 
+    private static final float INDEX_CELL_SIZE = 64f;
+
     @Setter
     private Color backgroundColor = null;
     private float cornerRadius = 0f;
@@ -49,11 +56,42 @@ public class DivComponent extends UIBaseComponent implements QuickImports
     private float outlineWidth = 0f;
 
     private Consumer<DivComponent> onClickAction;
+    @Getter(AccessLevel.NONE)
     private final List<UIBaseComponent> children = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    private final List<UIBaseComponent> childrenView = Collections.unmodifiableList(children);
+
+    @Getter(AccessLevel.NONE)
+    private final SpatialGrid<UIBaseComponent> childIndex = new SpatialGrid<>(INDEX_CELL_SIZE);
+    @Getter(AccessLevel.NONE)
+    private UIBaseComponent activeChild;
+    /** The children that may draw popups outside their bounds, hit-tested before the spatial index. */
+    @Getter(AccessLevel.NONE)
+    private final List<UIBaseComponent> overlayChildren = new ArrayList<>();
 
-    @Setter
     private Runnable customRenderer;
 
+    /** Whether children are clipped to this container's bounds, including its rounded corners. */
+    @Setter
+    private boolean clipChildren = false;
+
+    /**
+     * Whether recordable children are rendered in parallel on worker threads. Worth enabling on containers with
+     * many heavy subtrees, such as large text-filled cards.
+     */
+    @Setter
+    private boolean parallelRendering = false;
+    @Getter(AccessLevel.NONE)
+    private SubtreeRecorder subtreeRecorder;
+    /**
+     * The cached result of {@link #isRecordable()}, valid while {@link #recordableValid} is set. Adding or removing
+     * a child, changing the custom renderer or a child reporting a change clears it up to the root.
+     */
+    @Getter(AccessLevel.NONE)
+    private boolean recordable;
+    @Getter(AccessLevel.NONE)
+    private boolean recordableValid = false;
+
     /**
      * Creates a new {@code DivComponent} with the specified position and size.
      *
@@ -131,7 +169,10 @@ public class DivComponent extends UIBaseComponent implements QuickImports
      */
     public void addChild(UIBaseComponent child)
     {
-        children.add(child);
+        children.add(child); child.setParent(this); child.setInputManaged(inputManaged);
+        childIndex.insert(child, child.getX(), child.getY(), child.getWidth(), child.getHeight());
+        if (child.hasOverlay()) trackOverlay(child);
+        recordabilityChanged();
     }
 
     /**
@@ -167,7 +208,7 @@ public class DivComponent extends UIBaseComponent implements QuickImports
      */
     public void removeChild(UIBaseComponent child)
     {
-        children.remove(child);
+        if (children.remove(child)) detach(child);
     }
 
     /**
@@ -192,7 +233,10 @@ public class DivComponent extends UIBaseComponent implements QuickImports
      */
     public void removeIf(Predicate<UIBaseComponent> filter)
     {
-        children.removeIf(filter);
+        children.removeIf(child ->
+        {
+            if (!filter.test(child)) return false; detach(child); return true;
+        });
     }
 
     /**
@@ -206,7 +250,218 @@ public class DivComponent extends UIBaseComponent implements QuickImports
      */
     public void clearChildren()
     {
-        children.clear();
+        for (UIBaseComponent child : children)
+            if (child.getParent() == this) child.setParent(null);
+
+        children.clear(); childIndex.clear(); overlayChildren.clear(); activeChild = null; recordabilityChanged();
+    }
+
+    /**
+     * Sets a hook run after the background is drawn and before the children. A container with a custom renderer
+     * is never recorded on a worker thread.
+     *
+     * @param customRenderer The hook, or {@code null} to remove it.
+     */
+    public void setCustomRenderer(Runnable customRenderer)
+    {
+        this.customRenderer = customRenderer; recordabilityChanged();
+    }
+
+    /**
+     * Marks this container and all its children as driven by an input dispatcher.
+     *
+     * @param inputManaged Whether hover states are resolved by a dispatcher.
+     */
+    @Override
+    public void setInputManaged(boolean inputManaged)
+    {
+        super.setInputManaged(inputManaged);
+        for (UIBaseComponent child : children)
+            child.setInputManaged(inputManaged);
+    }
+
+    /**
+     * The X offset between this container's coordinate space and its children's coordinate space.
+     *
+     * @return The X origin of the children, in this container's parent space.
+     */
+    public float getContentOffsetX()
+    {
+        return x;
+    }
+
+    /**
+     * The Y offset between this container's coordinate space and its children's coordinate space.
+     *
+     * @return The Y origin of the children, in this container's parent space.
+     */
+    public float getContentOffsetY()
+    {
+        return y;
+    }
+
+    /**
+     * The children of this container, in drawing order. The list is a read-only view: children are added and
+     * removed with {@link #addChild(UIBaseComponent)} and {@link #removeChild(UIBaseComponent)}, which keep the
+     * hit-testing index up to date.
+     *
+     * @return A read-only view of the children.
+     */
+    public List<UIBaseComponent> getChildren()
+    {
+        return childrenView;
+    }
+
+    /**
+     * Called by a child whose bounds changed, keeps the hit-testing index up to date.
+     *
+     * @param child The child that moved or was resized.
+     */
+    void childBoundsChanged(UIBaseComponent child)
+    {
+        childIndex.update(child, child.getX(), child.getY(), child.getWidth(), child.getHeight());
+    }
+
+    /**
+     * Finds the topmost visible and enabled direct child under the given point. A child whose popup covers the
+     * point wins over the siblings under the popup.
+     *
+     * <pre>
+     * {@code
+     * UIBaseComponent child = div.childAt(mouseX - div.getX(), mouseY - div.getY());
+     * }
+     * </pre>
+     *
+     * @param localX The X coordinate, relative to this container.
+     * @param localY The Y coordinate, relative to this container.
+     *
+     * @return The topmost child containing the point, or {@code null} if none.
+     */
+    public UIBaseComponent childAt(double localX, double localY)
+    {
+        for (int i = overlayChildren.size() - 1; i >= 0; i--) {
+            UIBaseComponent child = overlayChildren.get(i);
+            if (child.isVisible() && child.isEnabled() && child.overlayContains(localX, localY)) return child;
+        }
+
+        return childIndex.queryTopmost(localX, localY, child -> child.isVisible() && child.isEnabled() && child.contains(localX, localY));
+    }
+
+    /**
+     * A container has an overlay as soon as one of its children does, so that a popup opened deep in the tree also
+     * wins over the siblings of its ancestors.
+     */
+    @Override
+    public boolean hasOverlay()
+    {
+        return !overlayChildren.isEmpty();
+    }
+
+    @Override
+    public boolean overlayContains(double mouseX, double mouseY)
+    {
+        if (!visible || overlayChildren.isEmpty()) return false;
+
+        double localX = mouseX - getContentOffsetX(); double localY = mouseY - getContentOffsetY();
+        for (int i = overlayChildren.size() - 1; i >= 0; i--) {
+            UIBaseComponent child = overlayChildren.get(i);
+            if (child.isVisible() && child.isEnabled() && child.overlayContains(localX, localY)) return true;
+        } return false;
+    }
+
+    /**
+     * Registers a child drawing popups, and this container with its own parent when it is the first one.
+     */
+    private void trackOverlay(UIBaseComponent child)
+    {
+        if (overlayChildren.contains(child)) return;
+
+        overlayChildren.add(child); if (overlayChildren.size() == 1 && parent != null) parent.trackOverlay(this);
+    }
+
+    /**
+     * Resolves the deepest component under the given point, descending into nested containers.
+     *
+     * <pre>
+     * {@code
+     * UIBaseComponent hovered = root.hitTest(mouseX, mouseY);
+     * }
+     * </pre>
+     *
+     * @param mouseX The X coordinate, in the same space as this component's position.
+     * @param mouseY The Y coordinate, in the same space as this component's position.
+     *
+     * @return The deepest topmost component under the point, this container if no child is hit,
+     * or {@code null} if the point is outside this container.
+     */
+    public UIBaseComponent hitTest(double mouseX, double mouseY)
+    {
+        if (!visible || !contains(mouseX, mouseY) && !overlayContains(mouseX, mouseY)) return null;
+
+        double localX = mouseX - getContentOffsetX(); double localY = mouseY - getContentOffsetY();
+
+        UIBaseComponent child = childAt(localX, localY); if (child == null) return this;
+
+        if (child instanceof DivComponent div) {
+            UIBaseComponent nested = div.hitTest(localX, localY); return nested != null ? nested : div;
+        } return child;
+    }
+
+    private void detach(UIBaseComponent child)
+    {
+        childIndex.remove(child); overlayChildren.remove(child); if (child.getParent() == this) child.setParent(null);
+        if (activeChild == child) activeChild = null;
+        recordabilityChanged();
+    }
+
+    /**
+     * Forwards a click to the topmost child under the cursor. The child that handled the previous
+     * click also receives it, so that it can release focus when the user clicks elsewhere.
+     *
+     * @return Whether the topmost child handled the click.
+     */
+    private boolean dispatchClick(double localX, double localY, int button)
+    {
+        UIBaseComponent target = childAt(localX, localY);
+        boolean handled = target != null && target.mouseClicked(localX, localY, button);
+
+        if (activeChild != null && activeChild != target) activeChild.mouseClicked(localX, localY, button);
+
+        activeChild = handled ? target : null; return handled;
+    }
+
+    /**
+     * A container is recordable when it has no custom renderer and all its children are recordable. The result is
+     * cached until the subtree changes, so asking every frame costs nothing.
+     *
+     * @return Whether this whole subtree can be rendered on a worker thread.
+     */
+    @Override
+    public boolean isRecordable()
+    {
+        if (!recordableValid) {
+            recordable = computeRecordable(); recordableValid = true;
+        } return recordable;
+    }
+
+    private boolean computeRecordable()
+    {
+        if (customRenderer != null) return false;
+
+        for (UIBaseComponent child : children)
+            if (!child.isRecordable()) return false;
+        return true;
+    }
+
+    /**
+     * Forgets the cached recordability of this container and of its ancestors. An ancestor is never valid while a
+     * descendant its result depends on is not, so the walk stops at the first container already invalidated.
+     */
+    @Override
+    protected void recordabilityChanged()
+    {
+        if (!recordableValid) return;
+        recordableValid = false; super.recordabilityChanged();
     }
 
     /**
@@ -222,10 +477,29 @@ public class DivComponent extends UIBaseComponent implements QuickImports
     {
         if (!visible) return;
 
-        MatrixStack matrices = context.getMatrices(); RenderSystem.enableBlend(); RenderSystem.defaultBlendFunc();
+        MatrixStack matrices = context.getMatrices(); boolean immediate = !CommandBuffer.isRecording();
+        if (immediate) Render2DEngine.getBackend().setBlend(true);
 
         matrices.push(); matrices.translate(x, y, 0);
 
+        renderBackground(matrices);
+
+        if (customRenderer != null) customRenderer.run();
+
+        if (clipChildren) Render2DEngine.pushRoundedClip(matrices, 0, 0, width, height, cornerRadius);
+        renderChildren(context, mouseX - x, mouseY - y, delta);
+        if (clipChildren) Render2DEngine.popClip();
+
+        matrices.pop(); if (immediate) Render2DEngine.getBackend().setBlend(false);
+    }
+
+    /**
+     * Draws the background and outline of this container, in its local coordinate space.
+     *
+     * @param matrices The matrix stack, already translated to this container.
+     */
+    protected void renderBackground(MatrixStack matrices)
+    {
         if (backgroundColor != null) {
             if (cornerRadius > 0) {
                 Render2DEngine.drawRoundedRect(matrices, 0, 0, width, height, cornerRadius, backgroundColor);
@@ -237,14 +511,41 @@ public class DivComponent extends UIBaseComponent implements QuickImports
                     Render2DEngine.drawOutline(matrices, 0, 0, width, height, outlineWidth, outlineColor);
             }
         }
+    }
 
-        if (customRenderer != null) customRenderer.run();
+    /**
+     * Renders the visible children, in their insertion order.
+     *
+     * @param context The {@link DrawContext} used for rendering, already translated to this container.
+     * @param localX  The mouse X position, relative to this container.
+     * @param localY  The mouse Y position, relative to this container.
+     * @param delta   Partial tick delta for animations or transitions.
+     */
+    protected void renderChildren(DrawContext context, double localX, double localY, float delta)
+    {
+        if (parallelRendering && !CommandBuffer.isRecording()) {
+            if (subtreeRecorder == null) subtreeRecorder = new SubtreeRecorder();
+            subtreeRecorder.render(children, context, localX, localY, delta); return;
+        }
 
         for (UIBaseComponent child : children) {
-            if (!child.isVisible() || !child.enabled) continue; child.render(context, mouseX - x, mouseY - y, delta);
+            if (!child.isVisible() || !child.enabled) continue; child.render(context, localX, localY, delta);
         }
+    }
 
-        matrices.pop(); RenderSystem.disableBlend();
+    /**
+     * Collects the children whose bounds intersect the given rectangle, in their insertion order.
+     * Only the index cells covering the rectangle are visited.
+     *
+     * @param x      The X coordinate of the rectangle, in the children's coordinate space.
+     * @param y      The Y coordinate of the rectangle, in the children's coordinate space.
+     * @param width  The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @param out    The list receiving the children, it is not cleared.
+     */
+    protected void collectChildrenIn(float x, float y, float width, float height, List<UIBaseComponent> out)
+    {
+        childIndex.queryOrdered(x, y, width, height, out);
     }
 
     /**
@@ -265,7 +566,7 @@ public class DivComponent extends UIBaseComponent implements QuickImports
      * Handles a click interaction within this component.
      * <p>
      * If the click occurs within the component’s bounds, the click action (if defined)
-     * is executed and the event is propagated to all child components.
+     * is executed and the event is propagated to the topmost child under the cursor.
      * </p>
      *
      * <pre>
@@ -282,28 +583,44 @@ public class DivComponent extends UIBaseComponent implements QuickImports
         if (contains(mouseX, mouseY)) {
             if (onClickAction != null) onClickAction.accept(this);
 
-            for (UIComponent child : children)
-                child.mouseClicked(mouseX - x, mouseY - y, 0);
+            dispatchClick(mouseX - getContentOffsetX(), mouseY - getContentOffsetY(), 0);
         }
     }
 
     /**
      * Called by Minecraft’s GUI system when a mouse button is pressed.
-     * Handles internal click logic and propagates the event to children.
+     * Handles internal click logic and propagates the event to the topmost child under the cursor.
      *
      * @param mouseX The mouse X position.
      * @param mouseY The mouse Y position.
      * @param button The mouse button index.
      *
-     * @return Always returns {@code false} to allow event propagation.
+     * @return Whether a child or this container's click action handled the click, so that an enclosing container
+     *         keeps routing the following events to this one.
      */
     @Override
     public boolean mouseClicked(double mouseX, double mouseY, int button)
     {
-        if (!visible || !contains(mouseX, mouseY)) return false;
+        if (!visible || !contains(mouseX, mouseY) && !overlayContains(mouseX, mouseY)) return false;
 
         if (onClickAction != null) onClickAction.accept(this);
 
-        children.forEach(child -> child.mouseClicked(mouseX - x, mouseY - y, button)); return false;
+        boolean handled = dispatchClick(mouseX - getContentOffsetX(), mouseY - getContentOffsetY(), button);
+        return handled || onClickAction != null;
+    }
+
+    /**
+     * Runs the click action when a mouse press targets this container or bubbles up from a child.
+     * Children receive their own events from the dispatcher, so they are not forwarded here.
+     *
+     * @param event The routed event.
+     */
+    @Override
+    public void onEvent(UIEvent event)
+    {
+        if (event.getType() == UIEventType.MOUSE_DOWN) {
+            if (event.getPhase() != UIEvent.Phase.CAPTURE && onClickAction != null) onClickAction.accept(this);
+            return;
+        } super.onEvent(event);
     }
 }
@@ -0,0 +1,380 @@
+package fr.libnaus.noctisui.client.component;
+
+import fr.libnaus.noctisui.client.api.system.Render2DEngine;
+import fr.libnaus.noctisui.client.component.event.UIEvent;
+import fr.libnaus.noctisui.client.component.event.UIEventType;
+import fr.libnaus.noctisui.client.utils.Color;
+import lombok.Getter;
+import lombok.Setter;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.util.math.MatrixStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A {@link DivComponent} whose children live in a scrollable content area larger than the component itself.
+ *
+ * <p>Children are clipped to the viewport, and children lying entirely outside of it are neither rendered
+ * nor hit-tested: the visible children are looked up in the container's spatial index, so a long page only
+ * costs what is on screen. Clip rectangles nest, a scroll pane inside another one is clipped by both.</p>
+ *
+ * <p>Mouse wheel input is kinetic: each notch adds velocity which decays over time, independently of the
+ * frame rate. Holding shift scrolls horizontally. The scrollbar thumbs can be dragged.</p>
+ *
+ * <pre>
+ * {@code
+ * ScrollPaneComponent pane = new ScrollPaneComponent(10, 10, 200, 150);
+ * pane.setBackgroundColor(new Color(0, 0, 0, 120));
+ * for (int i = 0; i < 200; i++)
+ *     pane.addChild(new TextComponent(6, 6 + i * 14, "Line " + i, 9, Color.WHITE));
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public class ScrollPaneComponent extends DivComponent
+{
+
+    private static final double OUTSIDE = -1e6;
+
+    @Getter
+    private float scrollX = 0f;
+    @Getter
+    private float scrollY = 0f;
+    private float velocityX = 0f;
+    private float velocityY = 0f;
+
+    /** Distance travelled by one mouse wheel notch, in pixels. */
+    @Getter
+    @Setter
+    private float scrollStep = 28f;
+    /** Exponential decay rate of the scroll velocity, per second. */
+    @Getter
+    @Setter
+    private float friction = 9f;
+
+    @Getter
+    @Setter
+    private Color scrollbarColor = new Color(255, 255, 255, 70);
+    @Getter
+    @Setter
+    private Color scrollbarHoverColor = new Color(255, 255, 255, 130);
+    @Getter
+    @Setter
+    private float scrollbarWidth = 4f;
+
+    private float contentWidth = 0f;
+    private float contentHeight = 0f;
+    private boolean contentDirty = true;
+
+    private int draggedScrollbar = 0;
+    private double dragStart;
+    private float dragStartScroll;
+    private long lastFrameNanos = 0;
+
+    private final List<UIBaseComponent> visibleChildren = new ArrayList<>();
+
+    /**
+     * Creates a new scroll pane. The content size follows the bounds of the children.
+     *
+     * @param x      The x-coordinate of the viewport.
+     * @param y      The y-coordinate of the viewport.
+     * @param width  The width of the viewport.
+     * @param height The height of the viewport.
+     */
+    public ScrollPaneComponent(float x, float y, float width, float height)
+    {
+        super(x, y, width, height);
+    }
+
+    /**
+     * Immediately scrolls to the given position, clamped to the content.
+     *
+     * @param scrollX The horizontal scroll offset.
+     * @param scrollY The vertical scroll offset.
+     */
+    public void scrollTo(float scrollX, float scrollY)
+    {
+        this.scrollX = scrollX; this.scrollY = scrollY; velocityX = velocityY = 0f; clampScroll();
+    }
+
+    /**
+     * Scrolls the minimum amount needed to make the given child fully visible.
+     *
+     * @param child A child of this pane.
+     */
+    public void scrollIntoView(UIBaseComponent child)
+    {
+        float targetX = scrollX, targetY = scrollY;
+
+        if (child.getX() < targetX) targetX = child.getX();
+        else if (child.getX() + child.getWidth() > targetX + width) targetX = child.getX() + child.getWidth() - width;
+
+        if (child.getY() < targetY) targetY = child.getY();
+        else if (child.getY() + child.getHeight() > targetY + height) targetY = child.getY() + child.getHeight() - height;
+
+        scrollTo(targetX, targetY);
+    }
+
+    /**
+     * @return The width of the content, from the content origin to the right edge of the rightmost child.
+     */
+    public float getContentWidth()
+    {
+        updateContentSize(); return contentWidth;
+    }
+
+    /**
+     * @return The height of the content, from the content origin to the bottom edge of the lowest child.
+     */
+    public float getContentHeight()
+    {
+        updateContentSize(); return contentHeight;
+    }
+
+    @Override
+    public float getContentOffsetX()
+    {
+        return x - scrollX;
+    }
+
+    @Override
+    public float getContentOffsetY()
+    {
+        return y - scrollY;
+    }
+
+    @Override
+    public void addChild(UIBaseComponent child)
+    {
+        super.addChild(child); contentDirty = true;
+    }
+
+    @Override
+    public void removeChild(UIBaseComponent child)
+    {
+        super.removeChild(child); contentDirty = true;
+    }
+
+    @Override
+    public void removeIf(Predicate<UIBaseComponent> filter)
+    {
+        super.removeIf(filter); contentDirty = true;
+    }
+
+    @Override
+    public void clearChildren()
+    {
+        super.clearChildren(); contentDirty = true;
+    }
+
+    @Override
+    void childBoundsChanged(UIBaseComponent child)
+    {
+        super.childBoundsChanged(child); contentDirty = true;
+    }
+
+    @Override
+    public UIBaseComponent hitTest(double mouseX, double mouseY)
+    {
+        if (visible && scrollbarAt(mouseX - x, mouseY - y) != 0) return this;
+        return super.hitTest(mouseX, mouseY);
+    }
+
+    /**
+     * Renders only the children intersecting the viewport, clipped to it, then the scrollbars.
+     */
+    @Override
+    protected void renderChildren(DrawContext context, double localX, double localY, float delta)
+    {
+        updateScroll();
+
+        MatrixStack matrices = context.getMatrices();
+        boolean pointerInside = localX >= 0 && localX <= width && localY >= 0 && localY <= height;
+        double contentX = pointerInside ? localX + scrollX : OUTSIDE;
+        double contentY = pointerInside ? localY + scrollY : OUTSIDE;
+
+        Render2DEngine.pushClip(matrices, 0, 0, width, height);
+        matrices.push(); matrices.translate(-scrollX, -scrollY, 0);
+
+        visibleChildren.clear(); collectChildrenIn(scrollX, scrollY, width, height, visibleChildren);
+        for (int i = 0, n = visibleChildren.size(); i < n; i++) {
+            UIBaseComponent child = visibleChildren.get(i);
+            if (child.isVisible() && child.isEnabled()) child.render(context, contentX, contentY, delta);
+        } visibleChildren.clear();
+
+        matrices.pop(); Render2DEngine.popClip();
+
+        renderScrollbars(matrices, pointerInside ? scrollbarAt(localX, localY) : 0);
+    }
+
+    @Override
+    public boolean mouseClicked(double mouseX, double mouseY, int button)
+    {
+        if (!visible || !contains(mouseX, mouseY)) return false;
+        if (startScrollbarDrag(mouseX, mouseY)) return true;
+        return super.mouseClicked(mouseX, mouseY, button);
+    }
+
+    @Override
+    public boolean mouseDragged(double mouseX, double mouseY, int button, double deltaX, double deltaY)
+    {
+        if (draggedScrollbar == 0) return false;
+
+        if (draggedScrollbar == 1) {
+            float track = height - thumbLength(height, getContentHeight());
+            scrollY = dragStartScroll + (float) ((mouseY - dragStart) / Math.max(1f, track)) * (contentHeight - height);
+        }
+        else {
+            float track = width - thumbLength(width, getContentWidth());
+            scrollX = dragStartScroll + (float) ((mouseX - dragStart) / Math.max(1f, track)) * (contentWidth - width);
+        }
+
+        velocityX = velocityY = 0f; clampScroll(); return true;
+    }
+
+    @Override
+    public boolean mouseReleased(double mouseX, double mouseY, int button)
+    {
+        boolean wasDragging = draggedScrollbar != 0; draggedScrollbar = 0; return wasDragging;
+    }
+
+    /**
+     * Gives the scroll to the child under the cursor first, then scrolls this pane if the child ignored it.
+     */
+    @Override
+    public boolean mouseScrolled(double mouseX, double mouseY, double amount)
+    {
+        if (!visible || !contains(mouseX, mouseY)) return false;
+
+        UIBaseComponent child = childAt(mouseX - getContentOffsetX(), mouseY - getContentOffsetY());
+        if (child != null && child.mouseScrolled(mouseX - getContentOffsetX(), mouseY - getContentOffsetY(), amount))
+            return true;
+
+        return applyScroll(amount);
+    }
+
+    /**
+     * Starts scrollbar drags on presses targeting the pane, and scrolls on wheel events bubbling up from
+     * children that did not consume them.
+     *
+     * @param event The routed event.
+     */
+    @Override
+    public void onEvent(UIEvent event)
+    {
+        if (event.getType() == UIEventType.MOUSE_DOWN && event.getPhase() == UIEvent.Phase.TARGET
+                && startScrollbarDrag(event.getX(), event.getY())) {
+            event.cancel(); return;
+        }
+
+        if (event.getType() == UIEventType.MOUSE_SCROLL && event.getPhase() != UIEvent.Phase.CAPTURE) {
+            if (applyScroll(event.getDeltaY())) event.cancel(); return;
+        } super.onEvent(event);
+    }
+
+    private boolean applyScroll(double amount)
+    {
+        boolean horizontal = Screen.hasShiftDown() || getContentHeight() <= height;
+
+        if (horizontal && getContentWidth() > width) velocityX -= (float) amount * scrollStep * friction;
+        else if (contentHeight > height) velocityY -= (float) amount * scrollStep * friction;
+        else return false;
+
+        return true;
+    }
+
+    private boolean startScrollbarDrag(double mouseX, double mouseY)
+    {
+        int scrollbar = scrollbarAt(mouseX - x, mouseY - y); if (scrollbar == 0) return false;
+
+        draggedScrollbar = scrollbar; dragStart = scrollbar == 1 ? mouseY : mouseX;
+        dragStartScroll = scrollbar == 1 ? scrollY : scrollX; velocityX = velocityY = 0f; return true;
+    }
+
+    /**
+     * Integrates the kinetic velocity with the real frame time, so the scroll distance does not depend on the
+     * frame rate. The velocity is cancelled when the content edge is reached.
+     */
+    private void updateScroll()
+    {
+        long now = System.nanoTime();
+        float dt = lastFrameNanos == 0 ? 0f : Math.min(0.1f, (now - lastFrameNanos) / 1_000_000_000f);
+        lastFrameNanos = now;
+
+        if (velocityX == 0f && velocityY == 0f) {
+            clampScroll(); return;
+        }
+
+        float decay = (float) Math.exp(-friction * dt);
+        scrollX += velocityX * (1f - decay) / friction; scrollY += velocityY * (1f - decay) / friction;
+        velocityX *= decay; velocityY *= decay;
+
+        if (Math.abs(velocityX) < 1f) velocityX = 0f;
+        if (Math.abs(velocityY) < 1f) velocityY = 0f;
+
+        clampScroll();
+    }
+
+    private void clampScroll()
+    {
+        float maxX = Math.max(0f, getContentWidth() - width); float maxY = Math.max(0f, getContentHeight() - height);
+
+        if (scrollX <= 0f || scrollX >= maxX) velocityX = 0f;
+        if (scrollY <= 0f || scrollY >= maxY) velocityY = 0f;
+
+        scrollX = Math.max(0f, Math.min(scrollX, maxX)); scrollY = Math.max(0f, Math.min(scrollY, maxY));
+    }
+
+    private void updateContentSize()
+    {
+        if (!contentDirty) return;
+
+        float right = 0f, bottom = 0f;
+        for (UIBaseComponent child : getChildren()) {
+            right = Math.max(right, child.getX() + child.getWidth()); bottom = Math.max(bottom, child.getY() + child.getHeight());
+        }
+
+        contentWidth = right; contentHeight = bottom; contentDirty = false;
+    }
+
+    /**
+     * @return 1 for the vertical scrollbar, 2 for the horizontal one, 0 if the point is over neither.
+     */
+    private int scrollbarAt(double localX, double localY)
+    {
+        float hitWidth = scrollbarWidth + 2;
+        if (getContentHeight() > height && localX >= width - hitWidth && localX <= width && localY >= 0 && localY <= height)
+            return 1;
+        if (getContentWidth() > width && localY >= height - hitWidth && localY <= height && localX >= 0 && localX <= width)
+            return 2;
+        return 0;
+    }
+
+    private void renderScrollbars(MatrixStack matrices, int hoveredScrollbar)
+    {
+        if (scrollbarColor == null) return;
+
+        if (contentHeight > height) {
+            float thumb = thumbLength(height, contentHeight);
+            float thumbY = (height - thumb) * (scrollY / (contentHeight - height));
+            Color color = hoveredScrollbar == 1 || draggedScrollbar == 1 ? scrollbarHoverColor : scrollbarColor;
+            Render2DEngine.drawRoundedRect(matrices, width - scrollbarWidth - 1, thumbY, scrollbarWidth, thumb, scrollbarWidth / 2, color);
+        }
+
+        if (contentWidth > width) {
+            float thumb = thumbLength(width, contentWidth);
+            float thumbX = (width - thumb) * (scrollX / (contentWidth - width));
+            Color color = hoveredScrollbar == 2 || draggedScrollbar == 2 ? scrollbarHoverColor : scrollbarColor;
+            Render2DEngine.drawRoundedRect(matrices, thumbX, height - scrollbarWidth - 1, thumb, scrollbarWidth, scrollbarWidth / 2, color);
+        }
+    }
+
+    private static float thumbLength(float viewport, float content)
+    {
+        return Math.max(12f, viewport * viewport / Math.max(viewport, content));
+    }
+}
@@ -0,0 +1,129 @@
+package fr.libnaus.noctisui.client.component;
+
+import fr.libnaus.noctisui.client.api.system.CommandBuffer;
+import fr.libnaus.noctisui.client.common.QuickImports;
+import net.minecraft.client.gui.DrawContext;
+import org.joml.Matrix4f;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Renders the children of a {@link DivComponent} in parallel.
+ *
+ * <p>Each {@link UIBaseComponent#isRecordable() recordable} child is recorded into its own {@link CommandBuffer}.
+ * The render thread records the first one itself while a fork-join pool records the others, then waits for them.
+ * The buffers are then submitted on the render thread in the children's order, interleaved with the children that
+ * can only render on the render thread, so the result is drawn exactly as a sequential render would draw it.
+ * Buffers, tasks and worker contexts are reused from one frame to the next.</p>
+ *
+ * @author axeno
+ */
+final class SubtreeRecorder
+{
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), pool ->
+    {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("NoctisUI Recorder #" + thread.getPoolIndex()); thread.setDaemon(true); return thread;
+    }, null, false);
+
+    /** Below this number of recordable children, recording costs more than it saves. */
+    private static final int MIN_PARALLEL_CHILDREN = 2;
+
+    private final List<RecordTask> tasks = new ArrayList<>();
+    private int count = 0;
+
+    /**
+     * Renders the visible and enabled children, recording the recordable ones in parallel.
+     *
+     * @param children The children, in drawing order.
+     * @param context  The {@link DrawContext}, already translated to the container.
+     * @param mouseX   The mouse X position, relative to the container.
+     * @param mouseY   The mouse Y position, relative to the container.
+     * @param delta    Partial tick delta for animations or transitions.
+     */
+    void render(List<UIBaseComponent> children, DrawContext context, double mouseX, double mouseY, float delta)
+    {
+        Matrix4f parent = context.getMatrices().peek().getPositionMatrix(); count = 0;
+
+        for (UIBaseComponent child : children) {
+            if (!child.isVisible() || !child.enabled || !child.isRecordable()) continue;
+
+            if (count == tasks.size()) tasks.add(new RecordTask());
+            tasks.get(count++).prepare(child, parent, mouseX, mouseY, delta);
+        }
+
+        boolean parallel = count >= MIN_PARALLEL_CHILDREN;
+        if (parallel) recordAll();
+
+        int next = 0;
+        for (UIBaseComponent child : children) {
+            if (!child.isVisible() || !child.enabled) continue;
+
+            if (parallel && next < count && tasks.get(next).child == child) tasks.get(next++).buffer.submit();
+            else child.render(context, mouseX, mouseY, delta);
+        }
+
+        for (int i = 0; i < count; i++)
+            tasks.get(i).child = null;
+    }
+
+    /**
+     * Hands every prepared task but the first to the pool, records the first on the calling thread, then waits for
+     * the others. Every task is finished before a failure is rethrown, so none is still running when the tasks are
+     * prepared again.
+     */
+    private void recordAll()
+    {
+        for (int i = 1; i < count; i++)
+            POOL.execute(tasks.get(i));
+
+        try {
+            tasks.get(0).invoke();
+        } finally {
+            for (int i = 1; i < count; i++)
+                tasks.get(i).quietlyJoin();
+        }
+
+        for (int i = 1; i < count; i++)
+            tasks.get(i).join();
+    }
+
+    private static final class RecordTask extends RecursiveAction
+    {
+
+        private final CommandBuffer buffer = new CommandBuffer();
+        private DrawContext context;
+
+        private UIBaseComponent child;
+        private Matrix4f parent;
+        private double mouseX;
+        private double mouseY;
+        private float delta;
+
+        void prepare(UIBaseComponent child, Matrix4f parent, double mouseX, double mouseY, float delta)
+        {
+            if (context == null) context = new DrawContext(QuickImports.mc, QuickImports.mc.getBufferBuilders().getEntityVertexConsumers());
+
+            this.child = child; this.parent = parent; this.mouseX = mouseX; this.mouseY = mouseY; this.delta = delta;
+            reinitialize();
+        }
+
+        @Override
+        protected void compute()
+        {
+            context.getMatrices().peek().getPositionMatrix().set(parent);
+
+            buffer.begin();
+            try {
+                child.render(context, mouseX, mouseY, delta);
+            } finally {
+                buffer.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,559 @@
+package fr.libnaus.noctisui.client.component;
+
+import fr.libnaus.noctisui.client.api.system.Render2DEngine;
+import fr.libnaus.noctisui.client.api.system.render.font.FontAtlas;
+import fr.libnaus.noctisui.client.api.system.render.font.Fonts;
+import fr.libnaus.noctisui.client.common.QuickImports;
+import fr.libnaus.noctisui.client.utils.BackgroundExecutor;
+import fr.libnaus.noctisui.client.utils.Color;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntComparator;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import lombok.Getter;
+import lombok.Setter;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.util.math.MatrixStack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A table for large datasets with sortable and resizable columns.
+ *
+ * <p>Only the cells inside the viewport are rendered. Sorting and filtering never run on the render thread:
+ * they are computed by the {@link BackgroundExecutor} over an array of row indices, and the result is swapped
+ * in atomically at the start of the next frame. Starting a new sort or filter cancels the one in progress.</p>
+ *
+ * <p>Each column caches the truncated form of its cell texts for the current column width, so scrolling
+ * through rows that were already displayed does not measure text again.</p>
+ *
+ * <pre>
+ * {@code
+ * TableComponent<Listing> table = new TableComponent<>(10, 10, 400, 250);
+ * table.addColumn(new TableComponent.Column<Listing>("Item", 200, Listing::itemName)
+ *         .setComparator(Comparator.comparing(Listing::itemName)));
+ * table.addColumn(new TableComponent.Column<Listing>("Price", 80, l -> String.valueOf(l.price()))
+ *         .setComparator(Comparator.comparingDouble(Listing::price)));
+ * table.setRows(listings);
+ * table.setFilter(l -> l.price() < 100);
+ * }
+ * </pre>
+ *
+ * @param <R> The type of rows.
+ *
+ * @author axeno
+ */
+public class TableComponent<R> extends UIBaseComponent implements QuickImports
+{
+
+    /**
+     * A column of a {@link TableComponent}.
+     *
+     * @param <R> The type of rows.
+     */
+    public static class Column<R>
+    {
+
+        private static final int FIT_CACHE_LIMIT = 4096;
+
+        @Getter
+        private final String title;
+        @Getter
+        private float width;
+        @Getter
+        @Setter
+        private float minWidth = 24f;
+
+        private final Function<R, String> textExtractor;
+        @Getter
+        private Comparator<R> comparator;
+
+        private final Object2ObjectOpenHashMap<String, String> fitted = new Object2ObjectOpenHashMap<>();
+        private float fittedWidth = -1f;
+        private float fittedSize = -1f;
+        private FontAtlas fittedFont;
+
+        /**
+         * Creates a new column.
+         *
+         * @param title         The header text.
+         * @param width         The initial width of the column.
+         * @param textExtractor Produces the text of a cell from a row.
+         */
+        public Column(String title, float width, Function<R, String> textExtractor)
+        {
+            this.title = title; this.width = width; this.textExtractor = textExtractor;
+        }
+
+        /**
+         * Makes the column sortable.
+         *
+         * @param comparator The ascending order of the rows for this column.
+         *
+         * @return this instance (for chaining)
+         */
+        public Column<R> setComparator(Comparator<R> comparator)
+        {
+            this.comparator = comparator; return this;
+        }
+
+        /**
+         * Sets the width of the column, clamped to its minimum width.
+         *
+         * @param width The new width.
+         */
+        public void setWidth(float width)
+        {
+            this.width = Math.max(minWidth, width);
+        }
+
+        /**
+         * Returns the cell text truncated to the column width, measuring it only on a cache miss.
+         */
+        private String fit(R row, FontAtlas font, float size, float padding)
+        {
+            String text = textExtractor.apply(row); if (text == null) return "";
+
+            float maxWidth = width - padding * 2;
+            if (maxWidth != fittedWidth || size != fittedSize || font != fittedFont) {
+                fitted.clear(); fittedWidth = maxWidth; fittedSize = size; fittedFont = font;
+            }
+
+            String result = fitted.get(text);
+            if (result == null) {
+                if (fitted.size() >= FIT_CACHE_LIMIT) fitted.clear();
+                result = font.truncate(text, maxWidth, size); fitted.put(text, result);
+            } return result;
+        }
+    }
+
+    /**
+     * The sorted and filtered order of the rows produced off-thread, or the error that interrupted it. The view
+     * keeps the row list it was computed from, since {@link #setRows(List)} swaps the list before the new pass ends.
+     */
+    private static final class View<R>
+    {
+
+        private final int generation;
+        private final List<R> rows;
+        private final int[] indices;
+        private final int count;
+        private final RuntimeException failure;
+
+        private View(int generation, List<R> rows, int[] indices, int count, RuntimeException failure)
+        {
+            this.generation = generation; this.rows = rows; this.indices = indices; this.count = count; this.failure = failure;
+        }
+    }
+
+    private static final float RESIZE_HANDLE = 3f;
+    private static final float SCROLL_SMOOTHING = 18f;
+
+    @Getter
+    private final List<Column<R>> columns = new ArrayList<>();
+    @Getter
+    private List<R> rows = Collections.emptyList();
+    @Getter
+    private Predicate<R> filter;
+
+    @Getter
+    private int sortColumn = -1;
+    @Getter
+    private boolean sortAscending = true;
+
+    private final AtomicInteger generation = new AtomicInteger();
+    private final AtomicReference<View<R>> pending = new AtomicReference<>();
+    private View<R> view = new View<>(0, Collections.emptyList(), new int[ 0 ], 0, null);
+    /** Whether a sort or filter is running in the background. */
+    @Getter
+    private boolean processing = false;
+    /**
+     * The error thrown by the filter or a comparator during the last pass, or {@code null}. The rows keep their
+     * previous order when a pass fails.
+     */
+    @Getter
+    private RuntimeException failure;
+
+    /** The font of the cells, or {@code null} for the Inter Medium font of the client. */
+    @Setter
+    private FontAtlas font;
+    /** The font of the header, or {@code null} for the Inter Bold font of the client. */
+    @Setter
+    private FontAtlas headerFont;
+    /** The font of the sort icons, or {@code null} for the Lucide font of the client. */
+    @Setter
+    private FontAtlas iconFont;
+
+    @Getter
+    @Setter
+    private float fontSize = 9f;
+    @Getter
+    @Setter
+    private float rowHeight = 16f;
+    @Getter
+    @Setter
+    private float headerHeight = 20f;
+    @Getter
+    @Setter
+    private float cellPadding = 4f;
+
+    @Setter
+    private Color headerColor = new Color(32, 34, 38, 240);
+    @Setter
+    private Color rowColor = new Color(24, 26, 29, 220);
+    @Setter
+    private Color alternateRowColor = new Color(28, 30, 34, 220);
+    @Setter
+    private Color separatorColor = new Color(52, 58, 64, 255);
+    @Setter
+    private Color textColor = new Color(220, 224, 230);
+    @Setter
+    private Color headerTextColor = Color.WHITE;
+    @Setter
+    private Color accentColor = new Color(100, 150, 255);
+
+    private float scrollY = 0f;
+    private float targetScrollY = 0f;
+    private long lastFrameNanos = 0;
+
+    private int resizingColumn = -1;
+    private float resizeStartX;
+    private float resizeStartWidth;
+
+    private final String sortAscendingIcon = "\uE95A";
+    private final String sortDescendingIcon = "\uE955";
+
+    /**
+     * Creates a new, empty table.
+     *
+     * @param x      The X coordinate of the table.
+     * @param y      The Y coordinate of the table.
+     * @param width  The width of the table.
+     * @param height The height of the table, header included.
+     */
+    public TableComponent(float x, float y, float width, float height)
+    {
+        super(x, y, width, height);
+    }
+
+    /**
+     * Adds a column at the right of the table.
+     *
+     * @param column The column to add.
+     *
+     * @return this instance (for chaining)
+     */
+    public TableComponent<R> addColumn(Column<R> column)
+    {
+        columns.add(column); return this;
+    }
+
+    /**
+     * Replaces the rows of the table. The list is used as a snapshot by the background workers, it must not
+     * be modified afterwards; pass a new list instead.
+     *
+     * @param rows The new rows.
+     */
+    public void setRows(List<R> rows)
+    {
+        this.rows = rows == null ? Collections.emptyList() : rows; refreshView();
+    }
+
+    /**
+     * Sets the filter applied to the rows, or {@code null} to show every row.
+     *
+     * @param filter The rows to keep.
+     */
+    public void setFilter(Predicate<R> filter)
+    {
+        this.filter = filter; refreshView();
+    }
+
+    /**
+     * Sorts the table by the given column.
+     *
+     * @param column    The index of a sortable column, or -1 to restore the original order.
+     * @param ascending Whether to sort in ascending order.
+     */
+    public void sortBy(int column, boolean ascending)
+    {
+        this.sortColumn = column; this.sortAscending = ascending; refreshView();
+    }
+
+    /**
+     * @return The number of rows currently displayed, after filtering.
+     */
+    public int getVisibleRowCount()
+    {
+        return view.count;
+    }
+
+    /**
+     * Returns the row displayed at the given position, after sorting and filtering.
+     *
+     * @param position The display position.
+     *
+     * @return The row.
+     */
+    public R getDisplayedRow(int position)
+    {
+        return view.rows.get(view.indices[ position ]);
+    }
+
+    /**
+     * @return The font of the cells.
+     */
+    public FontAtlas getFont()
+    {
+        return font != null ? font : Fonts.client(Fonts::getInterMedium);
+    }
+
+    /**
+     * @return The font of the header.
+     */
+    public FontAtlas getHeaderFont()
+    {
+        return headerFont != null ? headerFont : Fonts.client(Fonts::getInterBold);
+    }
+
+    /**
+     * @return The font of the sort icons.
+     */
+    public FontAtlas getIconFont()
+    {
+        return iconFont != null ? iconFont : Fonts.client(Fonts::getLucide);
+    }
+
+    /**
+     * Schedules a new filter and sort pass on the background executor. Any pass in progress is cancelled.
+     */
+    public void refreshView()
+    {
+        int gen = generation.incrementAndGet(); processing = true;
+
+        List<R> snapshot = rows; Predicate<R> rowFilter = filter; boolean ascending = sortAscending;
+        Comparator<R> comparator = sortColumn >= 0 && sortColumn < columns.size() ? columns.get(sortColumn).getComparator() : null;
+
+        BackgroundExecutor.submit(() ->
+        {
+            int[] indices = new int[ snapshot.size() ]; int count;
+            try {
+                count = filterAndSort(indices, generation, gen, snapshot, rowFilter, comparator, ascending);
+            } catch (CancellationException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                publish(new View<>(gen, snapshot, null, 0, e)); throw e;
+            } publish(new View<>(gen, snapshot, indices, count, null));
+        });
+    }
+
+    /**
+     * Hands a finished pass to the render thread. When an older pass finishes after a newer one, the newer
+     * result is kept.
+     */
+    private void publish(View<R> result)
+    {
+        pending.accumulateAndGet(result, (current, next) -> current == null || next.generation >= current.generation ? next : current);
+    }
+
+    /**
+     * Writes to {@code indices} the positions of the rows kept by the filter, in sorted order. Stops with a
+     * {@link CancellationException} as soon as {@code generation} no longer equals {@code gen}.
+     *
+     * @param indices    Receives the row positions, must be at least as long as {@code snapshot}.
+     * @param generation The counter bumped when a newer pass is scheduled.
+     * @param gen        The generation of this pass.
+     * @param snapshot   The rows.
+     * @param rowFilter  The rows to keep, or {@code null} to keep them all.
+     * @param comparator The order of the rows, or {@code null} to keep their original order.
+     * @param ascending  Whether to sort in ascending order.
+     * @param <R>        The type of rows.
+     *
+     * @return The number of rows written to {@code indices}.
+     */
+    static <R> int filterAndSort(int[] indices, AtomicInteger generation, int gen, List<R> snapshot,
+                                 Predicate<R> rowFilter, Comparator<R> comparator, boolean ascending)
+    {
+        int size = snapshot.size(); int count = 0;
+
+        for (int i = 0; i < size; i++) {
+            if ((i & 4095) == 0) checkCancelled(generation, gen);
+            if (rowFilter == null || rowFilter.test(snapshot.get(i))) indices[ count++ ] = i;
+        }
+
+        if (comparator != null) {
+            int[] comparisons = new int[ 1 ];
+            IntComparator order = (a, b) ->
+            {
+                if ((++comparisons[ 0 ] & 8191) == 0) checkCancelled(generation, gen);
+                int result = comparator.compare(snapshot.get(a), snapshot.get(b)); return ascending ? result : -result;
+            };
+            IntArrays.mergeSort(indices, 0, count, order);
+        }
+
+        checkCancelled(generation, gen); return count;
+    }
+
+    private static void checkCancelled(AtomicInteger generation, int gen)
+    {
+        if (generation.get() != gen) throw new CancellationException();
+    }
+
+    /**
+     * Swaps in the latest finished view if it is still current. A failed pass only ends the processing state, the
+     * previous view keeps showing the rows it was computed from.
+     */
+    private void pollView()
+    {
+        View<R> next = pending.getAndSet(null);
+        if (next != null && next.generation == generation.get()) {
+            processing = false; failure = next.failure;
+            if (failure == null) {
+                view = next; clampScroll();
+            }
+        }
+    }
+
+    @Override
+    public void render(DrawContext context, double mouseX, double mouseY, float delta)
+    {
+        if (!visible) return;
+
+        pollView(); updateScroll();
+
+        MatrixStack matrices = context.getMatrices(); matrices.push(); matrices.translate(x, y, 0);
+
+        float bodyHeight = height - headerHeight;
+        Render2DEngine.drawRect(matrices, 0, headerHeight, width, bodyHeight, rowColor);
+
+        Render2DEngine.pushClip(matrices, 0, headerHeight, width, bodyHeight);
+        renderBody(matrices, bodyHeight);
+        Render2DEngine.popClip();
+
+        Render2DEngine.pushClip(matrices, 0, 0, width, headerHeight);
+        renderHeader(matrices);
+        Render2DEngine.popClip();
+
+        matrices.pop();
+    }
+
+    private void renderHeader(MatrixStack matrices)
+    {
+        Render2DEngine.drawRect(matrices, 0, 0, width, headerHeight, headerColor);
+
+        FontAtlas headerFont = getHeaderFont(); FontAtlas iconFont = getIconFont();
+        float textY = headerFont == null ? 0 : (headerHeight - headerFont.getLineHeight(fontSize)) / 2; float columnX = 0;
+        int headerColorArgb = headerTextColor.getRGB();
+
+        for (int c = 0; c < columns.size() && columnX < width; c++) {
+            Column<R> column = columns.get(c);
+
+            if (headerFont != null) headerFont.render(matrices, column.title, columnX + cellPadding, textY, fontSize, headerColorArgb);
+
+            if (c == sortColumn && iconFont != null) {
+                String icon = sortAscending ? sortAscendingIcon : sortDescendingIcon;
+                iconFont.render(matrices, icon, columnX + column.width - cellPadding - fontSize, textY, fontSize, accentColor.getRGB());
+            }
+
+            columnX += column.width;
+            Render2DEngine.drawRect(matrices, columnX - 1, 0, 1, headerHeight, separatorColor);
+        }
+
+        Render2DEngine.drawRect(matrices, 0, headerHeight - 1, width, 1, processing ? accentColor : separatorColor);
+    }
+
+    private void renderBody(MatrixStack matrices, float bodyHeight)
+    {
+        if (view.count == 0) return;
+
+        int first = Math.max(0, (int) (scrollY / rowHeight));
+        int last = Math.min(view.count - 1, (int) ((scrollY + bodyHeight) / rowHeight));
+
+        FontAtlas font = getFont(); int textArgb = textColor.getRGB();
+        float textOffset = font == null ? 0 : (rowHeight - font.getLineHeight(fontSize)) / 2;
+
+        for (int position = first; position <= last; position++) {
+            float rowY = headerHeight + position * rowHeight - scrollY;
+            if ((position & 1) == 1) Render2DEngine.drawRect(matrices, 0, rowY, width, rowHeight, alternateRowColor);
+            if (font == null) continue;
+
+            R row = view.rows.get(view.indices[ position ]); float columnX = 0;
+
+            for (int c = 0; c < columns.size() && columnX < width; c++) {
+                Column<R> column = columns.get(c);
+                String text = column.fit(row, font, fontSize, cellPadding);
+                if (!text.isEmpty()) font.render(matrices, text, columnX + cellPadding, rowY + textOffset, fontSize, textArgb);
+                columnX += column.width;
+            }
+        }
+    }
+
+    @Override
+    public boolean mouseClicked(double mouseX, double mouseY, int button)
+    {
+        if (!visible || !enabled || !contains(mouseX, mouseY)) return false;
+
+        float localX = (float) (mouseX - x); float localY = (float) (mouseY - y);
+        if (localY > headerHeight) return true;
+
+        float columnX = 0;
+        for (int c = 0; c < columns.size(); c++) {
+            Column<R> column = columns.get(c); float right = columnX + column.width;
+
+            if (Math.abs(localX - right) <= RESIZE_HANDLE) {
+                resizingColumn = c; resizeStartX = localX; resizeStartWidth = column.width; return true;
+            }
+
+            if (localX >= columnX && localX < right) {
+                if (column.getComparator() != null) sortBy(c, c != sortColumn || !sortAscending);
+                return true;
+            } columnX = right;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean mouseDragged(double mouseX, double mouseY, int button, double deltaX, double deltaY)
+    {
+        if (resizingColumn < 0 || resizingColumn >= columns.size()) return false;
+
+        columns.get(resizingColumn).setWidth(resizeStartWidth + (float) (mouseX - x) - resizeStartX); return true;
+    }
+
+    @Override
+    public boolean mouseReleased(double mouseX, double mouseY, int button)
+    {
+        boolean wasResizing = resizingColumn >= 0; resizingColumn = -1; return wasResizing;
+    }
+
+    @Override
+    public boolean mouseScrolled(double mouseX, double mouseY, double amount)
+    {
+        if (!visible || !contains(mouseX, mouseY)) return false;
+        targetScrollY -= (float) amount * rowHeight * 3; clampScroll(); return true;
+    }
+
+    private void updateScroll()
+    {
+        long now = System.nanoTime();
+        float dt = lastFrameNanos == 0 ? 0f : Math.min(0.1f, (now - lastFrameNanos) / 1_000_000_000f);
+        lastFrameNanos = now;
+
+        float distance = targetScrollY - scrollY;
+        if (Math.abs(distance) < 0.25f) scrollY = targetScrollY;
+        else scrollY += distance * (1f - (float) Math.exp(-SCROLL_SMOOTHING * dt));
+    }
+
+    private void clampScroll()
+    {
+        float max = Math.max(0f, view.count * rowHeight - (height - headerHeight));
+        targetScrollY = Math.max(0f, Math.min(targetScrollY, max)); scrollY = Math.max(0f, Math.min(scrollY, max));
+    }
+}
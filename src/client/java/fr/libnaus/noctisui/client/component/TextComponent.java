@@ -80,6 +80,12 @@ public class TextComponent extends UIBaseComponent
         this(x, y, text, fontSize, color, NoctisUIClient.getInstance().getFonts().getPoppins());
     }
 
+    @Override
+    public boolean isRecordable()
+    {
+        return true;
+    }
+
     /**
      * Renders the text at its current position with the current font and color.
      *
@@ -1,6 +1,9 @@
 package fr.libnaus.noctisui.client.component;
 
+import fr.libnaus.noctisui.client.component.event.InputDispatcher;
+import fr.libnaus.noctisui.client.component.event.UIEvent;
 import fr.libnaus.noctisui.client.utils.Color;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -27,6 +30,15 @@ public abstract class UIBaseComponent implements UIComponent
 
     protected Color color = Color.WHITE;
 
+    /** The container holding this component, notified when the bounds change. */
+    @Setter(AccessLevel.PACKAGE)
+    protected DivComponent parent;
+
+    /** Whether the pointer is over this component, as resolved by an {@link InputDispatcher}. */
+    protected boolean hovered = false;
+    /** Whether an {@link InputDispatcher} resolves the hover state of this component. */
+    protected boolean inputManaged = false;
+
     public UIBaseComponent(float x, float y, float width, float height)
     {
         this.x = x; this.y = y; this.width = width; this.height = height;
@@ -47,7 +59,7 @@ public abstract class UIBaseComponent implements UIComponent
      */
     public UIBaseComponent setPosition(float x, float y)
     {
-        this.x = x; this.y = y; return this;
+        this.x = x; this.y = y; boundsChanged(); return this;
     }
 
     /**
@@ -60,7 +72,7 @@ public abstract class UIBaseComponent implements UIComponent
      */
     public UIBaseComponent setSize(float width, float height)
     {
-        this.width = width; this.height = height; return this;
+        this.width = width; this.height = height; boundsChanged(); return this;
     }
 
     /**
@@ -75,7 +87,66 @@ public abstract class UIBaseComponent implements UIComponent
      */
     public UIBaseComponent setBounds(float x, float y, float width, float height)
     {
-        this.x = x; this.y = y; this.width = width; this.height = height; return this;
+        this.x = x; this.y = y; this.width = width; this.height = height; boundsChanged(); return this;
+    }
+
+    /**
+     * Sets the X coordinate of the component and re-indexes it in its parent container.
+     *
+     * @param x X coordinate.
+     */
+    public void setX(float x)
+    {
+        this.x = x; boundsChanged();
+    }
+
+    /**
+     * Sets the Y coordinate of the component and re-indexes it in its parent container.
+     *
+     * @param y Y coordinate.
+     */
+    public void setY(float y)
+    {
+        this.y = y; boundsChanged();
+    }
+
+    /**
+     * Sets the width of the component and re-indexes it in its parent container.
+     *
+     * @param width Component width.
+     */
+    public void setWidth(float width)
+    {
+        this.width = width; boundsChanged();
+    }
+
+    /**
+     * Sets the height of the component and re-indexes it in its parent container.
+     *
+     * @param height Component height.
+     */
+    public void setHeight(float height)
+    {
+        this.height = height; boundsChanged();
+    }
+
+    /**
+     * Notifies the parent container that the bounds of this component changed, so that its
+     * hit-testing index stays in sync. Subclasses writing {@code x}, {@code y}, {@code width}
+     * or {@code height} directly should call this afterwards.
+     */
+    protected void boundsChanged()
+    {
+        if (parent != null) parent.childBoundsChanged(this);
+    }
+
+    /**
+     * Notifies the parent container that the result of {@link #isRecordable()} may have changed, so that its cached
+     * value is computed again. Subclasses whose recordability changes over time should call this afterwards.
+     */
+    protected void recordabilityChanged()
+    {
+        if (parent != null) parent.recordabilityChanged();
     }
 
     /**
@@ -91,6 +162,95 @@ public abstract class UIBaseComponent implements UIComponent
         return mouseX >= x && mouseX <= x + width && mouseY >= y && mouseY <= y + height;
     }
 
+    /**
+     * Whether this component may draw, outside its bounds, content that takes clicks, such as a suggestion popup.
+     * Containers test such children with {@link #overlayContains(double, double)} before any other child, so the
+     * popup wins over the siblings it covers.
+     *
+     * @return false by default.
+     */
+    public boolean hasOverlay()
+    {
+        return false;
+    }
+
+    /**
+     * Checks whether a point is over the content this component currently draws outside its bounds.
+     *
+     * @param mouseX X coordinate of mouse.
+     * @param mouseY Y coordinate of mouse.
+     *
+     * @return false by default.
+     */
+    public boolean overlayContains(double mouseX, double mouseY)
+    {
+        return false;
+    }
+
+    /**
+     * Checks whether the pointer is over this component. When the component is attached to an
+     * {@link InputDispatcher} the hover state resolved once per frame is used, otherwise the bounds are tested.
+     *
+     * @param mouseX X coordinate of mouse.
+     * @param mouseY Y coordinate of mouse.
+     *
+     * @return true if the pointer is over this component.
+     */
+    protected boolean isPointerOver(double mouseX, double mouseY)
+    {
+        return inputManaged ? hovered : contains(mouseX, mouseY);
+    }
+
+    /**
+     * Whether this component can receive the keyboard focus when clicked through an {@link InputDispatcher}.
+     *
+     * @return false by default.
+     */
+    public boolean isFocusable()
+    {
+        return false;
+    }
+
+    /**
+     * Whether this component can be rendered on a worker thread by a container with parallel rendering enabled.
+     * A recordable component only draws through {@code Render2DEngine} and {@code FontAtlas}, and does not touch
+     * state shared with other components, such as the global animator, while rendering. Containers cache the
+     * answer: call {@link #recordabilityChanged()} when it changes.
+     *
+     * @return false by default.
+     */
+    public boolean isRecordable()
+    {
+        return false;
+    }
+
+    /**
+     * Receives an event routed by an {@link InputDispatcher}.
+     * <p>
+     * The default implementation maps events reaching their target to the matching {@link UIComponent}
+     * callbacks and cancels the event when the callback reports it as handled.
+     * </p>
+     *
+     * @param event The event, only valid for the duration of the call.
+     */
+    public void onEvent(UIEvent event)
+    {
+        if (event.getPhase() != UIEvent.Phase.TARGET) return;
+
+        boolean handled = switch (event.getType()) {
+            case MOUSE_DOWN -> mouseClicked(event.getX(), event.getY(), event.getButton());
+            case MOUSE_UP -> mouseReleased(event.getX(), event.getY(), event.getButton());
+            case MOUSE_DRAG -> mouseDragged(event.getX(), event.getY(), event.getButton(), event.getDeltaX(), event.getDeltaY());
+            case MOUSE_SCROLL -> mouseScrolled(event.getX(), event.getY(), event.getDeltaY());
+            case KEY_PRESS -> keyPressed(event.getKeyCode(), event.getScanCode(), event.getModifiers());
+            case KEY_RELEASE -> keyReleased(event.getKeyCode(), event.getScanCode(), event.getModifiers());
+            case CHAR_TYPED -> charTyped(event.getCharacter(), event.getModifiers());
+            default -> false;
+        };
+
+        if (handled) event.cancel();
+    }
+
     /**
      * Utility: toggle visibility.
      *
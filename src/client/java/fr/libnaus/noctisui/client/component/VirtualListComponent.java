@@ -0,0 +1,371 @@
+package fr.libnaus.noctisui.client.component;
+
+import fr.libnaus.noctisui.client.api.system.Render2DEngine;
+import fr.libnaus.noctisui.client.common.QuickImports;
+import fr.libnaus.noctisui.client.utils.Color;
+import lombok.Getter;
+import lombok.Setter;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.util.math.MatrixStack;
+
+import java.util.ArrayDeque;
+
+/**
+ * A scrollable list that only materializes the rows currently on screen.
+ *
+ * <p>Rows are provided by a {@link DataSource}: the list asks it to create row components lazily and to bind
+ * them to item indices. Rows leaving the viewport are unbound and returned to a pool, then rebound to the
+ * items scrolling in, so the number of live row components only depends on the viewport height.</p>
+ *
+ * <p>Item heights are either fixed ({@link #setItemHeight(float)}) or measured through a {@link HeightProvider}.
+ * Measured heights are accumulated into an offset table when the data changes, so finding the visible range
+ * is a binary search and the cost of a frame does not depend on the number of items.</p>
+ *
+ * <pre>
+ * {@code
+ * VirtualListComponent<TextComponent> list = new VirtualListComponent<>(10, 10, 200, 300, new VirtualListComponent.DataSource<>()
+ * {
+ *     public int size() { return players.size(); }
+ *     public TextComponent createRow() { return new TextComponent(0, 0, "", 9, Color.WHITE); }
+ *     public void bindRow(TextComponent row, int index) { row.setText(players.get(index).getName()); }
+ * });
+ * list.setItemHeight(14);
+ * }
+ * </pre>
+ *
+ * @param <C> The type of row components.
+ *
+ * @author axeno
+ */
+public class VirtualListComponent<C extends UIBaseComponent> extends UIBaseComponent implements QuickImports
+{
+
+    /**
+     * Provides the items displayed by a {@link VirtualListComponent}.
+     *
+     * @param <C> The type of row components.
+     */
+    public interface DataSource<C extends UIBaseComponent>
+    {
+
+        /**
+         * @return The number of items in the list.
+         */
+        int size();
+
+        /**
+         * Creates a new, unbound row component. Only called when the pool of recycled rows is empty.
+         *
+         * @return A new row component.
+         */
+        C createRow();
+
+        /**
+         * Binds a row component to the item at the given index.
+         *
+         * @param row   The row to fill.
+         * @param index The index of the item.
+         */
+        void bindRow(C row, int index);
+
+        /**
+         * Called when a row leaves the viewport and goes back to the pool.
+         *
+         * @param row The recycled row.
+         */
+        default void unbindRow(C row)
+        {
+        }
+    }
+
+    /**
+     * Measures the height of an item.
+     */
+    @FunctionalInterface
+    public interface HeightProvider
+    {
+
+        float getHeight(int index);
+    }
+
+    private static final float SCROLL_SMOOTHING = 18f;
+
+    @Getter
+    private final DataSource<C> dataSource;
+
+    @Getter
+    private float itemHeight = 16f;
+    @Getter
+    private HeightProvider heightProvider;
+    private float[] offsets = new float[ 1 ];
+    @Getter
+    private int itemCount = 0;
+
+    @Getter
+    @Setter
+    private int overscan = 3;
+    @Getter
+    @Setter
+    private float scrollStep = 24f;
+
+    @Getter
+    private float scrollY = 0f;
+    private float targetScrollY = 0f;
+    private long lastFrameNanos = 0;
+
+    @Getter
+    @Setter
+    private Color backgroundColor = null;
+    @Getter
+    @Setter
+    private Color scrollbarColor = new Color(255, 255, 255, 60);
+    @Getter
+    @Setter
+    private float scrollbarWidth = 3f;
+
+    private final ArrayDeque<C> pool = new ArrayDeque<>();
+    private Object[] activeRows = new Object[ 0 ];
+    private Object[] swapRows = new Object[ 0 ];
+    private int firstActive = 0;
+    private int activeCount = 0;
+
+    /**
+     * Creates a new virtualized list.
+     *
+     * @param x          The X coordinate of the list.
+     * @param y          The Y coordinate of the list.
+     * @param width      The width of the list.
+     * @param height     The height of the viewport.
+     * @param dataSource The source of items and row components.
+     */
+    public VirtualListComponent(float x, float y, float width, float height, DataSource<C> dataSource)
+    {
+        super(x, y, width, height); this.dataSource = dataSource; notifyDataChanged();
+    }
+
+    /**
+     * Uses a fixed height for every item.
+     *
+     * @param itemHeight The height of each item, in pixels.
+     */
+    public void setItemHeight(float itemHeight)
+    {
+        this.itemHeight = Math.max(1f, itemHeight); this.heightProvider = null; notifyDataChanged();
+    }
+
+    /**
+     * Uses measured heights for items. Heights are read again on {@link #notifyDataChanged()}.
+     *
+     * @param heightProvider The callback measuring each item.
+     */
+    public void setHeightProvider(HeightProvider heightProvider)
+    {
+        this.heightProvider = heightProvider; notifyDataChanged();
+    }
+
+    /**
+     * Must be called when items are added, removed, reordered or resized.
+     * Active rows are rebound on the next frame.
+     */
+    public void notifyDataChanged()
+    {
+        itemCount = Math.max(0, dataSource.size());
+
+        if (heightProvider != null) {
+            if (offsets.length < itemCount + 1) offsets = new float[ itemCount + 1 ];
+            offsets[ 0 ] = 0f;
+            for (int i = 0; i < itemCount; i++)
+                offsets[ i + 1 ] = offsets[ i ] + Math.max(0f, heightProvider.getHeight(i));
+        }
+
+        recycleAll(); clampScroll();
+    }
+
+    /**
+     * @return The total height of all items.
+     */
+    public float getContentHeight()
+    {
+        return heightProvider != null ? offsets[ itemCount ] : itemCount * itemHeight;
+    }
+
+    /**
+     * Smoothly scrolls so that the given item is at the top of the viewport.
+     *
+     * @param index The index of the item.
+     */
+    public void scrollToIndex(int index)
+    {
+        targetScrollY = itemTop(Math.max(0, Math.min(index, itemCount))); clampScroll();
+    }
+
+    /**
+     * Scrolls by the given amount of pixels, with smoothing.
+     *
+     * @param amount The number of pixels to scroll, positive values scroll down.
+     */
+    public void scrollBy(float amount)
+    {
+        targetScrollY += amount; clampScroll();
+    }
+
+    /**
+     * Finds the item at the given position in content space.
+     *
+     * @param contentY The Y coordinate relative to the top of the content.
+     *
+     * @return The item index, or -1 if the position is outside the content.
+     */
+    public int indexAt(float contentY)
+    {
+        if (contentY < 0 || itemCount == 0 || contentY >= getContentHeight()) return -1;
+
+        if (heightProvider == null) return Math.min(itemCount - 1, (int) (contentY / itemHeight));
+
+        int low = 0, high = itemCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (offsets[ mid ] <= contentY) low = mid;
+            else high = mid - 1;
+        } return low;
+    }
+
+    @Override
+    public void render(DrawContext context, double mouseX, double mouseY, float delta)
+    {
+        if (!visible) return;
+
+        updateScroll();
+
+        MatrixStack matrices = context.getMatrices(); matrices.push(); matrices.translate(x, y, 0);
+
+        if (backgroundColor != null) Render2DEngine.drawRect(matrices, 0, 0, width, height, backgroundColor);
+
+        layoutRows();
+
+        Render2DEngine.pushClip(matrices, 0, 0, width, height);
+
+        double localX = mouseX - x; double localY = mouseY - y;
+        for (int i = 0; i < activeCount; i++) {
+            C row = row(i); if (row.isVisible()) row.render(context, localX, localY, delta);
+        }
+
+        Render2DEngine.popClip();
+
+        renderScrollbar(matrices); matrices.pop();
+    }
+
+    @Override
+    public boolean mouseClicked(double mouseX, double mouseY, int button)
+    {
+        if (!visible || !enabled || !contains(mouseX, mouseY)) return false;
+
+        int index = indexAt((float) (mouseY - y + scrollY));
+        if (index < firstActive || index >= firstActive + activeCount) return false;
+
+        return row(index - firstActive).mouseClicked(mouseX - x, mouseY - y, button);
+    }
+
+    @Override
+    public boolean mouseScrolled(double mouseX, double mouseY, double amount)
+    {
+        if (!visible || !contains(mouseX, mouseY)) return false;
+        scrollBy((float) (-amount * scrollStep)); return true;
+    }
+
+    /**
+     * Advances the smooth scroll towards its target using the real frame time, so the scroll speed does not
+     * depend on the frame rate.
+     */
+    private void updateScroll()
+    {
+        long now = System.nanoTime();
+        float dt = lastFrameNanos == 0 ? 0f : Math.min(0.1f, (now - lastFrameNanos) / 1_000_000_000f);
+        lastFrameNanos = now;
+
+        float distance = targetScrollY - scrollY;
+        if (Math.abs(distance) < 0.25f) scrollY = targetScrollY;
+        else scrollY += distance * (1f - (float) Math.exp(-SCROLL_SMOOTHING * dt));
+    }
+
+    /**
+     * Computes the visible range plus overscan, recycles the rows that left it and binds the rows that entered it.
+     */
+    private void layoutRows()
+    {
+        int first = 0, last = -1;
+        if (itemCount > 0) {
+            int top = indexAt(Math.max(0f, scrollY));
+            int bottom = indexAt(Math.min(getContentHeight() - 0.001f, scrollY + height));
+            first = Math.max(0, (top < 0 ? 0 : top) - overscan);
+            last = Math.min(itemCount - 1, (bottom < 0 ? itemCount - 1 : bottom) + overscan);
+        }
+
+        int count = last - first + 1;
+        if (swapRows.length < count) swapRows = new Object[ Math.max(count, swapRows.length * 2) ];
+
+        for (int i = 0; i < activeCount; i++) {
+            int index = firstActive + i; C row = row(i); activeRows[ i ] = null;
+            if (index >= first && index <= last) swapRows[ index - first ] = row;
+            else recycle(row);
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (swapRows[ i ] == null) {
+                C row = pool.isEmpty() ? dataSource.createRow() : pool.pop();
+                dataSource.bindRow(row, first + i); swapRows[ i ] = row;
+            }
+
+            C row = rowIn(swapRows, i); float top = itemTop(first + i) - scrollY;
+            row.setBounds(0, top, width, itemTop(first + i + 1) - itemTop(first + i));
+        }
+
+        Object[] previous = activeRows; activeRows = swapRows; swapRows = previous;
+        firstActive = first; activeCount = Math.max(0, count);
+    }
+
+    private void renderScrollbar(MatrixStack matrices)
+    {
+        float contentHeight = getContentHeight();
+        if (scrollbarColor == null || contentHeight <= height) return;
+
+        float thumbHeight = Math.max(12f, height * height / contentHeight);
+        float thumbY = (height - thumbHeight) * (scrollY / (contentHeight - height));
+
+        Render2DEngine.drawRoundedRect(matrices, width - scrollbarWidth - 1, thumbY, scrollbarWidth, thumbHeight, scrollbarWidth / 2, scrollbarColor);
+    }
+
+    private void recycleAll()
+    {
+        for (int i = 0; i < activeCount; i++) {
+            recycle(row(i)); activeRows[ i ] = null;
+        } activeCount = 0;
+    }
+
+    private void recycle(C row)
+    {
+        dataSource.unbindRow(row); pool.push(row);
+    }
+
+    private void clampScroll()
+    {
+        float max = Math.max(0f, getContentHeight() - height);
+        targetScrollY = Math.max(0f, Math.min(targetScrollY, max)); scrollY = Math.max(0f, Math.min(scrollY, max));
+    }
+
+    private float itemTop(int index)
+    {
+        return heightProvider != null ? offsets[ index ] : index * itemHeight;
+    }
+
+    private C row(int slot)
+    {
+        return rowIn(activeRows, slot);
+    }
+
+    @SuppressWarnings("unchecked")
+    private C rowIn(Object[] rows, int slot)
+    {
+        return (C) rows[ slot ];
+    }
+}
@@ -0,0 +1,358 @@
+package fr.libnaus.noctisui.client.component.event;
+
+import fr.libnaus.noctisui.client.component.DivComponent;
+import fr.libnaus.noctisui.client.component.UIBaseComponent;
+import lombok.Getter;
+import net.minecraft.client.gui.DrawContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Routes input from a screen to a tree of components rooted at a {@link DivComponent}.
+ *
+ * <p>The dispatcher resolves the hovered path once per frame with the container hit-testing index,
+ * updates {@link UIBaseComponent#isHovered()} and sends enter/leave events when the path changes.
+ * Mouse moves and drags are coalesced and delivered at most once per frame. Other events go through
+ * capture (root to target), target and bubble (target to root) phases, and stop as soon as a component
+ * cancels them.</p>
+ *
+ * <p>Components attached to a dispatcher no longer test the pointer themselves, they read the hover state
+ * resolved here.</p>
+ *
+ * <pre>
+ * {@code
+ * public class MyScreen extends Screen
+ * {
+ *     private final DivComponent root = new DivComponent(0, 0, 400, 300);
+ *     private final InputDispatcher input = new InputDispatcher(root);
+ *
+ *     public void render(DrawContext context, int mouseX, int mouseY, float delta)
+ *     {
+ *         input.render(context, mouseX, mouseY, delta);
+ *     }
+ *
+ *     public boolean mouseClicked(double mouseX, double mouseY, int button)
+ *     {
+ *         return input.mouseClicked(mouseX, mouseY, button);
+ *     }
+ * }
+ * }
+ * </pre>
+ *
+ * @author axeno
+ * @see UIEvent
+ */
+public class InputDispatcher
+{
+
+    @Getter
+    private final DivComponent root;
+
+    private final List<UIBaseComponent> hoverPath = new ArrayList<>();
+    private final List<UIBaseComponent> scratchPath = new ArrayList<>();
+    private final List<UIBaseComponent> pressedPath = new ArrayList<>();
+    private final List<UIBaseComponent> focusPath = new ArrayList<>();
+    private final List<UIBaseComponent> targetPath = new ArrayList<>();
+
+    private float[] offsetX = new float[ 16 ];
+    private float[] offsetY = new float[ 16 ];
+
+    private final UIEvent[] eventPool = new UIEvent[ 8 ];
+    private int eventDepth = 0;
+
+    @Getter
+    private UIBaseComponent focused;
+
+    private double mouseX = Double.NaN;
+    private double mouseY = Double.NaN;
+    private boolean moveDirty = false;
+
+    private boolean dragPending = false;
+    private int dragButton;
+    private double dragX, dragY, dragDeltaX, dragDeltaY;
+
+    /**
+     * Creates a dispatcher for the given component tree.
+     *
+     * @param root The root container receiving screen coordinates.
+     */
+    public InputDispatcher(DivComponent root)
+    {
+        this.root = root; root.setInputManaged(true);
+        for (int i = 0; i < eventPool.length; i++)
+            eventPool[ i ] = new UIEvent();
+    }
+
+    /**
+     * Resolves the hovered path for this frame, flushes coalesced pointer events, then renders the tree.
+     *
+     * @param context The {@link DrawContext} used for rendering.
+     * @param mouseX  The current mouse X position.
+     * @param mouseY  The current mouse Y position.
+     * @param delta   Partial tick delta for animations or transitions.
+     */
+    public void render(DrawContext context, double mouseX, double mouseY, float delta)
+    {
+        update(mouseX, mouseY); root.render(context, mouseX, mouseY, delta);
+    }
+
+    /**
+     * Resolves the hovered path and flushes the pending move and drag events.
+     * Call this once per frame if the tree is rendered without {@link #render(DrawContext, double, double, float)}.
+     *
+     * @param mouseX The current mouse X position.
+     * @param mouseY The current mouse Y position.
+     */
+    public void update(double mouseX, double mouseY)
+    {
+        if (mouseX != this.mouseX || mouseY != this.mouseY) {
+            this.mouseX = mouseX; this.mouseY = mouseY; moveDirty = true;
+        }
+
+        flushDrag(); resolveHover(this.mouseX, this.mouseY);
+
+        if (moveDirty && !hoverPath.isEmpty()) {
+            UIEvent event = obtain(UIEventType.MOUSE_MOVE, last(hoverPath)).pointer(this.mouseX, this.mouseY, -1, 0, 0);
+            dispatch(hoverPath, event); release();
+        } moveDirty = false;
+    }
+
+    /**
+     * Records a pointer move. Moves are coalesced and delivered on the next {@link #update(double, double)}.
+     */
+    public void mouseMoved(double mouseX, double mouseY)
+    {
+        if (mouseX == this.mouseX && mouseY == this.mouseY) return;
+        this.mouseX = mouseX; this.mouseY = mouseY; moveDirty = true;
+    }
+
+    public boolean mouseClicked(double mouseX, double mouseY, int button)
+    {
+        flushDrag(); this.mouseX = mouseX; this.mouseY = mouseY; resolveHover(mouseX, mouseY);
+
+        pressedPath.clear(); pressedPath.addAll(hoverPath);
+        if (hoverPath.isEmpty()) {
+            setFocus(null); return false;
+        }
+
+        UIEvent event = obtain(UIEventType.MOUSE_DOWN, last(hoverPath)).pointer(mouseX, mouseY, button, 0, 0);
+        boolean handled = dispatch(hoverPath, event); release();
+
+        setFocus(focusableIn(pressedPath)); return handled;
+    }
+
+    public boolean mouseReleased(double mouseX, double mouseY, int button)
+    {
+        flushDrag();
+
+        List<UIBaseComponent> path = pressedPath.isEmpty() ? hoverPath : pressedPath;
+        if (path.isEmpty()) return false;
+
+        UIEvent event = obtain(UIEventType.MOUSE_UP, last(path)).pointer(mouseX, mouseY, button, 0, 0);
+        boolean handled = dispatch(path, event); release();
+
+        pressedPath.clear(); return handled;
+    }
+
+    /**
+     * Records a drag. Drags are delivered to the component pressed at mouse down and coalesced until the
+     * next frame or the next button event, with the deltas summed.
+     */
+    public boolean mouseDragged(double mouseX, double mouseY, int button, double deltaX, double deltaY)
+    {
+        if (pressedPath.isEmpty()) return false;
+
+        if (dragPending && dragButton != button) flushDrag();
+
+        dragPending = true; dragButton = button; dragX = mouseX; dragY = mouseY;
+        dragDeltaX += deltaX; dragDeltaY += deltaY; return true;
+    }
+
+    public boolean mouseScrolled(double mouseX, double mouseY, double amount)
+    {
+        resolveHover(mouseX, mouseY); if (hoverPath.isEmpty()) return false;
+
+        UIEvent event = obtain(UIEventType.MOUSE_SCROLL, last(hoverPath)).pointer(mouseX, mouseY, -1, 0, amount);
+        boolean handled = dispatch(hoverPath, event); release(); return handled;
+    }
+
+    public boolean keyPressed(int keyCode, int scanCode, int modifiers)
+    {
+        return dispatchKey(UIEventType.KEY_PRESS, keyCode, scanCode, modifiers, (char) 0);
+    }
+
+    public boolean keyReleased(int keyCode, int scanCode, int modifiers)
+    {
+        return dispatchKey(UIEventType.KEY_RELEASE, keyCode, scanCode, modifiers, (char) 0);
+    }
+
+    public boolean charTyped(char chr, int modifiers)
+    {
+        return dispatchKey(UIEventType.CHAR_TYPED, 0, 0, modifiers, chr);
+    }
+
+    /**
+     * Moves the keyboard focus, sending {@link UIEventType#FOCUS_LOST} and {@link UIEventType#FOCUS_GAINED}.
+     *
+     * @param component The component to focus, or {@code null} to clear the focus.
+     */
+    public void setFocus(UIBaseComponent component)
+    {
+        if (component == focused) return;
+
+        UIBaseComponent previous = focused; focused = component;
+
+        if (previous != null) deliverToTarget(UIEventType.FOCUS_LOST, previous);
+        if (component != null) deliverToTarget(UIEventType.FOCUS_GAINED, component);
+    }
+
+    /**
+     * @return The deepest hovered component resolved on the last update, or {@code null}.
+     */
+    public UIBaseComponent getHovered()
+    {
+        return hoverPath.isEmpty() ? null : last(hoverPath);
+    }
+
+    private boolean dispatchKey(UIEventType type, int keyCode, int scanCode, int modifiers, char chr)
+    {
+        buildPath(focused != null ? focused : root, focusPath); if (focusPath.isEmpty()) return false;
+
+        UIEvent event = obtain(type, last(focusPath)).key(keyCode, scanCode, modifiers, chr);
+        boolean handled = dispatch(focusPath, event); release(); return handled;
+    }
+
+    private void flushDrag()
+    {
+        if (!dragPending) return; dragPending = false;
+
+        if (!pressedPath.isEmpty()) {
+            UIEvent event = obtain(UIEventType.MOUSE_DRAG, last(pressedPath)).pointer(dragX, dragY, dragButton, dragDeltaX, dragDeltaY);
+            dispatch(pressedPath, event); release();
+        } dragDeltaX = dragDeltaY = 0;
+    }
+
+    /**
+     * Hit-tests the tree and diffs the new hovered path with the previous one, sending leave events
+     * deepest first and enter events outermost first.
+     */
+    private void resolveHover(double mouseX, double mouseY)
+    {
+        scratchPath.clear();
+        if (!Double.isNaN(mouseX)) buildPath(root.hitTest(mouseX, mouseY), scratchPath);
+
+        int common = 0; int max = Math.min(hoverPath.size(), scratchPath.size());
+        while (common < max && hoverPath.get(common) == scratchPath.get(common))
+            common++;
+
+        if (common == hoverPath.size() && common == scratchPath.size()) return;
+
+        for (int i = hoverPath.size() - 1; i >= common; i--) {
+            UIBaseComponent left = hoverPath.get(i); left.setHovered(false);
+            deliverToTarget(UIEventType.MOUSE_LEAVE, left);
+        }
+
+        hoverPath.clear(); hoverPath.addAll(scratchPath);
+
+        for (int i = common; i < hoverPath.size(); i++) {
+            UIBaseComponent entered = hoverPath.get(i); entered.setHovered(true);
+            deliverToTarget(UIEventType.MOUSE_ENTER, entered);
+        }
+    }
+
+    private void deliverToTarget(UIEventType type, UIBaseComponent component)
+    {
+        buildPath(component, targetPath); computeOffsets(targetPath);
+
+        int depth = targetPath.size() - 1;
+        float ox = depth >= 0 ? offsetX[ depth ] : 0; float oy = depth >= 0 ? offsetY[ depth ] : 0;
+
+        UIEvent event = obtain(type, component).pointer(mouseX, mouseY, -1, 0, 0);
+        event.deliverTo(component, UIEvent.Phase.TARGET, ox, oy); release();
+    }
+
+    /**
+     * Delivers an event along a root-to-target path.
+     *
+     * @return {@code true} if a component cancelled the event.
+     */
+    private boolean dispatch(List<UIBaseComponent> path, UIEvent event)
+    {
+        int n = path.size(); computeOffsets(path);
+
+        if (event.getType().propagates()) {
+            for (int i = 0; i < n - 1; i++) {
+                event.deliverTo(path.get(i), UIEvent.Phase.CAPTURE, offsetX[ i ], offsetY[ i ]);
+                if (event.isCancelled()) return true;
+            }
+        }
+
+        event.deliverTo(path.get(n - 1), UIEvent.Phase.TARGET, offsetX[ n - 1 ], offsetY[ n - 1 ]);
+        if (event.isCancelled()) return true;
+
+        if (event.getType().propagates()) {
+            for (int i = n - 2; i >= 0; i--) {
+                event.deliverTo(path.get(i), UIEvent.Phase.BUBBLE, offsetX[ i ], offsetY[ i ]);
+                if (event.isCancelled()) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes, for each component of the path, the offset between screen space and the coordinate
+     * space of its parent.
+     */
+    private void computeOffsets(List<UIBaseComponent> path)
+    {
+        int n = path.size();
+        if (offsetX.length < n) {
+            offsetX = Arrays.copyOf(offsetX, n * 2); offsetY = Arrays.copyOf(offsetY, n * 2);
+        }
+
+        float ox = 0, oy = 0;
+        for (int i = 0; i < n; i++) {
+            offsetX[ i ] = ox; offsetY[ i ] = oy;
+            UIBaseComponent component = path.get(i);
+            if (component instanceof DivComponent div) {
+                ox += div.getContentOffsetX(); oy += div.getContentOffsetY();
+            }
+        }
+    }
+
+    private void buildPath(UIBaseComponent target, List<UIBaseComponent> out)
+    {
+        out.clear();
+        for (UIBaseComponent c = target; c != null; c = c.getParent()) {
+            out.add(c); if (c == root) break;
+        }
+
+        if (!out.isEmpty() && last(out) != root) out.clear(); Collections.reverse(out);
+    }
+
+    private static UIBaseComponent focusableIn(List<UIBaseComponent> path)
+    {
+        for (int i = path.size() - 1; i >= 0; i--)
+            if (path.get(i).isFocusable()) return path.get(i);
+        return null;
+    }
+
+    private UIEvent obtain(UIEventType type, UIBaseComponent target)
+    {
+        UIEvent event = eventDepth < eventPool.length ? eventPool[ eventDepth ] : new UIEvent(); eventDepth++;
+        return event.reset(type, target);
+    }
+
+    private void release()
+    {
+        eventDepth--;
+    }
+
+    private static UIBaseComponent last(List<UIBaseComponent> path)
+    {
+        return path.get(path.size() - 1);
+    }
+}
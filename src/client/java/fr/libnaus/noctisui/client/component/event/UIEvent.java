@@ -0,0 +1,102 @@
+package fr.libnaus.noctisui.client.component.event;
+
+import fr.libnaus.noctisui.client.component.UIBaseComponent;
+import lombok.Getter;
+
+/**
+ * An input event routed through the component tree by the {@link InputDispatcher}.
+ *
+ * <p>Events are pooled and reused by the dispatcher, so handlers must not keep a reference to them
+ * after {@link UIBaseComponent#onEvent(UIEvent)} returns.</p>
+ *
+ * <p>The {@link #getX()} and {@link #getY()} coordinates are expressed in the coordinate space of the
+ * parent of {@link #getCurrentTarget()}, which is the space used by {@link UIBaseComponent#contains(double, double)}.</p>
+ *
+ * <pre>
+ * {@code
+ * // inside a UIBaseComponent subclass
+ * public void onEvent(UIEvent event)
+ * {
+ *     if (event.getType() == UIEventType.MOUSE_SCROLL && event.getPhase() == UIEvent.Phase.BUBBLE) {
+ *         scrollBy(event.getDeltaY());
+ *         event.cancel();
+ *     }
+ * }
+ * }
+ * </pre>
+ *
+ * @author axeno
+ * @see UIEventType
+ */
+@Getter
+public class UIEvent
+{
+
+    /**
+     * The phase in which an event is delivered to a component.
+     */
+    public enum Phase
+    {
+        CAPTURE, TARGET, BUBBLE
+    }
+
+    private UIEventType type;
+    private Phase phase;
+    private UIBaseComponent target;
+    private UIBaseComponent currentTarget;
+
+    private double screenX;
+    private double screenY;
+    private double x;
+    private double y;
+    private double deltaX;
+    private double deltaY;
+    private int button;
+
+    private int keyCode;
+    private int scanCode;
+    private int modifiers;
+    private char character;
+
+    private boolean cancelled;
+
+    UIEvent()
+    {
+    }
+
+    /**
+     * Stops the propagation of this event. Components later in the capture/bubble chain will not receive it,
+     * and the dispatcher reports the event as handled.
+     */
+    public void cancel()
+    {
+        this.cancelled = true;
+    }
+
+    UIEvent reset(UIEventType type, UIBaseComponent target)
+    {
+        this.type = type; this.target = target; this.currentTarget = null; this.phase = Phase.TARGET;
+        this.screenX = this.screenY = this.x = this.y = this.deltaX = this.deltaY = 0;
+        this.button = this.keyCode = this.scanCode = this.modifiers = 0; this.character = 0;
+        this.cancelled = false; return this;
+    }
+
+    UIEvent pointer(double screenX, double screenY, int button, double deltaX, double deltaY)
+    {
+        this.screenX = screenX; this.screenY = screenY; this.button = button; this.deltaX = deltaX;
+        this.deltaY = deltaY; return this;
+    }
+
+    UIEvent key(int keyCode, int scanCode, int modifiers, char character)
+    {
+        this.keyCode = keyCode; this.scanCode = scanCode; this.modifiers = modifiers; this.character = character;
+        return this;
+    }
+
+    void deliverTo(UIBaseComponent component, Phase phase, double offsetX, double offsetY)
+    {
+        this.currentTarget = component; this.phase = phase;
+        this.x = screenX - offsetX; this.y = screenY - offsetY;
+        component.onEvent(this);
+    }
+}
@@ -0,0 +1,42 @@
+package fr.libnaus.noctisui.client.component.event;
+
+/**
+ * Enum representing the kinds of input events routed by the {@link InputDispatcher}.
+ *
+ * <p>Enter, leave and focus events are delivered to their target only. Every other event goes
+ * through the capture, target and bubble phases.</p>
+ *
+ * @author axeno
+ * @see UIEvent
+ */
+public enum UIEventType
+{
+    MOUSE_ENTER(false),
+    MOUSE_LEAVE(false),
+    MOUSE_MOVE(true),
+    MOUSE_DOWN(true),
+    MOUSE_UP(true),
+    MOUSE_DRAG(true),
+    MOUSE_SCROLL(true),
+    KEY_PRESS(true),
+    KEY_RELEASE(true),
+    CHAR_TYPED(true),
+    FOCUS_GAINED(false),
+    FOCUS_LOST(false);
+
+    private final boolean propagates;
+
+    UIEventType(boolean propagates)
+    {
+        this.propagates = propagates;
+    }
+
+    /**
+     * @return {@code true} if the event goes through capture and bubble phases, {@code false} if it is
+     * only delivered to its target.
+     */
+    public boolean propagates()
+    {
+        return propagates;
+    }
+}
@@ -0,0 +1,279 @@
+package fr.libnaus.noctisui.client.component.input;
+
+import fr.libnaus.noctisui.client.api.system.render.font.FontAtlas;
+import fr.libnaus.noctisui.client.component.input.syntax.CLikeLexer;
+import fr.libnaus.noctisui.client.component.input.syntax.Lexer;
+import fr.libnaus.noctisui.client.component.input.syntax.TokenType;
+import fr.libnaus.noctisui.client.utils.Color;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * A {@link TextAreaComponent} highlighting code with a pluggable {@link Lexer}.
+ *
+ * <p>The lexer state at the start of every line is cached. An edit only invalidates the states from the edited
+ * line on, and re-lexing stops as soon as a line ends in the state cached for the next one, past the edited
+ * lines. Lines are only lexed when they are drawn, so opening a block comment at the top of a large file costs
+ * the lines down to the viewport, not the whole file. The tokens of the drawn lines are cached too, and dropped
+ * only for the lines an edit touched or whose start state changed, so redrawing unchanged text lexes nothing.
+ * Tokens become colored runs of the single text draw call of the text area.</p>
+ *
+ * <pre>
+ * {@code
+ * CodeEditorComponent editor = new CodeEditorComponent(10, 10, 400, 300, fontAtlas, CLikeLexer.JAVASCRIPT);
+ * editor.setSoftWrap(false);
+ * editor.setTokenColor(TokenType.KEYWORD, new Color(255, 121, 198));
+ * editor.setText(script);
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public class CodeEditorComponent extends TextAreaComponent
+{
+
+    private static final TokenType[] TOKEN_TYPES = TokenType.values();
+    /**
+     * The number of lines whose tokens are cached before the ones far from the drawn line are dropped, far more than
+     * a viewport shows.
+     */
+    private static final int TOKEN_CACHE_LINES = 1024;
+
+    @Getter
+    private Lexer lexer;
+    private final int[] tokenColors = new int[ TOKEN_TYPES.length ];
+
+    /** The start state of every line. */
+    private final IntArrayList states = new IntArrayList();
+    /** The last line whose start state is known to be right. */
+    private int validThrough = 0;
+    /** The offset of the first character of that line, or -1 once every state is right. */
+    private int validThroughStart = 0;
+    /** The last line edited since the cache was right: past it, a state matching the cached one means the rest is right. */
+    private int editedThrough = 0;
+
+    private final IntArrayList tokens = new IntArrayList();
+    private final Lexer.TokenSink tokenCollector = (start, end, type) ->
+    {
+        tokens.add(start); tokens.add(end); tokens.add(type.ordinal());
+    };
+    /**
+     * The tokens of every line, as (start, end, type) triples with offsets relative to the line start, or
+     * {@code null} when the line was not lexed since it last changed. Kept parallel to {@link #states}.
+     */
+    private final ObjectArrayList<int[]> lineTokens = new ObjectArrayList<>();
+    /** The number of lines in {@link #lineTokens} holding tokens. */
+    private int cachedTokenLines = 0;
+
+    /**
+     * The number of lines lexed for drawing since the editor was created, cached tokens excluded.
+     */
+    @Getter
+    private long tokenizedLines = 0;
+
+    /**
+     * The number of lines lexed by the last catch-up of the state cache.
+     */
+    @Getter
+    private int lastRelexLines = 0;
+    /**
+     * The time spent by the last catch-up of the state cache, in nanoseconds.
+     */
+    @Getter
+    private long lastRelexNanos = 0;
+
+    /**
+     * Creates an empty code editor.
+     *
+     * @param x         The X-coordinate of the editor.
+     * @param y         The Y-coordinate of the editor.
+     * @param width     The width of the editor.
+     * @param height    The height of the editor.
+     * @param fontAtlas The FontAtlas to use for rendering text.
+     * @param lexer     The lexer splitting lines into tokens, or {@code null} for plain text.
+     */
+    public CodeEditorComponent(float x, float y, float width, float height, FontAtlas fontAtlas, Lexer lexer)
+    {
+        super(x, y, width, height, fontAtlas);
+
+        setTokenColor(TokenType.TEXT, Color.WHITE); setTokenColor(TokenType.IDENTIFIER, new Color(224, 224, 224));
+        setTokenColor(TokenType.KEYWORD, new Color(198, 120, 221)); setTokenColor(TokenType.TYPE, new Color(229, 192, 123));
+        setTokenColor(TokenType.FUNCTION, new Color(97, 175, 239)); setTokenColor(TokenType.STRING, new Color(152, 195, 121));
+        setTokenColor(TokenType.NUMBER, new Color(209, 154, 102)); setTokenColor(TokenType.COMMENT, new Color(127, 132, 142));
+        setTokenColor(TokenType.OPERATOR, new Color(86, 182, 194));
+
+        setLexer(lexer);
+    }
+
+    /**
+     * Creates an empty code editor highlighting Java.
+     */
+    public CodeEditorComponent(float x, float y, float width, float height, FontAtlas fontAtlas)
+    {
+        this(x, y, width, height, fontAtlas, CLikeLexer.JAVA);
+    }
+
+    /**
+     * Changes the lexer and forgets every cached state.
+     *
+     * @param lexer The lexer, or {@code null} for plain text.
+     */
+    public void setLexer(Lexer lexer)
+    {
+        this.lexer = lexer; resetStates();
+    }
+
+    /**
+     * @param type  The kind of token.
+     * @param color The color tokens of that kind are drawn with.
+     */
+    public void setTokenColor(TokenType type, Color color)
+    {
+        tokenColors[ type.ordinal() ] = color.getRGB();
+    }
+
+    @Override
+    protected void textChanged(int offset, int removed, int inserted)
+    {
+        if (removed < 0 || lexer == null) {
+            resetStates(); return;
+        }
+
+        int line = getLineOfOffset(offset); int delta = getLineCount() - states.size();
+        // The inserted text may span several lines even when the line count does not change.
+        int lastEdited = getLineOfOffset(offset + inserted);
+
+        if (delta > 0) {
+            int size = states.size(); states.size(size + delta); lineTokens.size(size + delta);
+            int[] elements = states.elements(); System.arraycopy(elements, line + 1, elements, line + 1 + delta, size - line - 1);
+            Object[] cached = lineTokens.elements(); System.arraycopy(cached, line + 1, cached, line + 1 + delta, size - line - 1);
+            Arrays.fill(cached, line + 1, line + 1 + delta, null);
+        }
+        else if (delta < 0) {
+            for (int gone = line + 1; gone < line + 1 - delta; gone++)
+                dropTokens(gone);
+            states.removeElements(line + 1, line + 1 - delta); lineTokens.removeElements(line + 1, line + 1 - delta);
+        }
+
+        for (int edited = line; edited <= lastEdited; edited++)
+            dropTokens(edited);
+
+        if (validThroughStart < 0) editedThrough = lastEdited;
+        else {
+            if (editedThrough > line) editedThrough += delta;
+            editedThrough = Math.max(editedThrough, lastEdited);
+        }
+
+        if (line <= validThrough || validThroughStart < 0) {
+            validThrough = Math.min(validThrough, line); validThroughStart = getLineStart(validThrough);
+        }
+    }
+
+    @Override
+    protected void addRuns(int line, int lineStart, int start, int end, float x, float y)
+    {
+        if (lexer == null) {
+            addRun(start, end, x, y, tokenColors[ TokenType.TEXT.ordinal() ]); return;
+        }
+
+        int[] lineTokens = tokensOf(line, lineStart);
+
+        int cursor = start; int plain = tokenColors[ TokenType.TEXT.ordinal() ];
+        for (int i = 0; i < lineTokens.length; i += 3) {
+            int tokenStart = Math.max(lineStart + lineTokens[ i ], start); int tokenEnd = Math.min(lineStart + lineTokens[ i + 1 ], end);
+            if (tokenStart >= end) break;
+            if (tokenEnd <= tokenStart) continue;
+
+            if (tokenStart > cursor) x = addRun(cursor, tokenStart, x, y, plain);
+            x = addRun(tokenStart, tokenEnd, x, y, tokenColors[ lineTokens[ i + 2 ] ]); cursor = tokenEnd;
+        }
+
+        if (cursor < end) addRun(cursor, end, x, y, plain);
+    }
+
+    /**
+     * Returns the tokens of a line, lexing it only if it changed since it was last drawn.
+     */
+    private int[] tokensOf(int line, int lineStart)
+    {
+        ensureStates(line);
+        int[] cached = lineTokens.get(line); if (cached != null) return cached;
+
+        tokens.clear(); lexer.tokenize(text, lineStart, lineEnd(lineStart), states.getInt(line), tokenCollector); tokenizedLines++;
+        cached = tokens.toIntArray();
+        for (int i = 0; i < cached.length; i += 3) {
+            cached[ i ] -= lineStart; cached[ i + 1 ] -= lineStart;
+        }
+
+        if (cachedTokenLines >= TOKEN_CACHE_LINES) evictTokens(line);
+        lineTokens.set(line, cached); cachedTokenLines++; return cached;
+    }
+
+    private void dropTokens(int line)
+    {
+        if (lineTokens.set(line, null) != null) cachedTokenLines--;
+    }
+
+    /**
+     * Drops the tokens of the lines more than a quarter of the cache away from the given line, keeping the ones of
+     * the viewport being drawn.
+     */
+    private void evictTokens(int line)
+    {
+        int size = lineTokens.size(); Object[] cached = lineTokens.elements();
+        int keepFrom = Math.max(0, line - TOKEN_CACHE_LINES / 4); int keepTo = Math.min(size, line + TOKEN_CACHE_LINES / 4);
+        Arrays.fill(cached, 0, keepFrom, null); Arrays.fill(cached, keepTo, size, null);
+
+        cachedTokenLines = 0;
+        for (int i = keepFrom; i < keepTo; i++)
+            if (cached[ i ] != null) cachedTokenLines++;
+    }
+
+    /**
+     * Lexes the lines whose start state is unknown, down to the given line, stopping early when the states
+     * converge with the cached ones. Drawing a line calls it; package-private for the benchmarks.
+     */
+    void ensureStates(int line)
+    {
+        if (line <= validThrough) return;
+
+        long startNanos = System.nanoTime(); int lexed = 0;
+
+        while (validThrough < line) {
+            int start = validThroughStart; int end = lineEnd(start);
+            int state = lexer.tokenize(text, start, end, states.getInt(validThrough), Lexer.IGNORE); lexed++;
+
+            int next = validThrough + 1;
+            if (validThrough >= editedThrough && states.getInt(next) == state) {
+                validThrough = states.size() - 1; validThroughStart = -1; break;
+            }
+
+            // A line starting in a new state is tokenized differently.
+            if (states.getInt(next) != state) dropTokens(next);
+            states.set(next, state); validThrough = next; validThroughStart = end + 1;
+        }
+        if (validThrough == states.size() - 1) validThroughStart = -1;
+        // The state cached after the last lexed line was computed before the edits, so it must still be checked.
+        else if (validThroughStart >= 0) editedThrough = Math.max(editedThrough, validThrough);
+
+        lastRelexLines = lexed; lastRelexNanos = System.nanoTime() - startNanos;
+    }
+
+    private void resetStates()
+    {
+        states.clear(); states.size(getLineCount()); if (lexer != null) states.set(0, lexer.getInitialState());
+        validThrough = 0; validThroughStart = 0; editedThrough = states.size() - 1;
+        lineTokens.clear(); lineTokens.size(states.size()); cachedTokenLines = 0;
+    }
+
+    private int lineEnd(int lineStart)
+    {
+        int length = text.length(); int i = lineStart;
+        while (i < length && text.charAt(i) != '\n')
+            i++;
+        return i;
+    }
+}
@@ -0,0 +1,245 @@
+package fr.libnaus.noctisui.client.component.input;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The paragraphs of a document and the rows they are soft-wrapped into.
+ *
+ * <p>Paragraphs are stored in blocks of a bounded size, each caching the number of characters and rows it holds.
+ * Locating a paragraph by character offset or by row skips whole blocks, and inserting or removing a paragraph
+ * only shifts the paragraphs of one block, so edits never touch the rest of the document.</p>
+ *
+ * <p>Lookups move a cursor exposing the found {@link #line}, its {@link #lineNumber}, its {@link #lineStart}
+ * offset and its {@link #firstRow}. Mutations apply to the line under the cursor.</p>
+ *
+ * @author axeno
+ */
+final class LineIndex
+{
+
+    private static final int BLOCK_SIZE = 128;
+    static final int[] NO_BREAKS = new int[ 0 ];
+
+    /**
+     * A paragraph.
+     */
+    static final class Line
+    {
+
+        /** The number of characters, without the line feed. */
+        int length;
+        /** The offsets, relative to the paragraph, where the rows after the first one start. */
+        int[] breaks = NO_BREAKS;
+
+        Line(int length)
+        {
+            this.length = length;
+        }
+
+        int rows()
+        {
+            return breaks.length + 1;
+        }
+
+        /**
+         * @return The row of this paragraph holding the given offset, the start of a wrapped row belonging to it.
+         */
+        int rowOf(int offset)
+        {
+            int low = 0, high = breaks.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (breaks[ mid ] <= offset) low = mid + 1;
+                else high = mid;
+            } return low;
+        }
+
+        int rowStart(int row)
+        {
+            return row == 0 ? 0 : breaks[ row - 1 ];
+        }
+
+        int rowEnd(int row)
+        {
+            return row < breaks.length ? breaks[ row ] : length;
+        }
+    }
+
+    private static final class Block
+    {
+
+        final List<Line> lines = new ArrayList<>(BLOCK_SIZE);
+        /** The characters of the paragraphs, counting one line feed per paragraph. */
+        int chars;
+        int rows;
+    }
+
+    private final List<Block> blocks = new ArrayList<>();
+
+    @Getter
+    private int lineCount = 0;
+    @Getter
+    private int rowCount = 0;
+
+    Line line;
+    int lineNumber;
+    int lineStart;
+    int firstRow;
+    private int block;
+    private int index;
+
+    LineIndex()
+    {
+        clear();
+    }
+
+    /**
+     * Removes every paragraph. The index must be refilled with {@link #append(Line)}, the first call replacing the
+     * empty paragraph left by this method.
+     */
+    void clear()
+    {
+        blocks.clear(); blocks.add(new Block()); lineCount = 0; rowCount = 0; line = null;
+    }
+
+    /**
+     * Adds a paragraph at the end of the document.
+     */
+    void append(Line line)
+    {
+        Block last = blocks.get(blocks.size() - 1);
+        if (last.lines.size() == BLOCK_SIZE) blocks.add(last = new Block());
+
+        last.lines.add(line); last.chars += line.length + 1; last.rows += line.rows(); lineCount++; rowCount += line.rows();
+    }
+
+    /**
+     * Moves the cursor to the paragraph with the given number.
+     */
+    void seekLine(int number)
+    {
+        int lines = 0, chars = 0, rows = 0, b = 0;
+        for (; b < blocks.size() - 1; b++) {
+            Block candidate = blocks.get(b); if (number < lines + candidate.lines.size()) break;
+            lines += candidate.lines.size(); chars += candidate.chars; rows += candidate.rows;
+        }
+
+        List<Line> inBlock = blocks.get(b).lines; int i = 0;
+        for (; i < number - lines && i < inBlock.size() - 1; i++) {
+            chars += inBlock.get(i).length + 1; rows += inBlock.get(i).rows();
+        } moveTo(b, i, lines + i, chars, rows);
+    }
+
+    /**
+     * Moves the cursor to the paragraph holding the given character offset. An offset right before a line feed
+     * belongs to the paragraph the line feed ends.
+     */
+    void seekOffset(int offset)
+    {
+        int lines = 0, chars = 0, rows = 0, b = 0;
+        for (; b < blocks.size() - 1; b++) {
+            Block candidate = blocks.get(b); if (offset < chars + candidate.chars) break;
+            lines += candidate.lines.size(); chars += candidate.chars; rows += candidate.rows;
+        }
+
+        List<Line> inBlock = blocks.get(b).lines; int i = 0;
+        for (; i < inBlock.size() - 1 && offset > chars + inBlock.get(i).length; i++) {
+            chars += inBlock.get(i).length + 1; rows += inBlock.get(i).rows();
+        } moveTo(b, i, lines + i, chars, rows);
+    }
+
+    /**
+     * Moves the cursor to the paragraph holding the given row.
+     */
+    void seekRow(int row)
+    {
+        int lines = 0, chars = 0, rows = 0, b = 0;
+        for (; b < blocks.size() - 1; b++) {
+            Block candidate = blocks.get(b); if (row < rows + candidate.rows) break;
+            lines += candidate.lines.size(); chars += candidate.chars; rows += candidate.rows;
+        }
+
+        List<Line> inBlock = blocks.get(b).lines; int i = 0;
+        for (; i < inBlock.size() - 1 && row >= rows + inBlock.get(i).rows(); i++) {
+            chars += inBlock.get(i).length + 1; rows += inBlock.get(i).rows();
+        } moveTo(b, i, lines + i, chars, rows);
+    }
+
+    /**
+     * Moves the cursor to the next paragraph.
+     *
+     * @return false if the cursor was on the last paragraph.
+     */
+    boolean next()
+    {
+        int b = block, i = index + 1;
+        if (i == blocks.get(b).lines.size()) {
+            if (b == blocks.size() - 1) return false;
+            b++; i = 0;
+        }
+
+        moveTo(b, i, lineNumber + 1, lineStart + line.length + 1, firstRow + line.rows()); return true;
+    }
+
+    /**
+     * Records that the paragraph under the cursor changed.
+     *
+     * @param charDelta The change of its length.
+     * @param rowDelta  The change of its number of rows.
+     */
+    void changed(int charDelta, int rowDelta)
+    {
+        Block current = blocks.get(block); current.chars += charDelta; current.rows += rowDelta; rowCount += rowDelta;
+    }
+
+    /**
+     * Inserts a paragraph after the one under the cursor and moves the cursor to it.
+     */
+    void insertAfter(Line added)
+    {
+        Block current = blocks.get(block); current.lines.add(index + 1, added);
+        current.chars += added.length + 1; current.rows += added.rows(); lineCount++; rowCount += added.rows();
+
+        int nextStart = lineStart + line.length + 1; int nextRow = firstRow + line.rows(); int b = block, i = index + 1;
+
+        if (current.lines.size() > BLOCK_SIZE * 2) {
+            Block split = new Block(); List<Line> moved = current.lines.subList(BLOCK_SIZE, current.lines.size());
+            for (Line l : moved) {
+                split.lines.add(l); split.chars += l.length + 1; split.rows += l.rows();
+            }
+            moved.clear(); current.chars -= split.chars; current.rows -= split.rows; blocks.add(block + 1, split);
+
+            if (i >= BLOCK_SIZE) {
+                b++; i -= BLOCK_SIZE;
+            }
+        } moveTo(b, i, lineNumber + 1, nextStart, nextRow);
+    }
+
+    /**
+     * Removes the paragraph after the one under the cursor, which stays in place.
+     *
+     * @return The removed paragraph.
+     */
+    Line removeAfter()
+    {
+        int b = block, i = index + 1;
+        if (i == blocks.get(b).lines.size()) {
+            b++; i = 0;
+        }
+
+        Block owner = blocks.get(b); Line removed = owner.lines.remove(i);
+        owner.chars -= removed.length + 1; owner.rows -= removed.rows(); lineCount--; rowCount -= removed.rows();
+
+        if (owner.lines.isEmpty()) blocks.remove(b);
+        return removed;
+    }
+
+    private void moveTo(int block, int index, int lineNumber, int lineStart, int firstRow)
+    {
+        this.block = block; this.index = index; this.line = blocks.get(block).lines.get(index);
+        this.lineNumber = lineNumber; this.lineStart = lineStart; this.firstRow = firstRow;
+    }
+}
@@ -0,0 +1,276 @@
+package fr.libnaus.noctisui.client.component.input;
+
+import fr.libnaus.noctisui.client.api.system.animation.FrameClock;
+import fr.libnaus.noctisui.client.component.VirtualListComponent;
+import fr.libnaus.noctisui.client.utils.BackgroundExecutor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * The items of a large collection whose text contains the query typed in a SEARCH {@link TextInput}.
+ *
+ * <p>Filtering runs on the {@link BackgroundExecutor} once typing pauses for the debounce delay, and each result is
+ * published as a whole, so the bound list never sees a half-filtered view. The last results are kept with their
+ * query: a query containing one of them can only match a subset of its items, so typing one more character only
+ * rescans the previous matches, and erasing it finds the previous result again without scanning at all.</p>
+ *
+ * <pre>
+ * {@code
+ * LiveFilter<Player> filter = new LiveFilter<>(players, Player::getName);
+ * VirtualListComponent<TextComponent> list = new VirtualListComponent<>(10, 40, 200, 300, new VirtualListComponent.DataSource<>()
+ * {
+ *     public int size() { return filter.size(); }
+ *     public TextComponent createRow() { return new TextComponent(0, 0, "", 9, Color.WHITE); }
+ *     public void bindRow(TextComponent row, int index) { row.setText(filter.get(index).getName()); }
+ * });
+ * filter.bindTo(list);
+ * search.setLiveFilter(filter);
+ * }
+ * </pre>
+ *
+ * @param <T> The type of items.
+ *
+ * @author axeno
+ */
+public class LiveFilter<T>
+{
+
+    /** The number of previous results kept to narrow or restore later queries from. */
+    private static final int CACHED_RESULTS = 8;
+
+    private record Source<T>(List<T> items, Function<? super T, String> text, String[] keys)
+    {
+    }
+
+    /**
+     * The matches of a query, or every item when {@code indices} is {@code null}.
+     */
+    private record Result(Source<?> source, String query, int[] indices, int count)
+    {
+    }
+
+    /**
+     * A finished query: its result, or the failure that stopped it with a {@code null} result.
+     */
+    private record Published(int generation, Result result, long requestNanos, long filterNanos, int scanned,
+                             RuntimeException failure)
+    {
+    }
+
+    private Source<T> source;
+
+    @Getter
+    @Setter
+    private long debounceMillis = 120;
+    /**
+     * Called on the render thread each time a new result is swapped in.
+     */
+    @Setter
+    private Runnable onResult;
+
+    private final AtomicInteger generation = new AtomicInteger();
+    private final AtomicReference<Published> pending = new AtomicReference<>();
+    /** The latest results, newest first, read and written by the workers. */
+    private final AtomicReference<Result[]> cache = new AtomicReference<>(new Result[ 0 ]);
+
+    private Result view;
+    private String query = "";
+    private long dueTime = -1;
+    private long requestNanos = 0;
+    /**
+     * Whether a query is waiting for its debounce delay or running.
+     */
+    @Getter
+    private boolean filtering = false;
+    /**
+     * The exception thrown while filtering for the latest query, such as by the text function, or {@code null}.
+     * The previous result stays shown when filtering fails.
+     */
+    @Getter
+    private RuntimeException failure;
+
+    /**
+     * The time spent filtering the last published result, in nanoseconds.
+     */
+    @Getter
+    private long lastFilterNanos = 0;
+    /**
+     * The number of items the last published result had to check, lower than the collection size when it was
+     * narrowed from a previous result.
+     */
+    @Getter
+    private int lastScanned = 0;
+    /**
+     * The time between the last keystroke and its result reaching the render thread, debounce included, in
+     * nanoseconds.
+     */
+    @Getter
+    private long lastLatencyNanos = 0;
+
+    /**
+     * @param items The items. The list must not change while it is bound, call {@link #setItems} instead.
+     * @param text  The text each item is searched by.
+     */
+    public LiveFilter(List<T> items, Function<? super T, String> text)
+    {
+        setItems(items, text);
+    }
+
+    /**
+     * Replaces the items and filters them again with the current query.
+     */
+    public void setItems(List<T> items, Function<? super T, String> text)
+    {
+        source = new Source<>(items, text, new String[ items.size() ]); cache.set(new Result[ 0 ]);
+        view = null; String current = query; query = "\0"; update(current);
+        dueTime = FrameClock.getTimeMillis(); // The new items are shown without waiting.
+    }
+
+    /**
+     * Binds a list showing {@link #get(int)}, so it is refreshed whenever a new result is swapped in.
+     */
+    public void bindTo(VirtualListComponent<?> list)
+    {
+        onResult = list::notifyDataChanged;
+    }
+
+    /**
+     * Filters with a new query once the debounce delay has passed. Called by the bound input after each edit.
+     *
+     * @param text The typed text.
+     */
+    public void update(String text)
+    {
+        String normalized = text.trim().toLowerCase(Locale.ROOT); if (normalized.equals(query)) return;
+
+        query = normalized; generation.incrementAndGet(); filtering = true;
+        dueTime = FrameClock.getTimeMillis() + debounceMillis; requestNanos = System.nanoTime();
+    }
+
+    /**
+     * Starts the pending query once its delay has passed and swaps in the latest finished result. Called once per
+     * frame by the bound input.
+     */
+    public void tick()
+    {
+        Published published = pending.get();
+        if (published != null && published.generation() == generation.get() && pending.compareAndSet(published, null)) {
+            filtering = false; failure = published.failure(); lastLatencyNanos = System.nanoTime() - published.requestNanos();
+            lastFilterNanos = published.filterNanos(); lastScanned = published.scanned();
+            if (failure == null) {
+                view = published.result(); if (onResult != null) onResult.run();
+            }
+        }
+
+        if (dueTime >= 0 && FrameClock.getTimeMillis() >= dueTime) {
+            dueTime = -1; int gen = generation.get(); String text = query; Source<T> items = source; long requested = requestNanos;
+            BackgroundExecutor.submit(() ->
+            {
+                long start = System.nanoTime(); int[] scanned = new int[ 1 ]; Result result;
+                try {
+                    result = filter(gen, items, text, scanned);
+                } catch (CancellationException e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    // Ends the query anyway so the input stops filtering, then lets the executor log the failure.
+                    publish(new Published(gen, null, requested, System.nanoTime() - start, scanned[ 0 ], e)); throw e;
+                }
+                publish(new Published(gen, result, requested, System.nanoTime() - start, scanned[ 0 ], null));
+            });
+        }
+    }
+
+    /**
+     * Publishes a finished query, keeping the newest one when an older query finishes last.
+     */
+    private void publish(Published published)
+    {
+        pending.accumulateAndGet(published, (current, next) ->
+                current == null || next.generation() >= current.generation() ? next : current);
+    }
+
+    /**
+     * @return The number of items in the current result, or of all items before the first one.
+     */
+    public int size()
+    {
+        return view == null ? source.items().size() : view.count();
+    }
+
+    /**
+     * @param position A position in the current result.
+     *
+     * @return The item at that position.
+     */
+    public T get(int position)
+    {
+        return source.items().get(getIndex(position));
+    }
+
+    /**
+     * @param position A position in the current result.
+     *
+     * @return The index of the item in the collection.
+     */
+    public int getIndex(int position)
+    {
+        return view == null || view.indices() == null ? position : view.indices()[ position ];
+    }
+
+    /**
+     * Filters the items, starting from the narrowest cached result the query refines.
+     *
+     * @param scanned Receives the number of items checked.
+     */
+    private Result filter(int gen, Source<T> items, String text, int[] scanned)
+    {
+        if (text.isEmpty()) return new Result(items, text, null, items.items().size());
+
+        Result base = null; for (Result cached : cache.get()) {
+            if (cached.source() != items) continue;
+            if (cached.query().equals(text)) return cached;
+            // A query containing the cached one matches a subset of its items; the narrowest base wins.
+            if (text.contains(cached.query()) && (base == null || cached.count() < base.count())) base = cached;
+        }
+
+        int total = base == null ? items.items().size() : base.count(); int[] indices = new int[ total ]; int count = 0;
+        for (int i = 0; i < total; i++) {
+            if ((i & 4095) == 0 && generation.get() != gen) throw new CancellationException();
+
+            int index = base == null ? i : base.indices()[ i ];
+            if (key(items, index).contains(text)) indices[ count++ ] = index;
+        }
+
+        Result result = new Result(items, text, Arrays.copyOf(indices, count), count); remember(result);
+        scanned[ 0 ] = total; return result;
+    }
+
+    /**
+     * @return The lowercase text of an item, computed on first use by whichever worker needs it.
+     */
+    private String key(Source<T> items, int index)
+    {
+        String key = items.keys()[ index ];
+        if (key == null) {
+            String value = items.text().apply(items.items().get(index));
+            key = value == null ? "" : value.toLowerCase(Locale.ROOT); items.keys()[ index ] = key; // Benign race.
+        } return key;
+    }
+
+    private void remember(Result result)
+    {
+        cache.updateAndGet(previous ->
+        {
+            Result[] next = new Result[ Math.min(CACHED_RESULTS, previous.length + 1) ]; next[ 0 ] = result;
+            System.arraycopy(previous, 0, next, 1, next.length - 1); return next;
+        });
+    }
+}
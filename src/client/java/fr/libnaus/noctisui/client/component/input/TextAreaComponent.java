@@ -0,0 +1,841 @@
+package fr.libnaus.noctisui.client.component.input;
+
+import fr.libnaus.noctisui.client.api.system.Render2DEngine;
+import fr.libnaus.noctisui.client.api.system.animation.FrameClock;
+import fr.libnaus.noctisui.client.api.system.render.font.FontAtlas;
+import fr.libnaus.noctisui.client.common.QuickImports;
+import fr.libnaus.noctisui.client.component.UIBaseComponent;
+import fr.libnaus.noctisui.client.component.event.UIEvent;
+import fr.libnaus.noctisui.client.utils.Color;
+import fr.libnaus.noctisui.client.utils.MathUtils;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import lombok.Getter;
+import lombok.Setter;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.util.math.MatrixStack;
+import org.lwjgl.glfw.GLFW;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A multi-line text editor able to hold documents of several megabytes, such as configs, scripts or logs.
+ *
+ * <p>The text lives in a {@link TextBuffer} and is split into paragraphs by a line index that also stores how each
+ * paragraph is soft-wrapped. An edit only re-wraps the paragraphs it touches, and a frame only lays out the rows
+ * inside the viewport and draws them in a single text draw call, so neither typing nor rendering gets slower as
+ * the document grows. The whole document is only wrapped again when the width or the font size changes.</p>
+ *
+ * <pre>
+ * {@code
+ * TextAreaComponent editor = new TextAreaComponent(10, 10, 300, 200, fontAtlas);
+ * editor.setText(Files.readString(configPath));
+ * editor.setSoftWrap(false);
+ *
+ * logView.setEditable(false);
+ * logView.append(line + "\n");
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public class TextAreaComponent extends UIBaseComponent implements QuickImports
+{
+
+    private static final float SCROLL_SMOOTHING = 18f;
+    private static final String INDENT = "    ";
+
+    /** The document. Subclasses may read it, edits must go through {@link #insert} and {@link #delete}. */
+    protected final TextBuffer text = new TextBuffer(1024);
+    private final LineIndex lines = new LineIndex();
+    private final IntArrayList breaks = new IntArrayList();
+    /** The undo history. Edits are only recorded while the text area is editable. */
+    @Getter
+    private final UndoHistory history = new UndoHistory();
+
+    @Getter
+    private final FontAtlas fontAtlas;
+    @Getter
+    private float fontSize = 9f;
+    @Getter
+    private boolean softWrap = true;
+    @Getter
+    @Setter
+    private boolean editable = true;
+    @Getter
+    private boolean focused = false;
+
+    @Getter
+    private int cursorPosition = 0;
+    private int selectionAnchor = 0;
+    /** The X position kept while moving up and down, or -1 when the next vertical move should measure it. */
+    private float preferredX = -1;
+    private long lastCursorBlink = 0;
+    private boolean cursorVisible = true;
+    private boolean selecting = false;
+
+    @Getter
+    private float scrollY = 0f;
+    private float targetScrollY = 0f;
+    @Getter
+    @Setter
+    private float scrollStep = 24f;
+
+    @Setter
+    private Color backgroundColor = new Color(40, 40, 40, 180);
+    @Setter
+    private Color borderColor = new Color(60, 60, 60, 255);
+    @Setter
+    private Color focusedBorderColor = new Color(100, 150, 255, 255);
+    @Setter
+    private Color textColor = Color.WHITE;
+    @Setter
+    private Color selectionColor = new Color(100, 150, 255, 100);
+    @Setter
+    private Color cursorColor = Color.WHITE;
+    @Setter
+    private Color scrollbarColor = new Color(255, 255, 255, 60);
+
+    @Setter
+    private float borderRadius = 4.0f;
+    @Setter
+    private float borderWidth = 1.0f;
+    @Setter
+    private float padding = 6.0f;
+    @Setter
+    private float scrollbarWidth = 3.0f;
+
+    private float wrapWidth = -1;
+    private float wrapSize = -1;
+
+    private int[] runs = new int[ 3 * 64 ];
+    private float[] positions = new float[ 2 * 64 ];
+    private int runCount = 0;
+
+    /**
+     * Creates an empty text area.
+     *
+     * @param x         The X-coordinate of the text area.
+     * @param y         The Y-coordinate of the text area.
+     * @param width     The width of the text area.
+     * @param height    The height of the text area.
+     * @param fontAtlas The FontAtlas to use for rendering text.
+     */
+    public TextAreaComponent(float x, float y, float width, float height, FontAtlas fontAtlas)
+    {
+        super(x, y, width, height); this.fontAtlas = fontAtlas; ensureLayout();
+    }
+
+    /**
+     * @return The whole document. The string is cached until the next edit.
+     */
+    public String getText()
+    {
+        return text.toString();
+    }
+
+    /**
+     * Replaces the whole document and moves the cursor to its start.
+     *
+     * @param text The new document.
+     */
+    public void setText(String text)
+    {
+        String value = text == null ? "" : text;
+        this.text.setText(value); wrapWidth = -1; ensureLayout(); history.clear();
+
+        cursorPosition = selectionAnchor = 0; targetScrollY = scrollY = 0; textChanged(0, -1, value.length());
+    }
+
+    /**
+     * Appends text at the end of the document, keeping the cursor and the selection in place.
+     *
+     * @param appended The text to append.
+     */
+    public void append(CharSequence appended)
+    {
+        int cursor = cursorPosition, anchor = selectionAnchor;
+        insert(text.length(), appended); cursorPosition = cursor; selectionAnchor = anchor;
+    }
+
+    /**
+     * Inserts text. Only the paragraph holding {@code offset} and the paragraphs created by the inserted line feeds
+     * are wrapped again. The cursor and the selection follow the text they were in.
+     *
+     * @param offset   The offset to insert at.
+     * @param inserted The text to insert.
+     */
+    public void insert(int offset, CharSequence inserted)
+    {
+        Objects.checkFromIndexSize(offset, 0, text.length()); int count = inserted.length(); if (count == 0) return;
+
+        if (editable) history.recordInsert(offset, inserted);
+        else history.clear();
+
+        ensureLayout(); lines.seekOffset(offset);
+        LineIndex.Line line = lines.line; int local = offset - lines.lineStart; int tail = line.length - local;
+        text.insert(offset, inserted);
+
+        int newline = indexOfLineFeed(inserted, 0);
+        if (newline < 0) resize(line, line.length + count);
+        else {
+            resize(line, local + newline);
+
+            for (int segment = newline + 1; ; ) {
+                int next = indexOfLineFeed(inserted, segment);
+                LineIndex.Line added = new LineIndex.Line(next < 0 ? count - segment + tail : next - segment);
+                wrap(added, lines.lineStart + lines.line.length + 1); lines.insertAfter(added);
+
+                if (next < 0) break;
+                segment = next + 1;
+            }
+        }
+
+        if (cursorPosition >= offset) cursorPosition += count;
+        if (selectionAnchor >= offset) selectionAnchor += count;
+        clampScroll(); textChanged(offset, 0, count);
+    }
+
+    /**
+     * Deletes text. Only the paragraph holding {@code start} is wrapped again, the paragraphs merged into it are
+     * dropped. The cursor and the selection follow the text they were in.
+     *
+     * @param start The first offset, inclusive.
+     * @param end   The last offset, exclusive.
+     */
+    public void delete(int start, int end)
+    {
+        Objects.checkFromToIndex(start, end, text.length()); if (start == end) return;
+
+        if (editable) history.recordDelete(text, start, end);
+        else history.clear();
+
+        ensureLayout(); lines.seekOffset(start);
+        LineIndex.Line line = lines.line; int local = start - lines.lineStart; int remaining = end - start;
+        text.delete(start, end);
+
+        if (remaining <= line.length - local) resize(line, line.length - remaining);
+        else {
+            remaining -= line.length - local + 1; LineIndex.Line removed = lines.removeAfter();
+            while (remaining > removed.length) {
+                remaining -= removed.length + 1; removed = lines.removeAfter();
+            }
+            resize(line, local + removed.length - remaining);
+        }
+
+        cursorPosition = shiftForDelete(cursorPosition, start, end); selectionAnchor = shiftForDelete(selectionAnchor, start, end);
+        clampScroll(); textChanged(start, end - start, 0);
+    }
+
+    /**
+     * Called after every edit, once the line index is up to date.
+     *
+     * @param offset   The offset of the edit.
+     * @param removed  The number of removed characters, or -1 if the whole document was replaced.
+     * @param inserted The number of inserted characters.
+     */
+    protected void textChanged(int offset, int removed, int inserted)
+    {
+    }
+
+    /**
+     * @return The number of paragraphs.
+     */
+    public int getLineCount()
+    {
+        ensureLayout(); return lines.getLineCount();
+    }
+
+    /**
+     * @return The number of rows, after soft wrapping.
+     */
+    public int getRowCount()
+    {
+        ensureLayout(); return lines.getRowCount();
+    }
+
+    /**
+     * @param offset An offset in the document.
+     *
+     * @return The number of the paragraph holding it.
+     */
+    protected int getLineOfOffset(int offset)
+    {
+        ensureLayout(); lines.seekOffset(offset); return lines.lineNumber;
+    }
+
+    /**
+     * Must not be called from {@link #addRuns}, which runs while the rows are being walked.
+     *
+     * @param line The number of a paragraph.
+     *
+     * @return The offset of its first character.
+     */
+    protected int getLineStart(int line)
+    {
+        ensureLayout(); lines.seekLine(line); return lines.lineStart;
+    }
+
+    public void setFontSize(float fontSize)
+    {
+        this.fontSize = fontSize; ensureLayout();
+    }
+
+    public void setSoftWrap(boolean softWrap)
+    {
+        this.softWrap = softWrap; ensureLayout();
+    }
+
+    public void setFocused(boolean focused)
+    {
+        this.focused = focused; history.breakGroup(); if (focused) resetCursorBlink();
+        else selecting = false;
+    }
+
+    /**
+     * Moves the cursor and clears the selection.
+     *
+     * @param position The new cursor offset.
+     */
+    public void setCursorPosition(int position)
+    {
+        moveCursor(position, false);
+    }
+
+    /**
+     * Selects a range and places the cursor at its end.
+     *
+     * @param anchor The fixed end of the selection.
+     * @param cursor The moving end of the selection, where the cursor goes.
+     */
+    public void select(int anchor, int cursor)
+    {
+        selectionAnchor = clampOffset(anchor); moveCursor(cursor, true);
+    }
+
+    /**
+     * @return The selected text, or an empty string.
+     */
+    public String getSelectedText()
+    {
+        return text.substring(getSelectionStart(), getSelectionEnd());
+    }
+
+    public int getSelectionStart()
+    {
+        return Math.min(selectionAnchor, cursorPosition);
+    }
+
+    public int getSelectionEnd()
+    {
+        return Math.max(selectionAnchor, cursorPosition);
+    }
+
+    public boolean hasSelection()
+    {
+        return selectionAnchor != cursorPosition;
+    }
+
+    /**
+     * Scrolls by the given amount of pixels, with smoothing.
+     *
+     * @param amount The number of pixels to scroll, positive values scroll down.
+     */
+    public void scrollBy(float amount)
+    {
+        targetScrollY += amount; clampScroll();
+    }
+
+    /**
+     * Scrolls just enough for the row holding the cursor to be visible.
+     */
+    public void scrollToCursor()
+    {
+        float lineHeight = getLineHeight(); float top = rowOf(cursorPosition) * lineHeight;
+
+        if (top < targetScrollY) targetScrollY = top;
+        else if (top + lineHeight > targetScrollY + getViewHeight()) targetScrollY = top + lineHeight - getViewHeight();
+        clampScroll();
+    }
+
+    @Override
+    public boolean isFocusable()
+    {
+        return enabled;
+    }
+
+    @Override
+    public void onEvent(UIEvent event)
+    {
+        switch (event.getType()) {
+            case FOCUS_GAINED -> setFocused(true);
+            case FOCUS_LOST -> setFocused(false);
+        } super.onEvent(event);
+    }
+
+    @Override
+    public void render(DrawContext context, double mouseX, double mouseY, float delta)
+    {
+        if (!visible) return;
+
+        ensureLayout(); updateScroll(); updateCursorBlink();
+
+        MatrixStack matrices = context.getMatrices();
+
+        Render2DEngine.drawRoundedRect(matrices, x, y, width, height, borderRadius, backgroundColor);
+        Render2DEngine.drawRoundedOutline(matrices, x, y, width, height, borderRadius, borderWidth, focused ? focusedBorderColor : borderColor);
+
+        float lineHeight = getLineHeight(); float viewHeight = getViewHeight();
+        float left = x + padding; float top = y + padding - scrollY;
+
+        Render2DEngine.pushClip(matrices, x + padding, y + padding, getViewWidth(), viewHeight);
+
+        int firstRow = Math.max(0, (int) (scrollY / lineHeight));
+        int lastRow = Math.min(lines.getRowCount() - 1, (int) ((scrollY + viewHeight) / lineHeight));
+
+        int selectionStart = getSelectionStart(), selectionEnd = getSelectionEnd(); boolean selection = focused && hasSelection();
+        float cursorX = Float.NaN, cursorY = 0; runCount = 0;
+
+        lines.seekRow(firstRow); int row = firstRow - lines.firstRow;
+        for (int visibleRow = firstRow; visibleRow <= lastRow; visibleRow++) {
+            LineIndex.Line line = lines.line; boolean lastOfLine = row == line.rows() - 1;
+            int start = lines.lineStart + line.rowStart(row); int end = lines.lineStart + line.rowEnd(row);
+            float rowY = top + visibleRow * lineHeight;
+
+            if (selection && selectionStart <= end && selectionEnd > start) {
+                int from = Math.max(selectionStart, start), to = Math.min(selectionEnd, end);
+                float selectionX = left + text.getWidth(start, from); float selectionWidth = text.getWidth(from, to);
+                if (lastOfLine && selectionEnd > end) selectionWidth += fontSize * 0.3f; // The selected line feed.
+
+                Render2DEngine.drawRect(matrices, selectionX, rowY, selectionWidth, lineHeight, selectionColor);
+            }
+
+            if (cursorPosition >= start && (cursorPosition < end || cursorPosition == end && lastOfLine)) {
+                cursorX = left + text.getWidth(start, cursorPosition); cursorY = rowY;
+            }
+
+            addRuns(lines.lineNumber, lines.lineStart, start, end, left, rowY);
+
+            if (++row == line.rows()) {
+                if (!lines.next()) break;
+                row = 0;
+            }
+        }
+
+        fontAtlas.renderRuns(matrices, text, runs, positions, runCount, fontSize);
+
+        if (focused && cursorVisible && editable && !Float.isNaN(cursorX))
+            Render2DEngine.drawRect(matrices, cursorX, cursorY, 1.0f, lineHeight, cursorColor);
+
+        Render2DEngine.popClip();
+
+        renderScrollbar(matrices);
+    }
+
+    /**
+     * Adds the runs drawing one visible row. The row is drawn in the text color by default, subclasses can split
+     * it into runs of different colors with {@link #addRun(int, int, float, float, int)}. Rows are visited in
+     * order, from top to bottom.
+     *
+     * @param line      The number of the paragraph the row belongs to.
+     * @param lineStart The offset of the first character of that paragraph.
+     * @param start     The offset of the first character of the row.
+     * @param end       The offset after the last character of the row.
+     * @param x         The X position of the row.
+     * @param y         The Y position of the row.
+     */
+    protected void addRuns(int line, int lineStart, int start, int end, float x, float y)
+    {
+        addRun(start, end, x, y, textColor.getRGB());
+    }
+
+    /**
+     * Adds a run of characters to the text drawn this frame.
+     *
+     * @param start The offset of the first character.
+     * @param end   The offset after the last character.
+     * @param x     The X position of the run.
+     * @param y     The Y position of the run.
+     * @param color The packed ARGB color of the run.
+     *
+     * @return The X position right after the run.
+     */
+    protected final float addRun(int start, int end, float x, float y, int color)
+    {
+        if (runCount * 3 == runs.length) {
+            runs = Arrays.copyOf(runs, runs.length * 2); positions = Arrays.copyOf(positions, positions.length * 2);
+        }
+
+        runs[ runCount * 3 ] = start; runs[ runCount * 3 + 1 ] = end; runs[ runCount * 3 + 2 ] = color;
+        positions[ runCount * 2 ] = x; positions[ runCount * 2 + 1 ] = y; runCount++;
+        return x + text.getWidth(start, end);
+    }
+
+    @Override
+    public boolean mouseClicked(double mouseX, double mouseY, int button)
+    {
+        if (!visible || !enabled) return false;
+
+        if (!contains(mouseX, mouseY)) {
+            setFocused(false); return false;
+        }
+        if (button != GLFW.GLFW_MOUSE_BUTTON_LEFT) return false;
+
+        if (!focused) setFocused(true);
+        moveCursor(offsetAt(mouseX, mouseY), false); selecting = true; return true;
+    }
+
+    @Override
+    public boolean mouseDragged(double mouseX, double mouseY, int button, double deltaX, double deltaY)
+    {
+        if (!selecting) return false;
+
+        moveCursor(offsetAt(mouseX, mouseY), true); return true;
+    }
+
+    @Override
+    public boolean mouseReleased(double mouseX, double mouseY, int button)
+    {
+        boolean wasSelecting = selecting; selecting = false; return wasSelecting;
+    }
+
+    @Override
+    public boolean mouseScrolled(double mouseX, double mouseY, double amount)
+    {
+        if (!visible || !contains(mouseX, mouseY)) return false;
+
+        scrollBy((float) (-amount * scrollStep)); return true;
+    }
+
+    @Override
+    public boolean keyPressed(int keyCode, int scanCode, int modifiers)
+    {
+        if (!focused || !enabled) return false;
+
+        boolean ctrl = (modifiers & GLFW.GLFW_MOD_CONTROL) != 0; boolean shift = (modifiers & GLFW.GLFW_MOD_SHIFT) != 0;
+
+        switch (keyCode) {
+            case GLFW.GLFW_KEY_LEFT -> {
+                if (hasSelection() && !shift) moveCursor(getSelectionStart(), false);
+                else moveCursor(cursorPosition - 1, shift);
+            }
+            case GLFW.GLFW_KEY_RIGHT -> {
+                if (hasSelection() && !shift) moveCursor(getSelectionEnd(), false);
+                else moveCursor(cursorPosition + 1, shift);
+            }
+            case GLFW.GLFW_KEY_UP -> moveVertically(-1, shift);
+            case GLFW.GLFW_KEY_DOWN -> moveVertically(1, shift);
+            case GLFW.GLFW_KEY_PAGE_UP -> moveVertically(-getVisibleRows(), shift);
+            case GLFW.GLFW_KEY_PAGE_DOWN -> moveVertically(getVisibleRows(), shift);
+            case GLFW.GLFW_KEY_HOME -> moveCursor(ctrl ? 0 : rowBound(cursorPosition, false), shift);
+            case GLFW.GLFW_KEY_END -> moveCursor(ctrl ? text.length() : rowBound(cursorPosition, true), shift);
+            case GLFW.GLFW_KEY_BACKSPACE -> {
+                if (!editable) return false;
+                if (hasSelection()) deleteSelection();
+                else if (cursorPosition > 0) delete(cursorPosition - 1, cursorPosition);
+                afterEdit();
+            }
+            case GLFW.GLFW_KEY_DELETE -> {
+                if (!editable) return false;
+                if (hasSelection()) deleteSelection();
+                else if (cursorPosition < text.length()) delete(cursorPosition, cursorPosition + 1);
+                afterEdit();
+            }
+            case GLFW.GLFW_KEY_ENTER, GLFW.GLFW_KEY_KP_ENTER -> {
+                if (!editable) return false;
+                insertAtCursor("\n");
+            }
+            case GLFW.GLFW_KEY_TAB -> {
+                if (!editable) return false;
+                insertAtCursor(INDENT);
+            }
+            case GLFW.GLFW_KEY_A -> {
+                if (!ctrl) return false;
+                select(0, text.length());
+            }
+            case GLFW.GLFW_KEY_C -> {
+                if (!ctrl || !hasSelection()) return false;
+                copySelection();
+            }
+            case GLFW.GLFW_KEY_X -> {
+                if (!ctrl || !hasSelection() || !editable) return false;
+                copySelection(); deleteSelection(); afterEdit();
+            }
+            case GLFW.GLFW_KEY_V -> {
+                if (!ctrl || !editable) return false;
+                paste();
+            }
+            case GLFW.GLFW_KEY_Z -> {
+                if (!ctrl || !editable) return false;
+                if (shift) redo();
+                else undo();
+            }
+            case GLFW.GLFW_KEY_Y -> {
+                if (!ctrl || !editable) return false;
+                redo();
+            }
+            default -> {
+                return false;
+            }
+        } return true;
+    }
+
+    @Override
+    public boolean charTyped(char chr, int modifiers)
+    {
+        if (!focused || !enabled || !editable || chr < 32 || chr == 127) return false;
+
+        insertAtCursor(String.valueOf(chr)); return true;
+    }
+
+    /**
+     * Reverts the last group of edits, such as a typed word or a paste.
+     *
+     * @return false if there was nothing to undo or the text area is not editable.
+     */
+    public boolean undo()
+    {
+        return editable && restore(history.undo(this::replaceRange));
+    }
+
+    /**
+     * Applies the last undone group of edits again.
+     *
+     * @return false if there was nothing to redo or the text area is not editable.
+     */
+    public boolean redo()
+    {
+        return editable && restore(history.redo(this::replaceRange));
+    }
+
+    private void replaceRange(int start, int end, CharSequence replacement)
+    {
+        delete(start, end); insert(start, replacement);
+    }
+
+    private boolean restore(int cursor)
+    {
+        if (cursor < 0) return false;
+
+        moveCursor(cursor, false); return true;
+    }
+
+    private void insertAtCursor(CharSequence inserted)
+    {
+        deleteSelection(); insert(cursorPosition, inserted); afterEdit();
+    }
+
+    private void deleteSelection()
+    {
+        if (hasSelection()) delete(getSelectionStart(), getSelectionEnd());
+    }
+
+    private void afterEdit()
+    {
+        selectionAnchor = cursorPosition; preferredX = -1; resetCursorBlink(); scrollToCursor();
+    }
+
+    private void copySelection()
+    {
+        GLFW.glfwSetClipboardString(mc.getWindow().getHandle(), getSelectedText());
+    }
+
+    private void paste()
+    {
+        String clipboardText = GLFW.glfwGetClipboardString(mc.getWindow().getHandle());
+        if (clipboardText == null || clipboardText.isEmpty()) return;
+
+        insertAtCursor(clipboardText.replace("\r\n", "\n").replace('\r', '\n').replace("\t", INDENT));
+    }
+
+    private void moveCursor(int position, boolean extend)
+    {
+        cursorPosition = clampOffset(position); if (!extend) selectionAnchor = cursorPosition;
+        preferredX = -1; resetCursorBlink(); scrollToCursor(); history.breakGroup();
+    }
+
+    /**
+     * Moves the cursor by whole rows, keeping its horizontal position across short rows.
+     */
+    private void moveVertically(int rows, boolean extend)
+    {
+        int row = rowOf(cursorPosition); int rowStart = lines.lineStart + lines.line.rowStart(row - lines.firstRow);
+        float x = preferredX >= 0 ? preferredX : text.getWidth(rowStart, cursorPosition);
+
+        int target = Math.max(0, Math.min(lines.getRowCount() - 1, row + rows));
+        moveCursor(offsetInRow(target, x), extend); preferredX = x;
+    }
+
+    /**
+     * @return The row holding the given offset. Leaves the line index on the paragraph holding it.
+     */
+    private int rowOf(int offset)
+    {
+        ensureLayout(); lines.seekOffset(offset); return lines.firstRow + lines.line.rowOf(offset - lines.lineStart);
+    }
+
+    /**
+     * @return The start or the end of the row holding the given offset.
+     */
+    private int rowBound(int offset, boolean end)
+    {
+        int row = rowOf(offset) - lines.firstRow; LineIndex.Line line = lines.line;
+
+        if (!end) return lines.lineStart + line.rowStart(row);
+        return lines.lineStart + rowLimit(line, row);
+    }
+
+    /**
+     * @return The last offset a cursor can take on a row, relative to its paragraph. The end of a wrapped row is
+     * the start of the next one, so the cursor stops before its last character.
+     */
+    private int rowLimit(LineIndex.Line line, int row)
+    {
+        return row == line.rows() - 1 ? line.length : line.rowEnd(row) - 1;
+    }
+
+    private int offsetInRow(int row, float x)
+    {
+        lines.seekRow(row); LineIndex.Line line = lines.line; int local = row - lines.firstRow;
+        return text.indexAt(lines.lineStart + line.rowStart(local), lines.lineStart + rowLimit(line, local), x);
+    }
+
+    private int offsetAt(double mouseX, double mouseY)
+    {
+        ensureLayout();
+
+        int row = (int) Math.floor((mouseY - y - padding + scrollY) / getLineHeight());
+        return offsetInRow(Math.max(0, Math.min(lines.getRowCount() - 1, row)), (float) (mouseX - x - padding));
+    }
+
+    /**
+     * Wraps the whole document again when the wrapping width or the font size changed.
+     */
+    private void ensureLayout()
+    {
+        float width = softWrap ? Math.max(1f, getViewWidth()) : Float.POSITIVE_INFINITY;
+        if (width == wrapWidth && fontSize == wrapSize) return;
+
+        wrapWidth = width; wrapSize = fontSize; text.setFont(fontAtlas, fontSize);
+
+        lines.clear(); int length = text.length(); int start = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i < length && text.charAt(i) != '\n') continue;
+
+            LineIndex.Line line = new LineIndex.Line(i - start); wrap(line, start); lines.append(line); start = i + 1;
+        } clampScroll();
+    }
+
+    /**
+     * Updates the length of the paragraph under the line index cursor and wraps it again.
+     */
+    private void resize(LineIndex.Line line, int length)
+    {
+        int oldLength = line.length; int oldRows = line.rows();
+        line.length = length; wrap(line, lines.lineStart); lines.changed(length - oldLength, line.rows() - oldRows);
+    }
+
+    /**
+     * Splits a paragraph into rows fitting the wrapping width, breaking after the last space of a row when there is
+     * one and inside the word otherwise.
+     */
+    private void wrap(LineIndex.Line line, int start)
+    {
+        line.breaks = LineIndex.NO_BREAKS; if (line.length == 0 || wrapWidth == Float.POSITIVE_INFINITY) return;
+
+        breaks.clear(); float rowWidth = 0, widthAfterSpace = 0; int rowStart = 0, lastSpace = -1;
+        for (int i = 0; i < line.length; i++) {
+            float advance = text.getAdvance(start + i);
+
+            if (rowWidth + advance > wrapWidth && i > rowStart) {
+                if (lastSpace >= rowStart) {
+                    rowStart = lastSpace + 1; rowWidth = widthAfterSpace;
+                }
+                else {
+                    rowStart = i; rowWidth = 0;
+                }
+                breaks.add(rowStart); lastSpace = -1;
+            }
+
+            if (text.charAt(start + i) == ' ') {
+                lastSpace = i; widthAfterSpace = 0;
+            }
+            else widthAfterSpace += advance;
+            rowWidth += advance;
+        }
+
+        if (!breaks.isEmpty()) line.breaks = breaks.toIntArray();
+    }
+
+    private void renderScrollbar(MatrixStack matrices)
+    {
+        float contentHeight = lines.getRowCount() * getLineHeight(); float viewHeight = getViewHeight();
+        if (scrollbarColor == null || contentHeight <= viewHeight) return;
+
+        float thumbHeight = Math.max(12f, viewHeight * viewHeight / contentHeight);
+        float thumbY = y + padding + (viewHeight - thumbHeight) * (scrollY / (contentHeight - viewHeight));
+
+        Render2DEngine.drawRoundedRect(matrices, x + width - scrollbarWidth - 2, thumbY, scrollbarWidth, thumbHeight, scrollbarWidth / 2, scrollbarColor);
+    }
+
+    private void updateScroll()
+    {
+        scrollY = Math.abs(targetScrollY - scrollY) < 0.25f ? targetScrollY : MathUtils.damp(scrollY, targetScrollY, SCROLL_SMOOTHING, FrameClock.getDelta());
+    }
+
+    private void clampScroll()
+    {
+        float max = Math.max(0f, lines.getRowCount() * getLineHeight() - getViewHeight());
+        targetScrollY = Math.max(0f, Math.min(targetScrollY, max)); scrollY = Math.max(0f, Math.min(scrollY, max));
+    }
+
+    private void updateCursorBlink()
+    {
+        long currentTime = FrameClock.getTimeMillis();
+        if (currentTime - lastCursorBlink > 530) {
+            cursorVisible = !cursorVisible; lastCursorBlink = currentTime;
+        }
+    }
+
+    private void resetCursorBlink()
+    {
+        cursorVisible = true; lastCursorBlink = FrameClock.getTimeMillis();
+    }
+
+    private float getLineHeight()
+    {
+        return fontAtlas.getLineHeight(fontSize);
+    }
+
+    private float getViewWidth()
+    {
+        return width - padding * 2 - scrollbarWidth - 2;
+    }
+
+    private float getViewHeight()
+    {
+        return height - padding * 2;
+    }
+
+    private int getVisibleRows()
+    {
+        return Math.max(1, (int) (getViewHeight() / getLineHeight()));
+    }
+
+    private int clampOffset(int offset)
+    {
+        return Math.max(0, Math.min(offset, text.length()));
+    }
+
+    private static int shiftForDelete(int offset, int start, int end)
+    {
+        return offset >= end ? offset - (end - start) : Math.min(offset, start);
+    }
+
+    private static int indexOfLineFeed(CharSequence sequence, int from)
+    {
+        for (int i = from; i < sequence.length(); i++)
+            if (sequence.charAt(i) == '\n') return i;
+        return -1;
+    }
+}
@@ -0,0 +1,310 @@
+package fr.libnaus.noctisui.client.component.input;
+
+import fr.libnaus.noctisui.client.api.system.render.font.FontAtlas;
+import lombok.Getter;
+
+import java.util.Objects;
+
+/**
+ * An editable text stored in a gap buffer, with cached glyph advances.
+ *
+ * <p>The characters live in a single array with a gap kept at the last edit position, so typing, deleting and
+ * pasting cost the size of the edit plus the distance the gap moves instead of copying the whole text. The
+ * advance of every character is cached in a parallel array and the width of the text before the gap is updated
+ * with each edit, so measuring up to the cursor right after an edit is O(1). The {@link #toString() string form}
+ * is built lazily and cached until the next edit.</p>
+ *
+ * <p>Widths are measured per character, without the {@code §} formatting codes handled by
+ * {@link FontAtlas#getWidth(String, float)}.</p>
+ *
+ * <pre>
+ * {@code
+ * TextBuffer buffer = new TextBuffer();
+ * buffer.setFont(fontAtlas, 9f);
+ * buffer.insert(buffer.length(), typed);
+ * float cursorX = buffer.getWidth(0, cursor);
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public class TextBuffer implements CharSequence
+{
+
+    private char[] chars;
+    private float[] advances;
+    private int gapStart = 0;
+    private int gapEnd;
+
+    private FontAtlas font;
+    private float size;
+    private float widthBeforeGap = 0;
+    private float totalWidth = 0;
+
+    /**
+     * The number of lines, one more than the number of line feeds.
+     */
+    @Getter
+    private int lineCount = 1;
+    /**
+     * Incremented by every edit, so derived data can tell whether it is still up to date.
+     */
+    @Getter
+    private int revision = 0;
+
+    private String string = "";
+
+    /**
+     * Creates an empty buffer.
+     */
+    public TextBuffer()
+    {
+        this(16);
+    }
+
+    /**
+     * Creates an empty buffer able to hold {@code capacity} characters before growing.
+     *
+     * @param capacity The initial capacity.
+     */
+    public TextBuffer(int capacity)
+    {
+        chars = new char[ Math.max(1, capacity) ]; advances = new float[ chars.length ]; gapEnd = chars.length;
+    }
+
+    @Override
+    public int length()
+    {
+        return chars.length - (gapEnd - gapStart);
+    }
+
+    @Override
+    public char charAt(int index)
+    {
+        Objects.checkIndex(index, length()); return chars[ index < gapStart ? index : index + gapEnd - gapStart ];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end)
+    {
+        return substring(start, end);
+    }
+
+    /**
+     * @param start The first index, inclusive.
+     * @param end   The last index, exclusive.
+     *
+     * @return The characters between {@code start} and {@code end}.
+     */
+    public String substring(int start, int end)
+    {
+        Objects.checkFromToIndex(start, end, length()); if (string != null) return string.substring(start, end);
+
+        char[] out = new char[ end - start ]; int before = Math.max(0, Math.min(end, gapStart) - start);
+        if (before > 0) System.arraycopy(chars, start, out, 0, before);
+        if (before < out.length) {
+            int from = Math.max(start, gapStart) + gapEnd - gapStart; System.arraycopy(chars, from, out, before, out.length - before);
+        } return new String(out);
+    }
+
+    @Override
+    public String toString()
+    {
+        if (string == null) string = substring(0, length());
+        return string;
+    }
+
+    /**
+     * Sets the font the advances are measured with. Re-measures the whole text only when the font or the size
+     * actually changes.
+     *
+     * @param font The font.
+     * @param size The font size.
+     */
+    public void setFont(FontAtlas font, float size)
+    {
+        if (font == this.font && size == this.size) return;
+
+        this.font = font; this.size = size; widthBeforeGap = 0; totalWidth = 0;
+        for (int i = 0; i < gapStart; i++) {
+            advances[ i ] = advance(chars[ i ]); widthBeforeGap += advances[ i ];
+        }
+        for (int i = gapEnd; i < chars.length; i++)
+            advances[ i ] = advance(chars[ i ]);
+
+        totalWidth = widthBeforeGap + sum(gapEnd, chars.length);
+    }
+
+    /**
+     * Inserts text, moving the gap to {@code index} first.
+     *
+     * @param index The index to insert at.
+     * @param text  The text to insert.
+     */
+    public void insert(int index, CharSequence text)
+    {
+        Objects.checkFromIndexSize(index, 0, length()); int count = text.length(); if (count == 0) return;
+
+        moveGap(index); ensureGap(count);
+        for (int i = 0; i < count; i++) {
+            char c = text.charAt(i); float advance = advance(c); if (c == '\n') lineCount++;
+            chars[ gapStart ] = c; advances[ gapStart++ ] = advance; widthBeforeGap += advance; totalWidth += advance;
+        } edited();
+    }
+
+    /**
+     * Deletes the characters between {@code start} and {@code end}, moving the gap to {@code start}.
+     *
+     * @param start The first index, inclusive.
+     * @param end   The last index, exclusive.
+     */
+    public void delete(int start, int end)
+    {
+        Objects.checkFromToIndex(start, end, length()); if (start == end) return;
+
+        moveGap(start);
+        for (int i = gapEnd; i < gapEnd + end - start; i++) {
+            totalWidth -= advances[ i ]; if (chars[ i ] == '\n') lineCount--;
+        }
+        gapEnd += end - start; edited();
+    }
+
+    /**
+     * Replaces the whole text.
+     *
+     * @param text The new text.
+     */
+    public void setText(CharSequence text)
+    {
+        gapStart = 0; gapEnd = chars.length; widthBeforeGap = 0; totalWidth = 0; lineCount = 1;
+        if (text.length() == 0) edited();
+        else insert(0, text);
+    }
+
+    /**
+     * @return The width of the whole text.
+     */
+    public float getWidth()
+    {
+        return totalWidth;
+    }
+
+    /**
+     * Measures part of the text. Short ranges are summed directly, long ones are measured from the cached width
+     * before the gap, so the cost is bounded by the length of the range and by its distance to the last edit.
+     *
+     * @param start The first index, inclusive.
+     * @param end   The last index, exclusive.
+     *
+     * @return The width of the characters between {@code start} and {@code end}.
+     */
+    public float getWidth(int start, int end)
+    {
+        Objects.checkFromToIndex(start, end, length()); if (start == end) return 0;
+
+        if (end - start <= Math.abs(gapStart - start)) {
+            float width = 0; for (int i = start; i < end; i++)
+                width += getAdvance(i);
+            return width;
+        } return widthTo(end) - widthTo(start);
+    }
+
+    /**
+     * @param index The index of a character.
+     *
+     * @return The cached advance of that character.
+     */
+    public float getAdvance(int index)
+    {
+        return advances[ index < gapStart ? index : index + gapEnd - gapStart ];
+    }
+
+    /**
+     * Finds the index closest to a horizontal position, as used to place the cursor under the mouse.
+     *
+     * @param x The position, relative to the start of the text.
+     *
+     * @return The index whose leading edge is closest to {@code x}.
+     */
+    public int indexAt(float x)
+    {
+        return indexAt(0, length(), x);
+    }
+
+    /**
+     * Finds the index closest to a horizontal position within a range, such as a line.
+     *
+     * @param start The first index of the range, inclusive.
+     * @param end   The last index of the range, exclusive.
+     * @param x     The position, relative to {@code start}.
+     *
+     * @return The index between {@code start} and {@code end} whose leading edge is closest to {@code x}.
+     */
+    public int indexAt(int start, int end, float x)
+    {
+        Objects.checkFromToIndex(start, end, length());
+
+        float width = 0; for (int i = start; i < end; i++) {
+            float advance = getAdvance(i); if (width + advance / 2 > x) return i;
+            width += advance;
+        } return end;
+    }
+
+    private float widthTo(int index)
+    {
+        if (index <= gapStart)
+            return index < gapStart - index ? sum(0, index) : widthBeforeGap - sum(index, gapStart);
+
+        int physical = index + gapEnd - gapStart;
+        return physical - gapEnd < chars.length - physical ? widthBeforeGap + sum(gapEnd, physical) : totalWidth - sum(physical, chars.length);
+    }
+
+    private float sum(int from, int to)
+    {
+        float sum = 0; for (int i = from; i < to; i++)
+            sum += advances[ i ];
+        return sum;
+    }
+
+    private float advance(char c)
+    {
+        return font == null ? 0 : font.getAdvance(c, size);
+    }
+
+    private void moveGap(int index)
+    {
+        if (index < gapStart) {
+            int count = gapStart - index; widthBeforeGap -= sum(index, gapStart);
+            System.arraycopy(chars, index, chars, gapEnd - count, count);
+            System.arraycopy(advances, index, advances, gapEnd - count, count);
+            gapStart = index; gapEnd -= count;
+        }
+        else if (index > gapStart) {
+            int count = index - gapStart; widthBeforeGap += sum(gapEnd, gapEnd + count);
+            System.arraycopy(chars, gapEnd, chars, gapStart, count);
+            System.arraycopy(advances, gapEnd, advances, gapStart, count);
+            gapStart = index; gapEnd += count;
+        }
+
+        if (gapStart == 0) widthBeforeGap = 0; // Drops the rounding error accumulated by incremental updates.
+    }
+
+    private void ensureGap(int count)
+    {
+        if (gapEnd - gapStart >= count) return;
+
+        int capacity = Math.max(chars.length * 2, length() + count); int tail = chars.length - gapEnd;
+        char[] newChars = new char[ capacity ]; float[] newAdvances = new float[ capacity ];
+
+        System.arraycopy(chars, 0, newChars, 0, gapStart); System.arraycopy(advances, 0, newAdvances, 0, gapStart);
+        System.arraycopy(chars, gapEnd, newChars, capacity - tail, tail);
+        System.arraycopy(advances, gapEnd, newAdvances, capacity - tail, tail);
+
+        chars = newChars; advances = newAdvances; gapEnd = capacity - tail;
+    }
+
+    private void edited()
+    {
+        revision++; string = null;
+    }
+}
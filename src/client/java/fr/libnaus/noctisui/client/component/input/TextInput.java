@@ -1,19 +1,24 @@
 package fr.libnaus.noctisui.client.component.input;
 
-import fr.libnaus.noctisui.client.NoctisUIClient;
 import fr.libnaus.noctisui.client.api.system.Render2DEngine;
+import fr.libnaus.noctisui.client.api.system.animation.Animator;
+import fr.libnaus.noctisui.client.api.system.animation.Easing;
+import fr.libnaus.noctisui.client.api.system.animation.FrameClock;
 import fr.libnaus.noctisui.client.api.system.render.font.FontAtlas;
+import fr.libnaus.noctisui.client.api.system.render.font.Fonts;
 import fr.libnaus.noctisui.client.common.QuickImports;
 import fr.libnaus.noctisui.client.component.UIBaseComponent;
+import fr.libnaus.noctisui.client.component.event.UIEvent;
+import fr.libnaus.noctisui.client.component.input.complete.Autocomplete;
+import fr.libnaus.noctisui.client.utils.BackgroundExecutor;
 import fr.libnaus.noctisui.client.utils.Color;
-import fr.libnaus.noctisui.client.utils.MathUtils;
 import lombok.Getter;
 import lombok.Setter;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.util.math.MatrixStack;
 import org.lwjgl.glfw.GLFW;
-import org.lwjgl.opengl.GL11;
 
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 
 /**
@@ -47,7 +52,6 @@ public class TextInput extends UIBaseComponent implements QuickImports
         TEXT, PASSWORD, NUMBER, EMAIL, URL, SEARCH
     }
 
-    @Setter
     @Getter
     private InputType inputType = InputType.TEXT;
 
@@ -56,8 +60,9 @@ public class TextInput extends UIBaseComponent implements QuickImports
     private final float eyeIconSize = 12.0f;
     private final float eyeIconPadding = 6.0f;
 
+    private final TextBuffer text = new TextBuffer();
     @Getter
-    private String text = "";
+    private final UndoHistory history = new UndoHistory(64 * 1024);
     @Setter
     @Getter
     private String placeholder = "";
@@ -83,19 +88,31 @@ public class TextInput extends UIBaseComponent implements QuickImports
     @Setter
     private int minIntInput = 0;
 
-    private float focusAnimationProgress = 0.0f;
-    private float hoverAnimationProgress = 0.0f;
-    private float validationAnimationProgress = 0.0f;
-    private float tooltipAnimationProgress = 0.0f;
+    /** Stiffness of the focus spring, in radians per second; the hover, validation and icon springs are stiffer. */
+    private static final float ANIMATION_FREQUENCY = 10f;
+    /** The time the validation tooltip waits before showing, in seconds. */
+    private static final float TOOLTIP_DELAY = 1f;
+
+    /**
+     * The focus, hover, validation, tooltip and icon animations. The input ticks it while rendering, so they go away
+     * with the input instead of holding slots of the global animator.
+     */
+    private final Animator animator = new Animator(8);
+    private final int focusAnimation = animator.spring(0f, 0f, ANIMATION_FREQUENCY);
+    private final int hoverAnimation = animator.spring(0f, 0f, ANIMATION_FREQUENCY * 1.5f);
+    private final int validationAnimation = animator.spring(0f, 0f, ANIMATION_FREQUENCY * 2f);
+    private final int tooltipAnimation = animator.tween(0f, 0f, 0.25f, Easing.CUBIC_OUT);
+    private final int passwordIconAnimation = animator.spring(0f, 0f, ANIMATION_FREQUENCY * 2f);
+    private final int searchIconAnimation = animator.spring(0f, 0f, ANIMATION_FREQUENCY * 2f);
+    private final int chevronUpAnimation = animator.spring(0f, 0f, ANIMATION_FREQUENCY * 2f);
+    private final int chevronDownAnimation = animator.spring(0f, 0f, ANIMATION_FREQUENCY * 2f);
     private boolean isHovering = false;
     private boolean showTooltip = false;
-    private long tooltipShowTime = 0;
-    private final float ANIMATION_SPEED = 0.08f;
 
-    private float passwordIconHover = 0.0f;
-    private float searchIconHover = 0.0f;
-    private float chevronUpHover = 0.0f;
-    private float chevronDownHover = 0.0f;
+    private boolean passwordIconHovered = false;
+    private boolean searchIconHovered = false;
+    private boolean chevronUpHovered = false;
+    private boolean chevronDownHovered = false;
 
     private static final Pattern EMAIL_PATTERN = Pattern.compile("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$");
 
@@ -128,6 +145,8 @@ public class TextInput extends UIBaseComponent implements QuickImports
     @Setter
     private Color invalidBorderColor = new Color(255, 100, 100, 255);
     @Setter
+    private Color pendingBorderColor = new Color(255, 200, 90, 255);
+    @Setter
     private Color tooltipBackgroundColor = new Color(60, 60, 60, 240);
     @Setter
     private Color tooltipBorderColor = new Color(255, 100, 100, 255);
@@ -144,7 +163,9 @@ public class TextInput extends UIBaseComponent implements QuickImports
     private float fontSize = 9.0f;
 
     private final FontAtlas fontAtlas;
-    private final FontAtlas lucideIcon = NoctisUIClient.getInstance().getFonts().getLucide();
+    /** The font of the icons, or {@code null} for the client's Lucide. */
+    @Setter
+    private FontAtlas iconFont;
 
     private final String eyeOpenIcon = "\uE9B7";
     private final String eyeClosedIcon = "\uE9B6";
@@ -159,6 +180,42 @@ public class TextInput extends UIBaseComponent implements QuickImports
     @Setter
     private boolean validateOnType = false;
 
+    @Getter
+    private TextValidator validator;
+    @Getter
+    private TextValidator asyncValidator;
+    private long asyncDebounceMillis = 0;
+
+    /** The text revision the cached validation belongs to, or -1 when it must be computed again. */
+    private int validatedRevision = -1;
+    /** The error found on the render thread for that revision, or an empty string. */
+    private String validationError = "";
+    /** The error found by the asynchronous validator for that revision, or an empty string. */
+    private String asyncError = "";
+    /**
+     * Whether the asynchronous validator has not answered for the current text yet.
+     */
+    @Getter
+    private boolean validationPending = false;
+    private boolean asyncSubmitted = false;
+    private long asyncDueTime = 0;
+    private final AtomicReference<AsyncResult> asyncResult = new AtomicReference<>();
+
+    private record AsyncResult(int revision, TextValidator validator, String error)
+    {
+    }
+
+    /**
+     * The suggestions shown under TEXT and SEARCH inputs, or {@code null}.
+     */
+    @Getter
+    private Autocomplete autocomplete;
+    /**
+     * The collection filtered by a SEARCH input, or {@code null}.
+     */
+    @Getter
+    private LiveFilter<?> liveFilter;
+
     /**
      * Creates a new TextInput with the specified parameters.
      *
@@ -214,15 +271,16 @@ public class TextInput extends UIBaseComponent implements QuickImports
 
         MatrixStack matrices = context.getMatrices();
 
-        updateAnimations(mouseX, mouseY, delta); updateCursorBlink();
+        if (liveFilter != null) liveFilter.tick();
+        updateValidation(); updateAnimations(mouseX, mouseY, delta); updateCursorBlink();
 
         Color bColor = getBorderColor();
         Color bgColor = focused ? focusedBackgroundColor : backgroundColor;
 
         Render2DEngine.drawRoundedRect(matrices, x, y, width, height, borderRadius, bgColor);
 
-        // Use validationAnimationProgress as a scale factor for border width
-        float validationBorderWidth = borderWidth + (validationAnimationProgress * 1.0f);
+        // Use the validation animation as a scale factor for border width
+        float validationBorderWidth = borderWidth + (animator.get(validationAnimation) * 1.0f);
         Render2DEngine.drawRoundedOutline(matrices, x, y, width, height, borderRadius, validationBorderWidth, bColor);
 
         float rightPadding = getRightPadding();
@@ -230,7 +288,7 @@ public class TextInput extends UIBaseComponent implements QuickImports
         float textY = y + (height - fontAtlas.getLineHeight(fontSize)) / 2;
         float textAreaWidth = width - padding - rightPadding;
 
-        enableScissor(x + padding, y, textAreaWidth, height);
+        Render2DEngine.pushClip(matrices, x + padding, y, textAreaWidth, height);
 
         if (hasSelection() && focused)
             renderSelection(matrices, textX, textY);
@@ -241,17 +299,19 @@ public class TextInput extends UIBaseComponent implements QuickImports
             fontAtlas.render(matrices, placeholder, textX, textY, fontSize, placeholderColor.getRGB() | (placeholderColor.getAlpha() << 24));
 
         else if (!displayText.isEmpty())
-            fontAtlas.render(matrices, displayText, textX, textY, fontSize, textColor.getRGB() | (textColor.getAlpha() << 24));
+            fontAtlas.render(matrices, displayText, textX, textY, fontSize, textColor);
 
         if (focused && cursorVisible && enabled)
             renderCursor(matrices, textX, textY);
 
-        disableScissor();
+        Render2DEngine.popClip();
 
         renderTypeSpecificIcons(matrices, mouseX, mouseY);
 
-        if (showValidation && !isValid() && tooltipAnimationProgress > 0.0f)
+        if (showValidation && hasValidationError() && animator.get(tooltipAnimation) > 0.0f)
             renderValidationTooltip(matrices);
+
+        if (autocomplete != null && focused) autocomplete.render(context, x, y + height + 2, width, mouseX, mouseY, delta);
     }
 
     /**
@@ -263,58 +323,85 @@ public class TextInput extends UIBaseComponent implements QuickImports
      */
     private void updateAnimations(double mouseX, double mouseY, float delta)
     {
-        boolean wasHovering = isHovering; isHovering = isPointInBounds(mouseX, mouseY);
+        isHovering = isPointerOver(mouseX, mouseY);
 
-        float focusTarget = focused ? 1.0f : 0.0f;
-        focusAnimationProgress = MathUtils.lerp(focusAnimationProgress, focusTarget, ANIMATION_SPEED);
+        animator.setTarget(focusAnimation, focused ? 1.0f : 0.0f);
+        animator.setTarget(hoverAnimation, isHovering ? 1.0f : 0.0f);
 
-        float hoverTarget = isHovering ? 1.0f : 0.0f;
-        hoverAnimationProgress = MathUtils.lerp(hoverAnimationProgress, hoverTarget, ANIMATION_SPEED * 1.5f);
+        boolean invalid = showValidation && hasValidationError();
+        animator.setTarget(validationAnimation, invalid ? 1.0f : 0.0f);
 
-        float validationTarget = (showValidation && !isValid() && !text.isEmpty()) ? 1.0f : 0.0f;
-        validationAnimationProgress = MathUtils.lerp(validationAnimationProgress, validationTarget, ANIMATION_SPEED * 2.0f);
+        // The tooltip shows after a delay and hides right away.
+        if (invalid != showTooltip) {
+            showTooltip = invalid;
+            animator.restart(tooltipAnimation, animator.get(tooltipAnimation), invalid ? 1.0f : 0.0f, invalid ? TOOLTIP_DELAY : 0f);
+        }
 
-        if (showValidation && !isValid() && !text.isEmpty()) {
-            if (!showTooltip) {
-                tooltipShowTime = System.currentTimeMillis();
-                showTooltip = true;
-            }
+        if (!inputManaged) resolveIconHover(mouseX, mouseY);
 
-            float TOOLTIP_DELAY = 1000;
-            if (System.currentTimeMillis() - tooltipShowTime > TOOLTIP_DELAY)
-                tooltipAnimationProgress = MathUtils.lerp(tooltipAnimationProgress, 1.0f, ANIMATION_SPEED * 2.0f);
-        }
-        else {
-            showTooltip = false;
-            tooltipAnimationProgress = MathUtils.lerp(tooltipAnimationProgress, 0.0f, ANIMATION_SPEED * 3.0f);
-        }
+        updateIconHoverAnimations(); animator.tick(FrameClock.getDelta());
+    }
+
+    /**
+     * Points the icon hover animations at the resolved icon hover targets.
+     */
+    private void updateIconHoverAnimations()
+    {
+        switch (inputType) {
+            case PASSWORD:
+                animator.setTarget(passwordIconAnimation, passwordIconHovered ? 1.0f : 0.0f); break;
+
+            case SEARCH:
+                animator.setTarget(searchIconAnimation, searchIconHovered ? 1.0f : 0.0f); break;
 
-        updateIconHoverAnimations(mouseX, mouseY);
+            case NUMBER:
+                animator.setTarget(chevronUpAnimation, chevronUpHovered ? 1.0f : 0.0f); animator.setTarget(chevronDownAnimation, chevronDownHovered ? 1.0f : 0.0f); break;
+        }
     }
 
     /**
-     * Updates the hover animation states for icons based on mouse position.
+     * Resolves which icon is under the pointer. Called every frame when the component is used standalone,
+     * and only on pointer events when an input dispatcher drives it.
      *
      * @param mouseX The current X-coordinate of the mouse.
      * @param mouseY The current Y-coordinate of the mouse.
      */
-    private void updateIconHoverAnimations(double mouseX, double mouseY)
+    private void resolveIconHover(double mouseX, double mouseY)
     {
         float iconX = x + width - padding - eyeIconSize; float iconY = y + (height - eyeIconSize) / 2;
-        switch (inputType) {
-            case PASSWORD:
-                boolean hoveringPassword = mouseX >= iconX && mouseX <= iconX + eyeIconSize && mouseY >= iconY && mouseY <= iconY + eyeIconSize; passwordIconHover = MathUtils.lerp(passwordIconHover, hoveringPassword ? 1.0f : 0.0f, ANIMATION_SPEED * 2.0f); break;
+        boolean overIcon = mouseX >= iconX && mouseX <= iconX + eyeIconSize && mouseY >= iconY && mouseY <= iconY + eyeIconSize;
 
-            case SEARCH:
-                boolean hoveringSearch = mouseX >= iconX && mouseX <= iconX + eyeIconSize && mouseY >= iconY && mouseY <= iconY + eyeIconSize; searchIconHover = MathUtils.lerp(searchIconHover, hoveringSearch ? 1.0f : 0.0f, ANIMATION_SPEED * 2.0f); break;
+        passwordIconHovered = inputType == InputType.PASSWORD && overIcon;
+        searchIconHovered = inputType == InputType.SEARCH && overIcon;
 
-            case NUMBER:
-                float iconSize = 12.0f; iconX = x + width - padding - iconSize; float iconYUp = y + (height - iconSize) / 2 - iconSize / 2; float iconYDown = y + (height - iconSize) / 2 + iconSize / 2;
+        int chevron = inputType == InputType.NUMBER ? getClickedNumberChevron(mouseX, mouseY) : 0;
+        chevronUpHovered = chevron == 1; chevronDownHovered = chevron == -1;
+    }
 
-                boolean hoverUp = mouseX >= iconX && mouseX <= iconX + iconSize && mouseY >= iconYUp && mouseY <= iconYUp + iconSize; boolean hoverDown = mouseX >= iconX && mouseX <= iconX + iconSize && mouseY >= iconYDown && mouseY <= iconYDown + iconSize;
+    @Override
+    public boolean isFocusable()
+    {
+        return enabled;
+    }
 
-                chevronUpHover = MathUtils.lerp(chevronUpHover, hoverUp ? 1.0f : 0.0f, ANIMATION_SPEED * 2.0f); chevronDownHover = MathUtils.lerp(chevronDownHover, hoverDown ? 1.0f : 0.0f, ANIMATION_SPEED * 2.0f); break;
-        }
+    /**
+     * Tracks icon hover from pointer events and follows the focus given by the input dispatcher.
+     *
+     * @param event The routed event.
+     */
+    @Override
+    public void onEvent(UIEvent event)
+    {
+        switch (event.getType()) {
+            case MOUSE_ENTER, MOUSE_MOVE -> {
+                if (event.getPhase() == UIEvent.Phase.TARGET) resolveIconHover(event.getX(), event.getY());
+            }
+            case MOUSE_LEAVE -> passwordIconHovered = searchIconHovered = chevronUpHovered = chevronDownHovered = false;
+            case FOCUS_GAINED -> setFocused(true);
+            case FOCUS_LOST -> {
+                setFocused(false); clearSelection();
+            }
+        } super.onEvent(event);
     }
 
     /**
@@ -324,7 +411,27 @@ public class TextInput extends UIBaseComponent implements QuickImports
      */
     private String getDisplayText()
     {
-        return inputType == InputType.PASSWORD && !passwordVisible ? "·".repeat(text.length()) : text;
+        return isMasked() ? "·".repeat(text.length()) : text.toString();
+    }
+
+    private boolean isMasked()
+    {
+        return inputType == InputType.PASSWORD && !passwordVisible;
+    }
+
+    /**
+     * Measures the displayed text between two indices from the cached advances of the text buffer.
+     *
+     * @param start The first index, inclusive.
+     * @param end   The last index, exclusive.
+     *
+     * @return The width of the displayed characters between {@code start} and {@code end}.
+     */
+    private float getDisplayWidth(int start, int end)
+    {
+        if (isMasked()) return (end - start) * fontAtlas.getAdvance('·', fontSize);
+
+        text.setFont(fontAtlas, fontSize); return text.getWidth(start, end);
     }
 
     /**
@@ -337,7 +444,8 @@ public class TextInput extends UIBaseComponent implements QuickImports
         if (focused) {
             return focusedBorderColor;
         } else if (showValidation && validateOnType && !text.isEmpty()) {
-            return isValid() ? validBorderColor : invalidBorderColor;
+            if (validationPending) return pendingBorderColor;
+            return hasValidationError() ? invalidBorderColor : validBorderColor;
         }
         return borderColor;
     }
@@ -369,39 +477,102 @@ public class TextInput extends UIBaseComponent implements QuickImports
         float tooltipX = x + width + 8.0f;
         float tooltipY = y + (height - tooltipHeight) / 2;
 
-        float scale = tooltipAnimationProgress;
+        float scale = animator.get(tooltipAnimation);
         float scaledWidth = tooltipWidth * scale;
         float scaledHeight = tooltipHeight * scale;
         float scaledX = tooltipX + (tooltipWidth - scaledWidth) / 2;
         float scaledY = tooltipY + (tooltipHeight - scaledHeight) / 2;
 
         if (scale > 0.1f) {
-            Color bgColor = new Color(tooltipBackgroundColor.getRed(), tooltipBackgroundColor.getGreen(), tooltipBackgroundColor.getBlue(), (int) (tooltipBackgroundColor.getAlpha() * scale));
+            int bgColor = Color.scaleAlpha(tooltipBackgroundColor.getRGB(), scale);
 
             Render2DEngine.drawRoundedRect(matrices, scaledX, scaledY, scaledWidth, scaledHeight, 4.0f, bgColor);
 
-            Color borderColor = new Color(tooltipBorderColor.getRed(), tooltipBorderColor.getGreen(), tooltipBorderColor.getBlue(), (int) (tooltipBorderColor.getAlpha() * scale));
+            int borderColor = Color.scaleAlpha(tooltipBorderColor.getRGB(), scale);
 
             Render2DEngine.drawRoundedOutline(matrices, scaledX, scaledY, scaledWidth, scaledHeight, 4.0f, 1.0f, borderColor);
 
             if (scale > 0.5f) {
-                Color textColor = new Color(tooltipTextColor.getRed(), tooltipTextColor.getGreen(), tooltipTextColor.getBlue(), (int) (tooltipTextColor.getAlpha() * scale));
+                int textColor = Color.scaleAlpha(tooltipTextColor.getRGB(), scale);
 
-                fontAtlas.render(matrices, errorMessage, scaledX + 8.0f * scale, scaledY + 4.0f * scale, (fontSize - 1.0f) * scale, textColor.getRGB() | (textColor.getAlpha() << 24));
+                fontAtlas.render(matrices, errorMessage, scaledX + 8.0f * scale, scaledY + 4.0f * scale, (fontSize - 1.0f) * scale, textColor);
             }
         }
 
     }
 
     /**
-     * Gets the validation error message based on the current input type and text.
+     * Gets the validation error message of the current text, cached until the next edit.
      *
-     * @return The validation error message, or an empty string if valid.
+     * @return The validation error message, or an empty string if valid or still pending.
      */
-    private String getValidationErrorMessage()
+    public String getValidationErrorMessage()
+    {
+        updateValidation(); return validationError.isEmpty() ? asyncError : validationError;
+    }
+
+    private boolean hasValidationError()
+    {
+        return !validationError.isEmpty() || !asyncError.isEmpty();
+    }
+
+    /**
+     * Validates the text again after an edit, and schedules the asynchronous validator once the debounce delay has
+     * passed. Its answer is picked up here on a later frame, and ignored if the text changed in the meantime.
+     */
+    private void updateValidation()
+    {
+        int revision = text.getRevision();
+        if (revision != validatedRevision) {
+            validatedRevision = revision; validationError = computeValidationError(); asyncError = "";
+            validationPending = asyncValidator != null && validationError.isEmpty() && !text.isEmpty();
+            asyncSubmitted = false; asyncDueTime = FrameClock.getTimeMillis() + asyncDebounceMillis;
+        }
+        if (!validationPending) return;
+
+        AsyncResult result = asyncResult.get();
+        if (result != null && result.revision() == revision && result.validator() == asyncValidator) {
+            asyncError = result.error(); validationPending = false;
+        }
+        else if (!asyncSubmitted && FrameClock.getTimeMillis() >= asyncDueTime) {
+            asyncSubmitted = true; TextValidator check = asyncValidator; String value = text.toString();
+            BackgroundExecutor.submit(() ->
+            {
+                String error;
+                try {
+                    error = check.validate(value);
+                } catch (RuntimeException e) {
+                    // Answers anyway so the input stops waiting, then lets the executor log the failure.
+                    publishValidation(new AsyncResult(revision, check, "Validation impossible")); throw e;
+                }
+                publishValidation(new AsyncResult(revision, check, error == null ? "" : error));
+            });
+        }
+    }
+
+    /**
+     * Publishes an answer of the asynchronous validator, keeping the answer for the newest text when two
+     * validations finish out of order.
+     */
+    private void publishValidation(AsyncResult answer)
+    {
+        asyncResult.accumulateAndGet(answer, (current, next) ->
+                current == null || next.revision() >= current.revision() ? next : current);
+    }
+
+    private String computeValidationError()
     {
         if (text.isEmpty()) return "";
 
+        String error = computeTypeError();
+        if (error.isEmpty() && validator != null) {
+            String custom = validator.validate(text.toString()); if (custom != null) error = custom;
+        }
+        return error;
+    }
+
+    private String computeTypeError()
+    {
         return switch (inputType) {
             case EMAIL -> {
                 if (!EMAIL_PATTERN.matcher(text).matches()) {
@@ -410,7 +581,7 @@ public class TextInput extends UIBaseComponent implements QuickImports
                 yield "";
             } case URL -> {
                 if (!URL_PATTERN.matcher(text).matches()) {
-                    if (!text.startsWith("http")) {
+                    if (!text.toString().startsWith("http")) {
                         yield "URL doit commencer par http:// ou https://";
                     }
                     else {
@@ -419,7 +590,7 @@ public class TextInput extends UIBaseComponent implements QuickImports
                 }
                 yield "";
             } case NUMBER -> {
-                if (!NUMBER_PATTERN.matcher(text).matches() || text.equals("-") || text.equals(".")) {
+                if (!NUMBER_PATTERN.matcher(text).matches() || isSign()) {
                     yield "Nombre invalide";
                 }
                 yield "";
@@ -454,7 +625,7 @@ public class TextInput extends UIBaseComponent implements QuickImports
     {
         float iconX = x + width - padding - eyeIconSize; float iconY = y + (height - eyeIconSize) / 2;
 
-        Color currentIconColor = Color.interpolateColor(iconColor, iconHoverColor, passwordIconHover);
+        int currentIconColor = Color.lerp(iconColor.getRGB(), iconHoverColor.getRGB(), animator.get(passwordIconAnimation));
 
         if (passwordVisible) {
             renderEyeOpenIcon(matrices, iconX, iconY, currentIconColor);
@@ -475,9 +646,11 @@ public class TextInput extends UIBaseComponent implements QuickImports
         float iconX = x + width - padding - eyeIconSize;
         float iconY = y + (height - eyeIconSize) / 2;
 
-        Color currentIconColor = Color.interpolateColor(iconColor, iconHoverColor, searchIconHover);
+        float highlight = liveFilter != null && liveFilter.isFiltering() ? 1.0f : animator.get(searchIconAnimation);
+        int currentIconColor = Color.lerp(iconColor.getRGB(), iconHoverColor.getRGB(), highlight);
 
-        lucideIcon.render(matrices, searchIcon, iconX, iconY, eyeIconSize, currentIconColor.getRGB() | (currentIconColor.getAlpha() << 24));
+        FontAtlas icons = getIconFont(); if (icons == null) return;
+        icons.render(matrices, searchIcon, iconX, iconY, eyeIconSize, currentIconColor);
     }
 
     /**
@@ -493,11 +666,12 @@ public class TextInput extends UIBaseComponent implements QuickImports
         float iconYUp = y + (height - iconSize) / 2 - iconSize / 2;
         float iconYDown = y + (height - iconSize) / 2 + iconSize / 2;
 
-        Color upColor = Color.interpolateColor(iconColor, iconHoverColor, chevronUpHover);
-        Color downColor = Color.interpolateColor(iconColor, iconHoverColor, chevronDownHover);
+        int upColor = Color.lerp(iconColor.getRGB(), iconHoverColor.getRGB(), animator.get(chevronUpAnimation));
+        int downColor = Color.lerp(iconColor.getRGB(), iconHoverColor.getRGB(), animator.get(chevronDownAnimation));
 
-        lucideIcon.render(matrices, chevronUpIcon, iconX, iconYUp, iconSize, upColor.getRGB() | (upColor.getAlpha() << 24));
-        lucideIcon.render(matrices, chevronDownIcon, iconX, iconYDown, iconSize, downColor.getRGB() | (downColor.getAlpha() << 24));
+        FontAtlas icons = getIconFont(); if (icons == null) return;
+        icons.render(matrices, chevronUpIcon, iconX, iconYUp, iconSize, upColor);
+        icons.render(matrices, chevronDownIcon, iconX, iconYDown, iconSize, downColor);
     }
 
     /**
@@ -506,11 +680,11 @@ public class TextInput extends UIBaseComponent implements QuickImports
      * @param matrices The {@link MatrixStack} for rendering.
      * @param x        The X-coordinate to render the icon.
      * @param y        The Y-coordinate to render the icon.
-     * @param color    The eye icon {@link Color}
+     * @param color    The packed ARGB color of the eye icon
      */
-    private void renderEyeOpenIcon(MatrixStack matrices, float x, float y, Color color)
+    private void renderEyeOpenIcon(MatrixStack matrices, float x, float y, int color)
     {
-        lucideIcon.render(matrices, eyeOpenIcon, x, y, eyeIconSize, color.getRGB() | (color.getAlpha() << 24));
+        FontAtlas icons = getIconFont(); if (icons != null) icons.render(matrices, eyeOpenIcon, x, y, eyeIconSize, color);
     }
 
     /**
@@ -519,11 +693,19 @@ public class TextInput extends UIBaseComponent implements QuickImports
      * @param matrices The {@link MatrixStack} for rendering.
      * @param x        The X-coordinate to render the icon.
      * @param y        The Y-coordinate to render the icon.
-     * @param color    The eye icon {@link Color}
+     * @param color    The packed ARGB color of the eye icon
+     */
+    private void renderEyeClosedIcon(MatrixStack matrices, float x, float y, int color)
+    {
+        FontAtlas icons = getIconFont(); if (icons != null) icons.render(matrices, eyeClosedIcon, x, y, eyeIconSize, color);
+    }
+
+    /**
+     * @return The font of the icons, or {@code null} when none was set and the client fonts are not loaded.
      */
-    private void renderEyeClosedIcon(MatrixStack matrices, float x, float y, Color color)
+    public FontAtlas getIconFont()
     {
-        lucideIcon.render(matrices, eyeClosedIcon, x, y, eyeIconSize, color.getRGB() | (color.getAlpha() << 24));
+        return iconFont != null ? iconFont : Fonts.client(Fonts::getLucide);
     }
 
     /**
@@ -540,11 +722,8 @@ public class TextInput extends UIBaseComponent implements QuickImports
         int start = Math.min(selectionStart, selectionEnd);
         int end = Math.max(selectionStart, selectionEnd);
 
-        String displayText = getDisplayText(); String beforeSelection = displayText.substring(0, start);
-        String selection = displayText.substring(start, end);
-
-        float selectionStartX = textX + fontAtlas.getWidth(beforeSelection, fontSize);
-        float selectionWidth = fontAtlas.getWidth(selection, fontSize);
+        float selectionStartX = textX + getDisplayWidth(0, start);
+        float selectionWidth = getDisplayWidth(start, end);
 
         Render2DEngine.drawRect(matrices, selectionStartX, textY, selectionWidth, fontAtlas.getLineHeight(fontSize), selectionColor);
     }
@@ -558,9 +737,7 @@ public class TextInput extends UIBaseComponent implements QuickImports
      */
     private void renderCursor(MatrixStack matrices, float textX, float textY)
     {
-        String displayText = getDisplayText();
-        String beforeCursor = displayText.substring(0, cursorPosition);
-        float cursorX = textX + fontAtlas.getWidth(beforeCursor, fontSize);
+        float cursorX = textX + getDisplayWidth(0, cursorPosition);
 
         Render2DEngine.drawRect(matrices, cursorX, textY, 1.0f, fontAtlas.getLineHeight(fontSize), cursorColor);
     }
@@ -569,6 +746,7 @@ public class TextInput extends UIBaseComponent implements QuickImports
     public boolean mouseClicked(double mouseX, double mouseY, int button)
     {
         if (!visible || !enabled) return false;
+        if (autocomplete != null && autocomplete.mouseClicked(mouseX, mouseY, button)) return true;
 
         boolean wasInBounds = isPointInBounds(mouseX, mouseY);
 
@@ -591,7 +769,7 @@ public class TextInput extends UIBaseComponent implements QuickImports
             }
 
             float relativeX = (float) mouseX - (x + padding) + scrollOffset;
-            setCursorFromPosition(relativeX);
+            setCursorFromPosition(relativeX); history.breakGroup();
 
             clearSelection();
             return true;
@@ -622,7 +800,7 @@ public class TextInput extends UIBaseComponent implements QuickImports
     private void changeNumberValue(int delta)
     {
         try {
-            double value = text.isEmpty() ? 0 : Double.parseDouble(text);
+            double value = text.isEmpty() ? 0 : Double.parseDouble(text.toString());
 
             value += delta;
 
@@ -631,11 +809,11 @@ public class TextInput extends UIBaseComponent implements QuickImports
             if (value >= maxIntInput)
                 value = maxIntInput;
 
-            text = String.valueOf((value % 1 == 0) ? (int) value : value);
+            replaceText(String.valueOf((value % 1 == 0) ? (int) value : value));
 
             setCursorPosition(text.length());
         } catch (NumberFormatException e) {
-            text = "0";
+            replaceText("0");
             setCursorPosition(1);
         }
     }
@@ -653,15 +831,18 @@ public class TextInput extends UIBaseComponent implements QuickImports
         }
     }
 
+    @Override
     public boolean keyPressed(int keyCode, int scanCode, int modifiers)
     {
         if (!focused || !enabled) return false;
+        if (autocomplete != null && autocomplete.keyPressed(keyCode)) return true;
 
         boolean ctrlPressed = (modifiers & GLFW.GLFW_MOD_CONTROL) != 0;
         boolean shiftPressed = (modifiers & GLFW.GLFW_MOD_SHIFT) != 0;
 
         switch (keyCode) {
             case GLFW.GLFW_KEY_LEFT:
+                history.breakGroup();
                 if (shiftPressed) {
                     extendSelection(-1);
                 } else {
@@ -670,6 +851,7 @@ public class TextInput extends UIBaseComponent implements QuickImports
                 return true;
 
             case GLFW.GLFW_KEY_RIGHT:
+                history.breakGroup();
                 if (shiftPressed) {
                     extendSelection(1);
                 } else {
@@ -678,6 +860,7 @@ public class TextInput extends UIBaseComponent implements QuickImports
                 return true;
 
             case GLFW.GLFW_KEY_HOME:
+                history.breakGroup();
                 if (shiftPressed) {
                     setSelection(cursorPosition, 0);
                 } else {
@@ -687,6 +870,7 @@ public class TextInput extends UIBaseComponent implements QuickImports
                 return true;
 
             case GLFW.GLFW_KEY_END:
+                history.breakGroup();
                 if (shiftPressed) {
                     setSelection(cursorPosition, text.length());
                 } else {
@@ -699,7 +883,7 @@ public class TextInput extends UIBaseComponent implements QuickImports
                 if (hasSelection()) {
                     deleteSelection();
                 } else if (cursorPosition > 0) {
-                    text = text.substring(0, cursorPosition - 1) + text.substring(cursorPosition); moveCursor(-1);
+                    deleteText(cursorPosition - 1, cursorPosition); moveCursor(-1);
                 }
                 return true;
 
@@ -707,7 +891,7 @@ public class TextInput extends UIBaseComponent implements QuickImports
                 if (hasSelection()) {
                     deleteSelection();
                 } else if (cursorPosition < text.length()) {
-                    text = text.substring(0, cursorPosition) + text.substring(cursorPosition + 1);
+                    deleteText(cursorPosition, cursorPosition + 1);
                 }
                 return true;
 
@@ -738,21 +922,34 @@ public class TextInput extends UIBaseComponent implements QuickImports
                     return true;
                 }
                 break;
+
+            case GLFW.GLFW_KEY_Z:
+                if (ctrlPressed) {
+                    if (shiftPressed) redo();
+                    else undo();
+                    return true;
+                }
+                break;
+
+            case GLFW.GLFW_KEY_Y:
+                if (ctrlPressed) {
+                    redo();
+                    return true;
+                }
+                break;
         }
 
         return false;
     }
 
+    @Override
     public boolean charTyped(char chr, int modifiers)
     {
         if (!focused || !enabled) return false;
 
-        if (isValidCharForType(chr)) {
-            String newChar = String.valueOf(chr);
-            if (isValidInputForType(text + newChar)) {
-                insertText(newChar);
-                return true;
-            }
+        if (isValidCharForType(chr) && isValidInputForType(chr)) {
+            insertText(String.valueOf(chr));
+            return true;
         }
 
         return false;
@@ -760,7 +957,7 @@ public class TextInput extends UIBaseComponent implements QuickImports
 
     private boolean isValidCharForType(char chr)
     {
-        if (chr < 32 || chr == 127) return false;
+        if (chr < 32 || chr == 127 || chr == '§') return false;
 
         return switch (inputType) {
             case NUMBER -> Character.isDigit(chr) || chr == '.' || chr == '-';
@@ -770,30 +967,63 @@ public class TextInput extends UIBaseComponent implements QuickImports
         };
     }
 
-    private boolean isValidInputForType(String input)
+    /**
+     * Checks the value the input would hold with {@code chr} appended. Only the types constraining the whole value
+     * build it, so typing into plain text never copies the buffer.
+     */
+    private boolean isValidInputForType(char chr)
     {
         return switch (inputType) {
-            case NUMBER -> NUMBER_PATTERN.matcher(input).matches();
-            case EMAIL -> input.matches("^[a-zA-Z0-9._%+-]*@?[a-zA-Z0-9.-]*\\.?[a-zA-Z]*$");
+            case NUMBER -> NUMBER_PATTERN.matcher(text + String.valueOf(chr)).matches();
+            case EMAIL -> (text + String.valueOf(chr)).matches("^[a-zA-Z0-9._%+-]*@?[a-zA-Z0-9.-]*\\.?[a-zA-Z]*$");
             default -> true;
         };
     }
 
+    private boolean isSign()
+    {
+        return text.length() == 1 && (text.charAt(0) == '-' || text.charAt(0) == '.');
+    }
+
+    /**
+     * @return Whether the text passes the checks of its input type and the validators. The result is cached until
+     * the next edit, and is false while the asynchronous validator has not answered.
+     */
     public boolean isValid()
     {
-        if (text.isEmpty()) return true;
+        updateValidation(); return !hasValidationError() && !validationPending;
+    }
 
-        return switch (inputType) {
-            case EMAIL -> EMAIL_PATTERN.matcher(text).matches();
-            case URL -> URL_PATTERN.matcher(text).matches();
-            case NUMBER -> NUMBER_PATTERN.matcher(text).matches() && !text.equals("-") && !text.equals(".");
-            default -> true;
-        };
+    public void setInputType(InputType inputType)
+    {
+        this.inputType = inputType; validatedRevision = -1;
+    }
+
+    /**
+     * Sets a validator run on the render thread after each edit, when the checks of the input type pass.
+     *
+     * @param validator The validator, or {@code null} to remove it.
+     */
+    public void setValidator(TextValidator validator)
+    {
+        this.validator = validator; validatedRevision = -1;
+    }
+
+    /**
+     * Sets a validator run on the background executor once typing pauses, when every other check passes. The
+     * input is {@link #isValidationPending() pending} until it answers for the current text.
+     *
+     * @param validator      The validator, or {@code null} to remove it. It must not touch any component.
+     * @param debounceMillis How long the text must stay unchanged before it is validated.
+     */
+    public void setAsyncValidator(TextValidator validator, long debounceMillis)
+    {
+        this.asyncValidator = validator; this.asyncDebounceMillis = Math.max(0, debounceMillis); validatedRevision = -1;
     }
 
     private void updateCursorBlink()
     {
-        long currentTime = System.currentTimeMillis();
+        long currentTime = FrameClock.getTimeMillis();
         if (currentTime - lastCursorBlink > 530) {
             cursorVisible = !cursorVisible; lastCursorBlink = currentTime;
         }
@@ -807,10 +1037,10 @@ public class TextInput extends UIBaseComponent implements QuickImports
 
         if (inputType.equals(InputType.NUMBER)) {
             try {
-                double value = text.isEmpty() ? 0 : Double.parseDouble(text);
+                double value = text.isEmpty() ? 0 : Double.parseDouble(text.toString());
                 double newValue = Double.parseDouble(str);
-                if (newValue <= maxIntInput) text = String.valueOf(maxIntInput);
-                if (newValue >= minIntInput) text = String.valueOf(minIntInput);
+                if (newValue <= maxIntInput) replaceText(String.valueOf(maxIntInput));
+                if (newValue >= minIntInput) replaceText(String.valueOf(minIntInput));
                 moveCursor(text.length());
             } catch (NumberFormatException e) {
                 return;
@@ -818,27 +1048,124 @@ public class TextInput extends UIBaseComponent implements QuickImports
         }
 
         if (text.length() + str.length() <= maxLength) {
-            text = text.substring(0, cursorPosition) + str + text.substring(cursorPosition);
+            history.recordInsert(cursorPosition, str); text.insert(cursorPosition, str);
             moveCursor(str.length());
 
             if (validateOnType) {
                 showValidation = true;
             }
-        }
+        } queryChanged();
     }
 
-    private void setCursorFromPosition(float x)
+    private void deleteText(int start, int end)
     {
-        String displayText = getDisplayText();
-        float currentWidth = 0;
-        int position = 0;
+        history.recordDelete(text, start, end); text.delete(start, end); queryChanged();
+    }
 
-        for (int i = 0; i < displayText.length(); i++) {
-            float charWidth = fontAtlas.getWidth(displayText.substring(i, i + 1), fontSize);
-            if (currentWidth + charWidth / 2 > x) {
-                break;
-            }
-            currentWidth += charWidth; position = i + 1;
+    private void replaceText(String value)
+    {
+        deleteText(0, text.length()); history.recordInsert(0, value); text.insert(0, value);
+    }
+
+    /**
+     * Reverts the last group of edits.
+     *
+     * @return false if there was nothing to undo.
+     */
+    public boolean undo()
+    {
+        return restore(history.undo(this::replaceRange));
+    }
+
+    /**
+     * Applies the last undone group of edits again.
+     *
+     * @return false if there was nothing to redo.
+     */
+    public boolean redo()
+    {
+        return restore(history.redo(this::replaceRange));
+    }
+
+    private void replaceRange(int start, int end, CharSequence replacement)
+    {
+        text.delete(start, end); text.insert(start, replacement);
+    }
+
+    private boolean restore(int cursor)
+    {
+        if (cursor < 0) return false;
+
+        setCursorPosition(cursor); clearSelection(); queryChanged();
+        if (validateOnType) showValidation = true;
+        return true;
+    }
+
+    /**
+     * Shows the suggestions under the input, for TEXT and SEARCH inputs. Accepting one replaces the whole text.
+     *
+     * @param autocomplete The suggestions, or {@code null} to remove them.
+     */
+    public void setAutocomplete(Autocomplete autocomplete)
+    {
+        if (this.autocomplete != null) this.autocomplete.setOnAccept(null);
+
+        this.autocomplete = autocomplete;
+        if (autocomplete != null) autocomplete.setOnAccept(value ->
+        {
+            replaceText(value); setCursorPosition(text.length()); clearSelection(); history.breakGroup();
+        });
+    }
+
+    /**
+     * Filters a collection with the text of a SEARCH input, narrowing the previous matches on each keystroke.
+     *
+     * @param liveFilter The filter, or {@code null} to unbind it.
+     */
+    public void setLiveFilter(LiveFilter<?> liveFilter)
+    {
+        this.liveFilter = liveFilter; queryChanged();
+    }
+
+    private void queryChanged()
+    {
+        if (autocomplete != null && (inputType == InputType.TEXT || inputType == InputType.SEARCH))
+            autocomplete.update(text.toString());
+        if (liveFilter != null && inputType == InputType.SEARCH) liveFilter.update(text.toString());
+    }
+
+    @Override
+    public boolean mouseScrolled(double mouseX, double mouseY, double amount)
+    {
+        return autocomplete != null && autocomplete.mouseScrolled(mouseX, mouseY, amount);
+    }
+
+    /**
+     * An input can get suggestions at any time, so its container always checks for an open popup.
+     */
+    @Override
+    public boolean hasOverlay()
+    {
+        return true;
+    }
+
+    /**
+     * Claims the points over the open suggestion popup, which is drawn under the input, outside its bounds.
+     */
+    @Override
+    public boolean overlayContains(double mouseX, double mouseY)
+    {
+        return visible && enabled && autocomplete != null && autocomplete.contains(mouseX, mouseY);
+    }
+
+    private void setCursorFromPosition(float x)
+    {
+        int position; if (isMasked()) {
+            float advance = fontAtlas.getAdvance('·', fontSize);
+            position = advance > 0 ? (int) Math.floor(x / advance + 0.5f) : 0;
+        }
+        else {
+            text.setFont(fontAtlas, fontSize); position = text.indexAt(x);
         }
 
         setCursorPosition(Math.max(0, Math.min(position, text.length())));
@@ -859,13 +1186,12 @@ public class TextInput extends UIBaseComponent implements QuickImports
     private void resetCursorBlink()
     {
         cursorVisible = true;
-        lastCursorBlink = System.currentTimeMillis();
+        lastCursorBlink = FrameClock.getTimeMillis();
     }
 
     private void updateScrollOffset()
     {
-        String beforeCursor = text.substring(0, cursorPosition);
-        float cursorX = fontAtlas.getWidth(beforeCursor, fontSize);
+        float cursorX = getDisplayWidth(0, cursorPosition);
         float visibleWidth = width - (padding * 2);
 
         if (cursorX - scrollOffset > visibleWidth - 10) {
@@ -913,7 +1239,7 @@ public class TextInput extends UIBaseComponent implements QuickImports
         int start = Math.min(selectionStart, selectionEnd);
         int end = Math.max(selectionStart, selectionEnd);
 
-        text = text.substring(0, start) + text.substring(end);
+        deleteText(start, end);
         setCursorPosition(start);
         clearSelection();
     }
@@ -958,34 +1284,28 @@ public class TextInput extends UIBaseComponent implements QuickImports
         return mouseX >= x && mouseX <= x + width && mouseY >= y && mouseY <= y + height;
     }
 
-    private void enableScissor(float x, float y, float width, float height)
-    {
-        double scale = mc.getWindow().getScaleFactor();
-        int scissorX = (int) (x * scale);
-        int scissorY = (int) ((mc.getWindow().getScaledHeight() - (y + height)) * scale);
-        int scissorWidth = (int) (width * scale);
-        int scissorHeight = (int) (height * scale);
-
-        GL11.glEnable(GL11.GL_SCISSOR_TEST);
-        GL11.glScissor(scissorX, scissorY, scissorWidth, scissorHeight);
-    }
-
-    private void disableScissor()
-    {
-        GL11.glDisable(GL11.GL_SCISSOR_TEST);
-    }
-
     public void setFocused(boolean focused)
     {
-        this.focused = focused;
+        this.focused = focused; history.breakGroup();
+        if (!focused && autocomplete != null) autocomplete.close();
         if (focused) {
             resetCursorBlink();
         }
     }
 
+    /**
+     * @return The current value. The string is cached until the next edit.
+     */
+    public String getText()
+    {
+        return text.toString();
+    }
+
     public void setText(String text)
     {
-        this.text = text == null ? "" : text;
+        this.text.setText(text == null ? "" : text); history.clear();
+        if (autocomplete != null) autocomplete.close();
+        if (liveFilter != null && inputType == InputType.SEARCH) liveFilter.update(this.text.toString());
         setCursorPosition(Math.min(cursorPosition, this.text.length()));
     }
 
@@ -0,0 +1,43 @@
+package fr.libnaus.noctisui.client.component.input;
+
+import java.util.function.Predicate;
+
+/**
+ * Checks the value of a {@link TextInput}, on top of the checks of its input type.
+ *
+ * <p>A validator set with {@link TextInput#setValidator(TextValidator)} runs on the render thread, once per edit.
+ * An expensive one, such as a lookup in a large index, is set with
+ * {@link TextInput#setAsyncValidator(TextValidator, long)} instead: it then runs on the background executor once
+ * typing pauses, and must not touch any component.</p>
+ *
+ * <pre>
+ * {@code
+ * input.setValidator(TextValidator.of(value -> value.length() >= 3, "Trop court"));
+ * input.setAsyncValidator(value -> index.contains(value) ? "Nom déjà pris" : null, 250);
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+@FunctionalInterface
+public interface TextValidator
+{
+
+    /**
+     * @param value The value to check, never empty.
+     *
+     * @return The error message, or {@code null} if the value is valid.
+     */
+    String validate(String value);
+
+    /**
+     * @param test    Whether a value is valid.
+     * @param message The error message of invalid values.
+     *
+     * @return A validator rejecting the values {@code test} refuses with {@code message}.
+     */
+    static TextValidator of(Predicate<String> test, String message)
+    {
+        return value -> test.test(value) ? null : message;
+    }
+}
@@ -0,0 +1,260 @@
+package fr.libnaus.noctisui.client.component.input;
+
+import fr.libnaus.noctisui.client.api.system.animation.FrameClock;
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+
+/**
+ * The undo and redo history of an editable text, stored as a log of edits.
+ *
+ * <p>Each entry only holds the replaced span: its offset, the characters it removed and the characters it
+ * inserted, so undoing or redoing costs the size of the change, never the size of the text. Typing and deleting
+ * character by character within a short time window are merged into the entry being built, a word and the
+ * space after it ending up in separate entries, and moving the cursor starts a new entry.</p>
+ *
+ * <p>Memory is bounded: every entry is accounted as its characters plus a fixed overhead, and the oldest entries
+ * are dropped once the budget is exceeded. An edit too large for the budget cannot be undone at all, so it
+ * clears the history instead of being copied.</p>
+ *
+ * <pre>
+ * {@code
+ * history.recordDelete(buffer, start, end); buffer.delete(start, end);
+ * history.recordInsert(offset, typed); buffer.insert(offset, typed);
+ *
+ * int cursor = history.undo((from, to, replacement) -> {
+ *     buffer.delete(from, to); buffer.insert(from, replacement);
+ * });
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public class UndoHistory
+{
+
+    /** The longest pause between two keystrokes still merged into the same entry, in milliseconds. */
+    private static final long COALESCE_MILLIS = 1000;
+    /** The memory charged per entry on top of its characters, in chars. */
+    private static final int ENTRY_OVERHEAD = 24;
+
+    /**
+     * Applies an entry to the text while undoing or redoing.
+     */
+    @FunctionalInterface
+    public interface Editor
+    {
+
+        /**
+         * Replaces the characters between {@code start} and {@code end} with {@code replacement}.
+         */
+        void replace(int start, int end, CharSequence replacement);
+    }
+
+    private static final class Entry
+    {
+
+        int offset;
+        final StringBuilder removed = new StringBuilder();
+        final StringBuilder inserted = new StringBuilder();
+        long time;
+
+        int size()
+        {
+            return removed.length() + inserted.length() + ENTRY_OVERHEAD;
+        }
+    }
+
+    private final ArrayDeque<Entry> undo = new ArrayDeque<>();
+    private final ArrayDeque<Entry> redo = new ArrayDeque<>();
+    /** Whether the newest entry may still absorb the next edit. */
+    private boolean open = false;
+    private boolean replaying = false;
+
+    /**
+     * The memory budget, in chars.
+     */
+    @Getter
+    private final int maxChars;
+    /**
+     * The memory held by the undo and redo entries, in chars.
+     */
+    @Getter
+    private int memoryUsage = 0;
+
+    /**
+     * Creates a history holding up to one million characters.
+     */
+    public UndoHistory()
+    {
+        this(1 << 20);
+    }
+
+    /**
+     * @param maxChars The memory budget, in chars.
+     */
+    public UndoHistory(int maxChars)
+    {
+        this.maxChars = Math.max(ENTRY_OVERHEAD, maxChars);
+    }
+
+    /**
+     * Records an insertion. Must be called for every insertion into the text, before or after it is applied.
+     *
+     * @param offset   The offset the text is inserted at.
+     * @param inserted The inserted text.
+     */
+    public void recordInsert(int offset, CharSequence inserted)
+    {
+        int count = inserted.length(); if (replaying || count == 0) return;
+        if (count + ENTRY_OVERHEAD > maxChars) {
+            clear(); return;
+        }
+
+        Entry last = edited(); long now = FrameClock.getTimeMillis();
+        boolean merge = last != null && offset == last.offset + last.inserted.length()
+                && (count == 1 && !startsWord(last, inserted.charAt(0)) || last.inserted.isEmpty());
+
+        if (!merge) last = push(offset, now);
+        last.inserted.append(inserted); last.time = now; memoryUsage += count; trim();
+    }
+
+    /**
+     * Records a deletion. Must be called for every deletion from the text, before it is applied.
+     *
+     * @param text  The text, still holding the deleted characters.
+     * @param start The first deleted index, inclusive.
+     * @param end   The last deleted index, exclusive.
+     */
+    public void recordDelete(CharSequence text, int start, int end)
+    {
+        int count = end - start; if (replaying || count <= 0) return;
+        if (count + ENTRY_OVERHEAD > maxChars) {
+            clear(); return;
+        }
+
+        Entry last = edited(); long now = FrameClock.getTimeMillis();
+        if (last != null && count == 1) {
+            int insertedEnd = last.offset + last.inserted.length();
+
+            if (last.inserted.length() > 0 && end == insertedEnd) { // Erases what was just typed.
+                last.inserted.setLength(last.inserted.length() - 1); last.time = now; memoryUsage--;
+                if (last.removed.isEmpty() && last.inserted.isEmpty()) {
+                    undo.pollLast(); memoryUsage -= ENTRY_OVERHEAD; open = false;
+                } return;
+            }
+            if (end == last.offset) { // Backspace.
+                last.removed.insert(0, text.charAt(start)); last.offset = start; last.time = now; memoryUsage++; trim(); return;
+            }
+            if (start == insertedEnd) { // Delete.
+                last.removed.append(text.charAt(start)); last.time = now; memoryUsage++; trim(); return;
+            }
+        }
+
+        last = push(start, now); last.removed.append(text, start, end); memoryUsage += count; trim();
+    }
+
+    /**
+     * Ends the entry being built, so the next edit starts a new one. Called when the cursor moves.
+     */
+    public void breakGroup()
+    {
+        open = false;
+    }
+
+    /**
+     * Reverts the newest entry.
+     *
+     * @param editor Applies the reverted span to the text. Edits it records are ignored.
+     *
+     * @return The offset the cursor goes to, after the restored text, or -1 if there was nothing to undo.
+     */
+    public int undo(Editor editor)
+    {
+        Entry entry = undo.pollLast(); if (entry == null) return -1;
+
+        replay(editor, entry.offset, entry.offset + entry.inserted.length(), entry.removed); redo.addLast(entry);
+        return entry.offset + entry.removed.length();
+    }
+
+    /**
+     * Applies the newest undone entry again.
+     *
+     * @param editor Applies the span to the text. Edits it records are ignored.
+     *
+     * @return The offset the cursor goes to, after the inserted text, or -1 if there was nothing to redo.
+     */
+    public int redo(Editor editor)
+    {
+        Entry entry = redo.pollLast(); if (entry == null) return -1;
+
+        replay(editor, entry.offset, entry.offset + entry.removed.length(), entry.inserted); undo.addLast(entry);
+        return entry.offset + entry.inserted.length();
+    }
+
+    public boolean canUndo()
+    {
+        return !undo.isEmpty();
+    }
+
+    public boolean canRedo()
+    {
+        return !redo.isEmpty();
+    }
+
+    /**
+     * Forgets every entry, as when the whole text is replaced.
+     */
+    public void clear()
+    {
+        undo.clear(); redo.clear(); memoryUsage = 0; open = false;
+    }
+
+    /**
+     * Drops the redo entries, invalidated by a new edit, and returns the entry the edit may be merged into.
+     */
+    private Entry edited()
+    {
+        for (Entry entry : redo)
+            memoryUsage -= entry.size();
+        redo.clear();
+
+        Entry last = open ? undo.peekLast() : null;
+        return last != null && FrameClock.getTimeMillis() - last.time <= COALESCE_MILLIS ? last : null;
+    }
+
+    private Entry push(int offset, long now)
+    {
+        Entry entry = new Entry(); entry.offset = offset; entry.time = now;
+        undo.addLast(entry); memoryUsage += ENTRY_OVERHEAD; open = true; return entry;
+    }
+
+    /**
+     * Drops the oldest entries until the history fits its budget.
+     */
+    private void trim()
+    {
+        while (memoryUsage > maxChars && !undo.isEmpty())
+            memoryUsage -= undo.pollFirst().size();
+        if (undo.isEmpty()) open = false;
+    }
+
+    private void replay(Editor editor, int start, int end, CharSequence replacement)
+    {
+        open = false; replaying = true;
+        try {
+            editor.replace(start, end, replacement);
+        } finally {
+            replaying = false;
+        }
+    }
+
+    /**
+     * @return Whether typing {@code next} after the entry starts a new word, which gets its own entry.
+     */
+    private static boolean startsWord(Entry entry, char next)
+    {
+        int length = entry.inserted.length();
+        return length > 0 && Character.isWhitespace(next) && !Character.isWhitespace(entry.inserted.charAt(length - 1));
+    }
+}
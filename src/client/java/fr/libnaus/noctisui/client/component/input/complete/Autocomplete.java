@@ -0,0 +1,286 @@
+package fr.libnaus.noctisui.client.component.input.complete;
+
+import fr.libnaus.noctisui.client.api.system.Render2DEngine;
+import fr.libnaus.noctisui.client.api.system.render.font.FontAtlas;
+import fr.libnaus.noctisui.client.component.UIBaseComponent;
+import fr.libnaus.noctisui.client.component.VirtualListComponent;
+import fr.libnaus.noctisui.client.utils.BackgroundExecutor;
+import fr.libnaus.noctisui.client.utils.Color;
+import lombok.Getter;
+import lombok.Setter;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.util.math.MatrixStack;
+import org.lwjgl.glfw.GLFW;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Suggestions shown in a popup under a text input, ranked from a {@link CompletionIndex}.
+ *
+ * <p>Each change of the typed text starts a query on the {@link BackgroundExecutor}. A newer keystroke makes the
+ * query in progress stale, and it stops at its next check instead of finishing for nothing. The render thread
+ * only picks up the latest finished result, so a query done between two frames shows up on the next one, and the
+ * previous suggestions stay on screen until then. The popup is a {@link VirtualListComponent}, so only the
+ * visible rows exist whatever the number of suggestions.</p>
+ *
+ * <pre>
+ * {@code
+ * TextInput command = new TextInput(10, 10, 200, 20, fontAtlas);
+ * command.setAutocomplete(new Autocomplete(CompletionIndex.of(commandNames), fontAtlas));
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public class Autocomplete
+{
+
+    private record Result(int generation, int[] ids, int count, long requestNanos)
+    {
+    }
+
+    @Getter
+    private final CompletionIndex index;
+    private final FontAtlas fontAtlas;
+    private final VirtualListComponent<Row> list;
+
+    @Getter
+    @Setter
+    private int maxSuggestions = 50;
+    @Getter
+    @Setter
+    private int visibleRows = 8;
+    @Getter
+    private float rowHeight = 14f;
+    @Setter
+    private float fontSize = 9f;
+
+    @Setter
+    private Color backgroundColor = new Color(30, 30, 30, 235);
+    @Setter
+    private Color borderColor = new Color(60, 60, 60, 255);
+    @Setter
+    private Color selectedColor = new Color(100, 150, 255, 90);
+    @Setter
+    private Color hoverColor = new Color(255, 255, 255, 20);
+    @Setter
+    private Color textColor = Color.WHITE;
+
+    /**
+     * Receives the accepted suggestion. Set by the input the popup belongs to.
+     */
+    @Setter
+    private Consumer<String> onAccept;
+
+    private final AtomicInteger generation = new AtomicInteger();
+    private final AtomicReference<Result> pending = new AtomicReference<>();
+
+    private String query = "";
+    private int[] ids = new int[ 0 ];
+    private int count = 0;
+    @Getter
+    private boolean open = false;
+    /**
+     * The highlighted suggestion, or -1.
+     */
+    @Getter
+    private int selected = -1;
+
+    /**
+     * The time between the last query request and its result reaching the render thread, in nanoseconds.
+     */
+    @Getter
+    private long lastLatencyNanos = 0;
+
+    /**
+     * @param index     The candidates.
+     * @param fontAtlas The font of the suggestions.
+     */
+    public Autocomplete(CompletionIndex index, FontAtlas fontAtlas)
+    {
+        this.index = index; this.fontAtlas = fontAtlas;
+
+        list = new VirtualListComponent<>(0, 0, 0, 0, new VirtualListComponent.DataSource<>()
+        {
+            @Override
+            public int size()
+            {
+                return count;
+            }
+
+            @Override
+            public Row createRow()
+            {
+                return new Row();
+            }
+
+            @Override
+            public void bindRow(Row row, int position)
+            {
+                row.position = position;
+            }
+        });
+        list.setItemHeight(rowHeight); list.setScrollbarWidth(2f);
+    }
+
+    public void setRowHeight(float rowHeight)
+    {
+        this.rowHeight = rowHeight; list.setItemHeight(rowHeight);
+    }
+
+    /**
+     * Queries the suggestions for the typed text, unless it did not change. An empty text closes the popup.
+     *
+     * @param text The current text of the input.
+     */
+    public void update(String text)
+    {
+        if (text.equals(query)) return;
+
+        query = text; int gen = generation.incrementAndGet();
+        if (text.isEmpty()) {
+            close(); return;
+        }
+
+        long requestNanos = System.nanoTime(); int limit = maxSuggestions;
+        BackgroundExecutor.submit(() ->
+        {
+            int[] found = new int[ limit ];
+            int total = index.query(text, limit, found, () -> generation.get() != gen);
+            // Keeps the newest result when an older query finishes last.
+            pending.accumulateAndGet(new Result(gen, found, total, requestNanos), (current, next) ->
+                    current == null || next.generation() >= current.generation() ? next : current);
+        });
+    }
+
+    /**
+     * Hides the popup and drops the query in progress. The next change of the text opens it again.
+     */
+    public void close()
+    {
+        generation.incrementAndGet(); open = false; selected = -1;
+    }
+
+    /**
+     * Handles the navigation keys while the popup is open: arrows move the highlight, Tab and Enter accept,
+     * Escape closes.
+     *
+     * @return true if the key was consumed.
+     */
+    public boolean keyPressed(int keyCode)
+    {
+        if (!open) return false;
+
+        switch (keyCode) {
+            case GLFW.GLFW_KEY_DOWN -> select(selected + 1 < count ? selected + 1 : 0);
+            case GLFW.GLFW_KEY_UP -> select(selected > 0 ? selected - 1 : count - 1);
+            case GLFW.GLFW_KEY_TAB -> accept(Math.max(0, selected));
+            case GLFW.GLFW_KEY_ENTER, GLFW.GLFW_KEY_KP_ENTER -> {
+                if (selected < 0) return false;
+                accept(selected);
+            }
+            case GLFW.GLFW_KEY_ESCAPE -> close();
+            default -> {
+                return false;
+            }
+        } return true;
+    }
+
+    public boolean mouseClicked(double mouseX, double mouseY, int button)
+    {
+        return open && list.mouseClicked(mouseX, mouseY, button);
+    }
+
+    public boolean mouseScrolled(double mouseX, double mouseY, double amount)
+    {
+        return open && list.mouseScrolled(mouseX, mouseY, amount);
+    }
+
+    /**
+     * @return Whether the point is over the open popup.
+     */
+    public boolean contains(double mouseX, double mouseY)
+    {
+        return open && list.contains(mouseX, mouseY);
+    }
+
+    /**
+     * Picks up the latest result and draws the popup, when open.
+     *
+     * @param x     The left of the popup.
+     * @param y     The top of the popup.
+     * @param width The width of the popup.
+     */
+    public void render(DrawContext context, float x, float y, float width, double mouseX, double mouseY, float delta)
+    {
+        poll(); if (!open) return;
+
+        MatrixStack matrices = context.getMatrices(); float height = Math.min(count, visibleRows) * rowHeight;
+        list.setBounds(x, y, width, height);
+
+        Render2DEngine.drawRect(matrices, x - 1, y - 1, width + 2, height + 2, borderColor);
+        Render2DEngine.drawRect(matrices, x, y, width, height, backgroundColor);
+        list.render(context, mouseX, mouseY, delta);
+    }
+
+    /**
+     * Swaps in the latest finished result if it answers the current text.
+     */
+    private void poll()
+    {
+        Result result = pending.getAndSet(null);
+        if (result == null || result.generation() != generation.get()) return;
+
+        ids = result.ids(); count = result.count(); open = count > 0; selected = -1;
+        lastLatencyNanos = System.nanoTime() - result.requestNanos();
+        list.notifyDataChanged(); list.scrollToIndex(0);
+    }
+
+    private void select(int position)
+    {
+        if (count == 0) return;
+
+        selected = position;
+        float top = selected * rowHeight; float bottom = top + rowHeight;
+        if (top < list.getScrollY()) list.scrollToIndex(selected);
+        else if (bottom > list.getScrollY() + visibleRows * rowHeight) list.scrollToIndex(selected - visibleRows + 1);
+    }
+
+    private void accept(int position)
+    {
+        String value = index.get(ids[ position ]);
+        close(); query = value; // Accepting changes the text, which must not open the popup again.
+        if (onAccept != null) onAccept.accept(value);
+    }
+
+    /**
+     * A row of the popup, bound to a suggestion position.
+     */
+    private final class Row extends UIBaseComponent
+    {
+
+        private int position;
+
+        @Override
+        public void render(DrawContext context, double mouseX, double mouseY, float delta)
+        {
+            MatrixStack matrices = context.getMatrices();
+
+            if (position == selected) Render2DEngine.drawRect(matrices, x, y, width, height, selectedColor);
+            else if (contains(mouseX, mouseY)) Render2DEngine.drawRect(matrices, x, y, width, height, hoverColor);
+
+            float textY = y + (height - fontAtlas.getLineHeight(fontSize)) / 2;
+            fontAtlas.render(matrices, index.get(ids[ position ]), x + 4, textY, fontSize, textColor.getRGB());
+        }
+
+        @Override
+        public boolean mouseClicked(double mouseX, double mouseY, int button)
+        {
+            if (button != GLFW.GLFW_MOUSE_BUTTON_LEFT || !contains(mouseX, mouseY)) return false;
+
+            accept(position); return true;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package fr.libnaus.noctisui.client.component.input.complete;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * An immutable set of completion candidates, such as command or item names, indexed for prefix and fuzzy queries.
+ *
+ * <p>Candidates are matched case-insensitively. Prefix matches come from a {@link PrefixTrie} and are ranked by
+ * weight, then by length. When they do not fill the requested number of suggestions, the optional
+ * {@link TrigramIndex} adds the most similar other candidates, so a typo still finds its target. Building the
+ * index is the expensive part and should happen once, off the render thread for large sets; it is safe to query
+ * from several threads at once.</p>
+ *
+ * <pre>
+ * {@code
+ * CompletionIndex items = CompletionIndex.of(Registries.ITEM.getIds().stream().map(Identifier::getPath).toList());
+ * int count = items.query("diamnod", 10, ids, () -> false);
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public final class CompletionIndex
+{
+
+    /** The shortest query matched fuzzily: shorter ones share too few trigrams to rank anything. */
+    private static final int FUZZY_MIN_LENGTH = 3;
+    private static final float FUZZY_MIN_SIMILARITY = 0.3f;
+
+    private final String[] candidates;
+    private final String[] keys;
+    private final float[] weights;
+    private final PrefixTrie trie;
+    private final TrigramIndex trigrams;
+
+    /**
+     * Indexes candidates of equal weight, with fuzzy matching.
+     *
+     * @param candidates The candidates.
+     *
+     * @return The index.
+     */
+    public static CompletionIndex of(Collection<String> candidates)
+    {
+        return new CompletionIndex(candidates.toArray(new String[ 0 ]), null, true);
+    }
+
+    /**
+     * Indexes candidates.
+     *
+     * @param candidates The candidates. The array is not modified.
+     * @param weights    Their weights, such as usage counts, higher ranking first, or {@code null}.
+     * @param fuzzy      Whether to build the trigram index for fuzzy matching.
+     */
+    public CompletionIndex(String[] candidates, float[] weights, boolean fuzzy)
+    {
+        int size = candidates.length; String[] lowered = new String[ size ];
+        for (int i = 0; i < size; i++)
+            lowered[ i ] = candidates[ i ].toLowerCase(Locale.ROOT);
+
+        int[] order = new int[ size ]; for (int i = 0; i < size; i++)
+            order[ i ] = i;
+        IntArrays.mergeSort(order, (a, b) -> lowered[ a ].compareTo(lowered[ b ]));
+
+        this.candidates = new String[ size ]; this.keys = new String[ size ]; this.weights = new float[ size ];
+        for (int i = 0; i < size; i++) {
+            this.candidates[ i ] = candidates[ order[ i ] ]; keys[ i ] = lowered[ order[ i ] ];
+            this.weights[ i ] = weights == null ? 0 : weights[ order[ i ] ];
+        }
+
+        trie = new PrefixTrie(keys); trigrams = fuzzy ? new TrigramIndex(keys) : null;
+    }
+
+    /**
+     * @return The number of candidates.
+     */
+    public int size()
+    {
+        return candidates.length;
+    }
+
+    /**
+     * @param id A candidate id, as returned by {@link #query}.
+     *
+     * @return The candidate.
+     */
+    public String get(int id)
+    {
+        return candidates[ id ];
+    }
+
+    /**
+     * Finds the best candidates for a query: the candidates starting with it first, then similar ones.
+     *
+     * @param query The typed text.
+     * @param limit The maximum number of results.
+     * @param ids   Receives the candidate ids, best first. Must hold {@code limit} elements.
+     * @param stale Polled while searching; the query throws a {@link CancellationException} once it is true, so a
+     *              query superseded by the next keystroke stops early.
+     *
+     * @return The number of results.
+     */
+    public int query(String query, int limit, int[] ids, BooleanSupplier stale)
+    {
+        if (limit <= 0) return 0;
+
+        String key = query.toLowerCase(Locale.ROOT); float[] scores = new float[ limit ]; int count = 0;
+
+        int node = trie.find(key); int start = 0, end = 0;
+        if (node >= 0) {
+            start = trie.getRangeStart(node); end = trie.getRangeEnd(node);
+            for (int id = start; id < end; id++) {
+                if (((id - start) & 4095) == 0 && stale.getAsBoolean()) throw new CancellationException();
+                // Shorter candidates are closer to what was typed, at equal weight.
+                count = Ranking.insert(ids, scores, count, limit, id, weights[ id ] * 1024f - keys[ id ].length());
+            }
+        }
+
+        if (count == limit || trigrams == null || key.length() < FUZZY_MIN_LENGTH) return count;
+
+        int[] similar = new int[ limit ]; float[] similarity = new float[ limit ];
+        int found = trigrams.search(key, FUZZY_MIN_SIMILARITY, limit, similar, similarity, stale);
+        for (int i = 0; i < found && count < limit; i++)
+            if (similar[ i ] < start || similar[ i ] >= end) ids[ count++ ] = similar[ i ];
+        return count;
+    }
+}
@@ -0,0 +1,136 @@
+package fr.libnaus.noctisui.client.component.input.complete;
+
+import java.util.Arrays;
+
+/**
+ * A read-only radix trie over sorted keys, stored in primitive arrays.
+ *
+ * <p>Every node covers the contiguous range of keys sharing its prefix, so a prefix query walks at most one node
+ * per character of the prefix and answers with a range of key indices, without allocating. Chains of single
+ * children are merged into one node labelled with a span of the first key of its range, so the trie holds at
+ * most two nodes per key and never copies a character.</p>
+ *
+ * <pre>
+ * {@code
+ * PrefixTrie trie = new PrefixTrie(sortedKeys);
+ * int node = trie.find("tp");
+ * if (node >= 0) scan(trie.getRangeStart(node), trie.getRangeEnd(node));
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public final class PrefixTrie
+{
+
+    private final String[] keys;
+
+    private int[] labelStart;
+    private int[] labelEnd;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] rangeStart;
+    private int[] rangeEnd;
+    private int nodeCount = 0;
+
+    /**
+     * Builds the trie.
+     *
+     * @param keys The keys, sorted by {@link String#compareTo(String)}. The array is kept, not copied.
+     */
+    public PrefixTrie(String[] keys)
+    {
+        this.keys = keys; int capacity = Math.max(1, keys.length * 2);
+        labelStart = new int[ capacity ]; labelEnd = new int[ capacity ]; firstChild = new int[ capacity ];
+        nextSibling = new int[ capacity ]; rangeStart = new int[ capacity ]; rangeEnd = new int[ capacity ];
+
+        if (keys.length > 0) build(0, keys.length, 0);
+
+        labelStart = Arrays.copyOf(labelStart, nodeCount); labelEnd = Arrays.copyOf(labelEnd, nodeCount);
+        firstChild = Arrays.copyOf(firstChild, nodeCount); nextSibling = Arrays.copyOf(nextSibling, nodeCount);
+        rangeStart = Arrays.copyOf(rangeStart, nodeCount); rangeEnd = Arrays.copyOf(rangeEnd, nodeCount);
+    }
+
+    /**
+     * Finds the node covering the keys starting with a prefix.
+     *
+     * @param prefix The prefix, cased like the keys.
+     *
+     * @return The node, or -1 if no key starts with {@code prefix}.
+     */
+    public int find(CharSequence prefix)
+    {
+        if (nodeCount == 0) return -1;
+
+        int node = 0; int position = 0; int length = prefix.length();
+        while (true) {
+            String label = keys[ rangeStart[ node ] ];
+            for (int i = labelStart[ node ]; i < labelEnd[ node ] && position < length; i++, position++)
+                if (label.charAt(i) != prefix.charAt(position)) return -1;
+
+            if (position == length) return node;
+
+            char next = prefix.charAt(position); int child = firstChild[ node ];
+            while (child >= 0 && keys[ rangeStart[ child ] ].charAt(labelStart[ child ]) < next)
+                child = nextSibling[ child ];
+
+            if (child < 0 || keys[ rangeStart[ child ] ].charAt(labelStart[ child ]) != next) return -1;
+            node = child;
+        }
+    }
+
+    /**
+     * @return The index of the first key of the node's range, inclusive.
+     */
+    public int getRangeStart(int node)
+    {
+        return rangeStart[ node ];
+    }
+
+    /**
+     * @return The index of the last key of the node's range, exclusive.
+     */
+    public int getRangeEnd(int node)
+    {
+        return rangeEnd[ node ];
+    }
+
+    /**
+     * @return The number of nodes.
+     */
+    public int size()
+    {
+        return nodeCount;
+    }
+
+    /**
+     * Builds the node covering the keys between {@code start} and {@code end}, which share their first
+     * {@code depth} characters.
+     */
+    private int build(int start, int end, int depth)
+    {
+        int node = nodeCount++; String first = keys[ start ]; String last = keys[ end - 1 ];
+
+        int shared = depth; int limit = Math.min(first.length(), last.length());
+        while (shared < limit && first.charAt(shared) == last.charAt(shared))
+            shared++;
+
+        labelStart[ node ] = depth; labelEnd[ node ] = shared; rangeStart[ node ] = start; rangeEnd[ node ] = end;
+        firstChild[ node ] = -1; nextSibling[ node ] = -1;
+
+        int i = start; while (i < end && keys[ i ].length() == shared)
+            i++; // The keys ending here come first and belong to this node only.
+
+        int previous = -1;
+        while (i < end) {
+            char c = keys[ i ].charAt(shared); int j = i + 1;
+            while (j < end && keys[ j ].charAt(shared) == c)
+                j++;
+
+            int child = build(i, j, shared);
+            if (previous < 0) firstChild[ node ] = child;
+            else nextSibling[ previous ] = child;
+            previous = child; i = j;
+        } return node;
+    }
+}
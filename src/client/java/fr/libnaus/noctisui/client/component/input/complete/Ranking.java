@@ -0,0 +1,32 @@
+package fr.libnaus.noctisui.client.component.input.complete;
+
+/**
+ * Top-k selection into a pair of parallel arrays sorted by descending score.
+ *
+ * @author axeno
+ */
+final class Ranking
+{
+
+    private Ranking()
+    {
+    }
+
+    /**
+     * Inserts a candidate if it ranks among the best {@code limit} ones. On equal scores, the candidate offered
+     * first stays first.
+     *
+     * @return The new number of ranked candidates.
+     */
+    static int insert(int[] ids, float[] scores, int count, int limit, int id, float score)
+    {
+        if (count == limit && score <= scores[ count - 1 ]) return count;
+
+        int position = count == limit ? count - 1 : count;
+        while (position > 0 && scores[ position - 1 ] < score) {
+            ids[ position ] = ids[ position - 1 ]; scores[ position ] = scores[ position - 1 ]; position--;
+        }
+
+        ids[ position ] = id; scores[ position ] = score; return Math.min(count + 1, limit);
+    }
+}
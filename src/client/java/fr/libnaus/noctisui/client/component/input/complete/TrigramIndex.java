@@ -0,0 +1,160 @@
+package fr.libnaus.noctisui.client.component.input.complete;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * An inverted index from character trigrams to keys, for fuzzy matching.
+ *
+ * <p>Each key is padded with two spaces before and one after, then split into the distinct trigrams it holds.
+ * Keys are ranked by the Jaccard similarity of their trigram set with the query's, so typos, swapped letters and
+ * missing characters still leave them close. A key reaching the minimum similarity shares at least a known
+ * fraction of the query trigrams, so it must appear in one of the rarest ones: only their postings are scanned
+ * for candidates, which are then checked against their own sorted trigrams. A common trigram is only scanned when
+ * the query holds too few rarer ones to rule keys out without it.</p>
+ *
+ * @author axeno
+ */
+public final class TrigramIndex
+{
+
+    private final Long2IntOpenHashMap trigramIds = new Long2IntOpenHashMap();
+    /** Where the keys holding trigram {@code t} start in {@link #postings}, ending where {@code t + 1}'s start. */
+    private final int[] postingStart;
+    private final int[] postings;
+    /** Where the sorted trigrams of key {@code k} start in {@link #keyTrigrams}, ending where {@code k + 1}'s start. */
+    private final int[] keyTrigramStart;
+    private final int[] keyTrigrams;
+
+    /**
+     * Indexes the keys.
+     *
+     * @param keys The keys, cased like the queries will be.
+     */
+    public TrigramIndex(String[] keys)
+    {
+        trigramIds.defaultReturnValue(-1); keyTrigramStart = new int[ keys.length + 1 ];
+
+        IntArrayList forward = new IntArrayList(); IntArrayList counts = new IntArrayList();
+        for (int key = 0; key < keys.length; key++) {
+            long[] trigrams = trigrams(keys[ key ]); int start = forward.size();
+
+            for (long trigram : trigrams) {
+                int id = trigramIds.putIfAbsent(trigram, counts.size());
+                if (id < 0) counts.add(1);
+                else counts.set(id, counts.getInt(id) + 1);
+                forward.add(id < 0 ? counts.size() - 1 : id);
+            }
+
+            IntArrays.quickSort(forward.elements(), start, forward.size()); keyTrigramStart[ key + 1 ] = forward.size();
+        }
+        keyTrigrams = forward.toIntArray();
+
+        postingStart = new int[ counts.size() + 1 ];
+        for (int t = 0; t < counts.size(); t++)
+            postingStart[ t + 1 ] = postingStart[ t ] + counts.getInt(t);
+
+        postings = new int[ postingStart[ counts.size() ] ]; int[] fill = Arrays.copyOf(postingStart, counts.size());
+        for (int key = 0; key < keys.length; key++)
+            for (int i = keyTrigramStart[ key ]; i < keyTrigramStart[ key + 1 ]; i++)
+                postings[ fill[ keyTrigrams[ i ] ]++ ] = key;
+    }
+
+    /**
+     * Finds the keys most similar to a query.
+     *
+     * @param query         The query, cased like the keys.
+     * @param minSimilarity The lowest Jaccard similarity kept, above 0 and up to 1.
+     * @param limit         The maximum number of results.
+     * @param ids           Receives the keys, most similar first.
+     * @param scores        Receives their similarity.
+     * @param stale         Polled while searching; the search throws a {@link CancellationException} once it is
+     *                      true.
+     *
+     * @return The number of results.
+     */
+    public int search(CharSequence query, float minSimilarity, int limit, int[] ids, float[] scores, BooleanSupplier stale)
+    {
+        long[] trigrams = trigrams(query); int total = trigrams.length; if (total == 0 || limit <= 0) return 0;
+
+        // Unknown trigrams have no postings and sort first, they still count in the similarity.
+        int[] known = new int[ total ]; int knownCount = 0;
+        for (long trigram : trigrams) {
+            int id = trigramIds.get(trigram); if (id >= 0) known[ knownCount++ ] = id;
+        }
+        known = Arrays.copyOf(known, knownCount);
+
+        int[] byFrequency = known.clone();
+        IntArrays.quickSort(byFrequency, (a, b) -> Integer.compare(postingLength(a), postingLength(b)));
+        Arrays.sort(known);
+
+        // A similar key shares at least minShared trigrams, so it misses at most total - minShared of them.
+        int minShared = Math.max(1, (int) Math.ceil(minSimilarity * total - 1e-4f));
+        int probes = Math.min(knownCount, total - minShared + 1 - (total - knownCount));
+
+        int count = 0; IntArrayList candidates = new IntArrayList();
+        for (int p = 0; p < probes; p++) {
+            int id = byFrequency[ p ];
+            for (int i = postingStart[ id ]; i < postingStart[ id + 1 ]; i++)
+                candidates.add(postings[ i ]);
+        }
+        IntArrays.quickSort(candidates.elements(), 0, candidates.size());
+
+        for (int i = 0; i < candidates.size(); i++) {
+            if ((i & 1023) == 0 && stale.getAsBoolean()) throw new CancellationException();
+
+            int key = candidates.getInt(i); if (i > 0 && key == candidates.getInt(i - 1)) continue;
+
+            int common = intersect(known, key); int keyCount = keyTrigramStart[ key + 1 ] - keyTrigramStart[ key ];
+            float similarity = common / (float) (total + keyCount - common);
+            if (similarity >= minSimilarity) count = Ranking.insert(ids, scores, count, limit, key, similarity);
+        } return count;
+    }
+
+    private int postingLength(int id)
+    {
+        return postingStart[ id + 1 ] - postingStart[ id ];
+    }
+
+    /**
+     * @return The number of the sorted trigram ids also held by the key.
+     */
+    private int intersect(int[] sorted, int key)
+    {
+        int common = 0; int i = 0; int j = keyTrigramStart[ key ]; int end = keyTrigramStart[ key + 1 ];
+        while (i < sorted.length && j < end) {
+            if (sorted[ i ] < keyTrigrams[ j ]) i++;
+            else if (sorted[ i ] > keyTrigrams[ j ]) j++;
+            else {
+                common++; i++; j++;
+            }
+        } return common;
+    }
+
+    /**
+     * @return The distinct trigrams of the padded text, packed as three 16-bit characters.
+     */
+    private static long[] trigrams(CharSequence text)
+    {
+        int length = text.length(); if (length == 0) return new long[ 0 ];
+
+        long[] trigrams = new long[ length + 1 ];
+        for (int i = 0; i <= length; i++)
+            trigrams[ i ] = (long) padded(text, i) << 32 | (long) padded(text, i + 1) << 16 | padded(text, i + 2);
+
+        Arrays.sort(trigrams); int distinct = 0;
+        for (int i = 0; i < trigrams.length; i++)
+            if (i == 0 || trigrams[ i ] != trigrams[ distinct - 1 ]) trigrams[ distinct++ ] = trigrams[ i ];
+        return distinct == trigrams.length ? trigrams : Arrays.copyOf(trigrams, distinct);
+    }
+
+    private static char padded(CharSequence text, int index)
+    {
+        return index < 2 || index - 2 >= text.length() ? ' ' : text.charAt(index - 2);
+    }
+}
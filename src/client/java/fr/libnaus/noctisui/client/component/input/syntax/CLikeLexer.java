@@ -0,0 +1,138 @@
+package fr.libnaus.noctisui.client.component.input.syntax;
+
+/**
+ * A {@link Lexer} for languages with a C-like syntax: {@code //} and {@code /* *}{@code /} comments, quoted strings
+ * with backslash escapes, numbers, identifiers and a configurable set of keywords. Identifiers starting with an
+ * upper-case letter are reported as types, and identifiers followed by a parenthesis as functions.
+ *
+ * <p>Instances are immutable and can be shared between editors.</p>
+ *
+ * @author axeno
+ */
+public class CLikeLexer implements Lexer
+{
+
+    public static final CLikeLexer JAVA = new CLikeLexer("abstract", "assert", "boolean", "break", "byte", "case",
+            "catch", "char", "class", "continue", "default", "do", "double", "else", "enum", "extends", "false",
+            "final", "finally", "float", "for", "if", "implements", "import", "instanceof", "int", "interface",
+            "long", "new", "null", "package", "private", "protected", "public", "record", "return", "short",
+            "static", "super", "switch", "synchronized", "this", "throw", "throws", "true", "try", "var", "void",
+            "volatile", "while", "yield");
+
+    public static final CLikeLexer JAVASCRIPT = new CLikeLexer("async", "await", "break", "case", "catch", "class",
+            "const", "continue", "default", "delete", "do", "else", "export", "extends", "false", "finally", "for",
+            "function", "if", "import", "in", "instanceof", "let", "new", "null", "of", "return", "super", "switch",
+            "this", "throw", "true", "try", "typeof", "undefined", "var", "void", "while", "yield");
+
+    private static final int NORMAL = 0;
+    private static final int BLOCK_COMMENT = 1;
+
+    private static final String OPERATORS = "+-*/%=<>!&|^~?:;,.()[]{}@";
+
+    /** The keywords, grouped by length so that matching an identifier never allocates. */
+    private final char[][][] keywordsByLength;
+
+    /**
+     * Creates a lexer highlighting the given keywords.
+     *
+     * @param keywords The keywords of the language.
+     */
+    public CLikeLexer(String... keywords)
+    {
+        int longest = 0; for (String keyword : keywords)
+            longest = Math.max(longest, keyword.length());
+
+        int[] counts = new int[ longest + 1 ]; for (String keyword : keywords)
+            counts[ keyword.length() ]++;
+
+        keywordsByLength = new char[ longest + 1 ][][]; for (int length = 0; length <= longest; length++)
+            keywordsByLength[ length ] = new char[ counts[ length ] ][];
+
+        for (String keyword : keywords)
+            keywordsByLength[ keyword.length() ][ --counts[ keyword.length() ] ] = keyword.toCharArray();
+    }
+
+    @Override
+    public int tokenize(CharSequence text, int start, int end, int state, TokenSink sink)
+    {
+        int i = start;
+
+        if (state == BLOCK_COMMENT) {
+            int close = indexOfCommentEnd(text, i, end);
+            if (close < 0) {
+                if (end > i) sink.token(i, end, TokenType.COMMENT);
+                return BLOCK_COMMENT;
+            }
+            sink.token(i, close, TokenType.COMMENT); i = close;
+        }
+
+        while (i < end) {
+            char c = text.charAt(i); char next = i + 1 < end ? text.charAt(i + 1) : 0;
+
+            if (c == '/' && next == '/') {
+                sink.token(i, end, TokenType.COMMENT); return NORMAL;
+            }
+            if (c == '/' && next == '*') {
+                int close = indexOfCommentEnd(text, i + 2, end);
+                if (close < 0) {
+                    sink.token(i, end, TokenType.COMMENT); return BLOCK_COMMENT;
+                }
+                sink.token(i, close, TokenType.COMMENT); i = close; continue;
+            }
+
+            int j = i + 1;
+            if (c == '"' || c == '\'') {
+                while (j < end) {
+                    char d = text.charAt(j++); if (d == '\\') j++;
+                    else if (d == c) break;
+                }
+                j = Math.min(j, end); sink.token(i, j, TokenType.STRING);
+            }
+            else if (Character.isDigit(c)) {
+                while (j < end && (Character.isLetterOrDigit(text.charAt(j)) || text.charAt(j) == '.' || text.charAt(j) == '_'))
+                    j++;
+                sink.token(i, j, TokenType.NUMBER);
+            }
+            else if (Character.isJavaIdentifierStart(c)) {
+                while (j < end && Character.isJavaIdentifierPart(text.charAt(j)))
+                    j++;
+                sink.token(i, j, identifierType(text, i, j, end));
+            }
+            else if (OPERATORS.indexOf(c) >= 0) sink.token(i, j, TokenType.OPERATOR);
+
+            i = j;
+        } return NORMAL;
+    }
+
+    private TokenType identifierType(CharSequence text, int start, int end, int lineEnd)
+    {
+        if (isKeyword(text, start, end)) return TokenType.KEYWORD;
+        if (Character.isUpperCase(text.charAt(start))) return TokenType.TYPE;
+
+        int i = end; while (i < lineEnd && text.charAt(i) == ' ')
+            i++;
+        return i < lineEnd && text.charAt(i) == '(' ? TokenType.FUNCTION : TokenType.IDENTIFIER;
+    }
+
+    private boolean isKeyword(CharSequence text, int start, int end)
+    {
+        int length = end - start; if (length >= keywordsByLength.length) return false;
+
+        candidates:
+        for (char[] keyword : keywordsByLength[ length ]) {
+            for (int i = 0; i < length; i++)
+                if (keyword[ i ] != text.charAt(start + i)) continue candidates;
+            return true;
+        } return false;
+    }
+
+    /**
+     * @return The offset right after the closing {@code *}{@code /}, or -1 if the comment goes on after the line.
+     */
+    private static int indexOfCommentEnd(CharSequence text, int from, int end)
+    {
+        for (int i = from; i + 1 < end; i++)
+            if (text.charAt(i) == '*' && text.charAt(i + 1) == '/') return i + 2;
+        return -1;
+    }
+}
@@ -0,0 +1,62 @@
+package fr.libnaus.noctisui.client.component.input.syntax;
+
+/**
+ * Splits the lines of a document into colored tokens.
+ *
+ * <p>A lexer works one line at a time. Whatever must carry over to the next line, such as being inside a block
+ * comment, is encoded in an integer state: the state at the end of a line is the state the next line starts with.
+ * The editor caches the start state of every line, so after an edit it only re-lexes lines from the edited one
+ * until the states match the cached ones again. Lexers must therefore be pure functions of the line and its
+ * start state.</p>
+ *
+ * <pre>
+ * {@code
+ * editor.setLexer(CLikeLexer.JAVA);
+ * editor.setLexer(new CLikeLexer("local", "function", "end", "if", "then", "return"));
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public interface Lexer
+{
+
+    /**
+     * Receives the tokens of a line, in order.
+     */
+    @FunctionalInterface
+    interface TokenSink
+    {
+
+        /**
+         * @param start The offset of the first character of the token.
+         * @param end   The offset after the last character of the token.
+         * @param type  The kind of token.
+         */
+        void token(int start, int end, TokenType type);
+    }
+
+    /** A sink ignoring every token, used when only the end state of a line is needed. */
+    TokenSink IGNORE = (start, end, type) -> {};
+
+    /**
+     * @return The state the first line of a document starts with.
+     */
+    default int getInitialState()
+    {
+        return 0;
+    }
+
+    /**
+     * Reports the tokens of one line. Characters not covered by a token are drawn as {@link TokenType#TEXT}.
+     *
+     * @param text  The document.
+     * @param start The offset of the first character of the line.
+     * @param end   The offset of the line feed ending the line, or the length of the document.
+     * @param state The state the line starts with.
+     * @param sink  The receiver of the tokens.
+     *
+     * @return The state at the end of the line.
+     */
+    int tokenize(CharSequence text, int start, int end, int state, TokenSink sink);
+}
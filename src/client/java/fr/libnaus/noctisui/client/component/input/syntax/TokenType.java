@@ -0,0 +1,11 @@
+package fr.libnaus.noctisui.client.component.input.syntax;
+
+/**
+ * The kinds of tokens a {@link Lexer} can report, each drawn in its own color by the code editor.
+ *
+ * @author axeno
+ */
+public enum TokenType
+{
+    TEXT, KEYWORD, TYPE, IDENTIFIER, FUNCTION, STRING, NUMBER, COMMENT, OPERATOR
+}
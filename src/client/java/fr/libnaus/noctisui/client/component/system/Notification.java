@@ -1,7 +1,11 @@
 package fr.libnaus.noctisui.client.component.system;
 
+import fr.libnaus.noctisui.client.api.system.animation.Animator;
+import fr.libnaus.noctisui.client.api.system.animation.Easing;
+import fr.libnaus.noctisui.client.api.system.animation.FrameClock;
 import fr.libnaus.noctisui.client.common.QuickImports;
 import fr.libnaus.noctisui.client.utils.Color;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -23,24 +27,67 @@ import lombok.Setter;
 @Getter
 public class Notification implements QuickImports
 {
+
+    /** Stiffness of the Y position spring, in radians per second. */
+    private static final float Y_SPRING_FREQUENCY = 14f;
+    /** The duration of the fade-in, in seconds. */
+    private static final float FADE_IN_DURATION = 0.3f;
+    /** The duration of the fade-out ending the display duration, in milliseconds. */
+    private static final long FADE_OUT_MILLIS = 200;
+    private static final int NO_ANIMATION = -1;
+
     private final NotificationType type;
     private final String id;
     private final String title;
-    private final String message;
+    private String message;
     private final Color color;
-    private final long duration;
+    private long duration;
     private float animationProgress;
     private final long creationTime;
-    @Setter
     private float targetY;
-    private float currentY;
-    private float yVelocity;
+    /**
+     * The Y position spring and the fade-in tween on the {@link Animator#getGlobal() global animator}, allocated by
+     * the first {@link #update()} on the render thread and released by {@link #release()}.
+     */
+    @Getter(AccessLevel.NONE)
+    private int yAnimation = NO_ANIMATION;
+    @Getter(AccessLevel.NONE)
+    private int fadeInAnimation = NO_ANIMATION;
 
     @Setter
     private int stackCount = 1;
     @Getter
     private long lastStackTime;
 
+    /**
+     * Whether the notification is driven by a {@link NotificationHandle} that has not completed it yet. A live
+     * notification never expires and never stacks.
+     */
+    private boolean live = false;
+    /**
+     * The progress reported through the handle, between 0 and 1, or -1 when none was reported.
+     */
+    private float progress = -1f;
+
+    /** Whether the card was opened by a live notification, outside the policy's maximum, which it keeps until removed. */
+    @Getter(AccessLevel.NONE)
+    boolean liveLane;
+    /** Set once the manager removed the card or dropped the notification from its queue, read by the handle. */
+    @Getter(AccessLevel.NONE)
+    volatile boolean dropped;
+    /** The key the manager stacks this notification by, its id or its group. */
+    @Getter(AccessLevel.NONE)
+    String key;
+    /** The wrapped lines and height computed by the manager, or {@code null} until it lays this out. */
+    @Getter(AccessLevel.NONE)
+    NotificationManager.Layout layout;
+    /** The neighbours in the manager's display order, owned by the render thread. */
+    @Getter(AccessLevel.NONE)
+    Notification previous, next;
+    /** The next notification in the manager's posted queue, linked by the thread that posted it. */
+    @Getter(AccessLevel.NONE)
+    volatile Notification nextPosted;
+
     /**
      * Constructs a new Notification with the specified parameters.
      *
@@ -58,54 +105,60 @@ public class Notification implements QuickImports
         this.type = type;
         this.color = type.getDefaultColor();
         this.duration = duration;
-        this.creationTime = System.currentTimeMillis();
+        this.creationTime = FrameClock.getTimeMillis();
         this.lastStackTime = this.creationTime;
         this.animationProgress = 0f;
         this.targetY = 0f;
-        this.currentY = 0f;
-        this.yVelocity = 0f;
     }
 
     /**
-     * Updates the notification's animation progress and position.
-     * This method should be called periodically to animate the notification.
+     * Updates the notification's animation progress. Must be called on the render thread, once per frame: the
+     * first call starts the fade-in and the Y position spring on the global animator, which moves them afterwards.
      */
     public void update()
     {
-        long elapsedSinceCreation = System.currentTimeMillis() - creationTime;
-        long elapsedSinceLastStack = System.currentTimeMillis() - lastStackTime;
-
-        if (elapsedSinceCreation < 300) {
-            float t = elapsedSinceCreation / 300f; animationProgress = 1f - (1f - t) * (1f - t);
-        }
-        else if (elapsedSinceLastStack > duration - 200) {
-            float fadeProgress = (elapsedSinceLastStack - (duration - 200)) / 200f;
-            animationProgress = 1f - fadeProgress * fadeProgress;
-        }
-        else {
-            animationProgress = 1f;
+        Animator animator = Animator.getGlobal();
+        if (yAnimation == NO_ANIMATION) {
+            yAnimation = animator.spring(0f, targetY, Y_SPRING_FREQUENCY);
+            fadeInAnimation = animator.tween(0f, 1f, FADE_IN_DURATION, Easing.QUAD_OUT);
         }
 
-        updateYAnimation();
+        // The fade-out ends with the display duration, so it follows the frame clock rather than the animator.
+        float fadeOut = 1f; long elapsedSinceLastStack = FrameClock.getTimeMillis() - lastStackTime;
+        if (!live && elapsedSinceLastStack > duration - FADE_OUT_MILLIS)
+            fadeOut = 1f - Easing.QUAD_IN.apply((elapsedSinceLastStack - (duration - FADE_OUT_MILLIS)) / (float) FADE_OUT_MILLIS);
+
+        animationProgress = animator.get(fadeInAnimation) * fadeOut;
     }
 
     /**
-     * Updates the Y position of the notification using a simple easing animation.
+     * Sets the Y position the notification slides to.
+     *
+     * @param targetY The Y offset from the top of the notification list.
      */
-    private void updateYAnimation()
+    public void setTargetY(float targetY)
     {
-        float deltaY = targetY - currentY;
+        this.targetY = targetY; if (yAnimation != NO_ANIMATION) Animator.getGlobal().setTarget(yAnimation, targetY);
+    }
 
-        if (Math.abs(deltaY) > 0.1f) {
-            float speed = 0.12f; currentY = currentY + (deltaY * speed);
+    /**
+     * @return The current Y offset from the top of the notification list, following {@link #getTargetY()}.
+     */
+    public float getCurrentY()
+    {
+        return yAnimation == NO_ANIMATION ? 0f : Animator.getGlobal().get(yAnimation);
+    }
 
-            if (Math.abs(deltaY) < 0.3f) {
-                currentY = targetY; yVelocity = 0f;
-            }
-        }
-        else {
-            currentY = targetY; yVelocity = 0f;
-        }
+    /**
+     * Releases the animations of this notification, when the manager removes its card. Must be called on the
+     * render thread; a later {@link #update()} starts them again.
+     */
+    void release()
+    {
+        if (yAnimation == NO_ANIMATION) return;
+
+        Animator animator = Animator.getGlobal(); animator.release(yAnimation); animator.release(fadeInAnimation);
+        yAnimation = NO_ANIMATION; fadeInAnimation = NO_ANIMATION;
     }
 
     /**
@@ -115,8 +168,8 @@ public class Notification implements QuickImports
      */
     public boolean shouldRemove()
     {
-        long elapsed = System.currentTimeMillis() - lastStackTime;
-        return elapsed > duration;
+        long elapsed = FrameClock.getTimeMillis() - lastStackTime;
+        return !live && elapsed > duration;
     }
 
     /**
@@ -157,7 +210,50 @@ public class Notification implements QuickImports
      */
     public void incrementStack()
     {
-        this.stackCount++; this.lastStackTime = System.currentTimeMillis();
+        this.stackCount++; this.lastStackTime = FrameClock.getTimeMillis();
+    }
+
+    /**
+     * Starts the display duration when the notification gets a card, so the time it waited for one does not count.
+     *
+     * @param now The frame clock time, in milliseconds.
+     */
+    void show(long now)
+    {
+        this.lastStackTime = now;
+    }
+
+    /**
+     * Marks the notification as driven by a handle, so it stays until completed.
+     */
+    void makeLive()
+    {
+        this.live = true;
+    }
+
+    void setProgress(float progress)
+    {
+        this.progress = progress;
+    }
+
+    /**
+     * Replaces the message.
+     *
+     * @return true if the text changed, in which case the layout must be computed again.
+     */
+    boolean updateMessage(String message)
+    {
+        if (message == null || message.equals(this.message)) return false;
+
+        this.message = message; this.layout = null; return true;
+    }
+
+    /**
+     * Ends a live notification: it expires like a regular one after the given duration, counted from now.
+     */
+    void finish(long duration)
+    {
+        this.live = false; this.duration = duration; this.lastStackTime = FrameClock.getTimeMillis();
     }
 
     /**
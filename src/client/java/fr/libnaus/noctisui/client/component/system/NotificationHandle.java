@@ -0,0 +1,106 @@
+package fr.libnaus.noctisui.client.component.system;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Updates a notification posted with {@link NotificationManager#post}, such as the progress of a download, from
+ * any thread.
+ *
+ * <p>Setters only store the new value and queue the handle once; the render thread applies the latest values at
+ * the start of the next frame. However often a handle is updated, its notification changes at most once per frame,
+ * and its text is wrapped again only when the message actually changes. The notification stays on screen until
+ * {@link #complete()} is called. Once it has left the screen, {@link #isDropped()} returns true and updates are
+ * ignored.</p>
+ *
+ * <pre>
+ * {@code
+ * NotificationHandle download = NotificationManager.getInstance().post("download", "Downloading", "world.zip", NotificationType.INFO);
+ * download.setProgress(received / (float) total);
+ * download.complete("Download finished");
+ * }
+ * </pre>
+ *
+ * @author axeno
+ * @see NotificationManager#post
+ */
+public final class NotificationHandle
+{
+
+    private final NotificationManager manager;
+    final Notification notification;
+
+    private volatile float progress = -1f;
+    private volatile String message;
+    /** The time the notification stays after completion, or -1 while running. */
+    private volatile long completedDuration = -1;
+    private final AtomicBoolean queued = new AtomicBoolean();
+
+    NotificationHandle(NotificationManager manager, Notification notification)
+    {
+        this.manager = manager; this.notification = notification;
+    }
+
+    /**
+     * @param progress The completed fraction of the operation, between 0 and 1.
+     */
+    public void setProgress(float progress)
+    {
+        this.progress = Math.max(0f, Math.min(1f, progress)); queue();
+    }
+
+    public void setMessage(String message)
+    {
+        this.message = message; queue();
+    }
+
+    /**
+     * Ends the operation: the notification expires after the default duration.
+     */
+    public void complete()
+    {
+        complete(null);
+    }
+
+    /**
+     * Ends the operation with a final message: the notification expires after the default duration.
+     *
+     * @param message The final message, or {@code null} to keep the current one.
+     */
+    public void complete(String message)
+    {
+        if (message != null) this.message = message;
+        completedDuration = NotificationManager.DEFAULT_DURATION; queue();
+    }
+
+    public boolean isCompleted()
+    {
+        return completedDuration >= 0;
+    }
+
+    /**
+     * @return Whether the notification has left the screen, expired after completion or removed by the manager, so
+     * updates are ignored.
+     */
+    public boolean isDropped()
+    {
+        return notification.dropped;
+    }
+
+    private void queue()
+    {
+        if (!notification.dropped && queued.compareAndSet(false, true)) manager.queueUpdate(this);
+    }
+
+    /**
+     * Applies the latest values to the notification. Called on the render thread.
+     */
+    void apply()
+    {
+        queued.set(false); // Values set from now on queue the handle again.
+        if (notification.dropped) return;
+
+        if (progress >= 0) notification.setProgress(progress);
+        notification.updateMessage(message);
+        if (completedDuration >= 0 && notification.isLive()) notification.finish(completedDuration);
+    }
+}
@@ -0,0 +1,204 @@
+package fr.libnaus.noctisui.client.component.system;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * The latest notifications posted to a {@link NotificationManager}, kept after their card is gone.
+ *
+ * <p>Entries are stored in a ring buffer of parallel arrays, so once the capacity is reached each new entry
+ * overwrites the oldest one and the memory used stays the same. Ids and titles, which repeat a lot, are interned
+ * with a reference count and freed once no entry uses them anymore. Each entry has a sequence number that keeps
+ * increasing across evictions, so a view can hold on to entries and tell when they were evicted.</p>
+ *
+ * <p>The history is written and read on the render thread.</p>
+ *
+ * <pre>
+ * {@code
+ * NotificationHistory history = NotificationManager.getInstance().getHistory();
+ * for (long entry = history.getFirstSequence(); entry < history.getNextSequence(); entry++)
+ *     System.out.println(history.getTitle(entry) + ": " + history.getMessage(entry));
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public class NotificationHistory
+{
+
+    private static final NotificationType[] TYPES = NotificationType.values();
+
+    /**
+     * The maximum number of entries kept.
+     */
+    @Getter
+    private final int capacity;
+
+    private long[] times;
+    private byte[] types;
+    private int[] ids;
+    private int[] titles;
+    private String[] messages;
+    private int start = 0;
+    private int size = 0;
+    /**
+     * The sequence number the next entry will get.
+     */
+    @Getter
+    private long nextSequence = 0;
+
+    private final Object2IntOpenHashMap<String> interned = new Object2IntOpenHashMap<>();
+    private String[] strings = new String[ 64 ];
+    private int[] references = new int[ 64 ];
+    private int stringCount = 0;
+    private final IntArrayList freeStrings = new IntArrayList();
+
+    /**
+     * @param capacity The maximum number of entries kept. The arrays grow up to it as entries are added.
+     */
+    public NotificationHistory(int capacity)
+    {
+        this.capacity = Math.max(1, capacity); interned.defaultReturnValue(-1);
+
+        int initial = Math.min(this.capacity, 256);
+        times = new long[ initial ]; types = new byte[ initial ]; ids = new int[ initial ]; titles = new int[ initial ];
+        messages = new String[ initial ];
+    }
+
+    /**
+     * Adds a notification, evicting the oldest entry when the history is full.
+     *
+     * @param notification The posted notification.
+     */
+    void record(Notification notification)
+    {
+        if (size == capacity) {
+            release(ids[ start ]); release(titles[ start ]); messages[ start ] = null;
+            start = (start + 1) % capacity; size--;
+        }
+        else if (size == times.length) grow();
+
+        int slot = (start + size) % capacity; size++; nextSequence++;
+        times[ slot ] = notification.getCreationTime(); types[ slot ] = (byte) notification.getType().ordinal();
+        ids[ slot ] = intern(notification.getId()); titles[ slot ] = intern(notification.getTitle());
+        messages[ slot ] = notification.getMessage();
+    }
+
+    /**
+     * Removes every entry. Sequence numbers keep increasing.
+     */
+    public void clear()
+    {
+        Arrays.fill(messages, null); start = 0; size = 0;
+        interned.clear(); Arrays.fill(strings, null); stringCount = 0; freeStrings.clear();
+    }
+
+    /**
+     * @return The number of entries kept.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return The sequence number of the oldest entry kept.
+     */
+    public long getFirstSequence()
+    {
+        return nextSequence - size;
+    }
+
+    /**
+     * @return Whether the entry is still kept.
+     */
+    public boolean contains(long sequence)
+    {
+        return sequence >= nextSequence - size && sequence < nextSequence;
+    }
+
+    /**
+     * @return The time the notification was posted, in milliseconds since the epoch.
+     */
+    public long getTime(long sequence)
+    {
+        return times[ slot(sequence) ];
+    }
+
+    public NotificationType getType(long sequence)
+    {
+        return TYPES[ types[ slot(sequence) ] ];
+    }
+
+    public String getId(long sequence)
+    {
+        return string(ids[ slot(sequence) ]);
+    }
+
+    public String getTitle(long sequence)
+    {
+        return string(titles[ slot(sequence) ]);
+    }
+
+    public String getMessage(long sequence)
+    {
+        return messages[ slot(sequence) ];
+    }
+
+    /**
+     * @return The number of distinct ids and titles currently interned.
+     */
+    public int getInternedCount()
+    {
+        return interned.size();
+    }
+
+    private int slot(long sequence)
+    {
+        if (!contains(sequence)) throw new IndexOutOfBoundsException("Entry " + sequence + " is not kept");
+        return (int) ((start + (sequence - (nextSequence - size))) % capacity);
+    }
+
+    /**
+     * Grows the arrays before the first eviction, while the entries still start at slot 0.
+     */
+    private void grow()
+    {
+        int length = (int) Math.min(capacity, times.length * 2L);
+        times = Arrays.copyOf(times, length); types = Arrays.copyOf(types, length); ids = Arrays.copyOf(ids, length);
+        titles = Arrays.copyOf(titles, length); messages = Arrays.copyOf(messages, length);
+    }
+
+    private int intern(String value)
+    {
+        if (value == null) return -1;
+
+        int index = interned.getInt(value);
+        if (index < 0) {
+            if (!freeStrings.isEmpty()) index = freeStrings.popInt();
+            else {
+                if (stringCount == strings.length) {
+                    strings = Arrays.copyOf(strings, stringCount * 2); references = Arrays.copyOf(references, stringCount * 2);
+                } index = stringCount++;
+            }
+            strings[ index ] = value; references[ index ] = 0; interned.put(value, index);
+        }
+
+        references[ index ]++; return index;
+    }
+
+    private void release(int index)
+    {
+        if (index < 0 || --references[ index ] > 0) return;
+
+        interned.removeInt(strings[ index ]); strings[ index ] = null; freeStrings.add(index);
+    }
+
+    private String string(int index)
+    {
+        return index < 0 ? null : strings[ index ];
+    }
+}
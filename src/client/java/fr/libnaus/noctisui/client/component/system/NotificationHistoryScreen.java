@@ -0,0 +1,319 @@
+package fr.libnaus.noctisui.client.component.system;
+
+import fr.libnaus.noctisui.client.api.system.Render2DEngine;
+import fr.libnaus.noctisui.client.api.system.render.font.FontAtlas;
+import fr.libnaus.noctisui.client.component.Button;
+import fr.libnaus.noctisui.client.component.UIBaseComponent;
+import fr.libnaus.noctisui.client.component.VirtualListComponent;
+import fr.libnaus.noctisui.client.component.input.TextInput;
+import fr.libnaus.noctisui.client.utils.Color;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.text.Text;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * A screen listing the {@link NotificationHistory}, newest first, with type filters and a text search.
+ *
+ * <p>Filtering never scans the whole history in one frame: when the filters change, the matches are searched
+ * from the newest entry down, a fixed number of entries per frame, while the entries posted meanwhile are checked
+ * as they arrive. The list is a {@link VirtualListComponent} bound to the sequence numbers of the matches, so the
+ * cost of a frame does not depend on the size of the history.</p>
+ *
+ * <pre>
+ * {@code
+ * NotificationManager.getInstance().openHistory();
+ * }
+ * </pre>
+ *
+ * @author axeno
+ * @see NotificationManager#openHistory()
+ */
+public class NotificationHistoryScreen extends Screen
+{
+
+    /** The number of history entries checked against the filters per frame. */
+    private static final int SCAN_PER_FRAME = 8192;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
+    private static final NotificationType[] TYPES = NotificationType.values();
+    private static final int PANEL_WIDTH = 360;
+    private static final float ROW_HEIGHT = 30f;
+
+    private final NotificationHistory history;
+    private final Screen parent;
+    private final FontAtlas font = NotificationManager.getFont();
+    private final FontAtlas fontBold = NotificationManager.getFontBold();
+
+    private TextInput search;
+    private final Button[] typeButtons = new Button[ TYPES.length ];
+    private final Color[] shownColors = new Color[ TYPES.length ];
+    private final Color hiddenColor = new Color(40, 44, 48, 200);
+    private VirtualListComponent<Row> list;
+    private float panelX, panelY, panelHeight;
+
+    /** The bit of each shown type, by ordinal. */
+    private int typeMask = (1 << TYPES.length) - 1;
+    private String query = "";
+    private boolean filtersChanged = true;
+
+    /** The matches posted since the filters changed, oldest first. Starts at {@link #newerStart}. */
+    private final LongArrayList newer = new LongArrayList();
+    private int newerStart = 0;
+    /** The matches found by the scan, newest first. */
+    private final LongArrayList older = new LongArrayList();
+    /** The next entry the scan checks, going down. */
+    private long scanNext = -1;
+    /** The first entry not checked yet on arrival. */
+    private long checkedUntil = 0;
+    private String status = "";
+    private long statusKey = -1;
+
+    /**
+     * @param history The history to list.
+     * @param parent  The screen to go back to when closed, or {@code null}.
+     */
+    public NotificationHistoryScreen(NotificationHistory history, Screen parent)
+    {
+        super(Text.literal("Notifications")); this.history = history; this.parent = parent;
+    }
+
+    @Override
+    protected void init()
+    {
+        panelX = (width - PANEL_WIDTH) / 2f; panelY = 20; panelHeight = height - 40;
+
+        String previous = search == null ? "" : search.getText();
+        search = new TextInput(panelX + 10, panelY + 28, PANEL_WIDTH - 20, 20, font, TextInput.InputType.SEARCH);
+        search.setText(previous); search.setFocused(true);
+
+        float buttonWidth = (PANEL_WIDTH - 20 - (TYPES.length - 1) * 4) / (float) TYPES.length;
+        for (int i = 0; i < TYPES.length; i++) {
+            int bit = 1 << i; shownColors[ i ] = new Color(Color.withAlpha(TYPES[ i ].getDefaultColor().getRGB(), 90), true);
+            typeButtons[ i ] = new Button(panelX + 10 + i * (buttonWidth + 4), panelY + 54, buttonWidth, 16, label(TYPES[ i ]), Color.WHITE, Color.WHITE);
+            typeButtons[ i ].setOnClick(button ->
+            {
+                typeMask ^= bit; filtersChanged = true;
+            });
+        }
+
+        list = new VirtualListComponent<>(panelX + 10, panelY + 76, PANEL_WIDTH - 20, panelHeight - 86, new VirtualListComponent.DataSource<>()
+        {
+            @Override
+            public int size()
+            {
+                return matchCount();
+            }
+
+            @Override
+            public Row createRow()
+            {
+                return new Row();
+            }
+
+            @Override
+            public void bindRow(Row row, int index)
+            {
+                row.bind(matchAt(index));
+            }
+        });
+        list.setItemHeight(ROW_HEIGHT);
+    }
+
+    @Override
+    public void render(DrawContext context, int mouseX, int mouseY, float delta)
+    {
+        renderBackground(context); refresh();
+
+        MatrixStack matrices = context.getMatrices();
+        Render2DEngine.drawRoundedRect(matrices, panelX, panelY, PANEL_WIDTH, panelHeight, 8, Color.argb(24, 26, 29, 245));
+        Render2DEngine.drawRoundedOutline(matrices, panelX, panelY, PANEL_WIDTH, panelHeight, 8, 1.2f, Color.argb(52, 58, 64, 180));
+        fontBold.render(matrices, "Notifications", panelX + 10, panelY + 8, Color.argb(255, 255, 255, 255));
+
+        updateStatus();
+        font.render(matrices, status, panelX + PANEL_WIDTH - 10 - font.getWidth(status), panelY + 8, Color.argb(170, 178, 190, 240));
+
+        for (int i = 0; i < TYPES.length; i++) {
+            typeButtons[ i ].setBackgroundColor((typeMask & 1 << i) != 0 ? shownColors[ i ] : hiddenColor);
+            typeButtons[ i ].render(context, mouseX, mouseY, delta);
+        }
+
+        search.render(context, mouseX, mouseY, delta);
+        list.render(context, mouseX, mouseY, delta);
+    }
+
+    /**
+     * Restarts the search when the filters changed, checks the new entries, continues the scan and forgets the
+     * evicted matches.
+     */
+    private void refresh()
+    {
+        String text = search.getText();
+        if (!text.equals(query)) {
+            query = text; filtersChanged = true;
+        }
+
+        long first = history.getFirstSequence(); long next = history.getNextSequence(); boolean changed = false;
+
+        if (filtersChanged) {
+            filtersChanged = false; newer.clear(); newerStart = 0; older.clear();
+            scanNext = next - 1; checkedUntil = next; changed = true;
+        }
+
+        for (long entry = Math.max(checkedUntil, first); entry < next; entry++)
+            if (matches(entry)) {
+                newer.add(entry); changed = true;
+            }
+        checkedUntil = next;
+
+        for (int i = 0; i < SCAN_PER_FRAME && scanNext >= first; i++, scanNext--)
+            if (matches(scanNext)) {
+                older.add(scanNext); changed = true;
+            }
+
+        while (!older.isEmpty() && older.getLong(older.size() - 1) < first) {
+            older.removeLong(older.size() - 1); changed = true;
+        }
+        while (older.isEmpty() && newerStart < newer.size() && newer.getLong(newerStart) < first) {
+            newerStart++; changed = true;
+        }
+        if (newerStart > 1024 && newerStart > newer.size() / 2) {
+            newer.removeElements(0, newerStart); newerStart = 0;
+        }
+
+        if (changed) list.notifyDataChanged();
+    }
+
+    /**
+     * Rebuilds the match count label when it changed.
+     */
+    private void updateStatus()
+    {
+        boolean scanning = scanNext >= history.getFirstSequence();
+        long key = ((long) matchCount() << 32 | history.size()) << 1 | (scanning ? 1 : 0);
+        if (key == statusKey) return;
+
+        statusKey = key; status = (scanning ? "… " : "") + matchCount() + " / " + history.size();
+    }
+
+    private boolean matches(long entry)
+    {
+        if ((typeMask & 1 << history.getType(entry).ordinal()) == 0) return false;
+        if (query.isEmpty()) return true;
+
+        return containsIgnoreCase(history.getTitle(entry), query) || containsIgnoreCase(history.getMessage(entry), query)
+                || containsIgnoreCase(history.getId(entry), query);
+    }
+
+    private int matchCount()
+    {
+        return newer.size() - newerStart + older.size();
+    }
+
+    /**
+     * @return The sequence number of the match at a position of the list, newest first.
+     */
+    private long matchAt(int position)
+    {
+        int newerCount = newer.size() - newerStart;
+        return position < newerCount ? newer.getLong(newer.size() - 1 - position) : older.getLong(position - newerCount);
+    }
+
+    private static boolean containsIgnoreCase(String text, String query)
+    {
+        if (text == null) return false;
+
+        for (int i = 0, last = text.length() - query.length(); i <= last; i++)
+            if (text.regionMatches(true, i, query, 0, query.length())) return true;
+        return false;
+    }
+
+    private static String label(NotificationType type)
+    {
+        String name = type.name(); return name.charAt(0) + name.substring(1).toLowerCase();
+    }
+
+    @Override
+    public boolean mouseClicked(double mouseX, double mouseY, int button)
+    {
+        for (Button typeButton : typeButtons)
+            if (typeButton.mouseClicked(mouseX, mouseY, button)) return true;
+
+        boolean clicked = search.mouseClicked(mouseX, mouseY, button);
+        return list.mouseClicked(mouseX, mouseY, button) || clicked || super.mouseClicked(mouseX, mouseY, button);
+    }
+
+    @Override
+    public boolean mouseScrolled(double mouseX, double mouseY, double amount)
+    {
+        return list.mouseScrolled(mouseX, mouseY, amount) || super.mouseScrolled(mouseX, mouseY, amount);
+    }
+
+    @Override
+    public boolean keyPressed(int keyCode, int scanCode, int modifiers)
+    {
+        return search.keyPressed(keyCode, scanCode, modifiers) || super.keyPressed(keyCode, scanCode, modifiers);
+    }
+
+    @Override
+    public boolean charTyped(char chr, int modifiers)
+    {
+        return search.charTyped(chr, modifiers) || super.charTyped(chr, modifiers);
+    }
+
+    @Override
+    public boolean shouldPause()
+    {
+        return false;
+    }
+
+    @Override
+    public void close()
+    {
+        if (client != null) client.setScreen(parent);
+    }
+
+    /**
+     * A row of the list, bound to a history entry. The texts are prepared when it is bound, not each frame.
+     */
+    private final class Row extends UIBaseComponent
+    {
+
+        private long entry;
+        private int accentColor;
+        private String time;
+        private String title;
+        private String message;
+
+        private void bind(long entry)
+        {
+            this.entry = entry; if (!history.contains(entry)) return;
+
+            accentColor = history.getType(entry).getDefaultColor().getRGB();
+            time = TIME_FORMAT.format(Instant.ofEpochMilli(history.getTime(entry)));
+
+            float textWidth = PANEL_WIDTH - 20 - 62;
+            String rawTitle = history.getTitle(entry); String rawMessage = history.getMessage(entry);
+            title = rawTitle == null ? "" : fontBold.truncate(rawTitle, textWidth, 9);
+            message = rawMessage == null ? "" : font.truncate(rawMessage, textWidth, 8);
+        }
+
+        @Override
+        public void render(DrawContext context, double mouseX, double mouseY, float delta)
+        {
+            if (!history.contains(entry)) return;
+
+            MatrixStack matrices = context.getMatrices();
+            if (contains(mouseX, mouseY)) Render2DEngine.drawRect(matrices, x, y, width, height - 2, Color.argb(255, 255, 255, 12));
+
+            Render2DEngine.drawRect(matrices, x + 2, y + 4, 2, height - 10, accentColor);
+            font.render(matrices, time, x + 10, y + 5, 8, Color.argb(120, 128, 140, 255));
+            fontBold.render(matrices, title, x + 62, y + 4, 9, Color.argb(255, 255, 255, 255));
+            font.render(matrices, message, x + 62, y + 16, 8, Color.argb(170, 178, 190, 240));
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package fr.libnaus.noctisui.client.component.system;
 
-import fr.libnaus.noctisui.client.NoctisUIClient;
 import fr.libnaus.noctisui.client.api.system.Render2DEngine;
+import fr.libnaus.noctisui.client.api.system.animation.FrameClock;
 import fr.libnaus.noctisui.client.api.system.render.font.FontAtlas;
 import fr.libnaus.noctisui.client.api.system.render.font.Fonts;
 import fr.libnaus.noctisui.client.common.QuickImports;
@@ -13,14 +13,36 @@ import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.util.math.MatrixStack;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A manager for displaying and handling notifications in the UI.
  *
  * <p>This class allows you to create, display, and manage notifications with different types, durations, and styles.</p>
  *
+ * <p>Notifications can be posted from any thread. They go through a lock-free multi-producer single-consumer queue
+ * that the render thread drains at the start of each frame, stacking each one onto the displayed notification with
+ * the same id, found through a map, or appending it to the displayed list. Neither posting nor rendering copies the
+ * list.</p>
+ *
+ * <p>Long operations post a live notification with {@link #post}, and update it through the returned
+ * {@link NotificationHandle} instead of posting again. Live notifications always get a card of their own, outside
+ * the policy's maximum, so they never wait in or get dropped from the overflow queue.</p>
+ *
+ * <p>The {@link NotificationPolicy} bounds what is shown whatever the posting rate: notifications beyond the
+ * maximum number of cards, or over their type's rate limit, wait in a bounded overflow queue summarized by a single
+ * "+N more" card, and take the next free card.</p>
+ *
+ * <p>Every posted notification is also recorded in a bounded {@link NotificationHistory}, which
+ * {@link #openHistory()} shows in a searchable screen.</p>
+ *
  * <pre>
  *     {@code
  *     NotificationManager notificationManager = new NotificationManager();
@@ -35,6 +57,8 @@ import java.util.concurrent.CopyOnWriteArrayList;
 public class NotificationManager implements QuickImports
 {
 
+    /** The time a notification stays, in milliseconds, when no duration is given. */
+    static final long DEFAULT_DURATION = 3000;
     private static final int NOTIFICATION_WIDTH = 220;
     private static final int NOTIFICATION_MIN_HEIGHT = 40;
     private static final int NOTIFICATION_MAX_HEIGHT = 80;
@@ -42,6 +66,10 @@ public class NotificationManager implements QuickImports
     private static final int NOTIFICATION_SPACING = 6;
     private static final int MARGIN_X = 12;
     private static final int MARGIN_Y = 12;
+    private static final int OVERFLOW_HEIGHT = 22;
+    private static final int MAX_TEXT_WIDTH = NOTIFICATION_WIDTH - 38 - 8; // 38 = position du texte, 8 = marge droite
+    /** The number of wrapped texts kept for reuse by later notifications with the same title or message. */
+    private static final int WRAP_CACHE_SIZE = 256;
     @Getter
     private static NotificationManager instance;
     @Setter
@@ -50,7 +78,74 @@ public class NotificationManager implements QuickImports
     @Setter
     @Getter
     private static FontAtlas fontBold;
-    private final List<Notification> notifications = new CopyOnWriteArrayList<>();
+    /** The font of the type icons; a notification without it is drawn without its icon. */
+    @Setter
+    @Getter
+    private static FontAtlas iconFont;
+    /** The last posted notification, swapped in by the posting threads. */
+    private final AtomicReference<Notification> postedTail;
+    /** The last notification taken from the posted queue, owned by the render thread. */
+    private Notification postedHead;
+    private final AtomicInteger postedCount = new AtomicInteger();
+
+    /** The handles updated since the last frame, each queued once. */
+    private final Queue<NotificationHandle> updatedHandles = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger updatedCount = new AtomicInteger();
+
+    /** The displayed notifications by stacking key, owned by the render thread. Live notifications are not in it. */
+    private final Map<String, Notification> displayed = new HashMap<>();
+    private int displayedCount = 0;
+    /** The displayed cards opened by live notifications, not counted against the policy's maximum. */
+    private int liveCount = 0;
+    private Notification first;
+    private Notification last;
+
+    /** The lines of the recently wrapped texts, least recently used first. */
+    private final Map<WrapKey, List<String>> wrapCache = new LinkedHashMap<>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<WrapKey, List<String>> eldest)
+        {
+            return size() > WRAP_CACHE_SIZE;
+        }
+    };
+
+    @Getter
+    private NotificationPolicy policy = new NotificationPolicy();
+    /** The notifications waiting for a free card, oldest first, in a ring buffer. */
+    private Notification[] overflow = new Notification[ policy.getOverflowCapacity() ];
+    private int overflowStart = 0;
+    private int overflowSize = 0;
+    /** The waiting notifications by stacking key. */
+    private final Map<String, Notification> overflowed = new HashMap<>();
+    /** The notifications dropped since the overflow queue was last empty, still counted by the overflow card. */
+    private int overflowDropped = 0;
+    private float overflowY = 0;
+    private String overflowLabel = "";
+    private int overflowLabelCount = 0;
+
+    /**
+     * Every notification posted, including the stacked and dropped ones, up to its capacity.
+     */
+    @Getter
+    private final NotificationHistory history = new NotificationHistory(100_000);
+
+    /**
+     * The number of notifications dropped from the overflow queue, evicted by newer ones or by a smaller capacity.
+     */
+    @Getter
+    private long droppedCount = 0;
+
+    /**
+     * The number of notifications taken from the posted queue by the last frame.
+     */
+    @Getter
+    private int lastDrainCount = 0;
+    /**
+     * The time spent by the last frame taking the posted notifications, in nanoseconds.
+     */
+    @Getter
+    private long lastDrainNanos = 0;
 
     /**
      * Creates a new NotificationManager instance and sets it as the singleton instance.
@@ -58,6 +153,7 @@ public class NotificationManager implements QuickImports
     public NotificationManager()
     {
         instance = this;
+        postedHead = new Notification("", null, null, NotificationType.INFO, 0); postedTail = new AtomicReference<>(postedHead);
     }
 
     /**
@@ -69,6 +165,7 @@ public class NotificationManager implements QuickImports
     {
         font = fonts.getInterMedium();
         fontBold = fonts.getInterBold();
+        iconFont = fonts.getLucide();
     }
 
     /**
@@ -88,9 +185,22 @@ public class NotificationManager implements QuickImports
      */
     private static void renderNotifications(DrawContext ctx, float tickDelta)
     {
-        NotificationManager manager = getInstance();
-        manager.update();
-        manager.render(ctx.getMatrices());
+        getInstance().renderFrame(ctx.getMatrices());
+    }
+
+    /**
+     * Runs one frame of this manager: takes in posted notifications and updates, animates the cards and draws
+     * them through the current {@link Render2DEngine#getBackend() render backend}. Called by the HUD callback; a
+     * headless test calls it directly with a recording backend, after setting the fonts. Until the fonts are set,
+     * posted notifications wait in the queue.
+     *
+     * @param matrices The MatrixStack used for rendering transformations.
+     */
+    public void renderFrame(MatrixStack matrices)
+    {
+        if (font == null || fontBold == null) return;
+
+        update(); render(matrices);
     }
 
     /**
@@ -103,11 +213,12 @@ public class NotificationManager implements QuickImports
      */
     public void addNotification(String id, String title, String message, NotificationType type)
     {
-        addNotification(id, title, message, type, 3000);
+        addNotification(id, title, message, type, DEFAULT_DURATION);
     }
 
     /**
-     * Adds a new notification to be displayed with a custom duration.
+     * Adds a new notification to be displayed with a custom duration. Can be called from any thread; the
+     * notification shows up on the next frame.
      *
      * @param id       A unique identifier for the notification.
      * @param title    The title of the notification.
@@ -117,16 +228,90 @@ public class NotificationManager implements QuickImports
      */
     public void addNotification(String id, String title, String message, NotificationType type, long duration)
     {
-        Notification newNotification = new Notification(id, title, message, type, duration);
+        enqueuePosted(new Notification(id, title, message, type, duration));
+    }
+
+    /**
+     * Posts a live notification, which stays on screen and is updated through the returned handle until it is
+     * completed. It never stacks with other notifications, and takes a card outside the policy's maximum and rate
+     * limits. Can be called from any thread.
+     *
+     * @param id      An identifier for the notification, recorded in the history.
+     * @param title   The title of the notification.
+     * @param message The initial message of the notification.
+     * @param type    The type of the notification (e.g., INFO, WARNING, ERROR).
+     *
+     * @return The handle updating the notification.
+     */
+    public NotificationHandle post(String id, String title, String message, NotificationType type)
+    {
+        Notification notification = new Notification(id, title, message, type, DEFAULT_DURATION); notification.makeLive();
+        enqueuePosted(notification); return new NotificationHandle(this, notification);
+    }
+
+    private void enqueuePosted(Notification notification)
+    {
+        postedCount.incrementAndGet(); postedTail.getAndSet(notification).nextPosted = notification;
+    }
 
-        for (Notification existing : notifications) {
-            if (existing.isSimilarTo(newNotification)) {
-                existing.incrementStack();
-                return;
+    /**
+     * Queues a handle whose values changed, to apply them on the next frame.
+     */
+    void queueUpdate(NotificationHandle handle)
+    {
+        updatedCount.incrementAndGet(); updatedHandles.offer(handle);
+    }
+
+    /**
+     * @return The number of notifications posted and not yet taken by the render thread.
+     */
+    public int getPendingCount()
+    {
+        return postedCount.get();
+    }
+
+    /**
+     * Replaces the display policy. Waiting notifications are kept, up to the new overflow capacity.
+     *
+     * @param policy The policy.
+     */
+    public void setPolicy(NotificationPolicy policy)
+    {
+        this.policy = policy;
+
+        Notification[] resized = new Notification[ Math.max(1, policy.getOverflowCapacity()) ]; int kept = 0;
+        for (int i = 0; i < overflowSize; i++) {
+            Notification waiting = overflow[ (overflowStart + i) % overflow.length ];
+            if (overflowSize - i > resized.length) {
+                overflowed.remove(waiting.key, waiting); countDropped(waiting);
             }
+            else resized[ kept++ ] = waiting;
         }
+        overflow = resized; overflowStart = 0; overflowSize = kept; if (kept == 0) overflowDropped = 0;
+    }
 
-        notifications.add(newNotification);
+    /**
+     * Opens the screen listing the notification history.
+     */
+    public void openHistory()
+    {
+        mc.setScreen(new NotificationHistoryScreen(history, mc.currentScreen));
+    }
+
+    /**
+     * @return The number of notifications waiting for a free card.
+     */
+    public int getOverflowCount()
+    {
+        return overflowSize;
+    }
+
+    /**
+     * @return The number of displayed notifications.
+     */
+    public int getDisplayedCount()
+    {
+        return displayedCount;
     }
 
     /**
@@ -182,22 +367,138 @@ public class NotificationManager implements QuickImports
      */
     private void update()
     {
-        List<Notification> toRemove = new ArrayList<>();
-        List<Notification> visibleNotif = new ArrayList<>();
+        drainPosted(); applyUpdates();
 
-        for (Notification notification : notifications) {
-            notification.update();
-            if (notification.shouldRemove()) toRemove.add(notification);
-            else visibleNotif.add(notification);
+        for (Notification notification = first, next; notification != null; notification = next) {
+            next = notification.next; notification.update();
+            if (notification.shouldRemove()) unlink(notification);
         }
-
-        notifications.removeAll(toRemove);
+        promoteOverflow();
 
         int currentY = 0;
-        for (Notification notification : visibleNotif) {
+        for (Notification notification = first; notification != null; notification = notification.next) {
             notification.setTargetY(currentY);
             currentY += calculateNotificationHeight(notification) + NOTIFICATION_SPACING;
         }
+
+        float follow = 1f - (float) Math.exp(-14f * FrameClock.getDelta());
+        overflowY = overflowSize == 0 ? currentY : overflowY + (currentY - overflowY) * follow;
+    }
+
+    /**
+     * Applies the values of the handles updated since the last frame. A handle updated again while applying waits
+     * for the next frame, so a notification changes at most once per frame.
+     */
+    private void applyUpdates()
+    {
+        for (int pending = updatedCount.get(); pending > 0; pending--) {
+            NotificationHandle handle = updatedHandles.poll(); if (handle == null) break;
+            updatedCount.decrementAndGet(); handle.apply();
+        }
+    }
+
+    /**
+     * Takes the notifications posted since the last frame, stacking each one onto the displayed notification with
+     * the same id or appending it. Notifications posted while draining wait for the next frame. Package-private for
+     * the benchmarks.
+     */
+    void drainPosted()
+    {
+        int pending = postedCount.get(); if (pending == 0) {
+            lastDrainCount = 0; lastDrainNanos = 0; return;
+        }
+
+        long start = System.nanoTime(); int taken = 0;
+        while (taken < pending) {
+            Notification posted = postedHead.nextPosted;
+            if (posted == null) break; // A producer swapped the tail but has not linked its notification yet.
+
+            postedHead.nextPosted = null; postedHead = posted; postedCount.decrementAndGet(); taken++;
+
+            history.record(posted); posted.key = policy.groupKey(posted.getId());
+            if (posted.isLive()) {
+                posted.liveLane = true; liveCount++; append(posted); continue;
+            }
+
+            Notification existing = displayed.get(posted.key);
+            if (existing == null) existing = overflowed.get(posted.key);
+
+            if (existing != null) existing.incrementStack();
+            else if (hasFreeCard() && policy.tryAcquire(posted.getType(), FrameClock.getTimeMillis())) append(posted);
+            else enqueueOverflow(posted);
+        }
+
+        lastDrainCount = taken; lastDrainNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * @return Whether fewer cards than the policy's maximum are shown, not counting the live ones.
+     */
+    private boolean hasFreeCard()
+    {
+        return displayedCount - liveCount < policy.getMaxVisible();
+    }
+
+    private void append(Notification notification)
+    {
+        notification.previous = last; notification.next = null;
+        if (last == null) first = notification;
+        else last.next = notification;
+        last = notification; displayedCount++; layout(notification); notification.show(FrameClock.getTimeMillis());
+        if (!notification.isLive()) displayed.put(notification.key, notification);
+    }
+
+    private void unlink(Notification notification)
+    {
+        if (notification.previous == null) first = notification.next;
+        else notification.previous.next = notification.next;
+        if (notification.next == null) last = notification.previous;
+        else notification.next.previous = notification.previous;
+
+        notification.previous = null; notification.next = null; displayedCount--;
+        if (notification.liveLane) liveCount--;
+        displayed.remove(notification.key, notification); notification.release(); notification.dropped = true;
+    }
+
+    /**
+     * Queues a notification for the next free card, evicting the oldest waiting one when the queue is full.
+     */
+    private void enqueueOverflow(Notification notification)
+    {
+        if (overflowSize == overflow.length) {
+            countDropped(pollOverflow());
+        }
+
+        overflow[ (overflowStart + overflowSize) % overflow.length ] = notification; overflowSize++;
+        overflowed.put(notification.key, notification);
+    }
+
+    private Notification pollOverflow()
+    {
+        Notification oldest = overflow[ overflowStart ]; overflow[ overflowStart ] = null;
+        overflowStart = (overflowStart + 1) % overflow.length; overflowSize--;
+        overflowed.remove(oldest.key, oldest);
+        if (overflowSize == 0) overflowDropped = 0;
+        return oldest;
+    }
+
+    private void countDropped(Notification notification)
+    {
+        notification.dropped = true; droppedCount++; if (overflowSize > 0) overflowDropped++;
+    }
+
+    /**
+     * Moves the oldest waiting notifications onto the free cards, as their rate limit allows. Their display duration
+     * starts on their card, however long they waited.
+     */
+    private void promoteOverflow()
+    {
+        while (overflowSize > 0) {
+            Notification oldest = overflow[ overflowStart ];
+            if (!hasFreeCard()) return;
+            if (!policy.tryAcquire(oldest.getType(), FrameClock.getTimeMillis())) return;
+            append(pollOverflow());
+        }
     }
 
     /**
@@ -207,12 +508,10 @@ public class NotificationManager implements QuickImports
      */
     private void render(MatrixStack matrices)
     {
-        if (notifications.isEmpty()) return;
-        int screenWidth = mc.getWindow().getScaledWidth();
-
-        List<Notification> notificationsCopy = new ArrayList<>(notifications);
+        if (first == null && overflowSize == 0) return;
+        int screenWidth = Render2DEngine.getBackend().getScaledWidth();
 
-        for (Notification notification : notificationsCopy) {
+        for (Notification notification = first; notification != null; notification = notification.next) {
             float offsetX = notification.getSlideOffset();
             float alpha = notification.getAlpha();
             float animatedY = notification.getCurrentY();
@@ -220,6 +519,29 @@ public class NotificationManager implements QuickImports
             int y = (int) (MARGIN_Y + animatedY);
             renderNotification(matrices, notification, x, y, alpha);
         }
+
+        if (overflowSize > 0) renderOverflow(matrices, screenWidth - NOTIFICATION_WIDTH - MARGIN_X, (int) (MARGIN_Y + overflowY));
+    }
+
+    /**
+     * Renders the card summarizing the notifications waiting for a free card.
+     *
+     * @param matrices The MatrixStack used for rendering transformations.
+     * @param x        The X-coordinate for rendering the card.
+     * @param y        The Y-coordinate for rendering the card.
+     */
+    private void renderOverflow(MatrixStack matrices, int x, int y)
+    {
+        int hidden = overflowSize + overflowDropped;
+        if (hidden != overflowLabelCount) {
+            overflowLabel = "+" + hidden + " more"; overflowLabelCount = hidden;
+        }
+
+        Render2DEngine.drawRoundedRect(matrices, x, y, NOTIFICATION_WIDTH, OVERFLOW_HEIGHT, 8, Color.argb(24, 26, 29, 235));
+        Render2DEngine.drawRoundedOutline(matrices, x, y, NOTIFICATION_WIDTH, OVERFLOW_HEIGHT, 8, 1.2f, Color.argb(52, 58, 64, 180));
+
+        int textX = x + (NOTIFICATION_WIDTH - (int) fontBold.getWidth(overflowLabel)) / 2;
+        drawText(matrices, overflowLabel, textX, y + (OVERFLOW_HEIGHT - LINE_HEIGHT) / 2 + 1, Color.argb(170, 178, 190, 240), true);
     }
 
     /**
@@ -235,36 +557,36 @@ public class NotificationManager implements QuickImports
     {
         alpha = Math.max(0f, Math.min(1f, alpha));
 
-        int notificationHeight = calculateNotificationHeight(notification);
+        Layout layout = layout(notification); int notificationHeight = layout.height();
 
-        Color bgColor = new Color(24, 26, 29, (int) (250 * alpha));
+        int bgColor = Color.argb(24, 26, 29, (int) (250 * alpha));
         Render2DEngine.drawRoundedRect(matrices, x, y, NOTIFICATION_WIDTH, notificationHeight, 8, bgColor);
 
-        Color borderColor = new Color(52, 58, 64, (int) (180 * alpha));
+        int borderColor = Color.argb(52, 58, 64, (int) (180 * alpha));
         Render2DEngine.drawRoundedOutline(matrices, x, y, NOTIFICATION_WIDTH, notificationHeight, 8, 1.2f, borderColor);
 
-        Color accentColor = new Color(notification.getColor().getRed(), notification.getColor().getGreen(), notification.getColor().getBlue(), (int) (255 * alpha));
+        int baseColor = notification.getColor().getRGB();
+        int accentColor = Color.withAlpha(baseColor, (int) (255 * alpha));
 
         Render2DEngine.drawRoundedRect(matrices, x + 4, y + 6, 3, notificationHeight - 12, 1, accentColor);
 
-        Color iconBgColor = new Color(notification.getColor().getRed(), notification.getColor().getGreen(), notification.getColor().getBlue(), (int) (25 * alpha));
+        int iconBgColor = Color.withAlpha(baseColor, (int) (25 * alpha));
         Render2DEngine.drawRoundedRect(matrices, x + 13, y + 10 + (notificationHeight - 20) / 2f - 10, 20, 20, 6, iconBgColor);
 
         renderIcon(matrices, notification.getType(), x + 23, y + 10 + (notificationHeight - 20) / 2, accentColor);
 
         int textStartX = x + 38;
-        int maxTextWidth = NOTIFICATION_WIDTH - (textStartX - x) - 8;
         int currentTextY = y + 10;
 
-        if (notification.getTitle() != null && !notification.getTitle().isEmpty()) {
-            Color titleColor = new Color(255, 255, 255, (int) (255 * alpha));
-            currentTextY = renderWrappedText(matrices, notification.getTitle(), textStartX, currentTextY, maxTextWidth, titleColor, true);
+        if (!layout.titleLines().isEmpty()) {
+            int titleColor = Color.argb(255, 255, 255, (int) (255 * alpha));
+            currentTextY = renderWrappedText(matrices, layout.titleLines(), textStartX, currentTextY, titleColor, true);
             currentTextY += 2; // Espacement entre titre et message
         }
 
-        if (notification.getMessage() != null && !notification.getMessage().isEmpty()) {
-            Color messageColor = new Color(170, 178, 190, (int) (240 * alpha));
-            renderWrappedText(matrices, notification.getMessage(), textStartX, currentTextY, maxTextWidth, messageColor, false);
+        if (!layout.messageLines().isEmpty()) {
+            int messageColor = Color.argb(170, 178, 190, (int) (240 * alpha));
+            renderWrappedText(matrices, layout.messageLines(), textStartX, currentTextY, messageColor, false);
         }
 
         if (notification.hasStack()) renderStackCounter(matrices, notification, x, y, alpha);
@@ -281,20 +603,47 @@ public class NotificationManager implements QuickImports
      */
     private int calculateNotificationHeight(Notification notification)
     {
+        return layout(notification).height();
+    }
+
+    /**
+     * Returns the wrapped lines and height of a notification, computed when it is first displayed and again only if
+     * the fonts change.
+     *
+     * @param notification The Notification to lay out.
+     *
+     * @return The layout of the notification.
+     */
+    private Layout layout(Notification notification)
+    {
+        Layout layout = notification.layout;
+        if (layout != null && layout.font() == font && layout.fontBold() == fontBold) return layout;
+
+        List<String> titleLines = wrapCached(notification.getTitle(), true);
+        List<String> messageLines = wrapCached(notification.getMessage(), false);
+
         int height = NOTIFICATION_MIN_HEIGHT;
-        int maxTextWidth = NOTIFICATION_WIDTH - 38 - 8; // 38 = position du texte, 8 = marge droite
+        if (!titleLines.isEmpty()) height += (titleLines.size() - 1) * LINE_HEIGHT;
+        if (!messageLines.isEmpty()) height += (messageLines.size() - 1) * LINE_HEIGHT;
 
-        if (notification.getTitle() != null && !notification.getTitle().isEmpty()) {
-            List<String> titleLines = wrapText(notification.getTitle(), maxTextWidth, true);
-            height += (titleLines.size() - 1) * LINE_HEIGHT;
-        }
+        layout = new Layout(font, fontBold, titleLines, messageLines, Math.min(height, NOTIFICATION_MAX_HEIGHT));
+        notification.layout = layout; return layout;
+    }
 
-        if (notification.getMessage() != null && !notification.getMessage().isEmpty()) {
-            List<String> messageLines = wrapText(notification.getMessage(), maxTextWidth, false);
-            height += (messageLines.size() - 1) * LINE_HEIGHT;
-        }
+    /**
+     * Wraps a title or message to the text width of a notification, reusing the lines of a recent identical text.
+     *
+     * @return The lines, empty for a {@code null} or empty text.
+     */
+    private List<String> wrapCached(String text, boolean bold)
+    {
+        if (text == null || text.isEmpty()) return List.of();
 
-        return Math.min(height, NOTIFICATION_MAX_HEIGHT);
+        WrapKey key = new WrapKey(bold ? fontBold : font, text, MAX_TEXT_WIDTH);
+        List<String> lines = wrapCache.get(key);
+        if (lines == null) {
+            lines = List.copyOf(wrapText(text, MAX_TEXT_WIDTH, bold)); wrapCache.put(key, lines);
+        } return lines;
     }
 
     /**
@@ -306,7 +655,7 @@ public class NotificationManager implements QuickImports
      *
      * @return A list of strings, each representing a line of wrapped text.
      */
-    private List<String> wrapText(String text, int maxWidth, boolean bold)
+    List<String> wrapText(String text, int maxWidth, boolean bold)
     {
         FontAtlas police = bold ? fontBold : font;
         List<String> lines = new ArrayList<>();
@@ -340,22 +689,19 @@ public class NotificationManager implements QuickImports
     }
 
     /**
-     * Renders wrapped text at the specified position, handling line breaks as needed.
+     * Renders wrapped text at the specified position, one line below the other.
      *
      * @param matrices The MatrixStack used for rendering transformations.
-     * @param text     The text to be rendered.
+     * @param lines    The wrapped lines to be rendered.
      * @param x        The X-coordinate for rendering the text.
      * @param y        The starting Y-coordinate for rendering the text.
-     * @param maxWidth The maximum width (in pixels) for each line of text.
      * @param color    The color of the text.
      * @param bold     Whether to use the bold font for rendering.
      *
      * @return The Y-coordinate after rendering the text (useful for further rendering).
      */
-    private int renderWrappedText(MatrixStack matrices, String text, int x, int y, int maxWidth, Color color,
-                                  boolean bold)
+    private int renderWrappedText(MatrixStack matrices, List<String> lines, int x, int y, int color, boolean bold)
     {
-        List<String> lines = wrapText(text, maxWidth, bold);
         int currentY = y;
 
         for (String line : lines) {
@@ -385,7 +731,7 @@ public class NotificationManager implements QuickImports
         int stackX = x + NOTIFICATION_WIDTH - stackWidth - 6;
         int stackY = y + 6;
 
-        Color stackTextColor = new Color(255, 255, 255, (int) (120 * alpha));
+        int stackTextColor = Color.argb(255, 255, 255, (int) (120 * alpha));
         int textX = stackX + (stackWidth - textWidth) / 2;
         int textY = stackY + 2;
 
@@ -401,10 +747,9 @@ public class NotificationManager implements QuickImports
      * @param y        The Y-coordinate for rendering the icon.
      * @param color    The color to apply to the icon.
      */
-    private void renderIcon(MatrixStack matrices, NotificationType type, int x, int y, Color color)
+    private void renderIcon(MatrixStack matrices, NotificationType type, int x, int y, int color)
     {
-        FontAtlas lucide = NoctisUIClient.getInstance().getFonts().getLucide();
-        lucide.render(matrices, type.getIcon(), x - 5, y - 5, 10, color.getRGB());
+        if (iconFont != null) iconFont.render(matrices, type.getIcon(), x - 5, y - 5, 10, color);
     }
 
     /**
@@ -418,15 +763,20 @@ public class NotificationManager implements QuickImports
      */
     private void renderProgressBar(MatrixStack matrices, Notification notification, int x, int y, float alpha)
     {
-        long elapsed = System.currentTimeMillis() - notification.getLastStackTime();
-        float progress = Math.min(elapsed / (float) notification.getDuration(), 1f);
+        // A live notification shows the progress of its operation, others the time they have left.
+        float fill;
+        if (notification.isLive()) fill = Math.max(0f, notification.getProgress());
+        else {
+            long elapsed = FrameClock.getTimeMillis() - notification.getLastStackTime();
+            fill = 1f - Math.min(elapsed / (float) notification.getDuration(), 1f);
+        }
 
-        Color trackColor = new Color(40, 44, 48, (int) (120 * alpha));
+        int trackColor = Color.argb(40, 44, 48, (int) (120 * alpha));
         Render2DEngine.drawRoundedRect(matrices, x + 4, y, NOTIFICATION_WIDTH - 8, 3, 1, trackColor);
 
-        if (progress < 1f) {
-            int barWidth = (int) ((NOTIFICATION_WIDTH - 8) * (1f - progress));
-            Color progressColor = new Color(notification.getColor().getRed(), notification.getColor().getGreen(), notification.getColor().getBlue(), (int) (200 * alpha));
+        if (fill > 0f) {
+            int barWidth = (int) ((NOTIFICATION_WIDTH - 8) * fill);
+            int progressColor = Color.withAlpha(notification.getColor().getRGB(), (int) (200 * alpha));
             Render2DEngine.drawRoundedRect(matrices, x + 4, y, barWidth, 3, 1, progressColor);
         }
     }
@@ -441,11 +791,11 @@ public class NotificationManager implements QuickImports
      * @param color    The color of the text.
      * @param bold     Whether to use the bold font for rendering.
      */
-    private void drawText(MatrixStack matrices, String text, int x, int y, Color color, boolean bold)
+    private void drawText(MatrixStack matrices, String text, int x, int y, int color, boolean bold)
     {
         FontAtlas police = bold ? fontBold : font;
 
-        police.render(matrices, text, x, y, color.getRGB());
+        police.render(matrices, text, x, y, color);
     }
 
     /**
@@ -459,11 +809,11 @@ public class NotificationManager implements QuickImports
      * @param color    The color of the text.
      * @param bold     Whether to use the bold font for rendering.
      */
-    private void drawText(MatrixStack matrices, String text, int x, int y, float size, Color color, boolean bold)
+    private void drawText(MatrixStack matrices, String text, int x, int y, float size, int color, boolean bold)
     {
         FontAtlas police = bold ? fontBold : font;
 
-        police.render(matrices, text, x, y, size, color.getRGB());
+        police.render(matrices, text, x, y, size, color);
     }
 
     /**
@@ -497,4 +847,15 @@ public class NotificationManager implements QuickImports
 
         return truncated + ellipsis;
     }
-}
\ No newline at end of file
+
+    /**
+     * The wrapped lines and height of a notification, valid for the fonts it was computed with.
+     */
+    record Layout(FontAtlas font, FontAtlas fontBold, List<String> titleLines, List<String> messageLines, int height)
+    {
+    }
+
+    private record WrapKey(FontAtlas font, String text, int width)
+    {
+    }
+}
@@ -0,0 +1,120 @@
+package fr.libnaus.noctisui.client.component.system;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Limits how many notifications the {@link NotificationManager} shows at once and how fast new cards appear.
+ *
+ * <p>Notifications whose id matches the same grouping pattern stack onto a single card, like notifications sharing
+ * an id. Each type can have a token-bucket rate limit on the cards it opens. A notification that finds no free card
+ * or no token is not dropped: it waits in a bounded overflow queue, summarized by a single "+N more" card, and
+ * takes the next free card, where its display duration starts.</p>
+ *
+ * <pre>
+ * {@code
+ * NotificationPolicy policy = new NotificationPolicy();
+ * policy.setMaxVisible(4);
+ * policy.rateLimit(NotificationType.INFO, 2, 5); // 2 new cards per second, bursts of 5
+ * policy.group("player_join_.*");                // Every join stacks onto one card
+ * NotificationManager.getInstance().setPolicy(policy);
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public class NotificationPolicy
+{
+
+    /**
+     * The maximum number of notification cards shown at once, not counting the overflow card and the cards of live
+     * notifications.
+     */
+    @Getter
+    @Setter
+    private int maxVisible = 5;
+    /**
+     * The maximum number of notifications waiting for a free card. Beyond it, the oldest are dropped.
+     */
+    @Getter
+    @Setter
+    private int overflowCapacity = 64;
+
+    private final Map<NotificationType, TokenBucket> rateLimits = new EnumMap<>(NotificationType.class);
+    private final List<Pattern> groups = new ArrayList<>();
+
+    /**
+     * Limits the rate at which notifications of a type open new cards. Stacking onto a shown card is not limited.
+     *
+     * @param type      The notification type.
+     * @param perSecond The sustained number of new cards per second.
+     * @param burst     The number of new cards allowed at once after a quiet period.
+     *
+     * @return This policy.
+     */
+    public NotificationPolicy rateLimit(NotificationType type, float perSecond, int burst)
+    {
+        rateLimits.put(type, new TokenBucket(perSecond, burst)); return this;
+    }
+
+    /**
+     * Stacks every notification whose whole id matches the pattern onto a single card.
+     *
+     * @param regex The pattern of the ids, such as {@code "download_.*"}.
+     *
+     * @return This policy.
+     */
+    public NotificationPolicy group(String regex)
+    {
+        groups.add(Pattern.compile(regex)); return this;
+    }
+
+    /**
+     * @return The key notifications stack by: the first grouping pattern the id matches, or the id itself.
+     */
+    String groupKey(String id)
+    {
+        if (id == null) return null;
+
+        for (Pattern group : groups)
+            if (group.matcher(id).matches()) return group.pattern();
+        return id;
+    }
+
+    /**
+     * Takes a token for a new card of the type, if its rate limit allows one now.
+     */
+    boolean tryAcquire(NotificationType type, long nowMillis)
+    {
+        TokenBucket bucket = rateLimits.get(type); return bucket == null || bucket.tryAcquire(nowMillis);
+    }
+
+    private static final class TokenBucket
+    {
+
+        private final float perMillis;
+        private final int capacity;
+        private float tokens;
+        private long lastRefill = -1;
+
+        private TokenBucket(float perSecond, int burst)
+        {
+            this.perMillis = perSecond / 1000f; this.capacity = Math.max(1, burst); this.tokens = capacity;
+        }
+
+        private boolean tryAcquire(long nowMillis)
+        {
+            if (lastRefill >= 0) tokens = Math.min(capacity, tokens + (nowMillis - lastRefill) * perMillis);
+            lastRefill = nowMillis;
+
+            if (tokens < 1f) return false;
+            tokens -= 1f; return true;
+        }
+    }
+}
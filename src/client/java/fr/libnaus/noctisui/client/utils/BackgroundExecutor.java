@@ -0,0 +1,78 @@
+package fr.libnaus.noctisui.client.utils;
+
+import fr.libnaus.noctisui.NoctisUI;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A shared pool of daemon worker threads for work that must stay off the render thread,
+ * such as sorting or filtering large datasets.
+ *
+ * <p>Tasks must not touch components or any rendering state. They should publish their results
+ * (for example through an {@link java.util.concurrent.atomic.AtomicReference}) for the render thread
+ * to pick up on its next frame.</p>
+ *
+ * <pre>
+ * {@code
+ * BackgroundExecutor.submit(() -> pending.set(sortRows(snapshot)));
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public class BackgroundExecutor
+{
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)), new WorkerFactory());
+
+    private BackgroundExecutor()
+    {
+    }
+
+    /**
+     * Submits a task to the shared worker pool.
+     *
+     * @param task The task to run off the render thread.
+     *
+     * @return A {@link Future} that can be used to cancel the task.
+     */
+    public static Future<?> submit(Runnable task)
+    {
+        return EXECUTOR.submit(() ->
+        {
+            try {
+                task.run();
+            } catch (CancellationException ignored) {
+                // The task noticed it was superseded and stopped early.
+            } catch (RuntimeException e) {
+                NoctisUI.LOGGER.error("Background task failed", e);
+            }
+        });
+    }
+
+    /**
+     * @return The shared executor, for APIs expecting an {@link java.util.concurrent.Executor}.
+     */
+    public static ExecutorService getExecutor()
+    {
+        return EXECUTOR;
+    }
+
+    private static final class WorkerFactory implements ThreadFactory
+    {
+
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable, "NoctisUI Worker #" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true); thread.setPriority(Thread.NORM_PRIORITY - 1); return thread;
+        }
+    }
+}
@@ -260,10 +260,82 @@ public class Color
      * @return Interpolated color
      */
     public static Color interpolateColor(Color color1, Color color2, float progress) {
-        float r = color1.getRed() + (color2.getRed() - color1.getRed()) * progress;
-        float g = color1.getGreen() + (color2.getGreen() - color1.getGreen()) * progress;
-        float b = color1.getBlue() + (color2.getBlue() - color1.getBlue()) * progress;
-        float a = color1.getAlpha() + (color2.getAlpha() - color1.getAlpha()) * progress;
-        return new Color((int) r, (int) g, (int) b, (int) a);
+        return new Color(lerp(color1.getRGB(), color2.getRGB(), progress), true);
+    }
+
+    /*
+     * Packed ARGB helpers. They work on plain ints in the same layout as getRGB(), so hot render paths can
+     * compute colors without allocating a Color per frame.
+     */
+
+    /** Packs components (0-255 each, clamped) into an ARGB integer. */
+    public static int argb(int r, int g, int b, int a) {
+        return (clamp(a) << 24) | (clamp(r) << 16) | (clamp(g) << 8) | clamp(b);
+    }
+
+    /** Red component (0-255) of a packed ARGB color. */
+    public static int red(int argb) { return (argb >> 16) & 0xFF; }
+
+    /** Green component (0-255) of a packed ARGB color. */
+    public static int green(int argb) { return (argb >> 8) & 0xFF; }
+
+    /** Blue component (0-255) of a packed ARGB color. */
+    public static int blue(int argb) { return argb & 0xFF; }
+
+    /** Alpha component (0-255) of a packed ARGB color. */
+    public static int alpha(int argb) { return (argb >>> 24) & 0xFF; }
+
+    /**
+     * Replaces the alpha of a packed ARGB color.
+     *
+     * @param argb Packed color
+     * @param alpha New alpha (0-255, clamped)
+     * @return Packed color with the new alpha
+     */
+    public static int withAlpha(int argb, int alpha) {
+        return (clamp(alpha) << 24) | (argb & 0x00FFFFFF);
+    }
+
+    /**
+     * Multiplies the alpha of a packed ARGB color, e.g. to fade a color in or out.
+     *
+     * @param argb Packed color
+     * @param factor Alpha multiplier (0.0 to 1.0)
+     * @return Packed color with the scaled alpha
+     */
+    public static int scaleAlpha(int argb, float factor) {
+        return withAlpha(argb, (int) (alpha(argb) * factor));
+    }
+
+    /**
+     * Interpolates linearly between two packed ARGB colors.
+     *
+     * @param from Start color
+     * @param to End color
+     * @param progress Progress (0.0 to 1.0)
+     * @return Interpolated packed color
+     */
+    public static int lerp(int from, int to, float progress) {
+        int r = (int) (red(from) + (red(to) - red(from)) * progress);
+        int g = (int) (green(from) + (green(to) - green(from)) * progress);
+        int b = (int) (blue(from) + (blue(to) - blue(from)) * progress);
+        int a = (int) (alpha(from) + (alpha(to) - alpha(from)) * progress);
+        return argb(r, g, b, a);
+    }
+
+    /**
+     * Multiplies two packed ARGB colors component by component, e.g. to tint a color.
+     *
+     * @param first First color
+     * @param second Second color
+     * @return Product of both colors
+     */
+    public static int multiply(int first, int second) {
+        return argb(red(first) * red(second) / 255, green(first) * green(second) / 255,
+                blue(first) * blue(second) / 255, alpha(first) * alpha(second) / 255);
+    }
+
+    private static int clamp(int component) {
+        return Math.max(0, Math.min(255, component));
     }
 }
@@ -8,6 +8,23 @@ public class MathUtils
         return start + (end - start) * Math.min(factor, 1f);
     }
 
+    /**
+     * Moves a value towards a target by a fraction that depends on the elapsed time, so the motion looks the
+     * same at any frame rate. A rate of {@code r} closes about 63% of the remaining distance every {@code 1 / r}
+     * seconds.
+     *
+     * @param current The current value.
+     * @param target  The value to reach.
+     * @param rate    The convergence rate, per second.
+     * @param dt      The elapsed time, in seconds.
+     *
+     * @return The new value.
+     */
+    public static float damp(float current, float target, float rate, float dt)
+    {
+        return current + (target - current) * (1f - (float) Math.exp(-rate * dt));
+    }
+
     public static float clamp(float value, float min, float max)
     {
         return Math.max(min, Math.min(max, value));
@@ -0,0 +1,302 @@
+package fr.libnaus.noctisui.client.utils;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A uniform-grid spatial index for axis-aligned rectangles.
+ *
+ * <p>Each item is registered in every cell its bounds overlap, so point and rectangle queries only
+ * visit the few items sharing the queried cells instead of the whole set. Items also carry an insertion
+ * order which is used to resolve the topmost item when several overlap.</p>
+ *
+ * <p>Items covering too many cells are kept in a separate list that is always scanned, which keeps
+ * full-size backgrounds from flooding the grid.</p>
+ *
+ * <pre>
+ * {@code
+ * SpatialGrid<UIBaseComponent> grid = new SpatialGrid<>(64);
+ * grid.insert(button, button.getX(), button.getY(), button.getWidth(), button.getHeight());
+ * UIBaseComponent top = grid.queryTopmost(mouseX, mouseY, c -> c.contains(mouseX, mouseY));
+ * }
+ * </pre>
+ *
+ * @param <T> The type of indexed items.
+ *
+ * @author axeno
+ */
+public class SpatialGrid<T>
+{
+
+    private static final int MAX_CELLS_PER_ITEM = 64;
+    private static final Comparator<Entry<?>> BY_ORDER = Comparator.comparingInt(entry -> entry.order);
+
+    private final float cellSize;
+    private final Long2ObjectOpenHashMap<List<Entry<T>>> cells = new Long2ObjectOpenHashMap<>();
+    private final Reference2ObjectOpenHashMap<T, Entry<T>> entries = new Reference2ObjectOpenHashMap<>();
+    private final List<Entry<T>> oversized = new ArrayList<>();
+    private final List<Entry<T>> scratch = new ArrayList<>();
+
+    private int nextOrder = 0;
+    private int queryStamp = 0;
+
+    /**
+     * Creates a new grid with the given cell size.
+     *
+     * @param cellSize The width and height of a grid cell, in pixels.
+     */
+    public SpatialGrid(float cellSize)
+    {
+        this.cellSize = Math.max(1f, cellSize);
+    }
+
+    /**
+     * Inserts an item on top of every item already in the grid.
+     * If the item is already present it is moved to the new bounds and keeps its order.
+     *
+     * @param item   The item to index.
+     * @param x      The X coordinate of the item bounds.
+     * @param y      The Y coordinate of the item bounds.
+     * @param width  The width of the item bounds.
+     * @param height The height of the item bounds.
+     */
+    public void insert(T item, float x, float y, float width, float height)
+    {
+        if (entries.containsKey(item)) {
+            update(item, x, y, width, height); return;
+        }
+
+        Entry<T> entry = new Entry<>(item, nextOrder++); entries.put(item, entry);
+        entry.setBounds(x, y, width, height); link(entry);
+    }
+
+    /**
+     * Updates the bounds of an indexed item. Cells are only touched when the covered cell range changes.
+     *
+     * @param item   The item to update.
+     * @param x      The new X coordinate.
+     * @param y      The new Y coordinate.
+     * @param width  The new width.
+     * @param height The new height.
+     */
+    public void update(T item, float x, float y, float width, float height)
+    {
+        Entry<T> entry = entries.get(item); if (entry == null) return;
+
+        int cx0 = cell(x), cy0 = cell(y), cx1 = cell(x + width), cy1 = cell(y + height);
+        if (cx0 == entry.cx0 && cy0 == entry.cy0 && cx1 == entry.cx1 && cy1 == entry.cy1) {
+            entry.setBounds(x, y, width, height); return;
+        }
+
+        unlink(entry); entry.setBounds(x, y, width, height); link(entry);
+    }
+
+    /**
+     * Removes an item from the grid.
+     *
+     * @param item The item to remove.
+     */
+    public void remove(T item)
+    {
+        Entry<T> entry = entries.remove(item); if (entry != null) unlink(entry);
+    }
+
+    /**
+     * Removes every item from the grid and resets the insertion order.
+     */
+    public void clear()
+    {
+        cells.clear(); entries.clear(); oversized.clear(); nextOrder = 0;
+    }
+
+    /**
+     * @return The number of indexed items.
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Finds the most recently inserted item whose bounds contain the given point and that passes the filter.
+     *
+     * @param px     The X coordinate of the point.
+     * @param py     The Y coordinate of the point.
+     * @param filter An additional test applied to candidates, may be {@code null}.
+     *
+     * @return The topmost matching item, or {@code null} if none.
+     */
+    public T queryTopmost(double px, double py, Predicate<T> filter)
+    {
+        Entry<T> best = null;
+
+        List<Entry<T>> bucket = cells.get(key(cell((float) px), cell((float) py)));
+        if (bucket != null) {
+            for (int i = 0, n = bucket.size(); i < n; i++) {
+                Entry<T> entry = bucket.get(i);
+                if ((best == null || entry.order > best.order) && entry.contains(px, py) && (filter == null || filter.test(entry.item)))
+                    best = entry;
+            }
+        }
+
+        for (int i = 0, n = oversized.size(); i < n; i++) {
+            Entry<T> entry = oversized.get(i);
+            if ((best == null || entry.order > best.order) && entry.contains(px, py) && (filter == null || filter.test(entry.item)))
+                best = entry;
+        }
+
+        return best == null ? null : best.item;
+    }
+
+    /**
+     * Visits every item whose bounds intersect the given rectangle. Each item is visited at most once,
+     * in no particular order.
+     *
+     * @param x       The X coordinate of the query rectangle.
+     * @param y       The Y coordinate of the query rectangle.
+     * @param width   The width of the query rectangle.
+     * @param height  The height of the query rectangle.
+     * @param visitor The callback receiving each intersecting item.
+     */
+    public void query(float x, float y, float width, float height, Consumer<T> visitor)
+    {
+        int stamp = ++queryStamp;
+        int cx0 = cell(x), cy0 = cell(y), cx1 = cell(x + width), cy1 = cell(y + height);
+
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                List<Entry<T>> bucket = cells.get(key(cx, cy)); if (bucket == null) continue;
+
+                for (int i = 0, n = bucket.size(); i < n; i++) {
+                    Entry<T> entry = bucket.get(i);
+                    if (entry.stamp != stamp && entry.intersects(x, y, width, height)) {
+                        entry.stamp = stamp; visitor.accept(entry.item);
+                    }
+                }
+            }
+        }
+
+        for (int i = 0, n = oversized.size(); i < n; i++) {
+            Entry<T> entry = oversized.get(i);
+            if (entry.intersects(x, y, width, height)) visitor.accept(entry.item);
+        }
+    }
+
+    /**
+     * Collects every item whose bounds intersect the given rectangle, sorted by insertion order.
+     * Sorting only concerns the matching items, so the cost depends on the size of the result.
+     *
+     * @param x      The X coordinate of the query rectangle.
+     * @param y      The Y coordinate of the query rectangle.
+     * @param width  The width of the query rectangle.
+     * @param height The height of the query rectangle.
+     * @param out    The list receiving the items, it is not cleared.
+     */
+    public void queryOrdered(float x, float y, float width, float height, List<T> out)
+    {
+        scratch.clear(); int stamp = ++queryStamp;
+        int cx0 = cell(x), cy0 = cell(y), cx1 = cell(x + width), cy1 = cell(y + height);
+
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                List<Entry<T>> bucket = cells.get(key(cx, cy)); if (bucket == null) continue;
+
+                for (int i = 0, n = bucket.size(); i < n; i++) {
+                    Entry<T> entry = bucket.get(i);
+                    if (entry.stamp != stamp && entry.intersects(x, y, width, height)) {
+                        entry.stamp = stamp; scratch.add(entry);
+                    }
+                }
+            }
+        }
+
+        for (int i = 0, n = oversized.size(); i < n; i++) {
+            Entry<T> entry = oversized.get(i); if (entry.intersects(x, y, width, height)) scratch.add(entry);
+        }
+
+        scratch.sort(BY_ORDER);
+        for (int i = 0, n = scratch.size(); i < n; i++)
+            out.add(scratch.get(i).item);
+        scratch.clear();
+    }
+
+    private void link(Entry<T> entry)
+    {
+        entry.cx0 = cell(entry.minX); entry.cy0 = cell(entry.minY);
+        entry.cx1 = cell(entry.maxX); entry.cy1 = cell(entry.maxY);
+
+        long covered = (long) (entry.cx1 - entry.cx0 + 1) * (entry.cy1 - entry.cy0 + 1);
+        if (covered > MAX_CELLS_PER_ITEM) {
+            entry.oversized = true; oversized.add(entry); return;
+        }
+
+        entry.oversized = false;
+        for (int cy = entry.cy0; cy <= entry.cy1; cy++) {
+            for (int cx = entry.cx0; cx <= entry.cx1; cx++) {
+                cells.computeIfAbsent(key(cx, cy), k -> new ArrayList<>(4)).add(entry);
+            }
+        }
+    }
+
+    private void unlink(Entry<T> entry)
+    {
+        if (entry.oversized) {
+            oversized.remove(entry); return;
+        }
+
+        for (int cy = entry.cy0; cy <= entry.cy1; cy++) {
+            for (int cx = entry.cx0; cx <= entry.cx1; cx++) {
+                long key = key(cx, cy); List<Entry<T>> bucket = cells.get(key); if (bucket == null) continue;
+                bucket.remove(entry); if (bucket.isEmpty()) cells.remove(key);
+            }
+        }
+    }
+
+    private int cell(float coordinate)
+    {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(int cx, int cy)
+    {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    private static final class Entry<T>
+    {
+
+        private final T item;
+        private final int order;
+
+        private float minX, minY, maxX, maxY;
+        private int cx0, cy0, cx1, cy1;
+        private boolean oversized;
+        private int stamp;
+
+        private Entry(T item, int order)
+        {
+            this.item = item; this.order = order;
+        }
+
+        private void setBounds(float x, float y, float width, float height)
+        {
+            this.minX = x; this.minY = y; this.maxX = x + width; this.maxY = y + height;
+        }
+
+        private boolean contains(double px, double py)
+        {
+            return px >= minX && px <= maxX && py >= minY && py <= maxY;
+        }
+
+        private boolean intersects(float x, float y, float width, float height)
+        {
+            return x <= maxX && x + width >= minX && y <= maxY && y + height >= minY;
+        }
+    }
+}
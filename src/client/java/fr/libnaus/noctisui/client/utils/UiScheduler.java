@@ -0,0 +1,221 @@
+package fr.libnaus.noctisui.client.utils;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import fr.libnaus.noctisui.NoctisUI;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Runs UI mutations coming from other threads on the render thread, once per frame, before anything is rendered.
+ *
+ * <p>Components are not thread-safe: packet handlers, async tasks and {@link BackgroundExecutor} jobs must not
+ * touch them directly. They post the mutation here instead, through a lock-free multi-producer single-consumer
+ * queue that the render thread drains at the start of the next frame. Posting never blocks.</p>
+ *
+ * <p>Property updates posted with {@link #set(Object, Object, BiConsumer, Object)} are coalesced: when the same
+ * property of the same target is updated several times before the next drain, only the latest value is applied,
+ * at the position of the first update. The property is named by an explicit key, compared with {@code equals}.</p>
+ *
+ * <pre>
+ * {@code
+ * // From a network thread
+ * UiScheduler.post(() -> list.addChild(new TextComponent(0, 0, message, 12, Color.WHITE)));
+ * UiScheduler.set(status, "text", TextComponent::setText, "Downloaded " + received + " / " + total);
+ *
+ * // Chaining async work
+ * CompletableFuture.supplyAsync(this::load, BackgroundExecutor.getExecutor())
+ *         .thenAcceptAsync(table::setRows, UiScheduler.getExecutor());
+ * }
+ * </pre>
+ *
+ * @author axeno
+ */
+public final class UiScheduler
+{
+
+    private static final AtomicReference<Node> tail;
+    private static Node head;
+
+    private static final Map<PropertyKey, PropertyUpdate<?, ?>> latestUpdates = new ConcurrentHashMap<>();
+    private static final AtomicInteger depth = new AtomicInteger();
+
+    /**
+     * An {@link Executor} posting its tasks to this scheduler.
+     */
+    @Getter
+    private static final Executor executor = UiScheduler::post;
+
+    /**
+     * The number of mutations run by the last drain.
+     */
+    @Getter
+    private static int lastDrainCount = 0;
+    /**
+     * The time spent by the last drain, in nanoseconds.
+     */
+    @Getter
+    private static long lastDrainNanos = 0;
+    /**
+     * The largest queue depth observed at the start of a drain.
+     */
+    @Getter
+    private static int peakDepth = 0;
+
+    static {
+        head = new Node(null); tail = new AtomicReference<>(head);
+    }
+
+    private UiScheduler()
+    {
+    }
+
+    /**
+     * Queues a mutation for the start of the next frame. Can be called from any thread.
+     *
+     * @param task The mutation.
+     */
+    public static void post(Runnable task)
+    {
+        Node node = new Node(task); depth.incrementAndGet();
+        tail.getAndSet(node).next = node;
+    }
+
+    /**
+     * Runs a mutation immediately when called on the render thread, or queues it otherwise.
+     *
+     * @param task The mutation.
+     */
+    public static void execute(Runnable task)
+    {
+        if (RenderSystem.isOnRenderThread()) task.run();
+        else post(task);
+    }
+
+    /**
+     * Queues a property update, coalesced with the pending updates of the same property. Can be called from any
+     * thread.
+     *
+     * @param target   The object to update.
+     * @param property The key of the property, such as {@code "text"}. Updates are coalesced per target, compared
+     *                 by reference, and property, compared with {@code equals}.
+     * @param setter   The setter.
+     * @param value    The new value.
+     * @param <T>      The type of the target.
+     * @param <V>      The type of the value.
+     */
+    public static <T, V> void set(T target, Object property, BiConsumer<? super T, ? super V> setter, V value)
+    {
+        PropertyKey key = new PropertyKey(target, property);
+        if (latestUpdates.put(key, new PropertyUpdate<>(target, setter, value)) == null) post(key);
+    }
+
+    /**
+     * Queues a property update keyed on the setter instance itself. Two method references written at different
+     * places are distinct objects, and the JVM does not promise to reuse one even at a single place, so only
+     * updates passing the very same setter object are coalesced: keep it in a {@code static final} field, or use
+     * {@link #set(Object, Object, BiConsumer, Object)} with an explicit key.
+     *
+     * @param target The object to update.
+     * @param setter The setter, also used as the key of the property.
+     * @param value  The new value.
+     * @param <T>    The type of the target.
+     * @param <V>    The type of the value.
+     */
+    public static <T, V> void set(T target, BiConsumer<? super T, ? super V> setter, V value)
+    {
+        set(target, setter, setter, value);
+    }
+
+    /**
+     * @return The number of mutations waiting for the next drain.
+     */
+    public static int getDepth()
+    {
+        return depth.get();
+    }
+
+    /**
+     * Runs the mutations queued before this call. Mutations posted while draining wait for the next frame.
+     * Called once per frame on the render thread, before anything is rendered.
+     */
+    public static void drain()
+    {
+        int pending = depth.get(); if (pending == 0) {
+            lastDrainCount = 0; lastDrainNanos = 0; return;
+        }
+
+        long start = System.nanoTime(); peakDepth = Math.max(peakDepth, pending);
+
+        int ran = 0;
+        while (ran < pending) {
+            Node next = head.next;
+            if (next == null) break; // A producer swapped the tail but has not linked its node yet.
+
+            Runnable task = next.task; next.task = null; head = next; depth.decrementAndGet(); ran++;
+
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                NoctisUI.LOGGER.error("UI mutation failed", e);
+            }
+        }
+
+        lastDrainCount = ran; lastDrainNanos = System.nanoTime() - start;
+    }
+
+    private static final class Node
+    {
+
+        private Runnable task;
+        private volatile Node next;
+
+        private Node(Runnable task)
+        {
+            this.task = task;
+        }
+    }
+
+    /**
+     * The identity of a property: a target, compared by reference, and a property key, compared with
+     * {@code equals}.
+     */
+    private record PropertyKey(Object target, Object property) implements Runnable
+    {
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            return obj instanceof PropertyKey other && other.target == target && other.property.equals(property);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * System.identityHashCode(target) + property.hashCode();
+        }
+
+        /**
+         * Applies the latest value posted for this property.
+         */
+        @Override
+        public void run()
+        {
+            PropertyUpdate<?, ?> update = latestUpdates.remove(this); if (update != null) update.apply();
+        }
+    }
+
+    private record PropertyUpdate<T, V>(T target, BiConsumer<? super T, ? super V> setter, V value)
+    {
+
+        void apply()
+        {
+            setter.accept(target, value);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package fr.libnaus.noctisui.mixin.client;
+
+import fr.libnaus.noctisui.client.api.system.animation.FrameClock;
+import net.minecraft.client.render.GameRenderer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Starts a new UI frame before the game renders anything.
+ *
+ * @author axeno
+ */
+@Mixin(GameRenderer.class)
+public class GameRendererMixin
+{
+
+    @Inject(method = "render", at = @At("HEAD"))
+    private void noctisui$beginFrame(float tickDelta, long startTime, boolean tick, CallbackInfo ci)
+    {
+        FrameClock.beginFrame();
+    }
+}
@@ -0,0 +1,15 @@
+#version 150
+
+// Rounded clip set by Render2DEngine.pushRoundedClip, uploaded by Render2DEngine.applyClipUniforms.
+uniform vec4 ClipRect;
+uniform float ClipRadius;
+
+// Coverage of the rounded clip, the rectangle itself is scissored.
+float clipCoverage() {
+    if (ClipRadius <= 0.0) return 1.0;
+    vec2 halfSize = (ClipRect.zw - ClipRect.xy) * 0.5;
+    vec2 p = gl_FragCoord.xy - ClipRect.xy - halfSize;
+    float radius = min(ClipRadius, min(halfSize.x, halfSize.y));
+    float distance = length(max(abs(p) - halfSize + vec2(radius), 0.0)) - radius;
+    return clamp(0.5 - distance, 0.0, 1.0);
+}
@@ -0,0 +1,60 @@
+package fr.libnaus.noctisui.client.benchmark;
+
+import fr.libnaus.noctisui.client.api.system.render.font.FontAtlas;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads the bundled fonts for the benchmarks, from their JSON metadata only so no GL context is needed.
+ *
+ * @author axeno
+ */
+public final class BenchmarkFonts
+{
+
+    /** A short label, such as a button. */
+    public static final String LABEL = "Settings";
+    /** A notification message. */
+    public static final String SENTENCE = "Your world backup finished uploading to the server in 12.4 seconds.";
+    /** A long paragraph, such as a tooltip or a chat message. */
+    public static final String PARAGRAPH = "NoctisUI renders menus and HUDs with signed distance field fonts, so text "
+            + "stays sharp at any scale. Components are laid out in containers, animated with the frame clock and "
+            + "can be recorded on worker threads before being submitted on the render thread in a single batch.";
+
+    private BenchmarkFonts()
+    {
+    }
+
+    /**
+     * @param name The font name, such as {@code inter-medium}.
+     *
+     * @return The font, able to measure text and write glyph quads.
+     */
+    public static FontAtlas load(String name)
+    {
+        String path = "/assets/noctisui/fonts/" + name + ".json";
+        try (InputStream meta = BenchmarkFonts.class.getResourceAsStream(path)) {
+            if (meta == null) throw new IllegalStateException("Missing font " + path);
+            return new FontAtlas(new InputStreamReader(meta, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The sample text of the given kind: {@code label}, {@code sentence} or {@code paragraph}.
+     */
+    public static String sample(String kind)
+    {
+        return switch (kind) {
+            case "label" -> LABEL;
+            case "sentence" -> SENTENCE;
+            case "paragraph" -> PARAGRAPH;
+            default -> throw new IllegalArgumentException("Unknown sample " + kind);
+        };
+    }
+}
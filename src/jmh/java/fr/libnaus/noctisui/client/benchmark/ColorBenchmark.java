@@ -0,0 +1,47 @@
+package fr.libnaus.noctisui.client.benchmark;
+
+import fr.libnaus.noctisui.client.api.system.render.font.FontAtlas;
+import fr.libnaus.noctisui.client.utils.Color;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Color blending used per glyph by gradient text and per frame by hover animations.
+ *
+ * @author axeno
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorBenchmark
+{
+
+    private final int primary = Color.argb(100, 150, 255, 255);
+    private final int secondary = Color.argb(255, 120, 200, 255);
+    private final Color primaryColor = new Color(primary, true);
+    private final Color secondaryColor = new Color(secondary, true);
+    private int index = 0;
+    private float progress = 0f;
+
+    @Benchmark
+    public int interpolateColor()
+    {
+        index = (index + 7) & 1023; return FontAtlas.interpolateColor(primary, secondary, 10, index);
+    }
+
+    @Benchmark
+    public Color interpolateColorObject()
+    {
+        index = (index + 7) & 1023; return FontAtlas.interpolateColor(primaryColor, secondaryColor, 10, index);
+    }
+
+    @Benchmark
+    public int lerp()
+    {
+        progress = progress >= 1f ? 0f : progress + 0.01f; return Color.lerp(primary, secondary, progress);
+    }
+}
@@ -0,0 +1,46 @@
+package fr.libnaus.noctisui.client.benchmark;
+
+import fr.libnaus.noctisui.client.api.system.Render2DEngine;
+import fr.libnaus.noctisui.client.api.system.render.OffHeapVertexSink;
+import org.joml.Matrix4f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rectangle vertex generation, written to an off-heap sink laid out like a position-color vertex buffer.
+ *
+ * @author axeno
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeometryBenchmark
+{
+
+    /** The number of rectangles per frame, about a dense screen of components. */
+    @Param({ "100", "1000" })
+    public int rectangles;
+
+    private final Matrix4f matrix = new Matrix4f().translate(8, 8, 0).scale(2f);
+    private OffHeapVertexSink sink;
+
+    @Setup
+    public void setup()
+    {
+        sink = new OffHeapVertexSink(rectangles * 4 * OffHeapVertexSink.POSITION_COLOR_BYTES);
+    }
+
+    @Benchmark
+    public int prepareBuffer()
+    {
+        sink.reset();
+        for (int i = 0; i < rectangles; i++) {
+            float x = (i % 40) * 12; float y = (i / 40) * 12;
+            Render2DEngine.prepareBuffer(sink, matrix, x, y, x + 10, y + 10, 0f, 0xFF000000 | i * 2654435);
+        } return sink.getByteCount();
+    }
+}
@@ -0,0 +1,57 @@
+package fr.libnaus.noctisui.client.benchmark;
+
+import fr.libnaus.noctisui.client.api.system.render.OffHeapVertexSink;
+import fr.libnaus.noctisui.client.api.system.render.font.FontAtlas;
+import org.joml.Matrix4f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text measurement, truncation and glyph quad generation with the bundled Inter font.
+ *
+ * @author axeno
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextBenchmark
+{
+
+    @Param({ "label", "sentence", "paragraph" })
+    public String sample;
+
+    private FontAtlas font;
+    private String text;
+    private float truncateWidth;
+    private final Matrix4f matrix = new Matrix4f().translate(12, 34, 0);
+    private final OffHeapVertexSink sink = new OffHeapVertexSink(256 * 1024);
+
+    @Setup
+    public void setup()
+    {
+        font = BenchmarkFonts.load("inter-medium"); text = BenchmarkFonts.sample(sample);
+        truncateWidth = font.getWidth(text, 9) / 2;
+    }
+
+    @Benchmark
+    public float getWidth()
+    {
+        return font.getWidth(text, 9);
+    }
+
+    @Benchmark
+    public String truncate()
+    {
+        return font.truncate(text, truncateWidth, 9);
+    }
+
+    @Benchmark
+    public int emitString()
+    {
+        sink.reset(); font.emitString(sink, matrix, text, 0, 0, 9, 0xFFFFFFFF); return sink.getVertexCount();
+    }
+}
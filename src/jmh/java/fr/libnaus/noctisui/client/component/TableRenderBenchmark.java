@@ -0,0 +1,102 @@
+package fr.libnaus.noctisui.client.component;
+
+import fr.libnaus.noctisui.client.api.system.FrameArena;
+import fr.libnaus.noctisui.client.api.system.Render2DEngine;
+import fr.libnaus.noctisui.client.api.system.render.RecordingRenderBackend;
+import fr.libnaus.noctisui.client.api.system.render.RenderBackend;
+import fr.libnaus.noctisui.client.benchmark.BenchmarkFonts;
+import fr.libnaus.noctisui.client.component.TableSortBenchmark.Listing;
+import net.minecraft.client.gui.DrawContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A frame of a table holding a million sorted rows, drawn through a {@link RecordingRenderBackend} so no window is
+ * needed. {@code still} redraws the same rows; {@code scroll} turns the wheel a page every frame, down then back up,
+ * so new rows keep entering the viewport and their cell texts are truncated for the first time.
+ *
+ * @author axeno
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableRenderBenchmark
+{
+
+    private static final String[] ITEMS = { "Diamond Sword", "Iron Pickaxe", "Oak Planks", "Ender Pearl",
+            "Golden Apple", "Netherite Ingot", "Redstone Dust", "Enchanted Book", "Elytra", "Shulker Box" };
+
+    /** The frames scrolling down before scrolling back up, a page (15 rows) each. */
+    private static final int SCROLL_FRAMES = 1_000;
+
+    @Param({ "1000000" })
+    public int rows;
+
+    @Param({ "still", "scroll" })
+    public String pass;
+
+    private final RecordingRenderBackend recording = new RecordingRenderBackend(854, 480, 2);
+    private final DrawContext context = new DrawContext(null, null);
+    private RenderBackend previous;
+    private TableComponent<Listing> table;
+    private int scrolledFrames;
+
+    @Setup
+    public void setup() throws InterruptedException
+    {
+        SplittableRandom random = new SplittableRandom(42); List<Listing> listings = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++)
+            listings.add(new Listing(ITEMS[ random.nextInt(ITEMS.length) ] + " #" + random.nextInt(10_000), random.nextDouble(1, 10_000)));
+
+        previous = Render2DEngine.setBackend(recording);
+
+        table = new TableComponent<>(10, 10, 400, 250);
+        table.setFont(BenchmarkFonts.load("inter-medium")); table.setHeaderFont(BenchmarkFonts.load("inter-bold"));
+        table.setIconFont(BenchmarkFonts.load("lucide"));
+        table.addColumn(new TableComponent.Column<Listing>("Item", 200, Listing::itemName)
+                .setComparator(Comparator.comparing(Listing::itemName)));
+        table.addColumn(new TableComponent.Column<Listing>("Price", 80, l -> String.format("%.2f", l.price()))
+                .setComparator(Comparator.comparingDouble(Listing::price)));
+        table.setRows(listings); table.sortBy(0, true);
+
+        // The sort runs in the background, the table swaps it in on the first frame after it finished.
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        do {
+            Thread.sleep(10); draw();
+        } while (table.isProcessing() && System.nanoTime() < deadline);
+
+        if (table.isProcessing()) throw new IllegalStateException("The sort did not finish");
+        if (table.getFailure() != null) throw table.getFailure();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        Render2DEngine.setBackend(previous);
+    }
+
+    @Benchmark
+    public int frame()
+    {
+        if (pass.equals("scroll")) {
+            boolean down = scrolledFrames++ % (SCROLL_FRAMES * 2) < SCROLL_FRAMES;
+            table.mouseScrolled(20, 100, down ? -5 : 5);
+        }
+
+        return draw();
+    }
+
+    private int draw()
+    {
+        FrameArena.reset(); recording.reset();
+        table.render(context, 0, 0, 0f); return recording.getCommandCount();
+    }
+}
@@ -0,0 +1,65 @@
+package fr.libnaus.noctisui.client.component;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * The background filter and sort pass of a table holding a million rows, the work a header click or a filter
+ * change schedules off the render thread.
+ *
+ * @author axeno
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableSortBenchmark
+{
+
+    /** A row of an auction house listing. */
+    public record Listing(String itemName, double price)
+    {
+    }
+
+    private static final String[] ITEMS = { "Diamond Sword", "Iron Pickaxe", "Oak Planks", "Ender Pearl",
+            "Golden Apple", "Netherite Ingot", "Redstone Dust", "Enchanted Book", "Elytra", "Shulker Box" };
+
+    @Param({ "1000000" })
+    public int rows;
+
+    @Param({ "filter", "sort", "filterSort" })
+    public String pass;
+
+    private final AtomicInteger generation = new AtomicInteger(1);
+    private List<Listing> listings;
+    private int[] indices;
+    private Predicate<Listing> filter;
+    private Comparator<Listing> comparator;
+
+    @Setup
+    public void setup()
+    {
+        SplittableRandom random = new SplittableRandom(42); listings = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++)
+            listings.add(new Listing(ITEMS[ random.nextInt(ITEMS.length) ] + " #" + random.nextInt(10_000), random.nextDouble(1, 10_000)));
+
+        indices = new int[ rows ];
+        filter = pass.startsWith("filter") ? listing -> listing.price() < 2_500 : null;
+        comparator = !pass.equals("filter") ? Comparator.comparing(Listing::itemName) : null;
+    }
+
+    @Benchmark
+    public int filterAndSort()
+    {
+        return TableComponent.filterAndSort(indices, generation, 1, listings, filter, comparator, true);
+    }
+}
@@ -0,0 +1,114 @@
+package fr.libnaus.noctisui.client.component.input;
+
+import fr.libnaus.noctisui.client.api.system.FrameArena;
+import fr.libnaus.noctisui.client.api.system.Render2DEngine;
+import fr.libnaus.noctisui.client.api.system.render.RecordingRenderBackend;
+import fr.libnaus.noctisui.client.api.system.render.RenderBackend;
+import fr.libnaus.noctisui.client.benchmark.BenchmarkFonts;
+import fr.libnaus.noctisui.client.component.input.syntax.CLikeLexer;
+import net.minecraft.client.gui.DrawContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-highlighting a large Java file in a {@link CodeEditorComponent}: lexing every line from scratch, opening and
+ * closing a block comment at the top of the file, which changes the state of every line below, and typing in the
+ * middle of the file, where the cached states converge right after the edited line.
+ *
+ * <p>Each invocation brings the state cache up to date down to the last line, as scrolling to the end of the file
+ * would. {@code openComment} and {@code typing} measure an edit and its undo, so two catch-ups. The sample code
+ * never closes a block comment, so a comment opened at the top runs to the end of the file.</p>
+ *
+ * <p>{@code redraw} draws the viewport again and again without editing, through a {@link RecordingRenderBackend} so
+ * no window is needed: the tokens of the drawn lines stay cached, so no line is lexed after the first frame.</p>
+ *
+ * @author axeno
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodeHighlightBenchmark
+{
+
+    private static final String[] SNIPPET = {
+            "// Returns the price of a listing, taxes included.",
+            "@Override",
+            "public double priceOf(Listing listing, int quantity) {",
+            "    double base = listing.price() * quantity; // before taxes",
+            "    if (quantity > 64 && !listing.isStackable()) throw new IllegalArgumentException(\"Too many: \" + quantity);",
+            "    String label = String.format(\"%s x%d\", listing.itemName(), quantity);",
+            "    return base * 1.2e0 + 0x10 - label.length() / 3.5f;",
+            "}",
+            ""
+    };
+
+    @Param({ "50000" })
+    public int lines;
+
+    @Param({ "full", "openComment", "typing", "redraw" })
+    public String pass;
+
+    private final RecordingRenderBackend recording = new RecordingRenderBackend(854, 480, 2);
+    private final DrawContext context = new DrawContext(null, null);
+    private RenderBackend previous;
+    private CodeEditorComponent editor;
+    private int lastLine;
+    private int middleOffset;
+
+    @Setup
+    public void setup()
+    {
+        StringBuilder document = new StringBuilder(lines * 48);
+        for (int i = 0; i < lines; i++) {
+            if (i > 0) document.append('\n');
+            document.append(SNIPPET[ i % SNIPPET.length ]);
+        }
+
+        editor = new CodeEditorComponent(0, 0, 800, 600, BenchmarkFonts.load("inter-medium"), CLikeLexer.JAVA);
+        editor.setSoftWrap(false); editor.setEditable(false); editor.setText(document.toString());
+
+        lastLine = editor.getLineCount() - 1; middleOffset = editor.getLineStart(lines / 2 / SNIPPET.length * SNIPPET.length + 2) + 8;
+        editor.ensureStates(lastLine);
+
+        previous = Render2DEngine.setBackend(recording); draw();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        Render2DEngine.setBackend(previous);
+    }
+
+    @Benchmark
+    public int rehighlight()
+    {
+        switch (pass) {
+            case "full" -> {
+                editor.setLexer(CLikeLexer.JAVA); editor.ensureStates(lastLine);
+            }
+            case "openComment" -> {
+                editor.insert(0, "/*\n"); editor.ensureStates(lastLine + 1);
+                editor.delete(0, 3); editor.ensureStates(lastLine);
+            }
+            case "typing" -> {
+                editor.insert(middleOffset, "x"); editor.ensureStates(lastLine);
+                editor.delete(middleOffset, middleOffset + 1); editor.ensureStates(lastLine);
+            }
+            case "redraw" -> {
+                return draw();
+            }
+            default -> throw new IllegalArgumentException("Unknown pass " + pass);
+        }
+        return editor.getLastRelexLines();
+    }
+
+    private int draw()
+    {
+        FrameArena.reset(); recording.reset();
+        editor.render(context, 0, 0, 0f); return recording.getCommandCount();
+    }
+}
@@ -0,0 +1,75 @@
+package fr.libnaus.noctisui.client.component.system;
+
+import fr.libnaus.noctisui.client.benchmark.BenchmarkFonts;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Control;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bursts of notifications posted from several threads at once into the multi-producer single-consumer queue of the
+ * {@link NotificationManager}, while one thread drains it as the render thread does at the start of each frame.
+ *
+ * <p>The {@code post} threads each post {@code burst} notifications per operation, under a handful of ids so they
+ * stack onto the shown cards; the {@code drain} thread takes whatever was posted. Producers wait while
+ * {@link #MAX_PENDING} notifications are queued, so the queue stays bounded and the post score is the rate the
+ * consumer sustains. The number of producers is set with JMH's {@code -tg}, for instance
+ * {@code -PjmhArgs="NotificationBurstBenchmark -tg 8,1"}.</p>
+ *
+ * @author axeno
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationBurstBenchmark
+{
+
+    private static final int MAX_PENDING = 65_536;
+    private static final String[] IDS = { "download", "upload", "backup", "sync" };
+    private static final NotificationType[] TYPES = NotificationType.values();
+
+    @Param({ "1", "64" })
+    public int burst;
+
+    private NotificationManager manager;
+
+    @Setup
+    public void setup()
+    {
+        NotificationManager.setFont(BenchmarkFonts.load("inter-medium"));
+        NotificationManager.setFontBold(BenchmarkFonts.load("inter-bold"));
+        manager = new NotificationManager();
+    }
+
+    @State(Scope.Thread)
+    public static class Producer
+    {
+        private int sequence = 0;
+    }
+
+    @Benchmark
+    @Group("burst")
+    @GroupThreads(4)
+    public void post(Producer producer, Control control)
+    {
+        // The drain thread may already be done with the iteration, so stop waiting when it ends.
+        while (manager.getPendingCount() > MAX_PENDING && !control.stopMeasurement)
+            Thread.onSpinWait();
+
+        for (int i = 0; i < burst; i++) {
+            int n = producer.sequence++;
+            manager.addNotification(IDS[ n & 3 ], "Transfer", BenchmarkFonts.SENTENCE, TYPES[ n % TYPES.length ]);
+        }
+    }
+
+    @Benchmark
+    @Group("burst")
+    @GroupThreads(1)
+    public int drain()
+    {
+        manager.drainPosted(); return manager.getLastDrainCount();
+    }
+}
@@ -0,0 +1,45 @@
+package fr.libnaus.noctisui.client.component.system;
+
+import fr.libnaus.noctisui.client.benchmark.BenchmarkFonts;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Word wrapping of notification titles and messages, the work the notification layout cache saves per frame.
+ *
+ * @author axeno
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationWrapBenchmark
+{
+
+    /** The text width of a notification card. */
+    private static final int MAX_TEXT_WIDTH = 220 - 38 - 8;
+
+    @Param({ "label", "sentence", "paragraph" })
+    public String sample;
+
+    private NotificationManager manager;
+    private String text;
+
+    @Setup
+    public void setup()
+    {
+        NotificationManager.setFont(BenchmarkFonts.load("inter-medium"));
+        NotificationManager.setFontBold(BenchmarkFonts.load("inter-bold"));
+        manager = new NotificationManager(); text = BenchmarkFonts.sample(sample);
+    }
+
+    @Benchmark
+    public List<String> wrapText()
+    {
+        return manager.wrapText(text, MAX_TEXT_WIDTH, false);
+    }
+}
@@ -0,0 +1,114 @@
+package fr.libnaus.noctisui.client.api.system;
+
+import fr.libnaus.noctisui.client.api.system.render.RecordingRenderBackend;
+import fr.libnaus.noctisui.client.api.system.render.RenderBackend;
+import fr.libnaus.noctisui.client.api.system.render.font.FontAtlas;
+import fr.libnaus.noctisui.client.utils.Color;
+import net.minecraft.client.util.math.MatrixStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Holds a steady-state frame of the packed-color paths to zero heap allocation: shapes, clips, text and the color
+ * utilities, drawn through a {@link RecordingRenderBackend} so no window is needed. A frame is allowed to allocate
+ * while warming up (pools and recording arrays grow), never afterwards. The quietest of a few rounds is kept, since
+ * the JIT may allocate a few bytes on the thread once in a while; a frame that allocates shows up in every round.
+ *
+ * @author axeno
+ */
+class FrameAllocationTest
+{
+
+    private static final int WARMUP_FRAMES = 2_000;
+    private static final int MEASURED_FRAMES = 500;
+    private static final int ROUNDS = 5;
+
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final RecordingRenderBackend recording = new RecordingRenderBackend(854, 480, 2);
+    private final MatrixStack matrices = new MatrixStack();
+
+    private RenderBackend previous;
+    private FontAtlas font;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Per-thread allocation counters are not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        try (InputStream meta = FrameAllocationTest.class.getResourceAsStream("/assets/noctisui/fonts/inter-medium.json")) {
+            assertNotNull(meta, "Missing font metrics");
+            font = new FontAtlas(new InputStreamReader(meta, StandardCharsets.UTF_8));
+        }
+
+        previous = Render2DEngine.setBackend(recording);
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        if (previous != null) Render2DEngine.setBackend(previous);
+    }
+
+    @Test
+    void steadyStateFrameAllocatesNothing()
+    {
+        for (int i = 0; i < WARMUP_FRAMES; i++) frame(i);
+
+        long poolAllocations = FrameArena.getPoolAllocations(); long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < MEASURED_FRAMES; i++) frame(i);
+            allocated = Math.min(allocated, threads.getCurrentThreadAllocatedBytes() - before);
+        }
+
+        assertEquals(0L, allocated, "Bytes allocated over " + MEASURED_FRAMES + " steady-state frames");
+        assertEquals(poolAllocations, FrameArena.getPoolAllocations(), "The frame arena grew after warm-up");
+        assertEquals(0, Render2DEngine.getClipDepth());
+    }
+
+    @Test
+    void frameBorrowsFromTheArena()
+    {
+        frame(0); FrameArena.reset();
+
+        assertTrue(FrameArena.getLastFrameBorrowed() > 0, "Clips should borrow their vectors from the arena");
+        assertTrue(recording.getDrawCallCount() > 0);
+        assertEquals(0, recording.getClipDepth());
+    }
+
+    /**
+     * One frame of a small card: a rounded background, an outline, a clipped list of rows with hover colors, a
+     * separator line and some text.
+     */
+    private void frame(int index)
+    {
+        FrameArena.reset(); recording.reset();
+
+        float hover = (index % 60) / 60f;
+        int background = Color.withAlpha(0xFF1E1E2E, 230); int accent = Color.lerp(0xFF89B4FA, 0xFFF5C2E7, hover);
+
+        Render2DEngine.drawRoundedRect(matrices, 20, 20, 220, 180, 8, background);
+        Render2DEngine.drawRoundedOutline(matrices, 20, 20, 220, 180, 8, 1, accent);
+
+        Render2DEngine.pushRoundedClip(matrices, 20, 40, 200, 140, 8);
+        for (int row = 0; row < 8; row++) {
+            int color = Color.multiply(row % 2 == 0 ? 0xFF313244 : 0xFF45475A, row == index % 8 ? accent : 0xFFFFFFFF);
+            Render2DEngine.drawRect(matrices, 20, 40 + row * 18, 200, 18, color);
+        }
+        Render2DEngine.popClip();
+
+        Render2DEngine.drawLine(matrices, 24, 38, 216, 38, 1, accent);
+        font.render(matrices, "Inventory", 28, 24, 0xFFCDD6F4);
+    }
+}
@@ -0,0 +1,127 @@
+package fr.libnaus.noctisui.client.api.system.render;
+
+import fr.libnaus.noctisui.client.api.system.Render2DEngine;
+import fr.libnaus.noctisui.client.component.DivComponent;
+import fr.libnaus.noctisui.client.utils.Color;
+import net.minecraft.client.gui.DrawContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static fr.libnaus.noctisui.client.api.system.render.RecordingRenderBackend.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Renders a small component tree headless through a {@link RecordingRenderBackend} and checks the exact commands
+ * it produces: a rounded card clipping its children, holding a square panel with an outline.
+ *
+ * @author axeno
+ */
+class RecordingRenderBackendTest
+{
+
+    private static final Color CARD = new Color(30, 30, 46);
+    private static final Color PANEL = new Color(243, 139, 168);
+
+    private final RecordingRenderBackend recording = new RecordingRenderBackend(854, 480, 2);
+    private RenderBackend previous;
+
+    @BeforeEach
+    void setUp()
+    {
+        previous = Render2DEngine.setBackend(recording);
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        Render2DEngine.setBackend(previous);
+    }
+
+    @Test
+    void recordsTheCommandsOfATree()
+    {
+        DivComponent card = new DivComponent(10, 20, 200, 100);
+        card.setBackgroundColor(CARD); card.setCornerRadius(8); card.setOutline(Color.WHITE, 1); card.setClipChildren(true);
+
+        DivComponent panel = new DivComponent(10, 10, 50, 30);
+        panel.setBackgroundColor(PANEL); panel.setOutline(Color.WHITE, 2);
+        card.addChild(panel);
+
+        card.render(new DrawContext(null, null), 0, 0, 0f);
+
+        int[] expected = {
+                BLEND, ROUNDED_RECT, ROUNDED_OUTLINE, PUSH_CLIP, SCISSOR,
+                BLEND, ROUNDED_RECT, LINE, LINE, LINE, LINE, BLEND,
+                POP_CLIP, DISABLE_SCISSOR, BLEND
+        };
+        assertEquals(expected.length, recording.getCommandCount());
+        for (int i = 0; i < expected.length; i++)
+            assertEquals(expected[ i ], recording.getOp(i), "Op of command " + i);
+
+        assertEquals(7, recording.getDrawCallCount());
+        assertEquals(4 * 3 + 2 * 4, recording.getVertexCount());
+        assertEquals(6, recording.getStateChangeCount()); // Four blend changes, a scissor and its reset.
+        assertEquals(0, recording.getClipDepth());
+        assertEquals(1, recording.getMaxClipDepth());
+    }
+
+    @Test
+    void recordsPositionsColorsAndClips()
+    {
+        DivComponent card = new DivComponent(10, 20, 200, 100);
+        card.setBackgroundColor(CARD); card.setCornerRadius(8); card.setClipChildren(true);
+
+        DivComponent panel = new DivComponent(10, 10, 50, 30);
+        panel.setBackgroundColor(PANEL);
+        card.addChild(panel);
+
+        card.render(new DrawContext(null, null), 0, 0, 0f);
+
+        // The card, in GUI units.
+        assertEquals(ROUNDED_RECT, recording.getOp(1)); assertEquals(CARD.getRGB(), recording.getArgument(1));
+        assertBounds(1, 10, 20, 210, 120);
+
+        // Its rounded clip, in framebuffer pixels from the bottom: 960 - 2 * 120 = 720 and 960 - 2 * 20 = 920.
+        assertEquals(PUSH_CLIP, recording.getOp(2)); assertEquals(16f, Float.intBitsToFloat(recording.getArgument(2)));
+        assertBounds(2, 20, 720, 420, 920);
+        assertEquals(SCISSOR, recording.getOp(3)); assertBounds(3, 20, 720, 420, 920);
+
+        // Inside a rounded clip, the square panel is drawn by the rounded shader so that the corners are cut.
+        assertEquals(ROUNDED_RECT, recording.getOp(5)); assertEquals(PANEL.getRGB(), recording.getArgument(5));
+        assertBounds(5, 20, 30, 70, 60);
+
+        assertEquals(2, recording.count(ROUNDED_RECT)); assertEquals(0, recording.count(RECT));
+    }
+
+    @Test
+    void resetForgetsTheFrame()
+    {
+        DivComponent card = new DivComponent(0, 0, 100, 100);
+        card.setBackgroundColor(CARD);
+
+        card.render(new DrawContext(null, null), 0, 0, 0f); recording.reset();
+
+        assertEquals(0, recording.getCommandCount()); assertEquals(0, recording.getDrawCallCount());
+        assertEquals(0, recording.count(BLEND));
+
+        card.render(new DrawContext(null, null), 0, 0, 0f);
+        assertArrayEquals(new int[] { BLEND, RECT, BLEND }, ops());
+    }
+
+    private int[] ops()
+    {
+        int[] ops = new int[ recording.getCommandCount() ];
+        for (int i = 0; i < ops.length; i++)
+            ops[ i ] = recording.getOp(i);
+        return ops;
+    }
+
+    private void assertBounds(int command, float minX, float minY, float maxX, float maxY)
+    {
+        assertEquals(minX, recording.getMinX(command), 1e-3f, "Left of command " + command);
+        assertEquals(minY, recording.getMinY(command), 1e-3f, "Top of command " + command);
+        assertEquals(maxX, recording.getMaxX(command), 1e-3f, "Right of command " + command);
+        assertEquals(maxY, recording.getMaxY(command), 1e-3f, "Bottom of command " + command);
+    }
+}
@@ -0,0 +1,92 @@
+package fr.libnaus.noctisui.client.component;
+
+import fr.libnaus.noctisui.client.api.system.FrameArena;
+import fr.libnaus.noctisui.client.api.system.Render2DEngine;
+import fr.libnaus.noctisui.client.api.system.render.RecordingRenderBackend;
+import fr.libnaus.noctisui.client.api.system.render.RenderBackend;
+import fr.libnaus.noctisui.client.api.system.render.font.FontAtlas;
+import fr.libnaus.noctisui.client.utils.Color;
+import net.minecraft.client.gui.DrawContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import static fr.libnaus.noctisui.client.api.system.render.RecordingRenderBackend.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Renders a {@link Button} headless through a {@link RecordingRenderBackend}: its background and centered label
+ * with a font set by the caller, and the background alone when no font is set and the client fonts are not loaded.
+ *
+ * @author axeno
+ */
+class ButtonRenderTest
+{
+
+    private static final Color BACKGROUND = new Color(30, 30, 46);
+
+    private final RecordingRenderBackend recording = new RecordingRenderBackend(854, 480, 2);
+    private RenderBackend previous;
+    private FontAtlas font;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        try (InputStream meta = ButtonRenderTest.class.getResourceAsStream("/assets/noctisui/fonts/inter-medium.json")) {
+            assertNotNull(meta, "Missing font metrics");
+            font = new FontAtlas(new InputStreamReader(meta, StandardCharsets.UTF_8));
+        }
+
+        previous = Render2DEngine.setBackend(recording); FrameArena.reset();
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        Render2DEngine.setBackend(previous);
+    }
+
+    @Test
+    void drawsTheBackgroundAndTheLabel()
+    {
+        Button button = new Button(20, 40, 100, 24, "Play", BACKGROUND, Color.WHITE);
+        button.setFont(font);
+
+        button.render(new DrawContext(null, null), 0, 0, 0f);
+
+        assertEquals(1, recording.count(ROUNDED_RECT)); assertEquals(1, recording.count(GLYPHS));
+
+        int background = indexOf(ROUNDED_RECT);
+        assertEquals(BACKGROUND.getRGB(), recording.getArgument(background));
+        assertEquals(20, recording.getMinX(background), 1e-3f); assertEquals(40, recording.getMinY(background), 1e-3f);
+        assertEquals(120, recording.getMaxX(background), 1e-3f); assertEquals(64, recording.getMaxY(background), 1e-3f);
+
+        // The label is centered, so its glyphs stay inside the background.
+        int label = indexOf(GLYPHS);
+        assertTrue(recording.getMinX(label) > 20 && recording.getMaxX(label) < 120, "Label outside the button horizontally");
+        assertTrue(recording.getMinY(label) > 40 && recording.getMaxY(label) < 64, "Label outside the button vertically");
+    }
+
+    @Test
+    void skipsTheLabelWithoutFont()
+    {
+        Button button = new Button(20, 40, 100, 24, "Play", BACKGROUND, Color.WHITE);
+        assertNull(button.getFont());
+
+        button.render(new DrawContext(null, null), 0, 0, 0f);
+
+        assertEquals(1, recording.count(ROUNDED_RECT)); assertEquals(0, recording.count(GLYPHS));
+    }
+
+    private int indexOf(int op)
+    {
+        for (int i = 0; i < recording.getCommandCount(); i++)
+            if (recording.getOp(i) == op) return i;
+        return fail("No command " + op);
+    }
+}
@@ -0,0 +1,125 @@
+package fr.libnaus.noctisui.client.component.system;
+
+import fr.libnaus.noctisui.client.api.system.Render2DEngine;
+import fr.libnaus.noctisui.client.api.system.animation.FrameClock;
+import fr.libnaus.noctisui.client.api.system.render.RecordingRenderBackend;
+import fr.libnaus.noctisui.client.api.system.render.RenderBackend;
+import fr.libnaus.noctisui.client.api.system.render.font.FontAtlas;
+import net.minecraft.client.util.math.MatrixStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import static fr.libnaus.noctisui.client.api.system.render.RecordingRenderBackend.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs frames of a {@link NotificationManager} headless through a {@link RecordingRenderBackend}, with fonts set by
+ * the test: the cards drawn for posted notifications, the live cards kept outside the policy's maximum, and the
+ * notifications waiting in the queue until the fonts are set.
+ *
+ * @author axeno
+ */
+class NotificationManagerRenderTest
+{
+
+    private final RecordingRenderBackend recording = new RecordingRenderBackend(854, 480, 2);
+    private final MatrixStack matrices = new MatrixStack();
+    private RenderBackend previous;
+    private NotificationManager manager;
+
+    @BeforeEach
+    void setUp()
+    {
+        NotificationManager.setFont(load("inter-medium")); NotificationManager.setFontBold(load("inter-bold"));
+        NotificationManager.setIconFont(load("lucide"));
+
+        previous = Render2DEngine.setBackend(recording); manager = new NotificationManager();
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        Render2DEngine.setBackend(previous);
+        NotificationManager.setFont(null); NotificationManager.setFontBold(null); NotificationManager.setIconFont(null);
+    }
+
+    @Test
+    void drawsACardPerNotification()
+    {
+        manager.success("saved", "Saved", "Changes saved.");
+        manager.info("joined", "Welcome", "Steve joined.");
+
+        frame();
+
+        assertEquals(2, manager.getDisplayedCount()); assertEquals(0, manager.getPendingCount());
+        // Each card: its background, accent bar, icon background, progress track and progress bar.
+        assertEquals(2 * 5, recording.count(ROUNDED_RECT)); assertEquals(2, recording.count(ROUNDED_OUTLINE));
+        // Each card: its icon, title and message, one line each.
+        assertEquals(2 * 3, recording.count(GLYPHS));
+    }
+
+    @Test
+    void stacksTheSameId()
+    {
+        manager.success("saved", "Saved", "Changes saved.");
+        manager.success("saved", "Saved", "Changes saved.");
+
+        frame();
+
+        assertEquals(1, manager.getDisplayedCount());
+        assertEquals(4, recording.count(GLYPHS)); // The icon, title, message and the "x2" counter.
+    }
+
+    @Test
+    void keepsLiveCardsOutsideTheMaximum()
+    {
+        NotificationPolicy policy = new NotificationPolicy(); policy.setMaxVisible(1); manager.setPolicy(policy);
+
+        manager.info("first", "First", "Shown.");
+        manager.info("second", "Second", "Waiting.");
+        NotificationHandle download = manager.post("download", "Downloading", "world.zip", NotificationType.INFO);
+
+        frame();
+
+        assertEquals(2, manager.getDisplayedCount()); assertEquals(1, manager.getOverflowCount());
+        assertFalse(download.isDropped());
+    }
+
+    @Test
+    void waitsForTheFonts()
+    {
+        NotificationManager.setFont(null);
+        manager.success("saved", "Saved", "Changes saved.");
+
+        frame();
+
+        assertEquals(0, recording.getCommandCount()); assertEquals(1, manager.getPendingCount());
+
+        NotificationManager.setFont(load("inter-medium")); frame();
+
+        assertEquals(1, manager.getDisplayedCount()); assertEquals(0, manager.getPendingCount());
+    }
+
+    private void frame()
+    {
+        FrameClock.beginFrame(); recording.reset();
+        manager.renderFrame(matrices);
+    }
+
+    private static FontAtlas load(String name)
+    {
+        String path = "/assets/noctisui/fonts/" + name + ".json";
+        try (InputStream meta = NotificationManagerRenderTest.class.getResourceAsStream(path)) {
+            assertNotNull(meta, "Missing font metrics " + path);
+            return new FontAtlas(new InputStreamReader(meta, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}